@@ -12,6 +12,8 @@ package gololang;
 import java.util.AbstractCollection;
 import java.util.Iterator;
 import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 abstract class AbstractRange<T extends Comparable<T>> extends AbstractCollection<T> implements Range<T> {
   private final T from;
@@ -31,6 +33,62 @@ abstract class AbstractRange<T extends Comparable<T>> extends AbstractCollection
 
   }
 
+  /**
+   * Sized spliterator over the values of a range, split by positions.
+   */
+  static final class RangeSpliterator<T extends Comparable<T>> implements Spliterator<T> {
+
+    private static final int CHARACTERISTICS = ORDERED | DISTINCT | NONNULL | IMMUTABLE | SIZED | SUBSIZED;
+
+    private final AbstractRange<T> range;
+    private int index;
+    private final int fence;
+
+    RangeSpliterator(AbstractRange<T> range, int index, int fence) {
+      this.range = range;
+      this.index = index;
+      this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      if (index < fence) {
+        action.accept(range.valueAt(index));
+        index++;
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      for (; index < fence; index++) {
+        action.accept(range.valueAt(index));
+      }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+      int middle = (index + fence) >>> 1;
+      if (middle <= index) {
+        return null;
+      }
+      Spliterator<T> prefix = new RangeSpliterator<>(range, index, middle);
+      index = middle;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+      return CHARACTERISTICS;
+    }
+  }
+
   public AbstractRange(T from, T to) {
     this.from = from;
     this.to = to;
@@ -45,6 +103,23 @@ abstract class AbstractRange<T extends Comparable<T>> extends AbstractCollection
     throw new UnsupportedOperationException("no default value define for this range");
   }
 
+  /**
+   * Gives the value at a position of the range, without checking that it is within the range.
+   */
+  abstract T valueAt(int index);
+
+  /**
+   * Computes the number of values from {@code from} (inclusive) to {@code to} (exclusive) by steps of {@code increment}.
+   */
+  static int size(long from, long to, int increment) {
+    long distance = to - from;
+    if (distance == 0 || (distance > 0) != (increment > 0)) {
+      return 0;
+    }
+    long count = (Math.abs(distance) - 1) / Math.abs((long) increment) + 1;
+    return (int) Math.min(count, Integer.MAX_VALUE);
+  }
+
   @Override
   public T from() {
     return this.from;
@@ -121,6 +196,14 @@ abstract class AbstractRange<T extends Comparable<T>> extends AbstractCollection
     );
   }
 
+  /**
+   * Creates a sized spliterator over the values of this range, that splits evenly.
+   */
+  @Override
+  public Spliterator<T> spliterator() {
+    return new RangeSpliterator<>(this, 0, size());
+  }
+
   @Override
   public T head() {
     if (isEmpty()) {
@@ -13,9 +13,15 @@ import org.eclipse.golo.runtime.TypeMatching;
 import org.eclipse.golo.runtime.adapters.AdapterDefinition;
 import org.eclipse.golo.runtime.adapters.JavaBytecodeAdapterGenerator;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -47,6 +53,9 @@ import java.util.concurrent.atomic.AtomicLong;
  * <li>*-overrides: {@code |handle_in_superclass, method_name, arguments_array|}.</li>
  * </ul>
  * <p>
+ * An adapter class only depends on its parent class and interfaces: makers sharing them share the same generated
+ * class, and the implementation closures are given to each instance when it is constructed.
+ * <p>
  * It is important to note that adapters are useful for interoperability with 3rd-party Java code, as that allow
  * passing adequate objects from Golo to such libraries. Their usage for pure Golo code is discouraged.
  */
@@ -58,11 +67,11 @@ public final class AdapterFabric {
   public static final class Maker {
 
     private final AdapterDefinition adapterDefinition;
-    private final Class<?> adapterClass;
+    private final AdapterConstructor[] constructors;
 
-    private Maker(AdapterDefinition adapterDefinition, Class<?> adapterClass) {
+    private Maker(AdapterDefinition adapterDefinition, AdapterConstructor[] constructors) {
       this.adapterDefinition = adapterDefinition;
-      this.adapterClass = adapterClass;
+      this.constructors = constructors;
     }
 
     /**
@@ -76,11 +85,12 @@ public final class AdapterFabric {
       Object[] cargs = new Object[args.length + 1];
       cargs[0] = adapterDefinition;
       System.arraycopy(args, 0, cargs, 1, args.length);
-      for (Constructor constructor : adapterClass.getConstructors()) {
-        Class[] parameterTypes = constructor.getParameterTypes();
-        if ((cargs.length == parameterTypes.length) || (constructor.isVarArgs() && (cargs.length >= parameterTypes.length))) {
-          if (TypeMatching.canAssign(parameterTypes, cargs, constructor.isVarArgs())) {
-            return constructor.newInstance(cargs);
+      for (AdapterConstructor constructor : constructors) {
+        if (constructor.accepts(cargs)) {
+          try {
+            return constructor.handle.invokeWithArguments(cargs);
+          } catch (Throwable t) {
+            throw new InvocationTargetException(t);
           }
         }
       }
@@ -88,9 +98,47 @@ public final class AdapterFabric {
     }
   }
 
+  private static final class AdapterConstructor {
+
+    private final Class<?>[] parameterTypes;
+    private final boolean varargs;
+    private final MethodHandle handle;
+
+    private AdapterConstructor(Constructor<?> constructor) throws IllegalAccessException {
+      this.parameterTypes = constructor.getParameterTypes();
+      this.varargs = constructor.isVarArgs();
+      this.handle = MethodHandles.publicLookup().unreflectConstructor(constructor);
+    }
+
+    private boolean accepts(Object[] args) {
+      return ((args.length == parameterTypes.length) || (varargs && (args.length >= parameterTypes.length)))
+        && TypeMatching.canAssign(parameterTypes, args, varargs);
+    }
+  }
+
+  private static final class AdapterClass {
+
+    private final String name;
+    private final AdapterConstructor[] constructors;
+
+    private AdapterClass(Class<?> adapterClass) {
+      this.name = adapterClass.getName();
+      Constructor<?>[] classConstructors = adapterClass.getConstructors();
+      this.constructors = new AdapterConstructor[classConstructors.length];
+      try {
+        for (int i = 0; i < classConstructors.length; i++) {
+          this.constructors[i] = new AdapterConstructor(classConstructors[i]);
+        }
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException("Could not access the constructors of " + adapterClass, e);
+      }
+    }
+  }
+
   private final ClassLoader classLoader;
   private final AtomicLong nextId = new AtomicLong();
   private final JavaBytecodeAdapterGenerator adapterGenerator = new JavaBytecodeAdapterGenerator();
+  private final ConcurrentMap<String, AdapterClass> adapterClasses = new ConcurrentHashMap<>();
 
   /**
    * Makes an adapter fabric using a classloader.
@@ -131,16 +179,23 @@ public final class AdapterFabric {
     if (configuration.containsKey("extends")) {
       parent = (String) configuration.get("extends");
     }
-    String name = "$Golo$Adapter$" + nextId.getAndIncrement();
-    AdapterDefinition definition = new AdapterDefinition(classLoader, name, parent);
-
+    TreeSet<String> interfaces = new TreeSet<>();
     if (configuration.containsKey("interfaces")) {
       @SuppressWarnings("unchecked")
-      Iterable<String> interfaces = (Iterable<String>) configuration.get("interfaces");
-      for (String iface : interfaces) {
-        definition.implementsInterface(iface);
+      Iterable<String> declaredInterfaces = (Iterable<String>) configuration.get("interfaces");
+      for (String iface : declaredInterfaces) {
+        interfaces.add(iface);
       }
     }
+    String shape = parent + interfaces;
+    AdapterClass adapterClass = adapterClasses.get(shape);
+    String name = (adapterClass == null)
+      ? "$Golo$Adapter$" + nextId.getAndIncrement()
+      : adapterClass.name;
+    AdapterDefinition definition = new AdapterDefinition(classLoader, name, parent);
+    for (String iface : interfaces) {
+      definition.implementsInterface(iface);
+    }
     if (configuration.containsKey("implements")) {
       @SuppressWarnings("unchecked")
       Map<String, FunctionReference> implementations = (Map<String, FunctionReference>) configuration.get("implements");
@@ -156,7 +211,15 @@ public final class AdapterFabric {
       }
     }
     definition.validate();
-    Class<?> adapterClass = adapterGenerator.generateIntoDefinitionClassloader(definition);
-    return new Maker(definition, adapterClass);
+    if (adapterClass == null) {
+      synchronized (adapterClasses) {
+        adapterClass = adapterClasses.get(shape);
+        if (adapterClass == null) {
+          adapterClass = new AdapterClass(adapterGenerator.generateIntoDefinitionClassloader(definition));
+          adapterClasses.put(shape, adapterClass);
+        }
+      }
+    }
+    return new Maker(definition, adapterClass.constructors);
   }
 }
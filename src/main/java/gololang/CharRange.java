@@ -37,17 +37,12 @@ final class CharRange extends AbstractRange<Character> {
 
   @Override
   public int size() {
-    if (to().equals(from())) {
-      return 0;
-    }
-    final int s = ((int) to() - (int) from()) / increment();
-    if (s < 0) {
-      return 0;
-    }
-    if (s == 0) {
-      return 1;
-    }
-    return s;
+    return size(from(), to(), increment());
+  }
+
+  @Override
+  Character valueAt(int index) {
+    return (char) (from() + index * increment());
   }
 
   @Override
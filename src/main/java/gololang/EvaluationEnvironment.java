@@ -141,6 +141,30 @@ public class EvaluationEnvironment {
     }
   }
 
+  /**
+   * Evaluates a complete module that replaces a module previously loaded in this environment, as in:
+   * <pre>
+   * env: asModule("module foo\n\nfunction a = -> \"a!\"")
+   * env: reload("module foo\n\nfunction a = -> \"A!\"")
+   * </pre>
+   * Call sites of the other modules of this environment that were linked to the previous version of the module link
+   * to the new version on their next invocation.
+   *
+   * @param source the module Golo source code as a string.
+   * @return the new version of the module, as a {@link Class}.
+   * @see GoloClassLoader#reload(String, InputStream)
+   */
+  public Object reload(String source) {
+    try (InputStream in = new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8))) {
+      return goloClassLoader.reload(anonymousFilename(), in);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } catch (GoloCompilationException e) {
+      e.setSourceCode(source);
+      throw e;
+    }
+  }
+
   /**
    * Loads an anonymous module. This is the same as {@link #asModule(String)}, except that the code does not contain
    * a {@code module} declaration.
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The content of a file, read by chunks of bytes.
+ * <p>
+ * The file is opened when an iteration starts, and the chunks are read from a file channel as they are iterated.
+ * Each chunk is given as the same reused {@link ByteBuffer}, ready to be read, that holds the content of the chunk
+ * until the next one is read. All the chunks are full, except possibly the last one. The file is closed once all the
+ * chunks have been read, or when reading fails. An iteration stopped before the last chunk keeps the file open until
+ * {@link #close()} is called.
+ *
+ * @see Predefined#chunks(Object, Object)
+ */
+public final class FileChunks implements Iterable<ByteBuffer>, Closeable {
+
+  private final Path path;
+  private final int size;
+  private final OpenFiles openFiles = new OpenFiles();
+
+  FileChunks(Path path, int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("The chunk size must be positive, got " + size);
+    }
+    this.path = path;
+    this.size = size;
+  }
+
+  /**
+   * Gives an iterator over the chunks.
+   * <p>
+   * Each iterator reads the file in its own buffer.
+   *
+   * @return an iterator opening the file on first use, and reading the next chunk from it when needed.
+   */
+  @Override
+  public Iterator<ByteBuffer> iterator() {
+    return new Iterator<ByteBuffer>() {
+      private final ByteBuffer buffer = ByteBuffer.allocate(size);
+      private FileChannel channel = null;
+      private boolean pending = false;
+      private boolean done = false;
+
+      @Override
+      public boolean hasNext() {
+        if (!pending && !done) {
+          pending = readChunk();
+          done = !pending;
+        }
+        return pending;
+      }
+
+      @Override
+      public ByteBuffer next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        pending = false;
+        return buffer;
+      }
+
+      private boolean readChunk() {
+        try {
+          if (channel == null) {
+            channel = openFiles.add(FileChannel.open(path, StandardOpenOption.READ));
+          }
+          buffer.clear();
+          int read = 0;
+          while (buffer.hasRemaining() && read >= 0) {
+            read = channel.read(buffer);
+          }
+          buffer.flip();
+          if (!buffer.hasRemaining()) {
+            openFiles.close(channel);
+            return false;
+          }
+          return true;
+        } catch (IOException e) {
+          done = true;
+          openFiles.closeQuietly(channel, e);
+          throw new UncheckedIOException(e);
+        }
+      }
+    };
+  }
+
+  /**
+   * Closes the files opened by the iterations that are not over.
+   */
+  @Override
+  public void close() throws IOException {
+    openFiles.closeAll();
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The lines of a text file, read lazily.
+ * <p>
+ * The file is opened when an iteration starts, and the lines are read one at a time from a buffered reader as they
+ * are iterated, so that arbitrarily large files can be processed. The file is closed once all the lines have been
+ * read, or when reading fails. Each iteration reads the file again.
+ * <p>
+ * As with {@link Predefined#fileToText(Object, Object)}, malformed input is replaced by the charset replacement
+ * string instead of failing.
+ * <p>
+ * Lines are {@code Iterable}, so that they can be used in a {@code foreach} loop, or turned into a lazy list with
+ * the {@code asLazyList} augmentation of {@code gololang.LazyLists}. An iteration stopped before the last line keeps
+ * the file open until {@link #close()} is called.
+ *
+ * @see Predefined#lines(Object, Object)
+ */
+public final class FileLines implements Iterable<String>, Closeable {
+
+  private final Path path;
+  private final Charset charset;
+  private final OpenFiles openFiles = new OpenFiles();
+
+  FileLines(Path path, Charset charset) {
+    this.path = path;
+    this.charset = charset;
+  }
+
+  /**
+   * Gives an iterator over the lines.
+   *
+   * @return an iterator opening the file on first use, and reading the next line from it when needed.
+   */
+  @Override
+  public Iterator<String> iterator() {
+    return new Iterator<String>() {
+      private BufferedReader reader = null;
+      private String next = null;
+      private boolean done = false;
+
+      @Override
+      public boolean hasNext() {
+        if (next == null && !done) {
+          next = readLine();
+          done = next == null;
+        }
+        return !done;
+      }
+
+      @Override
+      public String next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        String line = next;
+        next = null;
+        return line;
+      }
+
+      private String readLine() {
+        try {
+          if (reader == null) {
+            reader = openFiles.add(new BufferedReader(new InputStreamReader(
+                Files.newInputStream(path),
+                charset.newDecoder()
+                  .onMalformedInput(CodingErrorAction.REPLACE)
+                  .onUnmappableCharacter(CodingErrorAction.REPLACE))));
+          }
+          String line = reader.readLine();
+          if (line == null) {
+            openFiles.close(reader);
+          }
+          return line;
+        } catch (IOException e) {
+          throw new UncheckedIOException(failed(e));
+        } catch (RuntimeException e) {
+          throw failed(e);
+        }
+      }
+
+      private <T extends Exception> T failed(T error) {
+        done = true;
+        openFiles.closeQuietly(reader, error);
+        return error;
+      }
+    };
+  }
+
+  /**
+   * Closes the files opened by the iterations that are not over.
+   */
+  @Override
+  public void close() throws IOException {
+    openFiles.closeAll();
+  }
+}
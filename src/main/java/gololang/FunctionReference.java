@@ -31,7 +31,11 @@ import static java.lang.invoke.MethodHandles.filterReturnValue;
  */
 public class FunctionReference {
 
-  private final MethodHandle handle;
+  private MethodHandle handle;
+
+  private final MethodHandle entryPoint;
+
+  private final boolean varargs;
 
   private final String[] parameterNames;
 
@@ -47,6 +51,30 @@ public class FunctionReference {
       throw new IllegalArgumentException("A method handle cannot be null");
     }
     this.handle = handle;
+    this.entryPoint = null;
+    this.varargs = false;
+    this.parameterNames = parameterNames;
+  }
+
+  /**
+   * Makes a function reference for a closure whose captured values are held by a subclass.
+   * <p>
+   * The entry point takes the function reference as first argument, followed by the closure arguments. It must be
+   * the same for all the instances of the subclass, so that call sites can be linked once for all the closures
+   * created from the same code. The method handle of the reference is only bound when requested.
+   *
+   * @param entryPoint the entry point of the closure.
+   * @param varargs whether the closure takes variable arguments.
+   * @param parameterNames the closure parameter's names.
+   * @throws IllegalArgumentException if {@code entryPoint} is {@code null}.
+   */
+  protected FunctionReference(MethodHandle entryPoint, boolean varargs, String[] parameterNames) {
+    if (entryPoint == null) {
+      throw new IllegalArgumentException("A method handle cannot be null");
+    }
+    this.handle = null;
+    this.entryPoint = entryPoint;
+    this.varargs = varargs;
     this.parameterNames = parameterNames;
   }
 
@@ -67,9 +95,28 @@ public class FunctionReference {
    * @return the (boxed) method handle.
    */
   public MethodHandle handle() {
+    if (handle == null) {
+      MethodHandle bound = entryPoint.bindTo(this);
+      handle = varargs ? bound.asVarargsCollector(Object[].class) : bound;
+    }
     return handle;
   }
 
+  /**
+   * Gives the entry point of a closure that holds its captured values.
+   *
+   * @return the entry point, taking this function reference as first argument, or {@code null} if this reference
+   * directly wraps a method handle.
+   * @see #FunctionReference(MethodHandle, boolean, String[])
+   */
+  public MethodHandle entryPoint() {
+    if (entryPoint == null) {
+      return null;
+    }
+    MethodHandle generic = entryPoint.asType(entryPoint.type().changeParameterType(0, FunctionReference.class));
+    return varargs ? generic.asVarargsCollector(Object[].class) : generic;
+  }
+
   /**
    * Get the target function parameter's names
    *
@@ -80,11 +127,11 @@ public class FunctionReference {
   }
 
   public MethodType type() {
-    return handle.type();
+    return handle().type();
   }
 
   public FunctionReference asCollector(Class<?> arrayType, int arrayLength) {
-    return new FunctionReference(handle.asCollector(arrayType, arrayLength), this.parameterNames);
+    return new FunctionReference(handle().asCollector(arrayType, arrayLength), this.parameterNames);
   }
 
   public FunctionReference asCollector(int arrayLength) {
@@ -92,15 +139,15 @@ public class FunctionReference {
   }
 
   public FunctionReference asFixedArity() {
-    return new FunctionReference(handle.asFixedArity(), this.parameterNames);
+    return new FunctionReference(handle().asFixedArity(), this.parameterNames);
   }
 
   public FunctionReference asType(MethodType newType) {
-    return new FunctionReference(handle.asType(newType), this.parameterNames);
+    return new FunctionReference(handle().asType(newType), this.parameterNames);
   }
 
   public FunctionReference asVarargsCollector(Class<?> arrayType) {
-    return new FunctionReference(handle.asVarargsCollector(arrayType), this.parameterNames);
+    return new FunctionReference(handle().asVarargsCollector(arrayType), this.parameterNames);
   }
 
   public FunctionReference asVarargsCollector() {
@@ -108,15 +155,15 @@ public class FunctionReference {
   }
 
   public FunctionReference bindTo(Object x) {
-    return new FunctionReference(handle.bindTo(x), dropParameterNames(0, 1));
+    return new FunctionReference(handle().bindTo(x), dropParameterNames(0, 1));
   }
 
   public boolean isVarargsCollector() {
-    return handle.isVarargsCollector();
+    return handle().isVarargsCollector();
   }
 
   public FunctionReference asSpreader(Class<?> arrayType, int arrayLength) {
-    return new FunctionReference(handle.asSpreader(arrayType, arrayLength));
+    return new FunctionReference(handle().asSpreader(arrayType, arrayLength));
   }
 
   public FunctionReference asSpreader(int arrayLength) {
@@ -135,7 +182,7 @@ public class FunctionReference {
    * @return the number of declared parameter
    */
   public int arity() {
-    return handle.type().parameterCount();
+    return handle().type().parameterCount();
   }
 
   /**
@@ -146,7 +193,7 @@ public class FunctionReference {
   }
 
   public Object invoke(Object... args) throws Throwable {
-    return handle.invokeWithArguments(args);
+    return handle().invokeWithArguments(args);
   }
 
   /**
@@ -160,13 +207,13 @@ public class FunctionReference {
     if (args.length < arity()) {
       return insertArguments(0, args);
     }
-    return handle.invokeWithArguments(args);
+    return handle().invokeWithArguments(args);
   }
 
   @Override
   public String toString() {
     return "FunctionReference{" +
-        "handle=" + (handle.isVarargsCollector() ? "(varargs)" : "") + handle +
+        "handle=" + (handle().isVarargsCollector() ? "(varargs)" : "") + handle() +
         ", parameterNames=" + Arrays.toString(parameterNames) +
         '}';
   }
@@ -180,12 +227,12 @@ public class FunctionReference {
       return false;
     }
     FunctionReference that = (FunctionReference) obj;
-    return handle.equals(that.handle);
+    return handle().equals(that.handle());
   }
 
   @Override
   public int hashCode() {
-    return handle.hashCode();
+    return handle().hashCode();
   }
 
   /**
@@ -207,15 +254,15 @@ public class FunctionReference {
   public FunctionReference andThen(FunctionReference fun) {
     MethodHandle other = null;
     if (fun.isVarargsCollector() && fun.arity() == 1) {
-      other = fun.handle.asCollector(Object[].class, 1);
+      other = fun.handle().asCollector(Object[].class, 1);
     } else if (fun.isVarargsCollector() && fun.arity() == 2) {
-      other = MethodHandles.insertArguments(fun.handle, 1, new Object[]{new Object[0]});
+      other = MethodHandles.insertArguments(fun.handle(), 1, new Object[]{new Object[0]});
     } else if (fun.arity() == 1) {
-      other = fun.handle;
+      other = fun.handle();
     } else {
       throw new IllegalArgumentException("`andThen` requires a function that can be applied to 1 parameter");
     }
-    return new FunctionReference(filterReturnValue(this.handle, other), this.parameterNames);
+    return new FunctionReference(filterReturnValue(handle(), other), this.parameterNames);
   }
 
   /*
@@ -241,7 +288,7 @@ public class FunctionReference {
    * @return a partially applied function.
    */
   public FunctionReference bindAt(int position, Object value) {
-    return new FunctionReference(MethodHandles.insertArguments(this.handle, position, value), dropParameterNames(position, 1));
+    return new FunctionReference(MethodHandles.insertArguments(handle(), position, value), dropParameterNames(position, 1));
   }
 
   /**
@@ -280,8 +327,8 @@ public class FunctionReference {
     if (values.length == 0) {
       return this;
     }
-    MethodHandle bounded = MethodHandles.insertArguments(handle, position, values);
-    if (handle.isVarargsCollector()) {
+    MethodHandle bounded = MethodHandles.insertArguments(handle(), position, values);
+    if (handle().isVarargsCollector()) {
       bounded = bounded.asVarargsCollector(Object[].class);
     }
     return new FunctionReference(bounded, dropParameterNames(position, values.length));
@@ -296,13 +343,13 @@ public class FunctionReference {
    */
   public Object spread(Object... arguments) throws Throwable {
     int arity = arity();
-    if (this.handle.isVarargsCollector() && (arity > 0) && (arguments[arity - 1] instanceof Object[])) {
-      return this.handle
+    if (handle().isVarargsCollector() && (arity > 0) && (arguments[arity - 1] instanceof Object[])) {
+      return handle()
           .asFixedArity()
           .asSpreader(Object[].class, arguments.length)
           .invoke(arguments);
     }
-    return this.handle
+    return handle()
         .asSpreader(Object[].class, arguments.length)
         .invoke(arguments);
   }
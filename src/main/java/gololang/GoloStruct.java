@@ -162,7 +162,7 @@ public abstract class GoloStruct implements Iterable<Tuple>, Comparable<GoloStru
 
       @Override
       public Tuple next() {
-        return new Tuple(memberIterator.next(), valuesIterator.next());
+        return Tuple.fromArray(new Object[]{memberIterator.next(), valuesIterator.next()});
       }
 
       @Override
@@ -11,7 +11,7 @@ package gololang;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Objects;
+import java.util.stream.IntStream;
 
 final class IntRange extends AbstractRange<Integer> {
 
@@ -35,17 +35,12 @@ final class IntRange extends AbstractRange<Integer> {
 
   @Override
   public int size() {
-    if (Objects.equals(to(), from())) {
-      return 0;
-    }
-    final int theSize = (to() - from()) / increment();
-    if (theSize < 0) {
-      return 0;
-    }
-    if (theSize == 0) {
-      return 1;
-    }
-    return theSize;
+    return size(from(), to(), increment());
+  }
+
+  @Override
+  Integer valueAt(int index) {
+    return from() + index * increment();
   }
 
   @Override
@@ -96,4 +91,17 @@ final class IntRange extends AbstractRange<Integer> {
       }
     };
   }
+
+  /**
+   * Gives a stream of the values of this range, as primitive {@code int} values.
+   * <p>
+   * The stream is sized, and splits evenly when made parallel.
+   *
+   * @return an {@code IntStream} of the range values.
+   */
+  public IntStream intStream() {
+    final int from = from();
+    final int increment = increment();
+    return IntStream.range(0, size()).map(i -> from + i * increment);
+  }
 }
@@ -14,6 +14,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * Represents a lazy list object.
@@ -134,6 +136,19 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
     return new HeadTailIterator<Object>(this);
   }
 
+  /**
+   * Creates a spliterator over the list that does not compute its size.
+   * <p>
+   * Since the size of a lazy list is only known once all its elements are evaluated, the
+   * spliterator splits by batches of elements taken from the head of the list.
+   *
+   * @return a spliterator.
+   */
+  @Override
+  public Spliterator<Object> spliterator() {
+    return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+  }
+
   /**
    * Convert the lazy list into a regular list.
    * <p>
@@ -238,7 +253,7 @@ public class LazyList implements Collection<Object>, HeadTail<Object> {
    * @return a tuple of head and tail
    */
   public Tuple destruct() {
-    return new Tuple(head(), tail());
+    return Tuple.fromArray(new Object[]{head(), tail()});
   }
 
   /**
@@ -11,7 +11,7 @@ package gololang;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.Objects;
+import java.util.stream.LongStream;
 
 final class LongRange extends AbstractRange<Long> {
 
@@ -35,17 +35,12 @@ final class LongRange extends AbstractRange<Long> {
 
   @Override
   public int size() {
-    if (Objects.equals(to(), from())) {
-      return 0;
-    }
-    final int theSize = (int) ((to() - from()) / increment());
-    if (theSize < 0) {
-      return 0;
-    }
-    if (theSize == 0) {
-      return 1;
-    }
-    return theSize;
+    return size(from(), to(), increment());
+  }
+
+  @Override
+  Long valueAt(int index) {
+    return from() + (long) index * increment();
   }
 
   @Override
@@ -96,4 +91,17 @@ final class LongRange extends AbstractRange<Long> {
       }
     };
   }
+
+  /**
+   * Gives a stream of the values of this range, as primitive {@code long} values.
+   * <p>
+   * The stream is sized, and splits evenly when made parallel.
+   *
+   * @return a {@code LongStream} of the range values.
+   */
+  public LongStream longStream() {
+    final long from = from();
+    final long increment = increment();
+    return LongStream.range(0, size()).map(i -> from + i * increment);
+  }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only memory-mapped view of a file.
+ * <p>
+ * The file is mapped by regions of 1 GiB, so that files larger than 2 GiB can be accessed at any offset without
+ * being read in memory. Closing the view closes the file; the mapped regions are released by the garbage collector.
+ *
+ * @see Predefined#mapFile(Object)
+ */
+public final class MappedFile implements Closeable {
+
+  private static final int REGION_BITS = 30;
+  private static final long REGION_SIZE = 1L << REGION_BITS;
+  private static final long REGION_MASK = REGION_SIZE - 1;
+
+  private final FileChannel channel;
+  private final long size;
+  private final MappedByteBuffer[] regions;
+
+  MappedFile(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.size = channel.size();
+    this.regions = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) >>> REGION_BITS)];
+    for (int i = 0; i < regions.length; i++) {
+      long position = i * REGION_SIZE;
+      regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, size - position));
+    }
+  }
+
+  /**
+   * @return the size of the file in bytes.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Gets a byte of the file.
+   *
+   * @param index the offset of the byte in the file, as an {@code Integer} or a {@code Long}.
+   * @return the byte at this offset.
+   */
+  public byte get(Number index) {
+    return byteAt(index.longValue());
+  }
+
+  private byte byteAt(long index) {
+    checkRange(index, 1);
+    return regions[(int) (index >>> REGION_BITS)].get((int) (index & REGION_MASK));
+  }
+
+  /**
+   * Copies a range of bytes of the file.
+   *
+   * @param offset the offset of the first byte in the file, as an {@code Integer} or a {@code Long}.
+   * @param length the number of bytes.
+   * @return a new array of the bytes.
+   */
+  public byte[] bytes(Number offset, int length) {
+    return copy(offset.longValue(), length);
+  }
+
+  private byte[] copy(long offset, int length) {
+    checkRange(offset, length);
+    byte[] result = new byte[length];
+    int copied = 0;
+    while (copied < length) {
+      long position = offset + copied;
+      ByteBuffer region = regions[(int) (position >>> REGION_BITS)].duplicate();
+      region.position((int) (position & REGION_MASK));
+      int count = Math.min(length - copied, region.remaining());
+      region.get(result, copied, count);
+      copied = copied + count;
+    }
+    return result;
+  }
+
+  /**
+   * Decodes a range of bytes of the file as text.
+   *
+   * @param offset the offset of the first byte in the file, as an {@code Integer} or a {@code Long}.
+   * @param length the number of bytes.
+   * @param charset the charset of the text.
+   * @return the decoded text.
+   */
+  public String text(Number offset, int length, Charset charset) {
+    return new String(bytes(offset, length), charset);
+  }
+
+  /**
+   * Decodes a range of bytes of the file as text in the default charset.
+   *
+   * @param offset the offset of the first byte in the file, as an {@code Integer} or a {@code Long}.
+   * @param length the number of bytes.
+   * @return the decoded text.
+   */
+  public String text(Number offset, int length) {
+    return text(offset, length, Charset.defaultCharset());
+  }
+
+  /**
+   * Searches a byte value in the file.
+   *
+   * @param value the byte value, such as {@code 10} for a line feed.
+   * @param from the offset to start searching from.
+   * @return the offset of the first matching byte from {@code from}, or {@code -1} if not found.
+   */
+  public long indexOf(int value, Number from) {
+    byte searched = (byte) value;
+    for (long index = Math.max(from.longValue(), 0); index < size; index++) {
+      if (regions[(int) (index >>> REGION_BITS)].get((int) (index & REGION_MASK)) == searched) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  private void checkRange(long offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > size) {
+      throw new IndexOutOfBoundsException("Range [" + offset + ", " + (offset + length) + ") out of file of size " + size);
+    }
+  }
+
+  /**
+   * Closes the underlying file.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The files opened by the iterations of a lazily read file, so that they can be closed together.
+ */
+final class OpenFiles {
+
+  private final Set<Closeable> files = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  synchronized <T extends Closeable> T add(T file) {
+    files.add(file);
+    return file;
+  }
+
+  void close(Closeable file) throws IOException {
+    synchronized (this) {
+      files.remove(file);
+    }
+    file.close();
+  }
+
+  void closeQuietly(Closeable file, Exception cause) {
+    if (file == null) {
+      return;
+    }
+    try {
+      close(file);
+    } catch (IOException e) {
+      cause.addSuppressed(e);
+    }
+  }
+
+  void closeAll() throws IOException {
+    List<Closeable> opened;
+    synchronized (this) {
+      opened = new ArrayList<>(files);
+      files.clear();
+    }
+    IOException error = null;
+    for (Closeable file : opened) {
+      try {
+        file.close();
+      } catch (IOException e) {
+        if (error == null) {
+          error = e;
+        } else {
+          error.addSuppressed(e);
+        }
+      }
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Represents a persistent hash map.
+ * <p>
+ * A persistent map is an immutable map whose "modifying" operations return a new map sharing most
+ * of its structure with the original one. Entries are stored in a hash array mapped trie, so that
+ * lookups, {@link #assoc(Object, Object)} and {@link #dissoc(Object)} run in <code>O(log32 n)</code>.
+ * Since instances are never mutated, they can be freely shared between threads without any
+ * synchronization.
+ * <p>
+ * In Golo, persistent maps are created using the <code>persistentMap</code> predefined function:
+ * <pre>
+ * let m1 = persistentMap(["a", 1], ["b", 2])
+ * let m2 = m1: assoc("c", 3)
+ * let m3 = m2: dissoc("a")
+ * </pre>
+ * The iteration order is unspecified, and the mutating methods of {@link java.util.Map} throw
+ * {@link UnsupportedOperationException}.
+ */
+public final class PersistentMap extends AbstractMap<Object, Object> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final Object NOT_FOUND = new Object();
+
+  private static final PersistentMap EMPTY = new PersistentMap(0, null, false, null);
+
+  private final int count;
+  private final Node root;
+  private final boolean hasNull;
+  private final Object nullValue;
+
+  private PersistentMap(int count, Node root, boolean hasNull, Object nullValue) {
+    this.count = count;
+    this.root = root;
+    this.hasNull = hasNull;
+    this.nullValue = nullValue;
+  }
+
+  /**
+   * Returns the empty persistent map.
+   *
+   * @return the empty map.
+   */
+  public static PersistentMap empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a persistent map from the entries of another map.
+   *
+   * @param map the entries to copy.
+   * @return a new map.
+   */
+  public static PersistentMap fromMap(Map<?, ?> map) {
+    if (map instanceof PersistentMap) {
+      return (PersistentMap) map;
+    }
+    PersistentMap result = EMPTY;
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      result = result.assoc(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  @Override
+  public int size() {
+    return count;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  private Object find(Object key) {
+    if (key == null) {
+      return hasNull ? nullValue : NOT_FOUND;
+    }
+    if (root == null) {
+      return NOT_FOUND;
+    }
+    return root.find(0, hash(key), key);
+  }
+
+  @Override
+  public Object get(Object key) {
+    Object value = find(key);
+    return (value == NOT_FOUND) ? null : value;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(key) != NOT_FOUND;
+  }
+
+  /**
+   * Returns a new map where a key is associated to a value.
+   *
+   * @param key the key.
+   * @param value the value.
+   * @return a new map, or this map if the key is already associated to the very same value.
+   */
+  public PersistentMap assoc(Object key, Object value) {
+    if (key == null) {
+      if (hasNull && nullValue == value) {
+        return this;
+      }
+      return new PersistentMap(hasNull ? count : count + 1, root, true, value);
+    }
+    boolean[] added = new boolean[1];
+    Node start = (root == null) ? BitmapNode.EMPTY : root;
+    Node newRoot = start.assoc(0, hash(key), key, value, added);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentMap(added[0] ? count + 1 : count, newRoot, hasNull, nullValue);
+  }
+
+  /**
+   * Returns a new map without a key.
+   *
+   * @param key the key to remove.
+   * @return a new map, or this map if the key is not present.
+   */
+  public PersistentMap dissoc(Object key) {
+    if (key == null) {
+      return hasNull ? new PersistentMap(count - 1, root, false, null) : this;
+    }
+    if (root == null) {
+      return this;
+    }
+    Node newRoot = root.without(0, hash(key), key);
+    if (newRoot == root) {
+      return this;
+    }
+    return new PersistentMap(count - 1, newRoot, hasNull, nullValue);
+  }
+
+  @Override
+  public Set<Map.Entry<Object, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<Object, Object>>() {
+      @Override
+      public int size() {
+        return count;
+      }
+
+      @Override
+      public Iterator<Map.Entry<Object, Object>> iterator() {
+        return new EntryIterator();
+      }
+    };
+  }
+
+  private final class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+
+    private final Deque<Object[]> arrays = new ArrayDeque<>();
+    private final Deque<Integer> positions = new ArrayDeque<>();
+    private boolean pendingNull = hasNull;
+    private Map.Entry<Object, Object> next;
+
+    EntryIterator() {
+      if (root != null) {
+        arrays.push(root.array);
+        positions.push(0);
+      }
+      advance();
+    }
+
+    private void advance() {
+      next = null;
+      if (pendingNull) {
+        pendingNull = false;
+        next = new AbstractMap.SimpleImmutableEntry<>(null, nullValue);
+        return;
+      }
+      while (!arrays.isEmpty()) {
+        Object[] array = arrays.peek();
+        int position = positions.pop();
+        if (position >= array.length) {
+          arrays.pop();
+          continue;
+        }
+        positions.push(position + 2);
+        Object key = array[position];
+        Object value = array[position + 1];
+        if (key == null) {
+          arrays.push(((Node) value).array);
+          positions.push(0);
+        } else {
+          next = new AbstractMap.SimpleImmutableEntry<>(key, value);
+          return;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<Object, Object> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      Map.Entry<Object, Object> result = next;
+      advance();
+      return result;
+    }
+  }
+
+  /*
+   * Trie nodes store their content as key / value pairs in a flat array. Keys are never null (the
+   * null key is kept aside by the map), so a null key marks a slot holding a sub-node as its value.
+   */
+  private abstract static class Node {
+
+    final Object[] array;
+
+    Node(Object[] array) {
+      this.array = array;
+    }
+
+    abstract Object find(int shift, int hash, Object key);
+
+    abstract Node assoc(int shift, int hash, Object key, Object value, boolean[] added);
+
+    // returns this if the key is absent, and null if the resulting node is empty
+    abstract Node without(int shift, int hash, Object key);
+  }
+
+  private static final class BitmapNode extends Node {
+
+    static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+
+    BitmapNode(int bitmap, Object[] array) {
+      super(array);
+      this.bitmap = bitmap;
+    }
+
+    private static int bitFor(int hash, int shift) {
+      return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private int indexOf(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1)) << 1;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      int bit = bitFor(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      int index = indexOf(bit);
+      Object storedKey = array[index];
+      Object storedValue = array[index + 1];
+      if (storedKey == null) {
+        return ((Node) storedValue).find(shift + BITS, hash, key);
+      }
+      return key.equals(storedKey) ? storedValue : NOT_FOUND;
+    }
+
+    @Override
+    Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+      int bit = bitFor(hash, shift);
+      int index = indexOf(bit);
+      if ((bitmap & bit) == 0) {
+        added[0] = true;
+        Object[] newArray = new Object[array.length + 2];
+        System.arraycopy(array, 0, newArray, 0, index);
+        newArray[index] = key;
+        newArray[index + 1] = value;
+        System.arraycopy(array, index, newArray, index + 2, array.length - index);
+        return new BitmapNode(bitmap | bit, newArray);
+      }
+      Object storedKey = array[index];
+      Object storedValue = array[index + 1];
+      if (storedKey == null) {
+        Node child = (Node) storedValue;
+        Node newChild = child.assoc(shift + BITS, hash, key, value, added);
+        if (newChild == child) {
+          return this;
+        }
+        return new BitmapNode(bitmap, cloneAndSet(array, index + 1, newChild));
+      }
+      if (key.equals(storedKey)) {
+        if (storedValue == value) {
+          return this;
+        }
+        return new BitmapNode(bitmap, cloneAndSet(array, index + 1, value));
+      }
+      added[0] = true;
+      Object[] newArray = array.clone();
+      newArray[index] = null;
+      newArray[index + 1] = createNode(shift + BITS, storedKey, storedValue, hash, key, value);
+      return new BitmapNode(bitmap, newArray);
+    }
+
+    @Override
+    Node without(int shift, int hash, Object key) {
+      int bit = bitFor(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      int index = indexOf(bit);
+      Object storedKey = array[index];
+      Object storedValue = array[index + 1];
+      if (storedKey == null) {
+        Node child = (Node) storedValue;
+        Node newChild = child.without(shift + BITS, hash, key);
+        if (newChild == child) {
+          return this;
+        }
+        if (newChild != null) {
+          return new BitmapNode(bitmap, cloneAndSet(array, index + 1, newChild));
+        }
+      } else if (!key.equals(storedKey)) {
+        return this;
+      }
+      if (bitmap == bit) {
+        return null;
+      }
+      Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, index);
+      System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+      return new BitmapNode(bitmap ^ bit, newArray);
+    }
+
+    private static Node createNode(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+      int hash1 = hash(key1);
+      if (hash1 == hash2) {
+        return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+      }
+      boolean[] added = new boolean[1];
+      return EMPTY
+        .assoc(shift, hash1, key1, value1, added)
+        .assoc(shift, hash2, key2, value2, added);
+    }
+  }
+
+  private static final class CollisionNode extends Node {
+
+    private final int hash;
+
+    CollisionNode(int hash, Object[] array) {
+      super(array);
+      this.hash = hash;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (key.equals(array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object find(int shift, int hash, Object key) {
+      if (hash != this.hash) {
+        return NOT_FOUND;
+      }
+      int index = indexOf(key);
+      return (index < 0) ? NOT_FOUND : array[index + 1];
+    }
+
+    @Override
+    Node assoc(int shift, int hash, Object key, Object value, boolean[] added) {
+      if (hash != this.hash) {
+        Node parent = new BitmapNode(BitmapNode.bitFor(this.hash, shift), new Object[]{null, this});
+        return parent.assoc(shift, hash, key, value, added);
+      }
+      int index = indexOf(key);
+      if (index >= 0) {
+        if (array[index + 1] == value) {
+          return this;
+        }
+        return new CollisionNode(hash, cloneAndSet(array, index + 1, value));
+      }
+      added[0] = true;
+      Object[] newArray = new Object[array.length + 2];
+      System.arraycopy(array, 0, newArray, 0, array.length);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      return new CollisionNode(hash, newArray);
+    }
+
+    @Override
+    Node without(int shift, int hash, Object key) {
+      if (hash != this.hash) {
+        return this;
+      }
+      int index = indexOf(key);
+      if (index < 0) {
+        return this;
+      }
+      if (array.length == 2) {
+        return null;
+      }
+      Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, index);
+      System.arraycopy(array, index + 2, newArray, index, array.length - index - 2);
+      return new CollisionNode(hash, newArray);
+    }
+  }
+
+  private static Object[] cloneAndSet(Object[] array, int index, Object value) {
+    Object[] result = array.clone();
+    result[index] = value;
+    return result;
+  }
+}
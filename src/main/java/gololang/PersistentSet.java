@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+/**
+ * Represents a persistent hash set.
+ * <p>
+ * A persistent set is an immutable set backed by a {@link PersistentMap}: {@link #conj(Object)} and
+ * {@link #disj(Object)} return a new set sharing most of its structure with the original one, in
+ * <code>O(log32 n)</code>. Since instances are never mutated, they can be freely shared between
+ * threads without any synchronization.
+ * <p>
+ * In Golo, persistent sets are created using the <code>persistentSet</code> predefined function:
+ * <pre>
+ * let s1 = persistentSet(1, 2, 3)
+ * let s2 = s1: conj(4)
+ * let s3 = s2: disj(1)
+ * </pre>
+ * The iteration order is unspecified, and the mutating methods of {@link java.util.Set} throw
+ * {@link UnsupportedOperationException}.
+ */
+public final class PersistentSet extends AbstractSet<Object> {
+
+  private static final PersistentSet EMPTY = new PersistentSet(PersistentMap.empty());
+
+  private final PersistentMap map;
+
+  private PersistentSet(PersistentMap map) {
+    this.map = map;
+  }
+
+  /**
+   * Returns the empty persistent set.
+   *
+   * @return the empty set.
+   */
+  public static PersistentSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a persistent set from an iterable.
+   *
+   * @param values the values.
+   * @return a new set.
+   */
+  public static PersistentSet fromIterable(Iterable<?> values) {
+    if (values instanceof PersistentSet) {
+      return (PersistentSet) values;
+    }
+    PersistentSet result = EMPTY;
+    for (Object value : values) {
+      result = result.conj(value);
+    }
+    return result;
+  }
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return map.isEmpty();
+  }
+
+  @Override
+  public boolean contains(Object element) {
+    return map.containsKey(element);
+  }
+
+  /**
+   * Returns a new set including an element.
+   *
+   * @param element the element to add.
+   * @return a new set, or this set if the element is already present.
+   */
+  public PersistentSet conj(Object element) {
+    PersistentMap newMap = map.assoc(element, Boolean.TRUE);
+    return (newMap == map) ? this : new PersistentSet(newMap);
+  }
+
+  /**
+   * Returns a new set without an element.
+   *
+   * @param element the element to remove.
+   * @return a new set, or this set if the element is not present.
+   */
+  public PersistentSet disj(Object element) {
+    PersistentMap newMap = map.dissoc(element);
+    return (newMap == map) ? this : new PersistentSet(newMap);
+  }
+
+  @Override
+  public Iterator<Object> iterator() {
+    return map.keySet().iterator();
+  }
+}
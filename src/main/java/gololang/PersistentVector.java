@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Represents a persistent vector.
+ * <p>
+ * A persistent vector is an immutable list whose "modifying" operations return a new vector sharing
+ * most of its structure with the original one. Values are stored in a 32-way trie whose last leaf
+ * (the tail) is kept aside, so that indexed access, update and {@link #append(Object)} run in
+ * <code>O(log32 n)</code>, which is practically constant time. Since instances are never mutated,
+ * they can be freely shared between threads without any synchronization.
+ * <p>
+ * In Golo, persistent vectors are created using the <code>persistentVector</code> predefined function:
+ * <pre>
+ * let v1 = persistentVector(1, 2, 3)
+ * let v2 = v1: append(4)
+ * let v3 = v2: update(0, 42)
+ * </pre>
+ * The mutating methods of {@link java.util.List} throw {@link UnsupportedOperationException}.
+ */
+public final class PersistentVector extends AbstractList<Object> implements RandomAccess {
+
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+  private static final PersistentVector EMPTY = new PersistentVector(0, BITS, EMPTY_NODE, new Object[0]);
+
+  private final int count;
+  private final int shift;
+  private final Object[] root;
+  private final Object[] tail;
+
+  private PersistentVector(int count, int shift, Object[] root, Object[] tail) {
+    this.count = count;
+    this.shift = shift;
+    this.root = root;
+    this.tail = tail;
+  }
+
+  /**
+   * Returns the empty persistent vector.
+   *
+   * @return the empty vector.
+   */
+  public static PersistentVector empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Creates a persistent vector from an array of values.
+   * <p>
+   * The trie is built bottom-up in linear time, and the given array is not retained.
+   *
+   * @param values the values.
+   * @return a new vector.
+   */
+  public static PersistentVector fromArray(Object[] values) {
+    int length = values.length;
+    if (length == 0) {
+      return EMPTY;
+    }
+    int tailOffset = tailOffset(length);
+    Object[] tail = Arrays.copyOfRange(values, tailOffset, length, Object[].class);
+    if (tailOffset == 0) {
+      return new PersistentVector(length, BITS, EMPTY_NODE, tail);
+    }
+    List<Object[]> nodes = new ArrayList<>(tailOffset >>> BITS);
+    for (int i = 0; i < tailOffset; i += WIDTH) {
+      nodes.add(Arrays.copyOfRange(values, i, i + WIDTH, Object[].class));
+    }
+    int shift = BITS;
+    while (nodes.size() > WIDTH) {
+      List<Object[]> parents = new ArrayList<>((nodes.size() + MASK) >>> BITS);
+      for (int i = 0; i < nodes.size(); i += WIDTH) {
+        parents.add(nodes.subList(i, Math.min(i + WIDTH, nodes.size())).toArray(new Object[WIDTH]));
+      }
+      nodes = parents;
+      shift += BITS;
+    }
+    return new PersistentVector(length, shift, nodes.toArray(new Object[WIDTH]), tail);
+  }
+
+  /**
+   * Creates a persistent vector from an iterable.
+   *
+   * @param values the values.
+   * @return a new vector.
+   */
+  public static PersistentVector fromIterable(Iterable<?> values) {
+    if (values instanceof PersistentVector) {
+      return (PersistentVector) values;
+    }
+    List<Object> buffer = new ArrayList<>();
+    for (Object value : values) {
+      buffer.add(value);
+    }
+    return fromArray(buffer.toArray());
+  }
+
+  private static int tailOffset(int count) {
+    if (count < WIDTH) {
+      return 0;
+    }
+    return ((count - 1) >>> BITS) << BITS;
+  }
+
+  private Object[] arrayFor(int index) {
+    if (index >= tailOffset(count)) {
+      return tail;
+    }
+    Object[] node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      node = (Object[]) node[(index >>> level) & MASK];
+    }
+    return node;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException(index + " is out of bounds (size=" + count + ")");
+    }
+  }
+
+  @Override
+  public int size() {
+    return count;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  @Override
+  public Object get(int index) {
+    checkIndex(index);
+    return arrayFor(index)[index & MASK];
+  }
+
+  /**
+   * Returns a new vector with an additional value at the end.
+   *
+   * @param value the value to append.
+   * @return a new vector.
+   */
+  public PersistentVector append(Object value) {
+    if (count - tailOffset(count) < WIDTH) {
+      Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+      newTail[tail.length] = value;
+      return new PersistentVector(count + 1, shift, root, newTail);
+    }
+    Object[] newRoot;
+    int newShift = shift;
+    if ((count >>> BITS) > (1 << shift)) {
+      newRoot = new Object[WIDTH];
+      newRoot[0] = root;
+      newRoot[1] = newPath(shift, tail);
+      newShift += BITS;
+    } else {
+      newRoot = pushTail(shift, root, tail);
+    }
+    return new PersistentVector(count + 1, newShift, newRoot, new Object[]{value});
+  }
+
+  private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+    int index = ((count - 1) >>> level) & MASK;
+    Object[] result = parent.clone();
+    if (level == BITS) {
+      result[index] = tailNode;
+    } else {
+      Object[] child = (Object[]) parent[index];
+      result[index] = (child != null)
+          ? pushTail(level - BITS, child, tailNode)
+          : newPath(level - BITS, tailNode);
+    }
+    return result;
+  }
+
+  private static Object[] newPath(int level, Object[] node) {
+    if (level == 0) {
+      return node;
+    }
+    Object[] result = new Object[WIDTH];
+    result[0] = newPath(level - BITS, node);
+    return result;
+  }
+
+  /**
+   * Returns a new vector where the value at a given index has been replaced.
+   * <p>
+   * Using the vector size as index is the same as calling {@link #append(Object)}.
+   *
+   * @param index the index.
+   * @param value the new value.
+   * @return a new vector.
+   * @throws IndexOutOfBoundsException if the index is not within <code>[0, size()]</code>.
+   */
+  public PersistentVector update(int index, Object value) {
+    if (index == count) {
+      return append(value);
+    }
+    checkIndex(index);
+    if (index >= tailOffset(count)) {
+      Object[] newTail = tail.clone();
+      newTail[index & MASK] = value;
+      return new PersistentVector(count, shift, root, newTail);
+    }
+    return new PersistentVector(count, shift, doAssoc(shift, root, index, value), tail);
+  }
+
+  private static Object[] doAssoc(int level, Object[] node, int index, Object value) {
+    Object[] result = node.clone();
+    if (level == 0) {
+      result[index & MASK] = value;
+    } else {
+      int subIndex = (index >>> level) & MASK;
+      result[subIndex] = doAssoc(level - BITS, (Object[]) node[subIndex], index, value);
+    }
+    return result;
+  }
+
+  /**
+   * Returns a new vector without its last value.
+   *
+   * @return a new vector.
+   * @throws IllegalStateException if the vector is empty.
+   */
+  public PersistentVector pop() {
+    if (count == 0) {
+      throw new IllegalStateException("Can't pop an empty vector");
+    }
+    if (count == 1) {
+      return EMPTY;
+    }
+    if (count - tailOffset(count) > 1) {
+      return new PersistentVector(count - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+    }
+    Object[] newTail = arrayFor(count - 2);
+    Object[] newRoot = popTail(shift, root);
+    int newShift = shift;
+    if (newRoot == null) {
+      newRoot = EMPTY_NODE;
+    }
+    if (shift > BITS && newRoot[1] == null) {
+      newRoot = (Object[]) newRoot[0];
+      newShift -= BITS;
+    }
+    return new PersistentVector(count - 1, newShift, newRoot, newTail);
+  }
+
+  private Object[] popTail(int level, Object[] node) {
+    int index = ((count - 2) >>> level) & MASK;
+    if (level > BITS) {
+      Object[] newChild = popTail(level - BITS, (Object[]) node[index]);
+      if (newChild == null && index == 0) {
+        return null;
+      }
+      Object[] result = node.clone();
+      result[index] = newChild;
+      return result;
+    }
+    if (index == 0) {
+      return null;
+    }
+    Object[] result = node.clone();
+    result[index] = null;
+    return result;
+  }
+
+  /**
+   * Returns the last value of the vector.
+   *
+   * @return the last value.
+   * @throws NoSuchElementException if the vector is empty.
+   */
+  public Object peek() {
+    if (count == 0) {
+      throw new NoSuchElementException("Empty vector");
+    }
+    return tail[tail.length - 1];
+  }
+
+  @Override
+  public Object[] toArray() {
+    Object[] result = new Object[count];
+    int tailOffset = tailOffset(count);
+    for (int i = 0; i < tailOffset; i += WIDTH) {
+      System.arraycopy(arrayFor(i), 0, result, i, WIDTH);
+    }
+    System.arraycopy(tail, 0, result, tailOffset, tail.length);
+    return result;
+  }
+
+  @Override
+  public Iterator<Object> iterator() {
+    return new Iterator<Object>() {
+      private int index = 0;
+      private Object[] leaf = (count > 0) ? arrayFor(0) : null;
+
+      @Override
+      public boolean hasNext() {
+        return index < count;
+      }
+
+      @Override
+      public Object next() {
+        if (index >= count) {
+          throw new NoSuchElementException();
+        }
+        if (index > 0 && (index & MASK) == 0) {
+          leaf = arrayFor(index);
+        }
+        return leaf[index++ & MASK];
+      }
+    };
+  }
+}
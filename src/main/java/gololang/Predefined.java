@@ -11,8 +11,10 @@ package gololang;
 
 import org.eclipse.golo.runtime.AmbiguousFunctionReferenceException;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.lang.invoke.MethodHandleProxies;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
@@ -541,6 +543,134 @@ public final class Predefined {
     }
   }
 
+  /**
+   * Reads the lines of a text file lazily, in the default charset.
+   *
+   * @param file the file to read from as an instance of either {@link String}, {@link File} or {@link Path}.
+   * @return the lines of the file, read as they are iterated.
+   * @see #lines(Object, Object)
+   */
+  public static FileLines lines(Object file) throws Throwable {
+    return lines(file, Charset.defaultCharset());
+  }
+
+  /**
+   * Reads the lines of a text file lazily.
+   * <p>
+   * Contrary to {@link #fileToText(Object, Object)}, the file content is never held in memory as a whole: the file is
+   * opened when the iteration starts, the lines are read from a buffered reader while they are iterated, and the file
+   * is closed when the last line has been read.
+   * For instance:
+   * <pre>
+   * foreach line in lines("server.log", "UTF-8") {
+   *   println(line)
+   * }
+   * </pre>
+   *
+   * @param file the file to read from as an instance of either {@link String}, {@link File} or {@link Path}.
+   * @param encoding the file encoding as a {@link String} or {@link Charset}.
+   * @return the lines of the file, read as they are iterated.
+   */
+  public static FileLines lines(Object file, Object encoding) throws Throwable {
+    return new FileLines(pathFrom(file), charsetFrom(encoding));
+  }
+
+  /**
+   * Reads a file by chunks of bytes.
+   * <p>
+   * The chunks are read from a file channel while they are iterated, into a single reused {@link java.nio.ByteBuffer}.
+   *
+   * @param file the file to read from as an instance of either {@link String}, {@link File} or {@link Path}.
+   * @param size the size of the chunks in bytes.
+   * @return the chunks of the file, read as they are iterated.
+   * @see FileChunks
+   */
+  public static FileChunks chunks(Object file, Object size) throws Throwable {
+    require(size instanceof Integer, "size must be an integer");
+    return new FileChunks(pathFrom(file), (Integer) size);
+  }
+
+  /**
+   * Maps a file in memory for random read access.
+   *
+   * @param file the file to map as an instance of either {@link String}, {@link File} or {@link Path}.
+   * @return a read-only view of the file content.
+   * @see MappedFile
+   */
+  public static MappedFile mapFile(Object file) throws Throwable {
+    return new MappedFile(pathFrom(file));
+  }
+
+  /**
+   * Appends lines to a text file in the default charset.
+   *
+   * @param lines the lines to write.
+   * @param file the file to write to as an instance of either {@link String}, {@link File} or {@link Path}.
+   * @see #appendLines(Object, Object, Object)
+   */
+  public static void appendLines(Object lines, Object file) throws Throwable {
+    appendLines(lines, file, Charset.defaultCharset());
+  }
+
+  /**
+   * Appends lines to a text file.
+   * <p>
+   * The lines are written one at a time through a buffered writer as they are taken from {@code lines}, so that a lazy
+   * list or the lines of another file can be written without being held in memory. Each value is converted to a
+   * string and followed by a line separator.
+   *
+   * The file and parents directories are created if they does not exist. If the file is {@code "-"}, the lines are
+   * written to standard output.
+   *
+   * @param lines the lines to write, as an {@link Iterable}, an {@link Iterator} or an array.
+   * @param file the file to write to as an instance of either {@link String}, {@link File} or {@link Path}.
+   * @param charset the charset to encode the text in.
+   */
+  public static void appendLines(Object lines, Object file, Object charset) throws Throwable {
+    Iterator<?> iterator;
+    if (lines instanceof Iterable) {
+      iterator = ((Iterable<?>) lines).iterator();
+    } else if (lines instanceof Iterator) {
+      iterator = (Iterator<?>) lines;
+    } else if (lines instanceof Object[]) {
+      iterator = Arrays.asList((Object[]) lines).iterator();
+    } else {
+      throw new IllegalArgumentException("lines must be an iterable, an iterator or an array");
+    }
+    Charset encoding = charsetFrom(charset);
+    if ("-".equals(file.toString())) {
+      BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(System.out, encoding));
+      writeLines(iterator, writer);
+      writer.flush();
+      return;
+    }
+    Path path = pathFrom(file);
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    try (BufferedWriter writer = Files.newBufferedWriter(path, encoding,
+          StandardOpenOption.WRITE,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND)) {
+      writeLines(iterator, writer);
+    }
+  }
+
+  private static void writeLines(Iterator<?> lines, BufferedWriter writer) throws IOException {
+    while (lines.hasNext()) {
+      writer.write(String.valueOf(lines.next()));
+      writer.newLine();
+    }
+  }
+
+  private static Charset charsetFrom(Object encoding) {
+    if (encoding instanceof String) {
+      return Charset.forName((String) encoding);
+    }
+    require(encoding instanceof Charset, "encoding must be either a string or a charset instance");
+    return (Charset) encoding;
+  }
+
   /**
    * Check if a file exists.
    *
@@ -861,7 +991,7 @@ public final class Predefined {
    * @return a tuple of the given values.
    */
   public static Tuple tuple(Object... values) {
-    return new Tuple(values);
+    return Tuple.fromArray(values);
   }
 
   /**
@@ -877,4 +1007,39 @@ public final class Predefined {
     }
     return m;
   }
+
+  /**
+   * Persistent vector constructor.
+   *
+   * @return a persistent vector of the given values.
+   * @see PersistentVector
+   */
+  public static PersistentVector persistentVector(Object... values) {
+    return PersistentVector.fromArray(values);
+  }
+
+  /**
+   * Persistent set constructor.
+   *
+   * @return a persistent set of the given values.
+   * @see PersistentSet
+   */
+  public static PersistentSet persistentSet(Object... values) {
+    return PersistentSet.fromIterable(Arrays.asList(values));
+  }
+
+  /**
+   * Persistent map constructor.
+   *
+   * @param items tuples containing the key and the value.
+   * @return a persistent map corresponding to the given key/value pairs.
+   * @see PersistentMap
+   */
+  public static PersistentMap persistentMap(Tuple... items) {
+    PersistentMap m = PersistentMap.empty();
+    for (Tuple t : items) {
+      m = m.assoc(t.get(0), t.get(1));
+    }
+    return m;
+  }
 }
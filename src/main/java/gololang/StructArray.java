@@ -0,0 +1,746 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Columnar storage for a large number of instances of a Golo structure.
+ * <p>
+ * Instead of one heap object per structure instance, a {@code StructArray} stores each public member
+ * of the structure in its own column. A column holding only integers, longs, doubles or booleans is
+ * kept as a primitive array, and is widened to an object array as soon as a value of another type (or
+ * {@code null}) is stored, so that values are always read back with their original type. Columns of
+ * members declared with a primitive type are always kept as the matching primitive array, and reject
+ * values the same way the structure setters do. This cuts
+ * the memory footprint of large collections of structures and makes scans over a member much more
+ * cache friendly.
+ * <p>
+ * A structure array is created from the structure class:
+ * <pre>
+ * let points = StructArray.of(Point.class)
+ * points: add(Point(1, 2)): append(3, 4)
+ * let sum = points: reduce(0, |acc, p| -> acc + p: get("x"))
+ * </pre>
+ * Rows are accessed through a {@link Cursor}. The cursors passed to {@link #each}, {@link #map},
+ * {@link #filter} and {@link #reduce}, and returned by the iterator, are flyweights that are moved
+ * from row to row: use {@link Cursor#struct()} to keep a row around.
+ * <p>
+ * Private structure members are not stored, and are thus {@code null} in materialized structures.
+ */
+public final class StructArray implements Iterable<StructArray.Cursor> {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private final Class<? extends GoloStruct> type;
+  private final String[] members;
+  private final MethodHandle constructor;
+  private final Column[] columns;
+  private int size;
+  private int capacity;
+
+  private StructArray(Class<? extends GoloStruct> type, String[] members, MethodHandle constructor, int capacity) {
+    this.type = type;
+    this.members = members;
+    this.constructor = constructor;
+    this.columns = new Column[members.length];
+    this.capacity = Math.max(capacity, 1);
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = Column.of(declaredType(type, members[i]), this.capacity, true);
+    }
+  }
+
+  private static Class<?> declaredType(Class<?> type, String member) {
+    try {
+      return type.getDeclaredField(member).getType();
+    } catch (NoSuchFieldException e) {
+      return Object.class;
+    }
+  }
+
+  /**
+   * Creates an empty structure array.
+   *
+   * @param type the structure class.
+   * @return a new structure array.
+   */
+  public static StructArray of(Class<? extends GoloStruct> type) {
+    return of(type, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty structure array with an initial capacity.
+   *
+   * @param type the structure class.
+   * @param capacity the initial number of rows to allocate.
+   * @return a new structure array.
+   * @throws IllegalArgumentException if {@code type} can't be instantiated.
+   */
+  public static StructArray of(Class<? extends GoloStruct> type, int capacity) {
+    try {
+      MethodHandle constructor = MethodHandles.publicLookup().findConstructor(type, methodType(void.class));
+      GoloStruct prototype = (GoloStruct) constructor.invoke();
+      return new StructArray(type, prototype.members.clone(), constructor, capacity);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalArgumentException("Can't create a structure array of " + type.getName(), t);
+    }
+  }
+
+  /**
+   * @return the structure class.
+   */
+  public Class<? extends GoloStruct> type() {
+    return type;
+  }
+
+  /**
+   * @return the member names, as a tuple.
+   */
+  public Tuple members() {
+    return Tuple.fromArray(members);
+  }
+
+  /**
+   * @return the number of rows.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return {@code true} if there are no rows, {@code false} otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  private int columnIndex(String member) {
+    for (int i = 0; i < members.length; i++) {
+      if (members[i].equals(member)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Unknown member " + member + " in " + type.getName());
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index + " is out of bounds (size=" + size + ")");
+    }
+  }
+
+  private void ensureCapacity(int required) {
+    if (required <= capacity) {
+      return;
+    }
+    int newCapacity = Math.max(required, capacity + (capacity >> 1));
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = columns[i].resize(newCapacity);
+    }
+    capacity = newCapacity;
+  }
+
+  private void store(int column, int row, Object value) {
+    columns[column] = columns[column].set(row, value, size, capacity);
+  }
+
+  /**
+   * Appends a row from its values, given in member order.
+   *
+   * @param values the member values.
+   * @return this structure array.
+   * @throws IllegalArgumentException if the number of values does not match the number of members.
+   * @throws NullPointerException if {@code null} is given for a member declared with a primitive type.
+   * @throws ClassCastException if a value of another type is given for a member declared with a primitive type.
+   */
+  public StructArray append(Object... values) {
+    if (values.length != members.length) {
+      throw new IllegalArgumentException(String.format(
+          "%s has %d members, got %d values", type.getName(), members.length, values.length));
+    }
+    ensureCapacity(size + 1);
+    size = size + 1;
+    try {
+      for (int i = 0; i < values.length; i++) {
+        store(i, size - 1, values[i]);
+      }
+    } catch (RuntimeException e) {
+      size = size - 1;
+      throw e;
+    }
+    return this;
+  }
+
+  /**
+   * Appends a row from a structure instance.
+   *
+   * @param struct the structure to copy.
+   * @return this structure array.
+   * @throws IllegalArgumentException if the structure is not of the array type.
+   */
+  public StructArray add(GoloStruct struct) {
+    if (struct.getClass() != type) {
+      throw new IllegalArgumentException(struct + " is not a " + type.getName());
+    }
+    return append(struct.toArray());
+  }
+
+  /**
+   * Appends rows from structure instances.
+   *
+   * @param structs the structures to copy.
+   * @return this structure array.
+   */
+  public StructArray addAll(Iterable<? extends GoloStruct> structs) {
+    for (GoloStruct struct : structs) {
+      add(struct);
+    }
+    return this;
+  }
+
+  /**
+   * Gets a member value.
+   *
+   * @param index the row index.
+   * @param member the member name.
+   * @return the value.
+   */
+  public Object get(int index, String member) {
+    checkIndex(index);
+    return columns[columnIndex(member)].get(index);
+  }
+
+  /**
+   * Sets a member value.
+   *
+   * @param index the row index.
+   * @param member the member name.
+   * @param value the new value.
+   * @return this structure array.
+   */
+  public StructArray set(int index, String member, Object value) {
+    checkIndex(index);
+    store(columnIndex(member), index, value);
+    return this;
+  }
+
+  /**
+   * Materializes a row as a new structure instance.
+   *
+   * @param index the row index.
+   * @return a structure holding the row values.
+   */
+  public GoloStruct get(int index) {
+    checkIndex(index);
+    try {
+      GoloStruct struct = (GoloStruct) constructor.invoke();
+      for (int i = 0; i < members.length; i++) {
+        struct.set(members[i], columns[i].get(index));
+      }
+      return struct;
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException(t);
+    }
+  }
+
+  /**
+   * Gets a cursor on a row.
+   *
+   * @param index the row index.
+   * @return a new cursor.
+   */
+  public Cursor cursor(int index) {
+    checkIndex(index);
+    return new Cursor(index);
+  }
+
+  /**
+   * Materializes all the rows as structure instances.
+   *
+   * @return a list of new structures.
+   */
+  public List<GoloStruct> toList() {
+    List<GoloStruct> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add(get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Gets the values of a member.
+   *
+   * @param member the member name.
+   * @return a tuple of the member values, in row order.
+   */
+  public Tuple column(String member) {
+    Column column = columns[columnIndex(member)];
+    Object[] values = new Object[size];
+    for (int i = 0; i < size; i++) {
+      values[i] = column.get(i);
+    }
+    return Tuple.fromArray(values);
+  }
+
+  /**
+   * Gets the storage type of a member column.
+   *
+   * @param member the member name.
+   * @return the primitive type of the column values, or {@code Object.class} if they are stored as references.
+   */
+  public Class<?> columnType(String member) {
+    return columns[columnIndex(member)].type();
+  }
+
+  /**
+   * Applies a function to each row.
+   *
+   * @param func the function, taking a (flyweight) cursor.
+   * @return this structure array.
+   */
+  public StructArray each(FunctionReference func) throws Throwable {
+    Cursor cursor = new Cursor(0);
+    for (int i = 0; i < size; i++) {
+      cursor.index = i;
+      func.invoke(cursor);
+    }
+    return this;
+  }
+
+  /**
+   * Maps each row with a function.
+   *
+   * @param func the function, taking a (flyweight) cursor.
+   * @return a list of the function results.
+   */
+  public List<Object> map(FunctionReference func) throws Throwable {
+    List<Object> result = new ArrayList<>(size);
+    Cursor cursor = new Cursor(0);
+    for (int i = 0; i < size; i++) {
+      cursor.index = i;
+      result.add(func.invoke(cursor));
+    }
+    return result;
+  }
+
+  /**
+   * Filters the rows using a predicate.
+   *
+   * @param pred the predicate, taking a (flyweight) cursor.
+   * @return a new structure array with the matching rows.
+   */
+  public StructArray filter(FunctionReference pred) throws Throwable {
+    StructArray result = new StructArray(type, members, constructor, DEFAULT_CAPACITY);
+    Cursor cursor = new Cursor(0);
+    Object[] row = new Object[members.length];
+    for (int i = 0; i < size; i++) {
+      cursor.index = i;
+      if ((Boolean) pred.invoke(cursor)) {
+        for (int j = 0; j < members.length; j++) {
+          row[j] = columns[j].get(i);
+        }
+        result.append(row);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Reduces the rows.
+   *
+   * @param initialValue the initial accumulator value.
+   * @param func the function, taking the accumulator and a (flyweight) cursor.
+   * @return the reduced value.
+   */
+  public Object reduce(Object initialValue, FunctionReference func) throws Throwable {
+    Object acc = initialValue;
+    Cursor cursor = new Cursor(0);
+    for (int i = 0; i < size; i++) {
+      cursor.index = i;
+      acc = func.invoke(acc, cursor);
+    }
+    return acc;
+  }
+
+  /**
+   * Iterates over the rows.
+   * <p>
+   * The same cursor instance is returned by each call to {@code next()}.
+   *
+   * @return an iterator over a flyweight cursor.
+   */
+  @Override
+  public Iterator<Cursor> iterator() {
+    return new Iterator<Cursor>() {
+      private final Cursor cursor = new Cursor(-1);
+
+      @Override
+      public boolean hasNext() {
+        return cursor.index + 1 < size;
+      }
+
+      @Override
+      public Cursor next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        cursor.index = cursor.index + 1;
+        return cursor;
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return "StructArray<" + type.getName() + ">" + Arrays.toString(members) + "{size=" + size + "}";
+  }
+
+  /**
+   * A cursor on a row of a structure array.
+   */
+  public final class Cursor {
+
+    private int index;
+
+    private Cursor(int index) {
+      this.index = index;
+    }
+
+    /**
+     * @return the row index.
+     */
+    public int index() {
+      return index;
+    }
+
+    /**
+     * Gets a member value of the row.
+     *
+     * @param member the member name.
+     * @return the value.
+     */
+    public Object get(String member) {
+      return StructArray.this.get(index, member);
+    }
+
+    /**
+     * Sets a member value of the row.
+     *
+     * @param member the member name.
+     * @param value the new value.
+     * @return this cursor.
+     */
+    public Cursor set(String member, Object value) {
+      StructArray.this.set(index, member, value);
+      return this;
+    }
+
+    /**
+     * @return the row values, in member order.
+     */
+    public Tuple values() {
+      Object[] values = new Object[members.length];
+      for (int i = 0; i < members.length; i++) {
+        values[i] = columns[i].get(index);
+      }
+      return Tuple.fromArray(values);
+    }
+
+    /**
+     * Destructuration helper.
+     *
+     * @return the row values.
+     */
+    public Tuple destruct() {
+      return values();
+    }
+
+    /**
+     * Materializes the row.
+     *
+     * @return a new structure holding the row values.
+     */
+    public GoloStruct struct() {
+      return StructArray.this.get(index);
+    }
+
+    @Override
+    public String toString() {
+      return "Cursor{index=" + index + "}" + values();
+    }
+  }
+
+  /*
+   * Columns are replaced rather than mutated when their kind changes, hence the set method returning
+   * the column that now holds the value.
+   */
+  private abstract static class Column {
+
+    /*
+     * Columns of members declared with a primitive type unbox values like the struct setters do: any number is
+     * converted, and null or a value of another type is rejected instead of widening the column.
+     */
+    static Column of(Class<?> type, int capacity, boolean declared) {
+      if (type == int.class) {
+        return new IntColumn(new int[capacity], declared);
+      }
+      if (type == long.class) {
+        return new LongColumn(new long[capacity], declared);
+      }
+      if (type == double.class) {
+        return new DoubleColumn(new double[capacity], declared);
+      }
+      if (type == boolean.class) {
+        return new BooleanColumn(new boolean[capacity], declared);
+      }
+      return NullColumn.INSTANCE;
+    }
+
+    abstract Object get(int row);
+
+    abstract Column set(int row, Object value, int size, int capacity);
+
+    abstract Column resize(int capacity);
+
+    Class<?> type() {
+      return Object.class;
+    }
+
+    Column widen(int size, int capacity) {
+      Object[] values = new Object[capacity];
+      for (int i = 0; i < size; i++) {
+        values[i] = get(i);
+      }
+      return new ObjectColumn(values);
+    }
+  }
+
+  private static final class NullColumn extends Column {
+
+    static final NullColumn INSTANCE = new NullColumn();
+
+    @Override
+    Object get(int row) {
+      return null;
+    }
+
+    @Override
+    Column set(int row, Object value, int size, int capacity) {
+      if (value == null) {
+        return this;
+      }
+      Column column = (size > 1) ? this : Column.of(MethodType.methodType(value.getClass()).unwrap().returnType(), capacity, false);
+      if (column == this) {
+        column = widen(size, capacity);
+      }
+      return column.set(row, value, size, capacity);
+    }
+
+    @Override
+    Column resize(int capacity) {
+      return this;
+    }
+  }
+
+  private static final class ObjectColumn extends Column {
+
+    private Object[] values;
+
+    ObjectColumn(Object[] values) {
+      this.values = values;
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    Column set(int row, Object value, int size, int capacity) {
+      values[row] = value;
+      return this;
+    }
+
+    @Override
+    Column resize(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+      return this;
+    }
+  }
+
+  private static final class IntColumn extends Column {
+
+    private int[] values;
+    private final boolean declared;
+
+    IntColumn(int[] values, boolean declared) {
+      this.values = values;
+      this.declared = declared;
+    }
+
+    @Override
+    Class<?> type() {
+      return int.class;
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    Column set(int row, Object value, int size, int capacity) {
+      if (value instanceof Integer) {
+        values[row] = (Integer) value;
+        return this;
+      }
+      if (declared) {
+        values[row] = ((Number) value).intValue();
+        return this;
+      }
+      return widen(size, capacity).set(row, value, size, capacity);
+    }
+
+    @Override
+    Column resize(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+      return this;
+    }
+  }
+
+  private static final class LongColumn extends Column {
+
+    private long[] values;
+    private final boolean declared;
+
+    LongColumn(long[] values, boolean declared) {
+      this.values = values;
+      this.declared = declared;
+    }
+
+    @Override
+    Class<?> type() {
+      return long.class;
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    Column set(int row, Object value, int size, int capacity) {
+      if (value instanceof Long) {
+        values[row] = (Long) value;
+        return this;
+      }
+      if (declared) {
+        values[row] = ((Number) value).longValue();
+        return this;
+      }
+      return widen(size, capacity).set(row, value, size, capacity);
+    }
+
+    @Override
+    Column resize(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+      return this;
+    }
+  }
+
+  private static final class DoubleColumn extends Column {
+
+    private double[] values;
+    private final boolean declared;
+
+    DoubleColumn(double[] values, boolean declared) {
+      this.values = values;
+      this.declared = declared;
+    }
+
+    @Override
+    Class<?> type() {
+      return double.class;
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    Column set(int row, Object value, int size, int capacity) {
+      if (value instanceof Double) {
+        values[row] = (Double) value;
+        return this;
+      }
+      if (declared) {
+        values[row] = ((Number) value).doubleValue();
+        return this;
+      }
+      return widen(size, capacity).set(row, value, size, capacity);
+    }
+
+    @Override
+    Column resize(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+      return this;
+    }
+  }
+
+  private static final class BooleanColumn extends Column {
+
+    private boolean[] values;
+    private final boolean declared;
+
+    BooleanColumn(boolean[] values, boolean declared) {
+      this.values = values;
+      this.declared = declared;
+    }
+
+    @Override
+    Class<?> type() {
+      return boolean.class;
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    Column set(int row, Object value, int size, int capacity) {
+      if (declared || value instanceof Boolean) {
+        values[row] = (Boolean) value;
+        return this;
+      }
+      return widen(size, capacity).set(row, value, size, capacity);
+    }
+
+    @Override
+    Column resize(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+      return this;
+    }
+  }
+}
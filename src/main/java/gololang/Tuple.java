@@ -12,6 +12,11 @@ package gololang;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Represents an tuple object.
@@ -24,10 +29,15 @@ import java.util.NoSuchElementException;
  * # Complete collection literal syntax
  * let t2 = tuple[1, 2, 3]
  * </pre>
+ * <p>
+ * {@link #tail()} and {@link #subTuple(int, int)} return tuples sharing the values of the original
+ * tuple instead of copying them.
  */
 public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
 
   private final Object[] data;
+  private final int offset;
+  private final int size;
 
   /**
    * Creates a new tuple from values.
@@ -35,7 +45,13 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    * @param values the tuple values.
    */
   public Tuple(Object... values) {
-    data = Arrays.copyOf(values, values.length);
+    this(Arrays.copyOf(values, values.length), 0, values.length);
+  }
+
+  private Tuple(Object[] data, int offset, int size) {
+    this.data = data;
+    this.offset = offset;
+    this.size = size;
   }
 
   /**
@@ -54,7 +70,7 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    * @return the tuple size.
    */
   public int size() {
-    return data.length;
+    return size;
   }
 
   /**
@@ -64,7 +80,7 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    */
   @Override
   public boolean isEmpty() {
-    return data.length == 0;
+    return size == 0;
   }
 
   /**
@@ -75,10 +91,10 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    * @throws IndexOutOfBoundsException if the specified {@code index} is not valid (negative value or above the size).
    */
   public Object get(int index) {
-    if (index < 0 || index >= data.length) {
-      throw new IndexOutOfBoundsException(index + " is outside the bounds of a " + data.length + "-tuple");
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index + " is outside the bounds of a " + size + "-tuple");
     }
-    return data[index];
+    return data[offset + index];
   }
 
   /**
@@ -95,15 +111,15 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
 
       @Override
       public boolean hasNext() {
-        return i < data.length;
+        return i < size;
       }
 
       @Override
       public Object next() {
-        if (i >= data.length) {
+        if (i >= size) {
           throw new NoSuchElementException();
         }
-        Object result = data[i];
+        Object result = get(i);
         i = i + 1;
         return result;
       }
@@ -115,13 +131,47 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
     };
   }
 
+  /**
+   * Creates a sized spliterator over the tuple, that splits evenly.
+   *
+   * @return a spliterator.
+   */
+  @Override
+  public Spliterator<Object> spliterator() {
+    return Spliterators.spliterator(data, offset, offset + size, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+  }
+
+  /**
+   * Gives a sequential stream of the tuple values.
+   *
+   * @return a stream.
+   */
+  public Stream<Object> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * Gives a parallel stream of the tuple values.
+   *
+   * @return a parallel stream.
+   */
+  public Stream<Object> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) { return true; }
     if (o == null || getClass() != o.getClass()) { return false; }
 
     Tuple tuple = (Tuple) o;
-    return Arrays.equals(data, tuple.data);
+    if (size != tuple.size) { return false; }
+    for (int i = 0; i < size; i++) {
+      if (!Objects.equals(data[offset + i], tuple.data[tuple.offset + i])) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -158,12 +208,16 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
 
   @Override
   public int hashCode() {
-    return Arrays.hashCode(data);
+    int result = 1;
+    for (int i = offset; i < offset + size; i++) {
+      result = 31 * result + Objects.hashCode(data[i]);
+    }
+    return result;
   }
 
   @Override
   public String toString() {
-    return "tuple" + Arrays.toString(data);
+    return "tuple" + Arrays.toString(toArray());
   }
 
   /**
@@ -180,7 +234,9 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
   }
 
   /**
-   * Returns a new tuple containg the remaining elements.
+   * Returns a tuple containg the remaining elements.
+   * <p>
+   * The returned tuple shares the values of this one.
    *
    * @return a tuple.
    */
@@ -200,25 +256,41 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    * Extract a sub-tuple.
    *
    * @param start the index of the first element.
-   * @return a new tuple containing the elements from {@code start} to the end.
+   * @return a tuple containing the elements from {@code start} to the end.
    */
   public Tuple subTuple(int start) {
-    return this.subTuple(start, data.length);
+    return this.subTuple(start, size());
   }
 
   /**
    * Extract a sub-tuple.
+   * <p>
+   * As long as {@code end} is not above the size of this tuple, the returned tuple shares the values of
+   * this one. Otherwise, the missing elements are {@code null}.
    *
    * @param start the index of the first element (inclusive).
    * @param end the index of the last element (exclusive).
-   * @return a new tuple containing the elements between indices {@code start} inclusive and {@code end}
+   * @return a tuple containing the elements between indices {@code start} inclusive and {@code end}
    * exclusive.
+   * @throws ArrayIndexOutOfBoundsException if {@code start} is negative or above the size of this tuple.
+   * @throws IllegalArgumentException if {@code start} is greater than {@code end}.
    */
   public Tuple subTuple(int start, int end) {
     if (this.isEmpty()) {
       return this;
     }
-    return fromArray(Arrays.copyOfRange(data, start, end));
+    if (start < 0 || start > size) {
+      throw new ArrayIndexOutOfBoundsException(start);
+    }
+    if (start > end) {
+      throw new IllegalArgumentException(start + " > " + end);
+    }
+    if (end > size) {
+      Object[] values = new Object[end - start];
+      System.arraycopy(data, offset + start, values, 0, size - start);
+      return new Tuple(values, 0, values.length);
+    }
+    return new Tuple(data, offset + start, end - start);
   }
 
   /**
@@ -227,6 +299,6 @@ public final class Tuple implements HeadTail<Object>, Comparable<Tuple> {
    * @return an array of values
    */
   public Object[] toArray() {
-    return Arrays.copyOf(data, data.length);
+    return Arrays.copyOfRange(data, offset, offset + size);
   }
 }
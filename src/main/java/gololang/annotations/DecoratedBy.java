@@ -18,6 +18,9 @@ import java.lang.annotation.Target;
  * <code>@DecoratedBy</code> is used to define the reference to the decorator on a decorated function.
  *
  * Mainly used for internal stuff, this annotation can be useful to create decorated function in Java.
+ * <p>
+ * When the decorator is marked as constant, it is applied only once when a call to the decorated
+ * function is linked, and the resulting function is then called directly.
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
@@ -29,4 +32,11 @@ public @interface DecoratedBy {
    * @return the reference to the decorator function.
    */
   String value();
+
+  /**
+   * Whether the decorator always returns the same function, as banged decorators do.
+   *
+   * @return {@code true} if the decorator can be applied once at link time.
+   */
+  boolean constant() default false;
 }
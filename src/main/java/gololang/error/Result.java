@@ -657,7 +657,7 @@ public final class Result<T, E extends Throwable> implements Iterable<T> {
    * @return a 2-tuple containing the error and the value contained by this {@code Result}
    */
   public Tuple destruct() {
-    return new Tuple(error, value);
+    return Tuple.fromArray(new Object[]{error, value});
   }
 
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.cli.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import org.eclipse.golo.cli.command.spi.CliCommand;
+import org.eclipse.golo.runtime.CallSiteInstrumentation;
+import org.eclipse.golo.runtime.CallSiteInstrumentationMBean;
+
+import javax.management.JMX;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+@Parameters(commandNames = {"callsites"}, commandDescription = "Dumps the call site statistics of a running Golo application (started with -Dgolo.instrumentation=true)")
+public class CallSitesCommand implements CliCommand {
+
+  @Parameter(names = "--jmx", description = "JMX address of the application, either host:port or a service:jmx: URL", required = true)
+  String address;
+
+  @Parameter(names = "--megamorphic", description = "Only dumps the megamorphic call sites")
+  boolean megamorphic = false;
+
+  @Parameter(names = "--reset", description = "Resets the statistics after dumping them")
+  boolean reset = false;
+
+  @Override
+  public void execute() throws Throwable {
+    try (JMXConnector connector = JMXConnectorFactory.connect(serviceURL())) {
+      MBeanServerConnection connection = connector.getMBeanServerConnection();
+      ObjectName name = new ObjectName(CallSiteInstrumentation.OBJECT_NAME);
+      if (!connection.isRegistered(name)) {
+        System.out.println("No instrumented call site (is the application started with -Dgolo.instrumentation=true?)");
+        return;
+      }
+      CallSiteInstrumentationMBean instrumentation = JMX.newMBeanProxy(connection, name, CallSiteInstrumentationMBean.class);
+      if (this.megamorphic) {
+        for (String site : instrumentation.getMegamorphicCallSites()) {
+          System.out.println(site);
+        }
+      } else {
+        System.out.print(instrumentation.getReport());
+      }
+      System.out.println(String.format("%d call sites, %d relinks, %.3fms spent in target resolution",
+          instrumentation.getCallSiteCount(),
+          instrumentation.getTotalRelinks(),
+          instrumentation.getTotalResolutionTime() / 1_000_000.0));
+      if (this.reset) {
+        instrumentation.reset();
+      }
+    } catch (Throwable e) {
+      handleThrowable(e);
+    }
+  }
+
+  private JMXServiceURL serviceURL() throws Exception {
+    if (this.address.startsWith("service:jmx:")) {
+      return new JMXServiceURL(this.address);
+    }
+    return new JMXServiceURL("service:jmx:rmi:///jndi/rmi://" + this.address + "/jmxrmi");
+  }
+}
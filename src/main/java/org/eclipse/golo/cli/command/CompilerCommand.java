@@ -12,8 +12,10 @@ package org.eclipse.golo.cli.command;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 import org.eclipse.golo.cli.command.spi.CliCommand;
+import org.eclipse.golo.compiler.CompilationStatistics;
 import org.eclipse.golo.compiler.GoloCompilationException;
 import org.eclipse.golo.compiler.GoloCompiler;
+import org.eclipse.golo.compiler.LinkIndexBuilder;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -31,12 +33,44 @@ public class CompilerCommand implements CliCommand {
   @Parameter(names = "--output", description = "The compiled classes output directory or Jar archive")
   String output = ".";
 
+  @Parameter(names = "--link-index", arity = 1, description = "Writes the precomputed link index of the compiled modules")
+  boolean linkIndex = true;
+
+  @Parameter(names = "--optimize", arity = 1, description = "Optimizes the compiled code (constant folding and dead branch elimination)")
+  boolean optimize = true;
+
+  @Parameter(names = "--inline-functions", description = "Inlines the calls to small module functions when optimizing")
+  boolean inlineFunctions = false;
+
+  @Parameter(names = "--array-lists", description = "Compiles list literals and comprehensions to java.util.ArrayList instances")
+  boolean arrayLists = false;
+
+  @Parameter(names = "--parallel-comprehensions", description = "Evaluates the comprehensions over parallel streams concurrently")
+  boolean parallelComprehensions = false;
+
+  @Parameter(names = "--stats", description = "Prints the time, allocations, IR nodes and bytecode size of the compilation of each module")
+  boolean stats = false;
+
   @Parameter(description = "Golo source files (*.golo)")
   List<String> sources = new LinkedList<>();
 
   @Override
   public void execute() throws Throwable {
     GoloCompiler compiler = new GoloCompiler();
+    LinkIndexBuilder linkIndexBuilder = this.linkIndex ? new LinkIndexBuilder() : null;
+    compiler.setLinkIndexBuilder(linkIndexBuilder);
+    compiler.setOptimizing(this.optimize);
+    if (this.inlineFunctions) {
+      compiler.setInliningFunctions(true);
+    }
+    if (this.arrayLists) {
+      compiler.setArrayBackedLists(true);
+    }
+    if (this.parallelComprehensions) {
+      compiler.setParallelComprehensions(true);
+    }
+    CompilationStatistics statistics = this.stats ? new CompilationStatistics() : null;
+    compiler.setStatistics(statistics);
     final boolean compilingToJar = this.output.endsWith(".jar");
     File outputDir = compilingToJar ? null : new File(this.output);
     JarOutputStream jarOutputStream = compilingToJar ? new JarOutputStream(new FileOutputStream(new File(this.output)), manifest()) : null;
@@ -55,9 +89,20 @@ public class CompilerCommand implements CliCommand {
         handleCompilationException(e);
       }
     }
+    if (linkIndexBuilder != null) {
+      ClassLoader classLoader = CompilerCommand.class.getClassLoader();
+      if (compilingToJar) {
+        linkIndexBuilder.writeTo(jarOutputStream, classLoader);
+      } else {
+        linkIndexBuilder.writeTo(outputDir, classLoader);
+      }
+    }
     if (compilingToJar) {
       jarOutputStream.close();
     }
+    if (statistics != null) {
+      statistics.report(System.err);
+    }
   }
 
   private Manifest manifest() {
@@ -14,6 +14,7 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.Parameters;
 import org.eclipse.golo.cli.command.spi.CliCommand;
+import org.eclipse.golo.compiler.CompilationStatistics;
 import org.eclipse.golo.compiler.GoloCompilationException;
 import org.eclipse.golo.compiler.GoloCompiler;
 import org.eclipse.golo.compiler.ir.GoloModule;
@@ -34,9 +35,14 @@ public class DiagnoseCommand implements CliCommand {
   @Parameter(names = "--stage", description = "The compilation stage to diagnose: {ast, raw, refined}", validateWith = DiagnoseStageValidator.class)
   String stage = "refined";
 
+  @Parameter(names = "--stats", description = "Prints the time, allocations, IR nodes and bytecode size of the compilation of each module")
+  boolean stats = false;
+
   @Parameter(description = "Golo source files (*.golo and directories)")
   List<String> files = new LinkedList<>();
 
+  private final CompilationStatistics statistics = new CompilationStatistics();
+
   @Override
   public void execute() throws Throwable {
     if ("ast".equals(this.stage) && !"ast".equals(this.mode)) {
@@ -61,11 +67,22 @@ public class DiagnoseCommand implements CliCommand {
     } catch (GoloCompilationException e) {
       handleCompilationException(e);
     }
+    if (this.stats) {
+      statistics.report(System.err);
+    }
+  }
+
+  private GoloCompiler compiler() {
+    GoloCompiler compiler = new GoloCompiler();
+    if (this.stats) {
+      compiler.setStatistics(statistics);
+    }
+    return compiler;
   }
 
 
   private void dumpASTs(List<String> files) {
-    GoloCompiler compiler = new GoloCompiler();
+    GoloCompiler compiler = compiler();
     for (String file : files) {
       dumpAST(file, compiler);
     }
@@ -93,7 +110,7 @@ public class DiagnoseCommand implements CliCommand {
   }
 
   private void dumpIRs(List<String> files) {
-    GoloCompiler compiler = new GoloCompiler();
+    GoloCompiler compiler = compiler();
     IrTreeDumper dumper = new IrTreeDumper();
     for (String file : files) {
       dumpIR(file, compiler, dumper);
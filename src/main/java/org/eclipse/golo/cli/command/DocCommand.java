@@ -23,12 +23,16 @@ import org.eclipse.golo.doc.HtmlProcessor;
 import org.eclipse.golo.doc.MarkdownProcessor;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 @Parameters(commandNames = {"doc"}, commandDescription = "Generate documentation from Golo source files")
 public class DocCommand implements CliCommand {
@@ -39,6 +43,9 @@ public class DocCommand implements CliCommand {
   @Parameter(names = "--output", description = "The documentation output directory. With ctags format, '-' can be used for standard output (e.g. when executed in an editor)")
   String output = ".";
 
+  @Parameter(names = "--incremental", description = "Only render the modules whose source changed since the last run in the output directory (indexes are always rebuilt)")
+  boolean incremental = false;
+
   @Parameter(description = "Golo source files (*.golo or directories)")
   List<String> sources = new LinkedList<>();
 
@@ -59,10 +66,13 @@ public class DocCommand implements CliCommand {
       default:
         throw new AssertionError("WTF?");
     }
-    HashMap<String, ASTCompilationUnit> units = new HashMap<>();
+    processor.setIncremental(this.incremental);
+    List<String> goloFiles = new LinkedList<>();
     for (String source : this.sources) {
-      loadGoloFileCompilationUnit(source, units);
+      collectGoloFiles(source, goloFiles);
     }
+    Map<String, ASTCompilationUnit> units = new ConcurrentSkipListMap<>();
+    goloFiles.parallelStream().forEach(goloFile -> loadGoloFileCompilationUnit(goloFile, units));
     try {
       processor.process(units, Paths.get(this.output));
     } catch (Throwable throwable) {
@@ -70,23 +80,27 @@ public class DocCommand implements CliCommand {
     }
   }
 
-  private void loadGoloFileCompilationUnit(String goloFile, HashMap<String, ASTCompilationUnit> units) {
+  private void collectGoloFiles(String goloFile, List<String> goloFiles) {
     File file = new File(goloFile);
     if (file.isDirectory()) {
       File[] directoryFiles = file.listFiles();
       if (directoryFiles != null) {
         for (File directoryFile : directoryFiles) {
-          loadGoloFileCompilationUnit(directoryFile.getAbsolutePath(), units);
+          collectGoloFiles(directoryFile.getAbsolutePath(), goloFiles);
         }
       }
     } else if (file.getName().endsWith(".golo")) {
-      try (FileInputStream in = new FileInputStream(goloFile)) {
-        units.put(goloFile, new GoloOffsetParser(in).CompilationUnit());
-      } catch (IOException e) {
-        System.out.println("[error] " + goloFile + " does not exist or could not be opened.");
-      } catch (ParseException e) {
-        System.out.println("[error] " + goloFile + " has syntax errors: " + e.getMessage());
-      }
+      goloFiles.add(goloFile);
+    }
+  }
+
+  private void loadGoloFileCompilationUnit(String goloFile, Map<String, ASTCompilationUnit> units) {
+    try (Reader in = Files.newBufferedReader(Paths.get(goloFile), StandardCharsets.UTF_8)) {
+      units.put(goloFile, new GoloOffsetParser(in).CompilationUnit());
+    } catch (IOException | UncheckedIOException e) {
+      System.out.println("[error] " + goloFile + " does not exist or could not be opened.");
+    } catch (ParseException e) {
+      System.out.println("[error] " + goloFile + " has syntax errors: " + e.getMessage());
     }
   }
 
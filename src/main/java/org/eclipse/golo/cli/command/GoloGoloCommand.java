@@ -12,6 +12,7 @@ package org.eclipse.golo.cli.command;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 import org.eclipse.golo.cli.command.spi.CliCommand;
+import org.eclipse.golo.compiler.CompilationStatistics;
 import org.eclipse.golo.compiler.GoloClassLoader;
 import org.eclipse.golo.compiler.GoloCompilationException;
 
@@ -36,15 +37,23 @@ public class GoloGoloCommand implements CliCommand {
   @Parameter(names = "--classpath", variableArity = true, description = "Classpath elements (.jar and directories)")
   List<String> classpath = new LinkedList<>();
 
+  @Parameter(names = "--stats", description = "Prints the time, allocations, IR nodes and bytecode size of the compilation of each module")
+  boolean stats = false;
+
   @Override
   public void execute() throws Throwable {
     URLClassLoader primaryClassLoader = primaryClassLoader(this.classpath);
     GoloClassLoader loader = new GoloClassLoader(primaryClassLoader);
     Thread.currentThread().setContextClassLoader(loader);
+    CompilationStatistics statistics = this.stats ? new CompilationStatistics() : null;
+    loader.getCompiler().setStatistics(statistics);
     Class<?> lastClass = null;
     for (String goloFile : this.files) {
       lastClass = loadGoloFile(goloFile, this.module, loader);
     }
+    if (statistics != null) {
+      statistics.report(System.err);
+    }
     if (lastClass == null && this.module != null) {
       System.out.println("The module " + this.module + " does not exist in the classpath.");
       return;
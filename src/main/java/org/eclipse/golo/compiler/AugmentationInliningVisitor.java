@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler;
+
+import org.eclipse.golo.compiler.ir.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.eclipse.golo.compiler.ir.Builders.*;
+import static org.eclipse.golo.runtime.OperatorType.*;
+
+/**
+ * Visitor to inline the standard loop augmentations called with a closure literal.
+ * <p>
+ * The {@code times}, {@code upTo} and {@code downTo} augmentations of {@code java.lang.Number}, and the
+ * {@code each}, {@code reduce}, {@code count} and {@code exists} augmentations of {@code java.lang.Iterable} are
+ * replaced by the equivalent loop when their last argument is a closure literal whose body only returns an
+ * expression. The closure body is copied in the loop, with its parameters substituted by the loop references.
+ * For instance:
+ * <pre>
+ * let total = data: reduce(0, |acc, x| -> acc + x * factor)
+ * </pre>
+ * is converted to the equivalent of:
+ * <pre>
+ * let total = {
+ *   let receiver = data
+ *   let argument = 0
+ *   var result = null
+ *   if AugmentationInliningHelper.isStandard(ThisModule.class, "reduce", receiver, argument) {
+ *     result = argument
+ *     foreach element in receiver {
+ *       result = result + element * factor
+ *     }
+ *   } else {
+ *     result = receiver: reduce(argument, |acc, x| -> acc + x * factor)
+ *   }
+ *   result
+ * }
+ * </pre>
+ * The guard checks at runtime that the invocation would actually be dispatched to the standard augmentation, so
+ * that class methods and more specific augmentations with the same name are still called.
+ * <p>
+ * Only the functions of the module itself are visited, since the closures are module functions once the sugar is
+ * expanded.
+ */
+class AugmentationInliningVisitor extends AbstractGoloIrVisitor {
+
+  private static final String GUARD = "org.eclipse.golo.runtime.AugmentationInliningHelper.isStandard";
+
+  private final SymbolGenerator symbols = new SymbolGenerator("intrinsic");
+  private GoloModule module;
+
+  private enum Intrinsic {
+    TIMES("times", 0, 0, 1),
+    UP_TO("upTo", 1, 0, 1),
+    DOWN_TO("downTo", 1, 0, 1),
+    EACH("each", 0, 1, 1),
+    REDUCE("reduce", 1, 2, 2),
+    COUNT("count", 0, 1, 1),
+    EXISTS("exists", 0, 1, 1);
+
+    final String methodName;
+    final int values;
+    final int minParameters;
+    final int maxParameters;
+
+    Intrinsic(String methodName, int values, int minParameters, int maxParameters) {
+      this.methodName = methodName;
+      this.values = values;
+      this.minParameters = minParameters;
+      this.maxParameters = maxParameters;
+    }
+
+    boolean isNumeric() {
+      return this == TIMES || this == UP_TO || this == DOWN_TO;
+    }
+
+    static Intrinsic of(MethodInvocation invocation) {
+      for (Intrinsic intrinsic : values()) {
+        if (intrinsic.methodName.equals(invocation.getName()) && intrinsic.values + 1 == invocation.getArity()) {
+          return intrinsic;
+        }
+      }
+      return null;
+    }
+  }
+
+  @Override
+  public void visitModule(GoloModule module) {
+    this.module = module;
+    for (GoloFunction function : new ArrayList<>(module.getFunctions())) {
+      function.accept(this);
+    }
+  }
+
+  @Override
+  public void visitFunction(GoloFunction function) {
+    function.getBlock().accept(this);
+  }
+
+  @Override
+  public void visitClosureReference(ClosureReference closureReference) {
+    // the closure function is visited as a module function
+  }
+
+  @Override
+  public void visitBinaryOperation(BinaryOperation operation) {
+    operation.walk(this);
+    if (operation.getType() != METHOD_CALL || isChained(operation)) {
+      return;
+    }
+    BinaryOperation last = operation;
+    while (last.getRightExpression() instanceof BinaryOperation) {
+      last = (BinaryOperation) last.getRightExpression();
+      if (last.getType() != METHOD_CALL) {
+        return;
+      }
+    }
+    if (!(last.getRightExpression() instanceof MethodInvocation)) {
+      return;
+    }
+    MethodInvocation invocation = (MethodInvocation) last.getRightExpression();
+    Intrinsic intrinsic = Intrinsic.of(invocation);
+    if (intrinsic == null || invocation.usesNamedArguments() || invocation.isNullSafeGuarded()) {
+      return;
+    }
+    ExpressionStatement closure = invocation.getArguments().get(intrinsic.values);
+    ExpressionStatement body = closureBody(closure, intrinsic);
+    if (body == null) {
+      return;
+    }
+    inline(operation, last, intrinsic, invocation, (ClosureReference) closure, body);
+  }
+
+  private static boolean isChained(BinaryOperation operation) {
+    if (!operation.getParentNode().isPresent() || !(operation.getParentNode().get() instanceof BinaryOperation)) {
+      return false;
+    }
+    BinaryOperation parent = (BinaryOperation) operation.getParentNode().get();
+    return (parent.getType() == METHOD_CALL || parent.getType() == ELVIS_METHOD_CALL)
+      && parent.getRightExpression() == operation;
+  }
+
+  private static ExpressionStatement closureBody(ExpressionStatement closure, Intrinsic intrinsic) {
+    if (!(closure instanceof ClosureReference)) {
+      return null;
+    }
+    GoloFunction target = ((ClosureReference) closure).getTarget();
+    if (target.isVarargs() || target.isDecorated()
+        || target.getArity() < intrinsic.minParameters || target.getArity() > intrinsic.maxParameters
+        || !target.getBlock().hasOnlyReturn()) {
+      return null;
+    }
+    GoloStatement returned = ((ReturnStatement) target.getBlock().getStatements().get(0)).getExpressionStatement();
+    return returned instanceof ExpressionStatement ? (ExpressionStatement) returned : null;
+  }
+
+  private void inline(BinaryOperation operation, BinaryOperation last, Intrinsic intrinsic,
+                      MethodInvocation invocation, ClosureReference closure, ExpressionStatement body) {
+    LocalReference receiverRef = localRef(symbols.next("receiver")).synthetic();
+    LocalReference argumentRef = localRef(symbols.next("argument")).synthetic();
+    LocalReference resultRef = localRef(symbols.next("result")).variable().synthetic();
+    LocalReference indexRef = localRef(symbols.next("index")).variable().synthetic();
+    LocalReference iteratorRef = localRef(symbols.next("iterator")).variable().synthetic();
+    LocalReference elementRef = localRef(symbols.next("element")).synthetic();
+
+    List<Supplier<ExpressionStatement>> parameters = new ArrayList<>();
+    if (intrinsic == Intrinsic.REDUCE) {
+      parameters.add(resultRef::lookup);
+    }
+    parameters.add(intrinsic.isNumeric() ? indexRef::lookup : elementRef::lookup);
+    ExpressionStatement inlinedBody = copyBody(closure.getTarget(), body, parameters);
+    if (inlinedBody == null) {
+      return;
+    }
+
+    ExpressionStatement receiver;
+    ExpressionStatement argument = intrinsic.values == 1 ? invocation.getArguments().get(0) : null;
+    Block expansion = block();
+    operation.replaceInParentBy(expansion);
+    if (last == operation) {
+      receiver = operation.getLeftExpression();
+    } else {
+      last.replaceInParentBy(last.getLeftExpression());
+      receiver = operation;
+    }
+    expansion.addStatement(define(receiverRef).as(receiver));
+    List<Object> guardArguments = new ArrayList<>();
+    guardArguments.add(classRef(module.getPackageAndClass()));
+    guardArguments.add(constant(intrinsic.methodName));
+    guardArguments.add(receiverRef.lookup());
+    List<Object> fallbackArguments = new ArrayList<>();
+    if (argument != null) {
+      expansion.addStatement(define(argumentRef).as(argument));
+      guardArguments.add(argumentRef.lookup());
+      fallbackArguments.add(argumentRef.lookup());
+    }
+    fallbackArguments.add(closure);
+    expansion.addStatement(define(resultRef).as(constant(null)));
+    expansion.addStatement(branch()
+        .condition(call(GUARD).withArgs(guardArguments.toArray()))
+        .whenTrue(loopBlock(intrinsic, inlinedBody, receiverRef, argumentRef, resultRef, indexRef, iteratorRef, elementRef))
+        .whenFalse(block(
+            assign(invoke(intrinsic.methodName).withArgs(fallbackArguments.toArray()).on(receiverRef.lookup()))
+            .to(resultRef))));
+    expansion.addStatement(resultRef.lookup());
+  }
+
+  private static ExpressionStatement copyBody(GoloFunction closure, ExpressionStatement body,
+                                              List<Supplier<ExpressionStatement>> parameters) {
+    Map<String, Supplier<ExpressionStatement>> references = new HashMap<>();
+    body.accept(new AbstractGoloIrVisitor() {
+      @Override
+      public void visitReferenceLookup(ReferenceLookup referenceLookup) {
+        String name = referenceLookup.getName();
+        references.put(name, () -> refLookup(name));
+      }
+
+      @Override
+      public void visitClosureReference(ClosureReference closureReference) {
+        // can't be copied anyway
+      }
+    });
+    List<String> parameterNames = closure.getParameterNames();
+    for (int i = 0; i < parameterNames.size(); i++) {
+      references.put(parameterNames.get(i), parameters.get(i));
+    }
+    return FunctionInliningVisitor.copy(body, references, new int[1]);
+  }
+
+  private Block loopBlock(Intrinsic intrinsic, ExpressionStatement body, LocalReference receiverRef,
+                          LocalReference argumentRef, LocalReference resultRef, LocalReference indexRef,
+                          LocalReference iteratorRef, LocalReference elementRef) {
+    Block loopBody = block();
+    Block result = block();
+    switch (intrinsic) {
+      case TIMES:
+      case UP_TO:
+      case DOWN_TO:
+        loopBody.addStatement(define(localRef(symbols.next("value")).synthetic()).as(body));
+        result.addStatement(loop()
+            .init(define(indexRef).as(intrinsic == Intrinsic.TIMES ? constant(0) : receiverRef.lookup()))
+            .condition(binaryOperation(
+                intrinsic == Intrinsic.DOWN_TO ? MOREOREQUALS : intrinsic == Intrinsic.UP_TO ? LESSOREQUALS : LESS,
+                indexRef.lookup(),
+                intrinsic == Intrinsic.TIMES ? receiverRef.lookup() : argumentRef.lookup()))
+            .post(assign(binaryOperation(intrinsic == Intrinsic.DOWN_TO ? MINUS : PLUS, indexRef.lookup(), constant(1)))
+              .to(indexRef))
+            .block(loopBody));
+        return result;
+      case EACH:
+        loopBody.addStatement(define(localRef(symbols.next("value")).synthetic()).as(body));
+        break;
+      case REDUCE:
+        result.addStatement(assign(argumentRef.lookup()).to(resultRef));
+        loopBody.addStatement(assign(body).to(resultRef));
+        break;
+      case COUNT:
+        result.addStatement(assign(constant(0)).to(resultRef));
+        loopBody.addStatement(branch()
+            .condition(body)
+            .whenTrue(block(assign(binaryOperation(PLUS, resultRef.lookup(), constant(1))).to(resultRef))));
+        break;
+      case EXISTS:
+        result.addStatement(assign(constant(false)).to(resultRef));
+        loopBody.addStatement(branch()
+            .condition(body)
+            .whenTrue(block(assign(constant(true)).to(resultRef), LoopBreakFlowStatement.newBreak())));
+        break;
+      default:
+        throw new IllegalStateException(intrinsic.toString());
+    }
+    loopBody.prependStatement(define(elementRef).as(invoke("next").on(iteratorRef.lookup())));
+    result.addStatement(loop()
+        .init(define(iteratorRef).as(invoke("iterator").on(receiverRef.lookup())))
+        .condition(invoke("hasNext").on(iteratorRef.lookup()))
+        .block(loopBody));
+    if (intrinsic == Intrinsic.EACH) {
+      result.addStatement(assign(receiverRef.lookup()).to(resultRef));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler;
+
+import org.eclipse.golo.compiler.ir.GoloModule;
+import org.eclipse.golo.compiler.ir.IrNodeCounter;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Costs of the compilation of Golo modules, to find the ones that are slow or large to compile.
+ * <p>
+ * When given to a {@link GoloCompiler}, it records for each compiled module the wall time and the bytes allocated by
+ * each phase of the compilation, the number of nodes of the intermediate representation, and the size of the bytecode
+ * generated for each function. Allocated bytes are only available on JVMs that support measuring the allocations of
+ * a thread, and are reported as {@code -1} otherwise.
+ * <p>
+ * Instances are not thread-safe: a compiler records the phases of one module at a time.
+ */
+public final class CompilationStatistics {
+
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+  /**
+   * The costs of a compilation phase.
+   */
+  public static final class Phase {
+    private final String name;
+    private final long nanos;
+    private final long allocatedBytes;
+
+    Phase(String name, long nanos, long allocatedBytes) {
+      this.name = name;
+      this.nanos = nanos;
+      this.allocatedBytes = allocatedBytes;
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public long nanos() {
+      return nanos;
+    }
+
+    public long allocatedBytes() {
+      return allocatedBytes;
+    }
+  }
+
+  /**
+   * The costs of the compilation of a module.
+   */
+  public static final class Module {
+    private final String source;
+    private final List<Phase> phases = new ArrayList<>();
+    private final Map<String, Integer> irNodes = new LinkedHashMap<>();
+    private final Map<String, Integer> bytecodeSizes = new LinkedHashMap<>();
+    private int irNodeCount = 0;
+    private int bytecodeSize = 0;
+
+    Module(String source) {
+      this.source = source;
+    }
+
+    public String source() {
+      return source;
+    }
+
+    public List<Phase> phases() {
+      return Collections.unmodifiableList(phases);
+    }
+
+    /**
+     * @return the number of nodes of each kind in the intermediate representation, as of the last phase.
+     */
+    public Map<String, Integer> irNodes() {
+      return Collections.unmodifiableMap(irNodes);
+    }
+
+    public int irNodeCount() {
+      return irNodeCount;
+    }
+
+    /**
+     * @return the size of the code of each generated method, keyed by {@code class::name descriptor}.
+     */
+    public Map<String, Integer> bytecodeSizes() {
+      return Collections.unmodifiableMap(bytecodeSizes);
+    }
+
+    /**
+     * @return the total size of the generated class files.
+     */
+    public int bytecodeSize() {
+      return bytecodeSize;
+    }
+
+    public long nanos() {
+      return phases.stream().mapToLong(Phase::nanos).sum();
+    }
+
+    public long allocatedBytes() {
+      return phases.stream().anyMatch(p -> p.allocatedBytes() < 0)
+          ? -1
+          : phases.stream().mapToLong(Phase::allocatedBytes).sum();
+    }
+  }
+
+  private final List<Module> modules = new ArrayList<>();
+  private Module current;
+
+  /**
+   * @return the recorded modules, in compilation order.
+   */
+  public List<Module> modules() {
+    return Collections.unmodifiableList(modules);
+  }
+
+  void startModule(String source) {
+    current = new Module(source);
+    modules.add(current);
+  }
+
+  private Module current() {
+    if (current == null) {
+      startModule("<unknown>");
+    }
+    return current;
+  }
+
+  /**
+   * A phase being measured, recorded when closed.
+   */
+  public interface Measure extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  Measure measure(String phase) {
+    Module module = current();
+    long bytes = allocatedBytes();
+    long start = System.nanoTime();
+    return () -> {
+      long nanos = System.nanoTime() - start;
+      long allocated = bytes < 0 ? -1 : allocatedBytes() - bytes;
+      module.phases.add(new Phase(phase, nanos, allocated));
+    };
+  }
+
+  private static long allocatedBytes() {
+    if (THREADS instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+      if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+
+  void count(GoloModule goloModule) {
+    IrNodeCounter counter = new IrNodeCounter();
+    goloModule.accept(counter);
+    Module module = current();
+    module.irNodes.clear();
+    module.irNodes.putAll(counter.counts());
+    module.irNodeCount = counter.total();
+  }
+
+  void generated(List<CodeGenerationResult> results) {
+    Module module = current();
+    for (CodeGenerationResult result : results) {
+      byte[] bytecode = result.getBytecode();
+      module.bytecodeSize = module.bytecodeSize + bytecode.length;
+      String className = result.getPackageAndClass().toString();
+      try {
+        codeSizes(bytecode).forEach((method, size) -> module.bytecodeSizes.put(className + "::" + method, size));
+      } catch (IOException e) {
+        // a malformed class file would have been rejected by the class loader anyway
+      }
+    }
+  }
+
+  /**
+   * Reads the size of the code of each method of a class file.
+   */
+  static Map<String, Integer> codeSizes(byte[] bytecode) throws IOException {
+    Map<String, Integer> sizes = new LinkedHashMap<>();
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytecode));
+    in.skipBytes(8);
+    int constantPoolCount = in.readUnsignedShort();
+    String[] utf8 = new String[constantPoolCount];
+    for (int i = 1; i < constantPoolCount; i++) {
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1:
+          utf8[i] = in.readUTF();
+          break;
+        case 7: case 8: case 16:
+          in.skipBytes(2);
+          break;
+        case 15:
+          in.skipBytes(3);
+          break;
+        case 3: case 4: case 9: case 10: case 11: case 12: case 18:
+          in.skipBytes(4);
+          break;
+        case 5: case 6:
+          in.skipBytes(8);
+          i = i + 1;
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tag);
+      }
+    }
+    in.skipBytes(6);
+    in.skipBytes(2 * in.readUnsignedShort());
+    int fieldCount = in.readUnsignedShort();
+    for (int i = 0; i < fieldCount; i++) {
+      in.skipBytes(6);
+      skipAttributes(in);
+    }
+    int methodCount = in.readUnsignedShort();
+    for (int i = 0; i < methodCount; i++) {
+      in.skipBytes(2);
+      String name = utf8[in.readUnsignedShort()] + " " + utf8[in.readUnsignedShort()];
+      int attributeCount = in.readUnsignedShort();
+      for (int j = 0; j < attributeCount; j++) {
+        String attribute = utf8[in.readUnsignedShort()];
+        int length = in.readInt();
+        if ("Code".equals(attribute)) {
+          in.skipBytes(4);
+          sizes.put(name, in.readInt());
+          in.skipBytes(length - 8);
+        } else {
+          in.skipBytes(length);
+        }
+      }
+    }
+    return sizes;
+  }
+
+  private static void skipAttributes(DataInputStream in) throws IOException {
+    int count = in.readUnsignedShort();
+    for (int i = 0; i < count; i++) {
+      in.skipBytes(2);
+      in.skipBytes(in.readInt());
+    }
+  }
+
+  /**
+   * Prints a report of the recorded costs.
+   *
+   * @param out the stream to print to.
+   */
+  public void report(PrintStream out) {
+    for (Module module : modules) {
+      out.println(String.format(">>> %s: %.3fms, %s, %d IR nodes, %d bytes of bytecode",
+            module.source(), module.nanos() / 1e6, bytes(module.allocatedBytes()),
+            module.irNodeCount(), module.bytecodeSize()));
+      for (Phase phase : module.phases()) {
+        out.println(String.format("  phase %-22s %10.3fms %14s", phase.name(), phase.nanos() / 1e6,
+              bytes(phase.allocatedBytes())));
+      }
+      for (Map.Entry<String, Integer> node : module.irNodes().entrySet()) {
+        out.println(String.format("  ir    %-22s %10d", node.getKey(), node.getValue()));
+      }
+      for (Map.Entry<String, Integer> method : module.bytecodeSizes().entrySet()) {
+        out.println(String.format("  code  %s %d bytes", method.getKey(), method.getValue()));
+      }
+    }
+    if (modules.size() > 1) {
+      long nanos = modules.stream().mapToLong(Module::nanos).sum();
+      long allocated = modules.stream().anyMatch(m -> m.allocatedBytes() < 0)
+          ? -1
+          : modules.stream().mapToLong(Module::allocatedBytes).sum();
+      out.println(String.format(">>> total: %d modules, %.3fms, %s", modules.size(), nanos / 1e6, bytes(allocated)));
+    }
+  }
+
+  private static String bytes(long count) {
+    return count < 0 ? "n/a allocated" : count + " bytes allocated";
+  }
+}
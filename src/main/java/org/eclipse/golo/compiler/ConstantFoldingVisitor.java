@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler;
+
+import org.eclipse.golo.compiler.ir.*;
+import org.eclipse.golo.runtime.OperatorSupport;
+import org.eclipse.golo.runtime.OperatorType;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.eclipse.golo.compiler.ir.Builders.*;
+import static org.eclipse.golo.runtime.OperatorType.*;
+
+/**
+ * Visitor to simplify constant expressions and branches.
+ * <p>
+ * Arithmetic, comparison, boolean and string operations whose operands are literals are evaluated at compile time
+ * and replaced by their value. The operations are evaluated with the same {@link OperatorSupport} methods as the
+ * runtime call sites would use, so that folding never changes the semantics. Operations that would fail at runtime,
+ * such as a division by zero, are left untouched, and so are strings too large to be stored in a class file.
+ * <p>
+ * Conditional branchings on a constant condition are replaced by the branch that would be taken.
+ */
+class ConstantFoldingVisitor extends AbstractGoloIrVisitor {
+
+  private static final Set<OperatorType> FOLDABLE_OPERATORS = EnumSet.of(
+      PLUS, MINUS, TIMES, DIVIDE, MODULO,
+      EQUALS, NOTEQUALS, LESS, LESSOREQUALS, MORE, MOREOREQUALS);
+
+  private static final Set<Class<?>> LITERAL_TYPES = new HashSet<>(Arrays.asList(
+      Integer.class, Long.class, Double.class, Float.class, Character.class, Boolean.class, String.class,
+      BigInteger.class, BigDecimal.class));
+
+  @Override
+  public void visitClosureReference(ClosureReference closureReference) {
+    // the closure function is visited as a module function
+  }
+
+  @Override
+  public void visitBinaryOperation(BinaryOperation binaryOperation) {
+    binaryOperation.walk(this);
+    ExpressionStatement left = binaryOperation.getLeftExpression();
+    ExpressionStatement right = binaryOperation.getRightExpression();
+    OperatorType type = binaryOperation.getType();
+    if (FOLDABLE_OPERATORS.contains(type)) {
+      if (isLiteral(left) && isLiteral(right)) {
+        Optional<Object> value = evaluate(type, valueOf(left), valueOf(right));
+        if (value.isPresent()) {
+          binaryOperation.replaceInParentBy(constant(value.get()));
+        }
+      }
+    } else if (type == AND || type == OR) {
+      foldLogic(binaryOperation, type == AND, left, right);
+    } else if (type == ORIFNULL && left instanceof ConstantStatement) {
+      binaryOperation.replaceInParentBy(valueOf(left) == null ? right : left);
+    }
+  }
+
+  private void foldLogic(BinaryOperation binaryOperation, boolean and, ExpressionStatement left, ExpressionStatement right) {
+    if (!isBoolean(left)) {
+      return;
+    }
+    boolean value = (Boolean) valueOf(left);
+    if (value != and) {
+      // false and x, true or x
+      binaryOperation.replaceInParentBy(constant(value));
+    } else if (isBoolean(right)) {
+      binaryOperation.replaceInParentBy(constant(valueOf(right)));
+    }
+  }
+
+  @Override
+  public void visitUnaryOperation(UnaryOperation unaryOperation) {
+    unaryOperation.walk(this);
+    ExpressionStatement expression = unaryOperation.getExpressionStatement();
+    if (unaryOperation.getType() == NOT && isBoolean(expression)) {
+      unaryOperation.replaceInParentBy(constant(!(Boolean) valueOf(expression)));
+    }
+  }
+
+  /**
+   * Dead branch elimination.
+   * <p>
+   * The else branches with a constant condition are merged into this branching. If this branching has itself a
+   * constant condition, it is replaced in its block by the taken branch.
+   */
+  @Override
+  public void visitConditionalBranching(ConditionalBranching branching) {
+    branching.walk(this);
+    while (branching.hasElseConditionalBranching()
+           && isBoolean(branching.getElseConditionalBranching().getCondition())) {
+      ConditionalBranching elseBranching = branching.getElseConditionalBranching();
+      branching.setElseConditionalBranching(null);
+      if ((Boolean) valueOf(elseBranching.getCondition())) {
+        branching.whenFalse(elseBranching.getTrueBlock());
+      } else if (elseBranching.hasFalseBlock()) {
+        branching.whenFalse(elseBranching.getFalseBlock());
+      } else if (elseBranching.hasElseConditionalBranching()) {
+        branching.elseBranch(elseBranching.getElseConditionalBranching());
+      }
+    }
+    if (!isBoolean(branching.getCondition())
+        || !branching.getParentNode().isPresent()
+        || !(branching.getParentNode().get() instanceof Block)) {
+      return;
+    }
+    if ((Boolean) valueOf(branching.getCondition())) {
+      branching.replaceInParentBy(branching.getTrueBlock());
+    } else if (branching.hasFalseBlock()) {
+      branching.replaceInParentBy(branching.getFalseBlock());
+    } else if (branching.hasElseConditionalBranching()) {
+      branching.replaceInParentBy(branching.getElseConditionalBranching());
+    } else {
+      branching.replaceInParentBy(block());
+    }
+  }
+
+  private static boolean isLiteral(ExpressionStatement expression) {
+    return expression instanceof ConstantStatement
+        && valueOf(expression) != null
+        && LITERAL_TYPES.contains(valueOf(expression).getClass());
+  }
+
+  private static boolean isBoolean(ExpressionStatement expression) {
+    return expression instanceof ConstantStatement && valueOf(expression) instanceof Boolean;
+  }
+
+  private static Object valueOf(ExpressionStatement expression) {
+    return ((ConstantStatement) expression).getValue();
+  }
+
+  /**
+   * Evaluates an operator as the runtime would do, by looking for a specialized method and then for the fallback one.
+   */
+  private static Optional<Object> evaluate(OperatorType type, Object left, Object right) {
+    String name = type.name().toLowerCase();
+    Method method;
+    try {
+      method = OperatorSupport.class.getMethod(name, left.getClass(), right.getClass());
+    } catch (NoSuchMethodException e) {
+      try {
+        method = OperatorSupport.class.getMethod(name + "_fallback", Object.class, Object.class);
+      } catch (NoSuchMethodException fallbackNotFound) {
+        return Optional.empty();
+      }
+    }
+    try {
+      Object value = method.invoke(null, left, right);
+      if (value != null && LITERAL_TYPES.contains(value.getClass())
+          && (!(value instanceof String) || JavaBytecodeUtils.fitsInConstantPool((String) value))) {
+        return Optional.of(value);
+      }
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      // not foldable, the error will be raised at runtime
+    }
+    return Optional.empty();
+  }
+}
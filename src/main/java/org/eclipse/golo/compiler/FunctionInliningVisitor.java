@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler;
+
+import org.eclipse.golo.compiler.ir.*;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.eclipse.golo.compiler.ir.Builders.*;
+import static org.eclipse.golo.runtime.OperatorType.ANON_CALL;
+
+/**
+ * Visitor to inline small module functions at their call sites.
+ * <p>
+ * A function can be inlined if it is a plain module function (not decorated, not variable-arity, not a closure) whose
+ * body only returns an expression made of its parameters, constants, operators, function calls and method calls,
+ * within a size budget, and that does not call itself. Calls by name of such a function from the module functions
+ * are replaced by a copy of the returned expression.
+ * <p>
+ * The arguments are evaluated once and in order: constant and local reference arguments are substituted, while
+ * other arguments, including module state references, are first assigned to synthetic references in a block. The
+ * inlined code gets the line of the call site, so that stack traces point to it.
+ * <p>
+ * Functions are only inlined when enabled with {@link GoloCompiler#setInliningFunctions(boolean)}.
+ */
+class FunctionInliningVisitor extends AbstractGoloIrVisitor {
+
+  private static final int INLINING_BUDGET = 10;
+
+  private final SymbolGenerator symbols = new SymbolGenerator("inline");
+  private final Map<String, Inlinable> inlinables = new HashMap<>();
+  private final Deque<ReferenceTable> tableStack = new LinkedList<>();
+
+  private static final class Inlinable {
+    final List<String> parameters;
+    final ExpressionStatement body;
+    final Set<String> calledFunctions = new HashSet<>();
+
+    Inlinable(List<String> parameters, ExpressionStatement body) {
+      this.parameters = parameters;
+      this.body = body;
+    }
+  }
+
+  private static String key(String name, int arity) {
+    return name + "/" + arity;
+  }
+
+  @Override
+  public void visitModule(GoloModule module) {
+    for (GoloFunction function : module.getFunctions()) {
+      Inlinable inlinable = inlinable(function);
+      if (inlinable != null) {
+        inlinables.put(key(function.getName(), function.getArity()), inlinable);
+      }
+    }
+    if (!inlinables.isEmpty()) {
+      for (GoloFunction function : module.getFunctions()) {
+        function.accept(this);
+      }
+    }
+  }
+
+  private static Inlinable inlinable(GoloFunction function) {
+    if (function.isDecorated() || function.isDecorator() || function.isVarargs() || function.isClosure()
+        || function.isMain() || function.isModuleInit() || function.isSynthetic()) {
+      return null;
+    }
+    List<GoloStatement> statements = function.getBlock().getStatements();
+    if (statements.size() != 1 || !(statements.get(0) instanceof ReturnStatement)) {
+      return null;
+    }
+    ReturnStatement returnStatement = (ReturnStatement) statements.get(0);
+    GoloStatement returned = returnStatement.getExpressionStatement();
+    if (returnStatement.isReturningVoid() || !(returned instanceof ExpressionStatement)) {
+      return null;
+    }
+    Map<String, Supplier<ExpressionStatement>> parameters = new HashMap<>();
+    for (String parameter : function.getParameterNames()) {
+      parameters.put(parameter, () -> refLookup(parameter));
+    }
+    int[] size = {0};
+    ExpressionStatement body = copy((ExpressionStatement) returned, parameters, size);
+    if (body == null || size[0] > INLINING_BUDGET) {
+      return null;
+    }
+    Inlinable inlinable = new Inlinable(function.getParameterNames(), body);
+    collectCalls(body, inlinable.calledFunctions);
+    if (inlinable.calledFunctions.contains(key(function.getName(), function.getArity()))) {
+      return null;
+    }
+    return inlinable;
+  }
+
+  /**
+   * Copies an expression, substituting the references, or returns {@code null} if the expression can't be copied.
+   */
+  static ExpressionStatement copy(ExpressionStatement expression, Map<String, Supplier<ExpressionStatement>> references, int[] size) {
+    size[0]++;
+    if (expression instanceof ConstantStatement) {
+      return constant(((ConstantStatement) expression).getValue());
+    }
+    if (expression instanceof ReferenceLookup) {
+      Supplier<ExpressionStatement> reference = references.get(((ReferenceLookup) expression).getName());
+      return reference == null ? null : reference.get();
+    }
+    if (expression instanceof UnaryOperation) {
+      UnaryOperation operation = (UnaryOperation) expression;
+      ExpressionStatement operand = copy(operation.getExpressionStatement(), references, size);
+      return operand == null ? null : not(operand);
+    }
+    if (expression instanceof BinaryOperation) {
+      BinaryOperation operation = (BinaryOperation) expression;
+      if (operation.getType() == ANON_CALL) {
+        return null;
+      }
+      ExpressionStatement left = copy(operation.getLeftExpression(), references, size);
+      ExpressionStatement right = copy(operation.getRightExpression(), references, size);
+      return left == null || right == null ? null : binaryOperation(operation.getType(), left, right);
+    }
+    if (expression instanceof FunctionInvocation) {
+      FunctionInvocation invocation = (FunctionInvocation) expression;
+      if (invocation.isAnonymous() || invocation.isOnReference() || invocation.isOnModuleState()
+          || invocation.usesNamedArguments()) {
+        return null;
+      }
+      List<ExpressionStatement> arguments = copyAll(invocation.getArguments(), references, size);
+      return arguments == null ? null : call(invocation.getName()).constant(invocation.isConstant()).withArgs(arguments.toArray());
+    }
+    if (expression instanceof MethodInvocation) {
+      MethodInvocation invocation = (MethodInvocation) expression;
+      if (invocation.usesNamedArguments()) {
+        return null;
+      }
+      List<ExpressionStatement> arguments = copyAll(invocation.getArguments(), references, size);
+      return arguments == null ? null : invoke(invocation.getName()).nullSafe(invocation.isNullSafeGuarded()).withArgs(arguments.toArray());
+    }
+    return null;
+  }
+
+  private static List<ExpressionStatement> copyAll(List<ExpressionStatement> expressions, Map<String, Supplier<ExpressionStatement>> references, int[] size) {
+    List<ExpressionStatement> copies = new ArrayList<>(expressions.size());
+    for (ExpressionStatement expression : expressions) {
+      ExpressionStatement copy = copy(expression, references, size);
+      if (copy == null) {
+        return null;
+      }
+      copies.add(copy);
+    }
+    return copies;
+  }
+
+  private static void collectCalls(ExpressionStatement expression, Set<String> calls) {
+    expression.accept(new AbstractGoloIrVisitor() {
+      @Override
+      public void visitFunctionInvocation(FunctionInvocation invocation) {
+        calls.add(key(invocation.getName(), invocation.getArity()));
+        invocation.walk(this);
+      }
+    });
+  }
+
+  @Override
+  public void visitFunction(GoloFunction function) {
+    function.getBlock().accept(this);
+  }
+
+  @Override
+  public void visitBlock(Block block) {
+    tableStack.push(block.getReferenceTable());
+    block.walk(this);
+    tableStack.pop();
+  }
+
+  @Override
+  public void visitClosureReference(ClosureReference closureReference) {
+    // the closure function is visited as a module function
+  }
+
+  @Override
+  public void visitFunctionInvocation(FunctionInvocation invocation) {
+    invocation.walk(this);
+    Inlinable inlinable = inlinables.get(key(invocation.getName(), invocation.getArity()));
+    if (inlinable == null || tableStack.isEmpty() || !invocation.getParentNode().isPresent()
+        || invocation.isAnonymous() || invocation.isConstant() || invocation.usesNamedArguments()
+        || isShadowed(invocation.getName()) || isShadowed(inlinable.calledFunctions)) {
+      return;
+    }
+    inline(invocation, inlinable);
+  }
+
+  private boolean isShadowed(String name) {
+    return tableStack.peek().hasReferenceFor(name);
+  }
+
+  private boolean isShadowed(Set<String> calls) {
+    for (String call : calls) {
+      if (isShadowed(call.substring(0, call.lastIndexOf('/')))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void inline(FunctionInvocation invocation, Inlinable inlinable) {
+    List<Object> statements = new ArrayList<>();
+    Map<String, Supplier<ExpressionStatement>> references = new HashMap<>();
+    List<ExpressionStatement> arguments = invocation.getArguments();
+    for (int i = 0; i < arguments.size(); i++) {
+      ExpressionStatement argument = arguments.get(i);
+      if (argument instanceof ConstantStatement) {
+        Object value = ((ConstantStatement) argument).getValue();
+        references.put(inlinable.parameters.get(i), () -> constant(value));
+      } else if (isLocal(argument)) {
+        String name = ((ReferenceLookup) argument).getName();
+        references.put(inlinable.parameters.get(i), () -> refLookup(name));
+      } else {
+        LocalReference reference = localRef(symbols.next(inlinable.parameters.get(i))).synthetic();
+        statements.add(define(reference).as(argument));
+        references.put(inlinable.parameters.get(i), reference::lookup);
+      }
+    }
+    ExpressionStatement body = copy(inlinable.body, references, new int[1]);
+    if (statements.isEmpty()) {
+      invocation.replaceInParentBy(body);
+    } else {
+      LocalReference result = localRef(symbols.next("result")).synthetic();
+      statements.add(define(result).as(body));
+      statements.add(result.lookup());
+      Block block = block(statements.toArray());
+      for (GoloStatement statement : block.getStatements()) {
+        statement.setASTNode(invocation.getASTNode());
+      }
+      invocation.replaceInParentBy(block);
+    }
+  }
+
+  private boolean isLocal(ExpressionStatement argument) {
+    if (!(argument instanceof ReferenceLookup)) {
+      return false;
+    }
+    LocalReference reference = ((ReferenceLookup) argument).resolveIn(tableStack.peek());
+    return reference != null && !reference.isModuleState();
+  }
+}
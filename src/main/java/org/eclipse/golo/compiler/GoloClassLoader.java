@@ -10,7 +10,13 @@
 package org.eclipse.golo.compiler;
 
 import java.io.InputStream;
+import java.lang.invoke.SwitchPoint;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Provides a facility to dynamically load Golo source code and access the generated code from a dedicated class loader.
@@ -18,12 +24,42 @@ import java.util.List;
  * Golo source files can be compiled and the resulting JVM bytecode be injected into the class loader. It is important
  * to note that this class loader definition is not thread safe.
  * <p>
- * This class loader does not support reloading. Attempts to load source files that may produce the same bytecode
- * definitions will resulting in exceptions.
+ * Loading source files that produce the same bytecode definitions with {@link #load(String, InputStream)} results in
+ * exceptions. A module can however be replaced with {@link #reload(String, InputStream)}: the new classes are defined
+ * in a dedicated child class loader, and this class loader gives them from then on. Call sites linked to the previous
+ * version of the module are guarded by a per-module {@link SwitchPoint}, which is invalidated on reload so that only
+ * these call sites link again.
  */
 public class GoloClassLoader extends ClassLoader {
 
+  private static final SwitchPoint INVALIDATED = new SwitchPoint();
+
+  static {
+    SwitchPoint.invalidateAll(new SwitchPoint[]{INVALIDATED});
+  }
+
   private final GoloCompiler compiler = new GoloCompiler();
+  private final ConcurrentMap<String, Class<?>> reloaded = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, String> modules = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, ClassLoader> currentLoaders = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, SwitchPoint> switchPoints = new ConcurrentHashMap<>();
+
+  /**
+   * The class loader holding one reloaded version of a module.
+   */
+  private static final class Generation extends ClassLoader {
+
+    private final GoloClassLoader root;
+
+    Generation(GoloClassLoader root) {
+      super(root);
+      this.root = root;
+    }
+
+    Class<?> define(byte[] bytecode) {
+      return defineClass(null, bytecode, 0, bytecode.length);
+    }
+  }
 
   /**
    * Creates a class loader from a parent.
@@ -41,6 +77,15 @@ public class GoloClassLoader extends ClassLoader {
     super();
   }
 
+  /**
+   * Gives the compiler used by this class loader, so that its options can be set before loading sources.
+   *
+   * @return the compiler.
+   */
+  public GoloCompiler getCompiler() {
+    return compiler;
+  }
+
   /**
    * Compiles and loads the resulting JVM bytecode for a Golo source file.
    *
@@ -51,11 +96,124 @@ public class GoloClassLoader extends ClassLoader {
    */
   public synchronized Class<?> load(String goloSourceFilename, InputStream sourceCodeInputStream) throws GoloCompilationException {
     List<CodeGenerationResult> results = compiler.compile(goloSourceFilename, sourceCodeInputStream);
-    Class<?> lastClassIsModule = null;
+    List<Class<?>> classes = new ArrayList<>(results.size());
     for (CodeGenerationResult result : results) {
       byte[] bytecode = result.getBytecode();
-      lastClassIsModule = defineClass(null, bytecode, 0, bytecode.length);
+      classes.add(defineClass(null, bytecode, 0, bytecode.length));
+    }
+    return register(classes, this);
+  }
+
+  /**
+   * Compiles a Golo source file and replaces the module it defines.
+   * <p>
+   * The module does not need to have been loaded before. Code already running keeps using the classes it has linked
+   * to, while call sites resolved against the previous version of the module link again on their next invocation.
+   *
+   * @param goloSourceFilename    the source file name.
+   * @param sourceCodeInputStream the source input stream.
+   * @return the class matching the new version of the Golo module defined in the source.
+   * @throws GoloCompilationException if either of the compilation phase failed.
+   */
+  public synchronized Class<?> reload(String goloSourceFilename, InputStream sourceCodeInputStream) throws GoloCompilationException {
+    List<CodeGenerationResult> results = compiler.compile(goloSourceFilename, sourceCodeInputStream);
+    Generation generation = new Generation(this);
+    List<Class<?>> classes = new ArrayList<>(results.size());
+    for (CodeGenerationResult result : results) {
+      classes.add(generation.define(result.getBytecode()));
+    }
+    Set<String> names = new HashSet<>();
+    for (Class<?> type : classes) {
+      reloaded.put(type.getName(), type);
+      names.add(type.getName());
+    }
+    // the new version is registered before the classes of the previous one are forgotten, so that a call site being
+    // linked meanwhile to the previous version still finds its module
+    Class<?> moduleClass = register(classes, generation);
+    String module = moduleClass.getName();
+    reloaded.keySet().removeIf(name -> module.equals(modules.get(name)) && !names.contains(name));
+    SwitchPoint previous = switchPoints.remove(module);
+    if (previous != null) {
+      SwitchPoint.invalidateAll(new SwitchPoint[]{previous});
+    }
+    return moduleClass;
+  }
+
+  private Class<?> register(List<Class<?>> classes, ClassLoader loader) {
+    Class<?> lastClassIsModule = classes.isEmpty() ? null : classes.get(classes.size() - 1);
+    for (Class<?> type : classes) {
+      modules.put(type.getName(), lastClassIsModule.getName());
+    }
+    if (lastClassIsModule != null) {
+      currentLoaders.put(lastClassIsModule.getName(), loader);
     }
     return lastClassIsModule;
   }
+
+  @Override
+  protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+    Class<?> type = reloaded.get(name);
+    if (type != null) {
+      return type;
+    }
+    return super.loadClass(name, resolve);
+  }
+
+  private static GoloClassLoader rootOf(ClassLoader loader) {
+    if (loader instanceof Generation) {
+      return ((Generation) loader).root;
+    }
+    if (loader instanceof GoloClassLoader) {
+      return (GoloClassLoader) loader;
+    }
+    return null;
+  }
+
+  /**
+   * Gives the switch point guarding a call site of {@code caller} linked to code of {@code target}.
+   * <p>
+   * The switch point is invalidated when the module defining {@code target} is reloaded. If {@code target} is not
+   * the current version of its class, the returned switch point is already invalidated.
+   *
+   * @param caller the class of the call site.
+   * @param target the class defining the linked method, constructor or field.
+   * @return the switch point, or {@code null} if the call site does not need to be guarded, that is if
+   * {@code target} was not loaded by a {@code GoloClassLoader} or belongs to the same module as {@code caller}.
+   */
+  public static SwitchPoint switchPointFor(Class<?> caller, Class<?> target) {
+    GoloClassLoader root = rootOf(target.getClassLoader());
+    if (root == null) {
+      return null;
+    }
+    String module = root.modules.get(target.getName());
+    if (module == null) {
+      return null;
+    }
+    if (caller.getClassLoader() == target.getClassLoader() && module.equals(root.modules.get(caller.getName()))) {
+      return null;
+    }
+    if (root.currentLoaders.get(module) != target.getClassLoader()) {
+      return INVALIDATED;
+    }
+    return root.switchPoints.computeIfAbsent(module, name -> new SwitchPoint());
+  }
+
+  /**
+   * Loads and initializes a class, as {@link Class#forName(String, boolean, ClassLoader)} does.
+   * <p>
+   * The JVM caches the classes found through {@code Class.forName}, so the latest version of a reloaded module is
+   * only visible by asking a {@code GoloClassLoader} directly.
+   *
+   * @param name the class name.
+   * @param loader the class loader to use.
+   * @return the class.
+   * @throws ClassNotFoundException if the class cannot be found.
+   */
+  public static Class<?> forName(String name, ClassLoader loader) throws ClassNotFoundException {
+    if (rootOf(loader) == null) {
+      return Class.forName(name, true, loader);
+    }
+    Class<?> type = loader.loadClass(name);
+    return Class.forName(type.getName(), true, type.getClassLoader());
+  }
 }
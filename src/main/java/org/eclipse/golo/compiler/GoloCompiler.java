@@ -9,6 +9,7 @@
 
 package org.eclipse.golo.compiler;
 
+import org.eclipse.golo.compiler.ir.GoloIrVisitor;
 import org.eclipse.golo.compiler.ir.GoloModule;
 import org.eclipse.golo.compiler.parser.ASTCompilationUnit;
 import org.eclipse.golo.compiler.parser.GoloOffsetParser;
@@ -36,6 +37,14 @@ public class GoloCompiler {
 
   private GoloParser parser;
   private GoloCompilationException.Builder exceptionBuilder = null;
+  private LinkIndexBuilder linkIndexBuilder = null;
+  private boolean optimizing = true;
+  private boolean inliningFunctions = Boolean.valueOf(System.getProperty("golo.compiler.inline-functions", "false"));
+  private boolean arrayBackedLists = Boolean.valueOf(System.getProperty("golo.compiler.array-lists", "false"));
+  private boolean parallelComprehensions = Boolean.valueOf(System.getProperty("golo.compiler.parallel-comprehensions", "false"));
+  private CompilationStatistics statistics = null;
+
+  private static final CompilationStatistics.Measure NO_MEASURE = () -> { };
 
 
   /**
@@ -58,6 +67,95 @@ public class GoloCompiler {
   public void resetExceptionBuilder() {
     exceptionBuilder = null;
   }
+
+  /**
+   * Collects the link information of the compiled classes into a link index builder.
+   *
+   * @param builder the link index builder to add compiled classes into, or {@code null} to stop collecting.
+   */
+  public final void setLinkIndexBuilder(LinkIndexBuilder builder) {
+    linkIndexBuilder = builder;
+  }
+
+  /**
+   * Enables or disables the optimization of the intermediate representation, such as constant folding.
+   *
+   * @param optimizing whether to optimize the compiled code (the default).
+   */
+  public final void setOptimizing(boolean optimizing) {
+    this.optimizing = optimizing;
+  }
+
+  /**
+   * Enables or disables the inlining of calls to small module functions.
+   * <p>
+   * Functions are only inlined when optimizing. Inlining is disabled by default, and its default value is given by
+   * the {@code golo.compiler.inline-functions} system property.
+   *
+   * @param inliningFunctions whether to inline calls to small module functions.
+   */
+  public final void setInliningFunctions(boolean inliningFunctions) {
+    this.inliningFunctions = inliningFunctions;
+  }
+
+  /**
+   * Chooses the implementation of the {@code list[...]} literals and comprehensions.
+   * <p>
+   * Lists are {@code java.util.LinkedList} instances by default. When array-backed lists are enabled, they
+   * are {@code java.util.ArrayList} instances, just like vectors. The default value is given by the
+   * {@code golo.compiler.array-lists} system property.
+   *
+   * @param arrayBackedLists whether to compile lists as {@code java.util.ArrayList} instances.
+   */
+  public final void setArrayBackedLists(boolean arrayBackedLists) {
+    this.arrayBackedLists = arrayBackedLists;
+  }
+
+  /**
+   * Enables or disables the parallel evaluation of comprehensions over parallel streams.
+   * <p>
+   * When enabled, the expression and the {@code when} clause of a comprehension made of a single {@code foreach}
+   * loop over {@code parallelStream()} or {@code parallel()} are applied concurrently to the stream elements.
+   * Otherwise, such a comprehension iterates over the stream in the calling thread, like any other one. The
+   * default value is given by the {@code golo.compiler.parallel-comprehensions} system property.
+   *
+   * @param parallelComprehensions whether to evaluate comprehensions over parallel streams concurrently.
+   */
+  public final void setParallelComprehensions(boolean parallelComprehensions) {
+    this.parallelComprehensions = parallelComprehensions;
+  }
+
+  /**
+   * Records the costs of the compilation phases of the next compiled modules.
+   *
+   * @param statistics the statistics to add the compiled modules into, or {@code null} to stop recording.
+   */
+  public final void setStatistics(CompilationStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  private CompilationStatistics.Measure measure(String phase) {
+    return statistics == null ? NO_MEASURE : statistics.measure(phase);
+  }
+
+  private void startModule(String goloSourceFilename) {
+    if (statistics != null) {
+      statistics.startModule(goloSourceFilename);
+    }
+  }
+
+  private void countNodes(GoloModule goloModule) {
+    if (statistics != null && goloModule != null) {
+      statistics.count(goloModule);
+    }
+  }
+
+  private void refine(GoloModule goloModule, String phase, GoloIrVisitor visitor) {
+    try (CompilationStatistics.Measure measure = measure(phase)) {
+      goloModule.accept(visitor);
+    }
+  }
+
   /**
    * Initializes a parser from an input stream. This method is made public for the requirements of IDEs support.
    *
@@ -98,10 +196,25 @@ public class GoloCompiler {
    */
   public final List<CodeGenerationResult> compile(String goloSourceFilename, InputStream sourceCodeInputStream) throws GoloCompilationException {
     resetExceptionBuilder();
-    ASTCompilationUnit compilationUnit = parse(goloSourceFilename, initParser(goloSourceFilename, sourceCodeInputStream));
+    startModule(goloSourceFilename);
+    GoloParser goloParser;
+    try (CompilationStatistics.Measure measure = measure("read")) {
+      goloParser = initParser(goloSourceFilename, sourceCodeInputStream);
+    }
+    ASTCompilationUnit compilationUnit = parse(goloSourceFilename, goloParser);
     GoloModule goloModule = check(compilationUnit);
     JavaBytecodeGenerationGoloIrVisitor bytecodeGenerator = new JavaBytecodeGenerationGoloIrVisitor();
-    return bytecodeGenerator.generateBytecode(goloModule, goloSourceFilename);
+    List<CodeGenerationResult> results;
+    try (CompilationStatistics.Measure measure = measure("generate")) {
+      results = bytecodeGenerator.generateBytecode(goloModule, goloSourceFilename);
+    }
+    if (statistics != null) {
+      statistics.generated(results);
+    }
+    if (linkIndexBuilder != null) {
+      linkIndexBuilder.add(goloModule, results);
+    }
+    return results;
   }
 
   private void throwIfErrorEncountered() {
@@ -183,7 +296,7 @@ public class GoloCompiler {
   public final ASTCompilationUnit parse(String goloSourceFilename, GoloParser parser) throws GoloCompilationException {
     ASTCompilationUnit compilationUnit = null;
     parser.exceptionBuilder = getOrCreateExceptionBuilder(goloSourceFilename);
-    try {
+    try (CompilationStatistics.Measure measure = measure("parse")) {
       compilationUnit = parser.CompilationUnit();
     } catch (ParseException pe) {
       exceptionBuilder.report(pe, compilationUnit);
@@ -193,8 +306,13 @@ public class GoloCompiler {
   }
 
   public final ASTCompilationUnit parse(String goloSourceFilename) throws GoloCompilationException, IOException {
+    startModule(goloSourceFilename);
     try (FileInputStream in = new FileInputStream(goloSourceFilename)) {
-      return parse(goloSourceFilename, initParser(goloSourceFilename, in));
+      GoloParser goloParser;
+      try (CompilationStatistics.Measure measure = measure("read")) {
+        goloParser = initParser(goloSourceFilename, in);
+      }
+      return parse(goloSourceFilename, goloParser);
     }
   }
 
@@ -213,16 +331,31 @@ public class GoloCompiler {
   }
 
   public final GoloModule transform(ASTCompilationUnit compilationUnit) {
-    return new ParseTreeToGoloIrVisitor().transform(compilationUnit, exceptionBuilder);
+    GoloModule goloModule;
+    try (CompilationStatistics.Measure measure = measure("transform")) {
+      goloModule = new ParseTreeToGoloIrVisitor().transform(compilationUnit, exceptionBuilder);
+    }
+    countNodes(goloModule);
+    return goloModule;
   }
 
   public final void refine(GoloModule goloModule) {
     if (goloModule != null) {
-      goloModule.accept(new SugarExpansionVisitor());
-      goloModule.accept(new ClosureCaptureGoloIrVisitor());
-      goloModule.accept(new LocalReferenceAssignmentAndVerificationVisitor(exceptionBuilder));
+      refine(goloModule, "sugar-expansion", new SugarExpansionVisitor(arrayBackedLists, parallelComprehensions));
+      if (optimizing) {
+        refine(goloModule, "augmentation-inlining", new AugmentationInliningVisitor());
+        if (inliningFunctions) {
+          refine(goloModule, "function-inlining", new FunctionInliningVisitor());
+        }
+      }
+      refine(goloModule, "closure-capture", new ClosureCaptureGoloIrVisitor());
+      refine(goloModule, "local-references", new LocalReferenceAssignmentAndVerificationVisitor(exceptionBuilder));
     }
     throwIfErrorEncountered();
+    if (goloModule != null && optimizing) {
+      refine(goloModule, "constant-folding", new ConstantFoldingVisitor());
+    }
+    countNodes(goloModule);
   }
 
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler;
+
+import org.eclipse.golo.compiler.ir.GoloFunction;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+import static org.eclipse.golo.compiler.JavaBytecodeUtils.loadInteger;
+import static org.objectweb.asm.ClassWriter.COMPUTE_FRAMES;
+import static org.objectweb.asm.ClassWriter.COMPUTE_MAXS;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates the class of a closure that captures values.
+ * <p>
+ * Instances of such a class are function references holding the captured values in final fields. All the instances
+ * share the same static entry point, which loads the captured values and calls the closure function.
+ */
+class JavaBytecodeClosureGenerator {
+
+  private static final String FUNCTION_REFERENCE = "gololang/FunctionReference";
+  private static final String OBJECT = "Ljava/lang/Object;";
+  private static final String PARAMETER_NAMES = "$parameterNames";
+  private static final String ENTRY_POINT = "invoke";
+
+  public CodeGenerationResult compile(PackageAndClass carrier, PackageAndClass module, GoloFunction closure, String sourceFilename) {
+    String owner = carrier.toJVMType();
+    int captured = closure.getSyntheticParameterCount();
+    List<String> parameterNames = closure.getParameterNames();
+    ClassWriter classWriter = new ClassWriter(COMPUTE_FRAMES | COMPUTE_MAXS);
+    classWriter.visitSource(sourceFilename, null);
+    classWriter.visit(V1_8, ACC_PUBLIC | ACC_SUPER | ACC_FINAL | ACC_SYNTHETIC, owner, null, FUNCTION_REFERENCE, null);
+    for (int i = 0; i < captured; i++) {
+      classWriter.visitField(ACC_PRIVATE | ACC_FINAL, capturedField(i), OBJECT, null, null).visitEnd();
+    }
+    classWriter.visitField(ACC_PRIVATE | ACC_STATIC | ACC_FINAL, PARAMETER_NAMES, "[Ljava/lang/String;", null, null).visitEnd();
+    makeStaticInitializer(classWriter, owner, parameterNames.subList(captured, parameterNames.size()));
+    makeConstructor(classWriter, owner, closure);
+    makeEntryPoint(classWriter, owner, module, closure);
+    classWriter.visitEnd();
+    return new CodeGenerationResult(classWriter.toByteArray(), carrier);
+  }
+
+  private static String capturedField(int index) {
+    return "captured$" + index;
+  }
+
+  private static String constructorDescriptor(int captured) {
+    return MethodType.genericMethodType(captured).changeReturnType(void.class).toMethodDescriptorString();
+  }
+
+  private static String functionDescriptor(GoloFunction closure) {
+    return MethodType.genericMethodType(
+        closure.isVarargs() ? closure.getArity() - 1 : closure.getArity(),
+        closure.isVarargs()).toMethodDescriptorString();
+  }
+
+  private static String entryPointDescriptor(String owner, GoloFunction closure) {
+    int arity = closure.getArity() - closure.getSyntheticParameterCount();
+    MethodType type = MethodType.genericMethodType(closure.isVarargs() ? arity - 1 : arity, closure.isVarargs());
+    return "(L" + owner + ";" + type.toMethodDescriptorString().substring(1);
+  }
+
+  private void makeStaticInitializer(ClassWriter classWriter, String owner, List<String> parameterNames) {
+    MethodVisitor visitor = classWriter.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+    visitor.visitCode();
+    loadInteger(visitor, parameterNames.size());
+    visitor.visitTypeInsn(ANEWARRAY, "java/lang/String");
+    for (int i = 0; i < parameterNames.size(); i++) {
+      visitor.visitInsn(DUP);
+      loadInteger(visitor, i);
+      visitor.visitLdcInsn(parameterNames.get(i));
+      visitor.visitInsn(AASTORE);
+    }
+    visitor.visitFieldInsn(PUTSTATIC, owner, PARAMETER_NAMES, "[Ljava/lang/String;");
+    visitor.visitInsn(RETURN);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+
+  private void makeConstructor(ClassWriter classWriter, String owner, GoloFunction closure) {
+    int captured = closure.getSyntheticParameterCount();
+    MethodVisitor visitor = classWriter.visitMethod(ACC_PUBLIC, "<init>", constructorDescriptor(captured), null, null);
+    visitor.visitCode();
+    visitor.visitVarInsn(ALOAD, 0);
+    visitor.visitLdcInsn(new Handle(H_INVOKESTATIC, owner, ENTRY_POINT, entryPointDescriptor(owner, closure), false));
+    visitor.visitInsn(closure.isVarargs() ? ICONST_1 : ICONST_0);
+    visitor.visitFieldInsn(GETSTATIC, owner, PARAMETER_NAMES, "[Ljava/lang/String;");
+    visitor.visitMethodInsn(INVOKESPECIAL, FUNCTION_REFERENCE, "<init>", "(Ljava/lang/invoke/MethodHandle;Z[Ljava/lang/String;)V", false);
+    for (int i = 0; i < captured; i++) {
+      visitor.visitVarInsn(ALOAD, 0);
+      visitor.visitVarInsn(ALOAD, i + 1);
+      visitor.visitFieldInsn(PUTFIELD, owner, capturedField(i), OBJECT);
+    }
+    visitor.visitInsn(RETURN);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+
+  private void makeEntryPoint(ClassWriter classWriter, String owner, PackageAndClass module, GoloFunction closure) {
+    int captured = closure.getSyntheticParameterCount();
+    int arguments = closure.getArity() - captured;
+    MethodVisitor visitor = classWriter.visitMethod(ACC_PUBLIC | ACC_STATIC, ENTRY_POINT, entryPointDescriptor(owner, closure), null, null);
+    visitor.visitCode();
+    for (int i = 0; i < captured; i++) {
+      visitor.visitVarInsn(ALOAD, 0);
+      visitor.visitFieldInsn(GETFIELD, owner, capturedField(i), OBJECT);
+    }
+    for (int i = 0; i < arguments; i++) {
+      visitor.visitVarInsn(ALOAD, i + 1);
+    }
+    visitor.visitMethodInsn(INVOKESTATIC, module.toJVMType(), closure.getName(), functionDescriptor(closure), false);
+    visitor.visitInsn(ARETURN);
+    visitor.visitMaxs(0, 0);
+    visitor.visitEnd();
+  }
+}
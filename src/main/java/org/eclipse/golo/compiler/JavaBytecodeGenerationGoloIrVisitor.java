@@ -11,6 +11,8 @@ package org.eclipse.golo.compiler;
 
 import org.eclipse.golo.compiler.ir.*;
 import org.eclipse.golo.compiler.parser.GoloParser;
+import org.eclipse.golo.runtime.LinkIndex;
+import org.eclipse.golo.runtime.Warnings;
 import gololang.FunctionReference;
 import org.objectweb.asm.*;
 
@@ -19,6 +21,7 @@ import java.util.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
+import static org.eclipse.golo.compiler.JavaBytecodeUtils.fitsInConstantPool;
 import static org.eclipse.golo.compiler.JavaBytecodeUtils.loadInteger;
 import static org.eclipse.golo.compiler.JavaBytecodeUtils.loadLong;
 import static org.eclipse.golo.compiler.JavaBytecodeUtils.visitLine;
@@ -48,14 +51,19 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
 
   private ClassWriter classWriter;
   private String klass;
+  private Set<PackageAndClass> closureClasses;
   private String jvmKlass;
   private MethodVisitor currentMethodVisitor;
+  private GoloFunction currentFunction;
+  private Label functionStart;
   private List<CodeGenerationResult> generationResults;
   private String sourceFilename;
   private Context context;
   private GoloModule currentModule;
   private static final JavaBytecodeStructGenerator STRUCT_GENERATOR = new JavaBytecodeStructGenerator();
   private static final JavaBytecodeUnionGenerator UNION_GENERATOR = new JavaBytecodeUnionGenerator();
+  private static final JavaBytecodeClosureGenerator CLOSURE_GENERATOR = new JavaBytecodeClosureGenerator();
+  private static final int MIN_SWITCH_ARMS = 3;
 
   private static final class Context {
     private final Deque<ReferenceTable> referenceTableStack = new LinkedList<>();
@@ -87,6 +95,7 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     this.sourceFilename = sourceFilename;
     this.classWriter = new ClassWriter(COMPUTE_FRAMES | COMPUTE_MAXS);
     this.generationResults = new LinkedList<>();
+    this.closureClasses = new HashSet<>();
     this.context = new Context();
     module.accept(this);
     this.classWriter.visitEnd();
@@ -129,11 +138,12 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     this.currentModule = module;
     classWriter.visit(V1_8, ACC_PUBLIC | ACC_SUPER, module.getPackageAndClass().toJVMType(), null, JOBJECT, null);
     classWriter.visitSource(sourceFilename, null);
-    writeImportMetaData(module.getImports());
+    writeMetaData("imports", importNames(module.getImports()));
     klass = module.getPackageAndClass().toString();
     jvmKlass = module.getPackageAndClass().toJVMType();
-    writeAugmentsMetaData();
+    writeMetaData("augmentations", augmentationTargets(module));
     writeAugmentationApplicationsMetaData();
+    writeVersion(moduleVersion(module));
     module.walk(this);
   }
 
@@ -190,11 +200,7 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
      */
     List<Augmentation> applications = new ArrayList<>(this.currentModule.getAugmentations());
     int applicationsSize = applications.size();
-    writeMetaData("augmentationApplications",
-        applications.stream()
-        .map(Augmentation::getTarget)
-        .map(PackageAndClass::toString)
-        .toArray(String[]::new));
+    writeMetaData("augmentationApplications", augmentationTargets(this.currentModule));
     Label defaultLabel = new Label();
     Label[] labels = new Label[applicationsSize];
     int[] keys = new int[applicationsSize];
@@ -236,20 +242,51 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     mv.visitEnd();
   }
 
-  private void writeImportMetaData(Set<ModuleImport> imports) {
-    writeMetaData("imports",
-        imports.stream()
+  /**
+   * Writes the version of the class metadata, that the link index entries of the class are checked against.
+   */
+  private void writeVersion(int version) {
+    classWriter.visitField(
+        ACC_PUBLIC | ACC_STATIC | ACC_FINAL | ACC_SYNTHETIC,
+        "$" + LinkIndex.VERSION, "I", null, version).visitEnd();
+  }
+
+  static String[] importNames(Set<ModuleImport> imports) {
+    return imports.stream()
         .map(ModuleImport::getPackageAndClass)
         .map(PackageAndClass::toString)
-        .toArray(String[]::new));
+        .toArray(String[]::new);
   }
 
-  private void writeAugmentsMetaData() {
-    writeMetaData("augmentations",
-        currentModule.getAugmentations().stream()
+  static String[] augmentationTargets(GoloModule module) {
+    return module.getAugmentations().stream()
         .map(Augmentation::getTarget)
         .map(PackageAndClass::toString)
-        .toArray(String[]::new));
+        .toArray(String[]::new);
+  }
+
+  static Set<ModuleImport> augmentationImports(GoloModule module) {
+    Set<ModuleImport> imports = new HashSet<>(module.getImports());
+    imports.add(Builders.moduleImport(module.getPackageAndClass()));
+    return imports;
+  }
+
+  static PackageAndClass augmentationClass(GoloModule module, PackageAndClass target) {
+    return module.getPackageAndClass().createInnerClass(target.mangledName());
+  }
+
+  static int moduleVersion(GoloModule module) {
+    List<String[]> data = new ArrayList<>();
+    data.add(importNames(module.getImports()));
+    data.add(augmentationTargets(module));
+    for (Augmentation augmentation : module.getAugmentations()) {
+      data.add(augmentation.getNames().toArray(new String[augmentation.getNames().size()]));
+    }
+    return LinkIndex.version(data.toArray(new String[data.size()][]));
+  }
+
+  static int augmentationVersion(GoloModule module) {
+    return LinkIndex.version(importNames(augmentationImports(module)));
   }
 
   @Override
@@ -283,7 +320,7 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     }
     ClassWriter mainClassWriter = classWriter;
     String mangledClass = target.mangledName();
-    PackageAndClass packageAndClass = this.currentModule.getPackageAndClass().createInnerClass(mangledClass);
+    PackageAndClass packageAndClass = augmentationClass(this.currentModule, target);
     String augmentationClassInternalName = packageAndClass.toJVMType();
     String outerName = this.currentModule.getPackageAndClass().toJVMType();
 
@@ -302,9 +339,8 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
       function.accept(this);
     }
 
-    Set<ModuleImport> imports = new HashSet<>(this.currentModule.getImports());
-    imports.add(Builders.moduleImport(this.currentModule.getPackageAndClass()));
-    writeImportMetaData(imports);
+    writeMetaData("imports", importNames(augmentationImports(this.currentModule)));
+    writeVersion(augmentationVersion(this.currentModule));
 
     classWriter.visitEnd();
     generationResults.add(new CodeGenerationResult(classWriter.toByteArray(), packageAndClass));
@@ -314,6 +350,10 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
   @Override
   public void visitFunction(GoloFunction function) {
     int accessFlags = function.isLocal() ? ACC_PRIVATE : ACC_PUBLIC;
+    if (function.isClosure() && function.getSyntheticParameterCount() > 0) {
+      // called from the generated closure class
+      accessFlags = 0;
+    }
     String signature;
     if (function.isMain()) {
       signature = "([Ljava/lang/String;)V";
@@ -336,6 +376,9 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     if (function.isDecorated()) {
       AnnotationVisitor annotation = currentMethodVisitor.visitAnnotation("Lgololang/annotations/DecoratedBy;", true);
       annotation.visit("value", function.getDecoratorRef());
+      if (function.hasConstantDecorators()) {
+        annotation.visit("constant", true);
+      }
       annotation.visitEnd();
     }
     for (String parameter: function.getParameterNames()) {
@@ -343,6 +386,9 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     }
     currentMethodVisitor.visitCode();
     visitLine(function, currentMethodVisitor);
+    currentFunction = function;
+    functionStart = new Label();
+    currentMethodVisitor.visitLabel(functionStart);
     function.walk(this);
     if (function.isModuleInit()) {
       currentMethodVisitor.visitInsn(RETURN);
@@ -371,10 +417,14 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     Label blockStart = new Label();
     Label blockEnd = new Label();
     currentMethodVisitor.visitLabel(blockStart);
-    for (GoloStatement statement : block.getStatements()) {
+    List<GoloStatement> statements = block.getStatements();
+    for (int i = 0; i < statements.size(); i++) {
+      GoloStatement statement = statements.get(i);
       visitLine(statement, currentMethodVisitor);
       statement.accept(this);
-      insertMissingPop(statement);
+      if (i < statements.size() - 1 || isBody(block)) {
+        insertMissingPop(statement);
+      }
     }
     currentMethodVisitor.visitLabel(blockEnd);
     for (LocalReference localReference : referenceTable.ownedReferences()) {
@@ -388,17 +438,34 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
   }
 
   private void insertMissingPop(GoloStatement statement) {
-    Class<? extends GoloStatement> statementClass = statement.getClass();
-    if (statementClass == FunctionInvocation.class) {
+    if (leavesValue(statement)) {
       currentMethodVisitor.visitInsn(POP);
-    } else if (statementClass == BinaryOperation.class) {
-      BinaryOperation operation = (BinaryOperation) statement;
-      if (operation.isMethodCall()) {
-        currentMethodVisitor.visitInsn(POP);
-      }
     }
   }
 
+  /**
+   * Checks if a statement leaves a value on the stack.
+   * <p>
+   * Expressions leave their value. A block that is not the body of a statement is an expression too, whose value is
+   * the one of its last statement.
+   */
+  private static boolean leavesValue(GoloStatement statement) {
+    if (statement instanceof Block) {
+      Block block = (Block) statement;
+      return !isBody(block) && !block.isEmpty() && leavesValue(block.getStatements().get(block.size() - 1));
+    }
+    return statement instanceof ExpressionStatement;
+  }
+
+  private static boolean isBody(Block block) {
+    GoloElement parent = block.getParentNode().orElse(null);
+    return parent == null
+        || parent instanceof GoloFunction
+        || parent instanceof LoopStatement
+        || parent instanceof ConditionalBranching
+        || parent instanceof TryCatchFinally;
+  }
+
   @Override
   public void visitConstantStatement(ConstantStatement constantStatement) {
     Object value = constantStatement.getValue();
@@ -469,6 +536,10 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
 
   @Override
   public void visitReturnStatement(ReturnStatement returnStatement) {
+    if (isSelfTailCall(returnStatement)) {
+      selfTailCall((FunctionInvocation) returnStatement.getExpressionStatement());
+      return;
+    }
     returnStatement.getExpressionStatement().accept(this);
     if (returnStatement.isReturningVoid()) {
       currentMethodVisitor.visitInsn(RETURN);
@@ -478,6 +549,64 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
 
   }
 
+  /**
+   * Checks if an invocation is a call of the current function on itself.
+   * <p>
+   * Decorated and variable arity functions are excluded, as well as augmentation and closure functions, since a call
+   * by name from their body doesn't target them.
+   */
+  private boolean isSelfCall(FunctionInvocation invocation) {
+    GoloFunction function = currentFunction;
+    return function != null
+      && invocation.getName().equals(function.getName())
+      && invocation.getArity() == function.getArity()
+      && !invocation.isOnReference()
+      && !invocation.isOnModuleState()
+      && !invocation.isAnonymous()
+      && !invocation.usesNamedArguments()
+      && !function.isVarargs()
+      && !function.isMain()
+      && !function.isClosure()
+      && !function.isDecorated()
+      && function.getParentNode().isPresent()
+      && function.getParentNode().get() instanceof GoloModule;
+  }
+
+  private boolean isSelfTailCall(ReturnStatement returnStatement) {
+    GoloStatement expression = returnStatement.getExpressionStatement();
+    return !returnStatement.isReturningVoid()
+      && expression instanceof FunctionInvocation
+      && isSelfCall((FunctionInvocation) expression)
+      && !inTryBlock(returnStatement);
+  }
+
+  private static boolean inTryBlock(GoloElement element) {
+    Optional<GoloElement> parent = element.getParentNode();
+    while (parent.isPresent() && !(parent.get() instanceof GoloFunction)) {
+      if (parent.get() instanceof TryCatchFinally) {
+        return true;
+      }
+      parent = parent.get().getParentNode();
+    }
+    return false;
+  }
+
+  /**
+   * Compiles a self call in tail position as a jump to the function start, after assigning the arguments to the
+   * parameters.
+   */
+  private void selfTailCall(FunctionInvocation invocation) {
+    for (ExpressionStatement argument : invocation.getArguments()) {
+      argument.accept(this);
+    }
+    ReferenceTable table = currentFunction.getBlock().getReferenceTable();
+    List<String> parameters = currentFunction.getParameterNames();
+    for (int i = parameters.size() - 1; i >= 0; i--) {
+      currentMethodVisitor.visitVarInsn(ASTORE, table.get(parameters.get(i)).getIndex());
+    }
+    currentMethodVisitor.visitJumpInsn(GOTO, functionStart);
+  }
+
   @Override
   public void visitThrowStatement(ThrowStatement throwStatement) {
     throwStatement.getExpressionStatement().accept(this);
@@ -500,6 +629,12 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
 
   @Override
   public void visitFunctionInvocation(FunctionInvocation functionInvocation) {
+    if (isSelfCall(functionInvocation)) {
+      Warnings.nonTailRecursiveCall(
+          currentFunction.getName(),
+          currentModule.getPackageAndClass().toString(),
+          functionInvocation.getPositionInSourceCode().getLine());
+    }
     String name = functionInvocation.getName().replaceAll("\\.", "#");
     String typeDef = goloFunctionSignature(functionInvocation.getArity());
     Handle handle = FUNCTION_INVOCATION_HANDLE;
@@ -567,6 +702,11 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
 
   @Override
   public void visitConditionalBranching(ConditionalBranching conditionalBranching) {
+    List<ConditionalBranching> arms = switchArms(conditionalBranching);
+    if (arms != null) {
+      switchBranching(arms);
+      return;
+    }
     Label branchingElseLabel = new Label();
     Label branchingExitLabel = new Label();
     conditionalBranching.getCondition().accept(this);
@@ -592,6 +732,190 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     }
   }
 
+  /**
+   * Gives the leading arms of a chain of conditional branchings comparing the same reference to constant literals
+   * of the same type, or {@code null} if there are too few of them to be worth a switch.
+   */
+  private static List<ConditionalBranching> switchArms(ConditionalBranching branching) {
+    List<ConditionalBranching> arms = new ArrayList<>();
+    String subject = null;
+    Class<?> literalType = null;
+    ConditionalBranching arm = branching;
+    while (arm != null) {
+      ReferenceLookup lookup = switchSubject(arm.getCondition());
+      Object literal = switchLiteral(arm.getCondition());
+      if (lookup == null || literal == null) {
+        break;
+      }
+      if (subject == null) {
+        subject = lookup.getName();
+        literalType = literal.getClass();
+      } else if (!subject.equals(lookup.getName()) || literalType != literal.getClass()) {
+        break;
+      }
+      arms.add(arm);
+      arm = arm.hasElseConditionalBranching() ? arm.getElseConditionalBranching() : null;
+    }
+    return arms.size() >= MIN_SWITCH_ARMS ? arms : null;
+  }
+
+  private static BinaryOperation switchEquality(ExpressionStatement condition) {
+    if (condition instanceof BinaryOperation && ((BinaryOperation) condition).getType() == EQUALS) {
+      return (BinaryOperation) condition;
+    }
+    return null;
+  }
+
+  private static ReferenceLookup switchSubject(ExpressionStatement condition) {
+    BinaryOperation equality = switchEquality(condition);
+    if (equality == null) {
+      return null;
+    }
+    if (equality.getLeftExpression() instanceof ReferenceLookup) {
+      return (ReferenceLookup) equality.getLeftExpression();
+    }
+    if (equality.getRightExpression() instanceof ReferenceLookup) {
+      return (ReferenceLookup) equality.getRightExpression();
+    }
+    return null;
+  }
+
+  private static Object switchLiteral(ExpressionStatement condition) {
+    BinaryOperation equality = switchEquality(condition);
+    if (equality == null) {
+      return null;
+    }
+    for (ExpressionStatement operand : Arrays.asList(equality.getLeftExpression(), equality.getRightExpression())) {
+      if (operand instanceof ConstantStatement) {
+        Object value = ((ConstantStatement) operand).getValue();
+        if (value instanceof Integer || value instanceof Character || value instanceof String) {
+          return value;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static int switchKey(Object literal) {
+    if (literal instanceof Character) {
+      return (Character) literal;
+    }
+    if (literal instanceof String) {
+      return literal.hashCode();
+    }
+    return (Integer) literal;
+  }
+
+  /**
+   * Compiles a chain of equality tests against constant literals to a switch.
+   * <p>
+   * When the subject has the exact type of the literals, the matching arm is selected with a {@code tableswitch} or
+   * {@code lookupswitch} instruction, on the string hash codes followed by {@code equals} checks for strings.
+   * Otherwise, the conditions are evaluated in sequence as for a regular chain, so that the operator semantics are
+   * preserved (e.g. comparing a {@code Long} to an {@code Integer} literal). The remaining arms of the chain, if any,
+   * are compiled as usual.
+   */
+  private void switchBranching(List<ConditionalBranching> arms) {
+    ConditionalBranching last = arms.get(arms.size() - 1);
+    ReferenceLookup subject = switchSubject(arms.get(0).getCondition());
+    Object firstLiteral = switchLiteral(arms.get(0).getCondition());
+    String literalType = Type.getInternalName(firstLiteral.getClass());
+    Label sequentialLabel = new Label();
+    Label elseLabel = new Label();
+    Label exitLabel = new Label();
+    Label[] armLabels = new Label[arms.size()];
+    TreeMap<Integer, List<Integer>> armsByKey = new TreeMap<>();
+    Set<Object> seen = new HashSet<>();
+    for (int i = 0; i < arms.size(); i++) {
+      armLabels[i] = new Label();
+      Object literal = switchLiteral(arms.get(i).getCondition());
+      if (seen.add(literal)) {
+        armsByKey.computeIfAbsent(switchKey(literal), k -> new ArrayList<>()).add(i);
+      }
+    }
+
+    subject.accept(this);
+    currentMethodVisitor.visitTypeInsn(INSTANCEOF, literalType);
+    currentMethodVisitor.visitJumpInsn(IFEQ, sequentialLabel);
+    subject.accept(this);
+    currentMethodVisitor.visitTypeInsn(CHECKCAST, literalType);
+    if (firstLiteral instanceof String) {
+      currentMethodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "hashCode", "()I", false);
+      Map<Integer, Label> bucketLabels = new LinkedHashMap<>();
+      for (Integer key : armsByKey.keySet()) {
+        bucketLabels.put(key, new Label());
+      }
+      visitSwitch(bucketLabels, elseLabel);
+      for (Map.Entry<Integer, Label> bucket : bucketLabels.entrySet()) {
+        currentMethodVisitor.visitLabel(bucket.getValue());
+        for (int i : armsByKey.get(bucket.getKey())) {
+          currentMethodVisitor.visitLdcInsn(switchLiteral(arms.get(i).getCondition()));
+          subject.accept(this);
+          currentMethodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
+          currentMethodVisitor.visitJumpInsn(IFNE, armLabels[i]);
+        }
+        currentMethodVisitor.visitJumpInsn(GOTO, elseLabel);
+      }
+    } else {
+      if (firstLiteral instanceof Character) {
+        currentMethodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Character", "charValue", "()C", false);
+      } else {
+        currentMethodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Integer", "intValue", "()I", false);
+      }
+      Map<Integer, Label> keyLabels = new LinkedHashMap<>();
+      for (Map.Entry<Integer, List<Integer>> entry : armsByKey.entrySet()) {
+        keyLabels.put(entry.getKey(), armLabels[entry.getValue().get(0)]);
+      }
+      visitSwitch(keyLabels, elseLabel);
+    }
+
+    currentMethodVisitor.visitLabel(sequentialLabel);
+    for (int i = 0; i < arms.size(); i++) {
+      arms.get(i).getCondition().accept(this);
+      asmBooleanValue();
+      currentMethodVisitor.visitJumpInsn(IFNE, armLabels[i]);
+    }
+    currentMethodVisitor.visitJumpInsn(GOTO, elseLabel);
+
+    for (int i = 0; i < arms.size(); i++) {
+      currentMethodVisitor.visitLabel(armLabels[i]);
+      Block block = arms.get(i).getTrueBlock();
+      block.accept(this);
+      if (!block.hasReturn()) {
+        currentMethodVisitor.visitJumpInsn(GOTO, exitLabel);
+      }
+    }
+    currentMethodVisitor.visitLabel(elseLabel);
+    if (last.hasFalseBlock()) {
+      last.getFalseBlock().accept(this);
+    } else if (last.hasElseConditionalBranching()) {
+      last.getElseConditionalBranching().accept(this);
+    }
+    currentMethodVisitor.visitLabel(exitLabel);
+  }
+
+  private void visitSwitch(Map<Integer, Label> labels, Label defaultLabel) {
+    int[] keys = new int[labels.size()];
+    Label[] targets = new Label[labels.size()];
+    int n = 0;
+    for (Map.Entry<Integer, Label> entry : labels.entrySet()) {
+      keys[n] = entry.getKey();
+      targets[n] = entry.getValue();
+      n++;
+    }
+    long range = (long) keys[n - 1] - keys[0] + 1;
+    if (range <= 2L * n) {
+      Label[] table = new Label[(int) range];
+      Arrays.fill(table, defaultLabel);
+      for (int i = 0; i < n; i++) {
+        table[keys[i] - keys[0]] = targets[i];
+      }
+      currentMethodVisitor.visitTableSwitchInsn(keys[0], keys[n - 1], defaultLabel, table);
+    } else {
+      currentMethodVisitor.visitLookupSwitchInsn(defaultLabel, keys, targets);
+    }
+  }
+
   @Override
   public void visitLoopStatement(LoopStatement loopStatement) {
     // TODO: handle init and post statement and potential reference scoping issues
@@ -697,38 +1021,35 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
     final boolean isVarArgs = target.isVarargs();
     final int arity = (isVarArgs) ? target.getArity() - 1 : target.getArity();
     final int syntheticCount = target.getSyntheticParameterCount();
-    currentMethodVisitor.visitInvokeDynamicInsn(
-        target.getName(),
-        methodType(FunctionReference.class).toMethodDescriptorString(),
-        CLOSUREREF_HANDLE,
-        klass,
-        (Integer) arity,
-        (Boolean) isVarArgs);
     if (syntheticCount > 0) {
+      PackageAndClass module = this.currentModule.getPackageAndClass();
+      PackageAndClass carrier = module.createInnerClass(target.getName());
+      if (closureClasses.add(carrier)) {
+        generationResults.add(CLOSURE_GENERATOR.compile(carrier, module, target, sourceFilename));
+      }
       String[] refs = closureReference.getCapturedReferenceNames().toArray(new String[syntheticCount]);
-      loadInteger(currentMethodVisitor, 0);
-      loadInteger(currentMethodVisitor, syntheticCount);
-      currentMethodVisitor.visitTypeInsn(ANEWARRAY, "java/lang/Object");
+      currentMethodVisitor.visitTypeInsn(NEW, carrier.toJVMType());
+      currentMethodVisitor.visitInsn(DUP);
       ReferenceTable table = context.referenceTableStack.peek();
       for (int i = 0; i < syntheticCount; i++) {
-        currentMethodVisitor.visitInsn(DUP);
-        loadInteger(currentMethodVisitor, i);
         currentMethodVisitor.visitVarInsn(ALOAD, table.get(refs[i]).getIndex());
-        currentMethodVisitor.visitInsn(AASTORE);
       }
       currentMethodVisitor.visitMethodInsn(
-          INVOKEVIRTUAL,
-          "gololang/FunctionReference",
-          "insertArguments",
-          "(I[Ljava/lang/Object;)Lgololang/FunctionReference;", false);
-      if (isVarArgs) {
-        currentMethodVisitor.visitLdcInsn(Type.getType(Object[].class));
-        currentMethodVisitor.visitMethodInsn(
-            INVOKEVIRTUAL,
-            "gololang/FunctionReference",
-            "asVarargsCollector",
-            "(Ljava/lang/Class;)Lgololang/FunctionReference;", false);
-      }
+          INVOKESPECIAL,
+          carrier.toJVMType(),
+          "<init>",
+          genericMethodType(syntheticCount).changeReturnType(void.class).toMethodDescriptorString(),
+          false);
+      // the generated class is not loadable while computing the frames of this class
+      currentMethodVisitor.visitTypeInsn(CHECKCAST, "gololang/FunctionReference");
+    } else {
+      currentMethodVisitor.visitInvokeDynamicInsn(
+          target.getName(),
+          methodType(FunctionReference.class).toMethodDescriptorString(),
+          CLOSUREREF_HANDLE,
+          klass,
+          (Integer) arity,
+          (Boolean) isVarArgs);
     }
   }
 
@@ -744,12 +1065,95 @@ class JavaBytecodeGenerationGoloIrVisitor implements GoloIrVisitor {
       case ORIFNULL:
         orIfNullOperator(binaryOperation);
         break;
+      case PLUS:
+        if (stringConcatenation(binaryOperation)) {
+          break;
+        }
+        binaryOperation.walk(this);
+        genericBinaryOperator(binaryOperation);
+        break;
       default:
         binaryOperation.walk(this);
         genericBinaryOperator(binaryOperation);
     }
   }
 
+  /**
+   * Generates a chain of additions involving a string literal as a single concatenation.
+   * <p>
+   * Once a string literal is added, every following addition is a string concatenation, so that
+   * {@code a + b + ":" + c + d} is generated as a presized {@code StringBuilder} appending {@code a + b}, {@code ":"},
+   * {@code c} and {@code d}. The operands before the first string literal are still added with the
+   * {@code plus} operator, since they may be numbers.
+   *
+   * @return {@code false} if the operation is not such a chain and has not been generated.
+   */
+  private boolean stringConcatenation(BinaryOperation binaryOperation) {
+    LinkedList<ExpressionStatement> operands = new LinkedList<>();
+    LinkedList<ExpressionStatement> partialSums = new LinkedList<>();
+    ExpressionStatement current = binaryOperation;
+    while (current instanceof BinaryOperation && ((BinaryOperation) current).getType() == PLUS) {
+      partialSums.addFirst(current);
+      operands.addFirst(((BinaryOperation) current).getRightExpression());
+      current = ((BinaryOperation) current).getLeftExpression();
+    }
+    operands.addFirst(current);
+    partialSums.addFirst(current);
+    int firstLiteral = -1;
+    for (int i = 0; i < operands.size() && firstLiteral < 0; i++) {
+      if (isStringLiteral(operands.get(i))) {
+        firstLiteral = i;
+      }
+    }
+    if (firstLiteral < 0) {
+      return false;
+    }
+    List<ExpressionStatement> parts = new ArrayList<>();
+    if (firstLiteral > 0) {
+      parts.add(partialSums.get(firstLiteral - 1));
+    }
+    parts.addAll(operands.subList(firstLiteral, operands.size()));
+    int capacity = 0;
+    for (ExpressionStatement part : parts) {
+      capacity = capacity + (isStringLiteral(part) ? ((String) ((ConstantStatement) part).getValue()).length() : 16);
+    }
+    currentMethodVisitor.visitTypeInsn(NEW, "java/lang/StringBuilder");
+    currentMethodVisitor.visitInsn(DUP);
+    loadInteger(currentMethodVisitor, capacity);
+    currentMethodVisitor.visitMethodInsn(INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "(I)V", false);
+    StringBuilder literals = new StringBuilder();
+    for (ExpressionStatement part : parts) {
+      if (isStringLiteral(part)) {
+        String value = (String) ((ConstantStatement) part).getValue();
+        if (!fitsInConstantPool(literals + value)) {
+          appendLiterals(literals);
+        }
+        literals.append(value);
+        continue;
+      }
+      appendLiterals(literals);
+      part.accept(this);
+      currentMethodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append",
+          "(Ljava/lang/Object;)Ljava/lang/StringBuilder;", false);
+    }
+    appendLiterals(literals);
+    currentMethodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+    return true;
+  }
+
+  private static boolean isStringLiteral(ExpressionStatement expression) {
+    return expression instanceof ConstantStatement && ((ConstantStatement) expression).getValue() instanceof String;
+  }
+
+  private void appendLiterals(StringBuilder literals) {
+    if (literals.length() > 0) {
+      currentMethodVisitor.visitLdcInsn(literals.toString());
+      currentMethodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append",
+          "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
+      literals.setLength(0);
+    }
+  }
+
   private void genericBinaryOperator(BinaryOperation binaryOperation) {
     if (!binaryOperation.isMethodCall()) {
       String name = binaryOperation.getType().name().toLowerCase();
@@ -15,6 +15,9 @@ import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodType;
 
 import static org.eclipse.golo.compiler.JavaBytecodeUtils.loadInteger;
 import static org.objectweb.asm.ClassWriter.COMPUTE_FRAMES;
@@ -83,7 +86,8 @@ class JavaBytecodeStructGenerator {
       visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "equals", "(Ljava/lang/Object;)Z", false);
       visitor.visitJumpInsn(IFEQ, nextCase);
       visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitMethodInsn(INVOKEVIRTUAL, owner, member.getName(), "()Ljava/lang/Object;", false);
+      visitor.visitMethodInsn(INVOKEVIRTUAL, owner, member.getName(), "()" + descriptor(member), false);
+      box(visitor, member);
       visitor.visitInsn(ARETURN);
       visitor.visitLabel(nextCase);
       nextCase = new Label();
@@ -125,8 +129,7 @@ class JavaBytecodeStructGenerator {
     for (Member member : struct.getPublicMembers()) {
       visitor.visitInsn(DUP);
       loadInteger(visitor, index);
-      visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      loadBoxedField(visitor, owner, member);
       visitor.visitInsn(AASTORE);
       index = index + 1;
     }
@@ -166,12 +169,11 @@ class JavaBytecodeStructGenerator {
     // The argument is not frozen
     for (Member member : struct.getMembers()) {
       visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), descriptor(member));
       visitor.visitVarInsn(ALOAD, 1);
       visitor.visitTypeInsn(CHECKCAST, owner);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
-      visitor.visitMethodInsn(INVOKESTATIC, "java/util/Objects", "equals", "(Ljava/lang/Object;Ljava/lang/Object;)Z", false);
-      visitor.visitJumpInsn(IFEQ, falseLabel);
+      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), descriptor(member));
+      jumpIfDifferent(visitor, member, falseLabel);
     }
     visitor.visitInsn(ICONST_1);
     visitor.visitInsn(IRETURN);
@@ -196,19 +198,22 @@ class JavaBytecodeStructGenerator {
     visitor.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "hashCode", "()I", false);
     visitor.visitInsn(IRETURN);
     // The receiver is frozen
+    // Same value as Objects.hash() on the boxed values, without boxing them
     visitor.visitLabel(notFrozenLabel);
-    loadInteger(visitor, struct.getMembers().size());
-    visitor.visitTypeInsn(ANEWARRAY, "java/lang/Object");
-    int i = 0;
+    visitor.visitInsn(ICONST_1);
     for (Member member : struct.getMembers()) {
-      visitor.visitInsn(DUP);
-      loadInteger(visitor, i);
+      loadInteger(visitor, 31);
+      visitor.visitInsn(IMUL);
       visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
-      visitor.visitInsn(AASTORE);
-      i = i + 1;
+      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), descriptor(member));
+      if (member.isPrimitive()) {
+        String wrapper = Type.getInternalName(wrapperOf(member));
+        visitor.visitMethodInsn(INVOKESTATIC, wrapper, "hashCode", "(" + descriptor(member) + ")I", false);
+      } else {
+        visitor.visitMethodInsn(INVOKESTATIC, "java/util/Objects", "hashCode", "(Ljava/lang/Object;)I", false);
+      }
+      visitor.visitInsn(IADD);
     }
-    visitor.visitMethodInsn(INVOKESTATIC, "java/util/Objects", "hash", "([Ljava/lang/Object;)I", false);
     visitor.visitInsn(IRETURN);
     visitor.visitMaxs(0, 0);
     visitor.visitEnd();
@@ -221,11 +226,13 @@ class JavaBytecodeStructGenerator {
     visitor.visitCode();
     visitor.visitTypeInsn(NEW, owner);
     visitor.visitInsn(DUP);
+    visitor.visitMethodInsn(INVOKESPECIAL, owner, "<init>", "()V", false);
     for (Member member : struct.getMembers()) {
+      visitor.visitInsn(DUP);
       visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), descriptor(member));
+      visitor.visitFieldInsn(PUTFIELD, owner, member.getName(), descriptor(member));
     }
-    visitor.visitMethodInsn(INVOKESPECIAL, owner, "<init>", allArgsConstructorSignature(struct), false);
     visitor.visitInsn(DUP);
     visitor.visitInsn(frozen ? ICONST_1 : ICONST_0);
     visitor.visitFieldInsn(PUTFIELD, owner, $_frozen, "Z");
@@ -250,8 +257,8 @@ class JavaBytecodeStructGenerator {
       visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
       visitor.visitInsn(DUP);
       visitor.visitVarInsn(ALOAD, 0);
-      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), "Ljava/lang/Object;");
-      visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/Object;)Ljava/lang/StringBuilder;", false);
+      visitor.visitFieldInsn(GETFIELD, owner, member.getName(), descriptor(member));
+      visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(" + descriptor(member) + ")Ljava/lang/StringBuilder;", false);
     }
     visitor.visitLdcInsn("}");
     visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(Ljava/lang/String;)Ljava/lang/StringBuilder;", false);
@@ -279,7 +286,8 @@ class JavaBytecodeStructGenerator {
     for (Member member : struct.getMembers()) {
       visitor.visitVarInsn(ALOAD, 0);
       visitor.visitVarInsn(ALOAD, arg);
-      visitor.visitFieldInsn(PUTFIELD, owner, member.getName(), "Ljava/lang/Object;");
+      unbox(visitor, member);
+      visitor.visitFieldInsn(PUTFIELD, owner, member.getName(), descriptor(member));
       arg = arg + 1;
     }
     initMembersField(struct, owner, visitor);
@@ -361,7 +369,7 @@ class JavaBytecodeStructGenerator {
   private void makeFields(ClassWriter classWriter, Struct struct) {
     classWriter.visitField(ACC_PRIVATE | ACC_FINAL, $_frozen, "Z", null, null).visitEnd();
     for (Member member : struct.getMembers()) {
-      FieldVisitor fieldVisitor = classWriter.visitField(ACC_PRIVATE, member.getName(), "Ljava/lang/Object;", null, null);
+      FieldVisitor fieldVisitor = classWriter.visitField(ACC_PRIVATE, member.getName(), descriptor(member), null, null);
       fieldVisitor.visitEnd();
     }
   }
@@ -369,8 +377,8 @@ class JavaBytecodeStructGenerator {
   private void makeAccessors(ClassWriter classWriter, Struct struct) {
     String owner = struct.getPackageAndClass().toJVMType();
     for (Member member : struct.getMembers()) {
-      makeGetter(classWriter, owner, member.getName());
-      makeSetter(classWriter, owner, member.getName());
+      makeGetter(classWriter, owner, member);
+      makeSetter(classWriter, owner, member);
     }
     makeFrozenGetter(classWriter, owner);
   }
@@ -385,7 +393,8 @@ class JavaBytecodeStructGenerator {
     visitor.visitEnd();
   }
 
-  private void makeSetter(ClassWriter classWriter, String owner, String name) {
+  private void makeSetter(ClassWriter classWriter, String owner, Member member) {
+    String name = member.getName();
     int accessFlag = name.startsWith("_") ? ACC_PRIVATE : ACC_PUBLIC;
     MethodVisitor visitor = classWriter.visitMethod(accessFlag, name, "(Ljava/lang/Object;)Lgololang/GoloStruct;", null, null);
     visitor.visitCode();
@@ -401,21 +410,77 @@ class JavaBytecodeStructGenerator {
     visitor.visitLabel(setLabel);
     visitor.visitVarInsn(ALOAD, 0);
     visitor.visitVarInsn(ALOAD, 1);
-    visitor.visitFieldInsn(PUTFIELD, owner, name, "Ljava/lang/Object;");
+    unbox(visitor, member);
+    visitor.visitFieldInsn(PUTFIELD, owner, name, descriptor(member));
     visitor.visitVarInsn(ALOAD, 0);
     visitor.visitInsn(ARETURN);
     visitor.visitMaxs(0, 0);
     visitor.visitEnd();
   }
 
-  private void makeGetter(ClassWriter classWriter, String owner, String name) {
+  private void makeGetter(ClassWriter classWriter, String owner, Member member) {
+    String name = member.getName();
     int accessFlag = name.startsWith("_") ? ACC_PRIVATE : ACC_PUBLIC;
-    MethodVisitor visitor = classWriter.visitMethod(accessFlag, name, "()Ljava/lang/Object;", null, null);
+    MethodVisitor visitor = classWriter.visitMethod(accessFlag, name, "()" + descriptor(member), null, null);
     visitor.visitCode();
     visitor.visitVarInsn(ALOAD, 0);
-    visitor.visitFieldInsn(GETFIELD, owner, name, "Ljava/lang/Object;");
-    visitor.visitInsn(ARETURN);
+    visitor.visitFieldInsn(GETFIELD, owner, name, descriptor(member));
+    visitor.visitInsn(Type.getType(member.getType()).getOpcode(IRETURN));
     visitor.visitMaxs(0, 0);
     visitor.visitEnd();
   }
+
+  private static String descriptor(Member member) {
+    return Type.getDescriptor(member.getType());
+  }
+
+  private static Class<?> wrapperOf(Member member) {
+    return MethodType.methodType(member.getType()).wrap().returnType();
+  }
+
+  private static void loadBoxedField(MethodVisitor visitor, String owner, Member member) {
+    visitor.visitVarInsn(ALOAD, 0);
+    visitor.visitFieldInsn(GETFIELD, owner, member.getName(), descriptor(member));
+    box(visitor, member);
+  }
+
+  private static void box(MethodVisitor visitor, Member member) {
+    if (member.isPrimitive()) {
+      String wrapper = Type.getInternalName(wrapperOf(member));
+      visitor.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + descriptor(member) + ")L" + wrapper + ";", false);
+    }
+  }
+
+  /*
+   * Numeric members accept any number, so that an integer can be given to a double member.
+   */
+  private static void unbox(MethodVisitor visitor, Member member) {
+    if (!member.isPrimitive()) {
+      return;
+    }
+    if (member.getType() == boolean.class) {
+      visitor.visitTypeInsn(CHECKCAST, "java/lang/Boolean");
+      visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z", false);
+    } else {
+      String method = member.getType().getName() + "Value";
+      visitor.visitTypeInsn(CHECKCAST, "java/lang/Number");
+      visitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Number", method, "()" + descriptor(member), false);
+    }
+  }
+
+  private static void jumpIfDifferent(MethodVisitor visitor, Member member, Label label) {
+    Class<?> type = member.getType();
+    if (type == int.class || type == boolean.class) {
+      visitor.visitJumpInsn(IF_ICMPNE, label);
+    } else if (type == long.class) {
+      visitor.visitInsn(LCMP);
+      visitor.visitJumpInsn(IFNE, label);
+    } else if (type == double.class) {
+      visitor.visitMethodInsn(INVOKESTATIC, "java/lang/Double", "compare", "(DD)I", false);
+      visitor.visitJumpInsn(IFNE, label);
+    } else {
+      visitor.visitMethodInsn(INVOKESTATIC, "java/util/Objects", "equals", "(Ljava/lang/Object;Ljava/lang/Object;)Z", false);
+      visitor.visitJumpInsn(IFEQ, label);
+    }
+  }
 }
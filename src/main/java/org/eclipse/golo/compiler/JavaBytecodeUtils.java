@@ -25,6 +25,29 @@ final class JavaBytecodeUtils {
     return (value >= lower) && (value <= upper);
   }
 
+  private static final int MAX_CONSTANT_UTF8_LENGTH = 65535;
+
+  /**
+   * Checks whether a string can be stored as a constant of a class file, whose size in modified UTF-8 is limited.
+   */
+  static boolean fitsInConstantPool(String value) {
+    if (value.length() * 3 <= MAX_CONSTANT_UTF8_LENGTH) {
+      return true;
+    }
+    long length = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= 0x0001 && c <= 0x007F) {
+        length = length + 1;
+      } else if (c <= 0x07FF) {
+        length = length + 2;
+      } else {
+        length = length + 3;
+      }
+    }
+    return length <= MAX_CONSTANT_UTF8_LENGTH;
+  }
+
   private static final int[] ICONST = {ICONST_M1, ICONST_0, ICONST_1, ICONST_2, ICONST_3, ICONST_4, ICONST_5};
 
   static void loadInteger(MethodVisitor methodVisitor, int value) {
@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler;
+
+import org.eclipse.golo.compiler.ir.AbstractGoloIrVisitor;
+import org.eclipse.golo.compiler.ir.Augmentation;
+import org.eclipse.golo.compiler.ir.ClosureReference;
+import org.eclipse.golo.compiler.ir.ConstantStatement;
+import org.eclipse.golo.compiler.ir.FunctionInvocation;
+import org.eclipse.golo.compiler.ir.GoloElement;
+import org.eclipse.golo.compiler.ir.GoloFunction;
+import org.eclipse.golo.compiler.ir.GoloModule;
+import org.eclipse.golo.compiler.ir.LocalReference;
+import org.eclipse.golo.compiler.ir.NamedAugmentation;
+import org.eclipse.golo.compiler.ir.Struct;
+import org.eclipse.golo.compiler.ir.Union;
+import org.eclipse.golo.compiler.ir.UnionValue;
+import org.eclipse.golo.compiler.parser.GoloParser;
+import org.eclipse.golo.runtime.LinkIndex;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Member;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static java.lang.reflect.Modifier.isStatic;
+import static org.eclipse.golo.compiler.JavaBytecodeGenerationGoloIrVisitor.*;
+import static org.eclipse.golo.runtime.LinkIndex.*;
+
+/**
+ * Collects the link information of compiled Golo classes to build a {@link LinkIndex}.
+ * <p>
+ * The builder walks the IR of the compiled modules to gather the metadata of each generated class,
+ * together with the names used in function calls and class references. The metadata is computed by
+ * the same code as the one generated in the classes, including its version. When the index is built,
+ * the names are resolved the same way the runtime does, against the compiled classes and the classes
+ * visible from a given class loader. Only the names resolved through the imports are recorded, since
+ * they are the ones that require a search at runtime.
+ */
+public final class LinkIndexBuilder {
+
+  private final Map<String, CompiledClass> classes = new LinkedHashMap<>();
+
+  private static final class CompiledClass {
+    final Map<String, String[]> metadata = new LinkedHashMap<>();
+    final Map<String, String[]> applications = new LinkedHashMap<>();
+    final Set<String> functions = new LinkedHashSet<>();
+    final Set<String> classReferences = new LinkedHashSet<>();
+    Set<String> staticMembers;
+    int version;
+  }
+
+  /**
+   * Adds the classes of a compiled module to the index.
+   *
+   * @param module the IR of the module.
+   * @param results the code generation results of the module.
+   */
+  public void add(GoloModule module, List<CodeGenerationResult> results) {
+    for (CodeGenerationResult result : results) {
+      classes.put(result.getPackageAndClass().toString(), new CompiledClass());
+    }
+    module.accept(new Collector(module));
+  }
+
+  /**
+   * Resolves the collected names and builds the index entries.
+   *
+   * @param classLoader the class loader used to resolve the classes that are not part of the index.
+   * @return the index entries.
+   */
+  public Properties build(ClassLoader classLoader) {
+    Resolver resolver = new Resolver(classLoader);
+    Properties index = new Properties();
+    for (Map.Entry<String, CompiledClass> entry : classes.entrySet()) {
+      String className = entry.getKey();
+      CompiledClass compiled = entry.getValue();
+      String[] imports = compiled.metadata.get(IMPORTS);
+      if (imports == null) {
+        continue;
+      }
+      index.setProperty(key(className, VERSION, null), String.valueOf(compiled.version));
+      for (Map.Entry<String, String[]> data : compiled.metadata.entrySet()) {
+        index.setProperty(key(className, data.getKey(), null), join(data.getValue()));
+      }
+      for (Map.Entry<String, String[]> application : compiled.applications.entrySet()) {
+        index.setProperty(key(className, APPLICATIONS, application.getKey()), join(application.getValue()));
+      }
+      for (String name : compiled.classReferences) {
+        String resolved = resolver.classReference(name, imports);
+        if (resolved != null) {
+          index.setProperty(key(className, CLASS, name), resolved);
+        }
+      }
+      for (String name : compiled.functions) {
+        if (compiled.staticMembers.contains(name)) {
+          continue;
+        }
+        String[] target = resolver.functionTarget(name, imports);
+        if (target != null) {
+          index.setProperty(key(className, target[0], name), target[1]);
+        }
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Writes the index into a jar archive.
+   *
+   * @param jarOutputStream the jar output stream.
+   * @param classLoader the class loader used to resolve the classes that are not part of the index.
+   * @throws IOException if writing fails.
+   */
+  public void writeTo(JarOutputStream jarOutputStream, ClassLoader classLoader) throws IOException {
+    jarOutputStream.putNextEntry(new ZipEntry(RESOURCE));
+    store(build(classLoader), jarOutputStream);
+    jarOutputStream.closeEntry();
+  }
+
+  /**
+   * Writes the index into a classes directory.
+   * <p>
+   * The entries of an existing index are kept, except for the classes known to this builder, so that
+   * successive compilations into the same directory extend the index.
+   *
+   * @param targetFolder the classes directory.
+   * @param classLoader the class loader used to resolve the classes that are not part of the index.
+   * @throws IOException if writing fails.
+   */
+  public void writeTo(File targetFolder, ClassLoader classLoader) throws IOException {
+    File indexFile = new File(targetFolder, RESOURCE);
+    Properties index = new Properties();
+    if (indexFile.isFile()) {
+      try (InputStream in = new FileInputStream(indexFile)) {
+        index.load(in);
+      }
+      index.keySet().removeIf(key -> {
+        String entry = (String) key;
+        return classes.containsKey(entry.substring(0, Math.max(0, entry.indexOf('#'))));
+      });
+    }
+    index.putAll(build(classLoader));
+    File parent = indexFile.getParentFile();
+    if (!parent.exists() && !parent.mkdirs()) {
+      throw new IOException("mkdir() failed on " + parent);
+    }
+    try (OutputStream out = new FileOutputStream(indexFile)) {
+      store(index, out);
+    }
+  }
+
+  private static void store(Properties index, OutputStream out) throws IOException {
+    index.store(out, "Golo link index");
+  }
+
+  /**
+   * Gathers the link information of the classes generated for a module, following the bytecode generation.
+   */
+  private final class Collector extends AbstractGoloIrVisitor {
+    private final GoloModule module;
+    private CompiledClass current;
+
+    Collector(GoloModule module) {
+      this.module = module;
+    }
+
+    private CompiledClass described(PackageAndClass name) {
+      CompiledClass compiled = classes.get(name.toString());
+      if (compiled == null) {
+        // not generated, such as an augmentation without functions
+        compiled = new CompiledClass();
+      }
+      if (compiled.staticMembers == null) {
+        compiled.staticMembers = new LinkedHashSet<>();
+      }
+      return compiled;
+    }
+
+    @Override
+    public void visitModule(GoloModule module) {
+      current = described(module.getPackageAndClass());
+      String[] targets = augmentationTargets(module);
+      current.metadata.put(IMPORTS, importNames(module.getImports()));
+      current.metadata.put(AUGMENTATIONS, targets);
+      current.metadata.put(AUGMENTATION_APPLICATIONS, targets);
+      for (Augmentation augmentation : module.getAugmentations()) {
+        current.applications.put(augmentation.getTarget().toString(),
+            augmentation.getNames().toArray(new String[augmentation.getNames().size()]));
+      }
+      current.version = moduleVersion(module);
+      module.walk(this);
+    }
+
+    @Override
+    public void visitAugmentation(Augmentation augmentation) {
+      visitAugmentationClass(augmentation.getTarget(), augmentation);
+    }
+
+    @Override
+    public void visitNamedAugmentation(NamedAugmentation augmentation) {
+      visitAugmentationClass(augmentation.getPackageAndClass(), augmentation);
+    }
+
+    private void visitAugmentationClass(PackageAndClass target, GoloElement augmentation) {
+      CompiledClass moduleClass = current;
+      current = described(augmentationClass(module, target));
+      current.metadata.put(IMPORTS, importNames(augmentationImports(module)));
+      current.version = augmentationVersion(module);
+      augmentation.walk(this);
+      current = moduleClass;
+    }
+
+    @Override
+    public void visitStruct(Struct struct) {
+      // the members of the generated class are not described
+    }
+
+    @Override
+    public void visitUnion(Union union) {
+      CompiledClass compiled = described(union.getPackageAndClass());
+      for (UnionValue value : union.getValues()) {
+        compiled.staticMembers.add(value.getName());
+      }
+    }
+
+    @Override
+    public void visitLocalReference(LocalReference reference) {
+      if (reference.isModuleState()) {
+        current.staticMembers.add(reference.getName());
+      }
+    }
+
+    @Override
+    public void visitFunction(GoloFunction function) {
+      current.staticMembers.add(function.getName());
+      function.walk(this);
+    }
+
+    @Override
+    public void visitClosureReference(ClosureReference closure) {
+      // the closure bodies are functions of the module
+    }
+
+    @Override
+    public void visitFunctionInvocation(FunctionInvocation invocation) {
+      if (!invocation.isAnonymous() && !invocation.isOnReference() && !invocation.isOnModuleState()) {
+        current.functions.add(invocation.getName());
+      }
+      invocation.walk(this);
+    }
+
+    @Override
+    public void visitConstantStatement(ConstantStatement constant) {
+      if (constant.getValue() instanceof GoloParser.ParserClassRef) {
+        current.classReferences.add(((GoloParser.ParserClassRef) constant.getValue()).name);
+      }
+    }
+  }
+
+  private static final class Undecidable extends Exception {
+    private static final long serialVersionUID = 1L;
+  }
+
+  /**
+   * Mirrors the runtime resolution on names only, without loading nor initializing classes.
+   * <p>
+   * A name that can not be decided, for instance because of a missing dependency, is left out of the
+   * index. The runtime classpath may contain classes that the compiler does not see, so a class that
+   * is not found is only taken as absent if it can not be added at runtime: when it belongs to the
+   * Java and Golo runtimes, to the default package, or to the package of a compiled class. Resolutions
+   * that looked up other missing classes are not recorded.
+   */
+  private final class Resolver {
+    private final ClassLoader classLoader;
+    private final Map<String, Boolean> existing = new HashMap<>();
+    private final Map<String, Set<String>> members = new HashMap<>();
+    private final Set<String> packages = new HashSet<>();
+
+    Resolver(ClassLoader classLoader) {
+      this.classLoader = classLoader;
+      for (String name : classes.keySet()) {
+        packages.add(packageOf(name));
+      }
+    }
+
+    String classReference(String name, String[] imports) {
+      try {
+        return resolveClass(name, imports);
+      } catch (Undecidable e) {
+        return null;
+      }
+    }
+
+    private String resolveClass(String name, String[] imports) throws Undecidable {
+      if (isPrimitive(name) || exists(name)) {
+        return null;
+      }
+      for (String imported : imports) {
+        if (exists(imported + "." + name)) {
+          return imported + "." + name;
+        }
+        if (imported.endsWith(name) && exists(imported)) {
+          return imported;
+        }
+      }
+      return null;
+    }
+
+    String[] functionTarget(String name, String[] imports) {
+      int separator = name.lastIndexOf('.');
+      String classPart = (separator > 0) ? name.substring(0, separator) : null;
+      String lookup = name.substring(separator + 1);
+      try {
+        if (separator >= 0 && exists(name.substring(0, separator))) {
+          return null;
+        }
+        for (String imported : imports) {
+          String candidate = null;
+          if (exists(imported)) {
+            candidate = imported;
+          } else if (classPart != null && exists(imported + "." + classPart)) {
+            candidate = imported + "." + classPart;
+          }
+          if (candidate != null) {
+            if (staticMembers(candidate).contains(lookup)) {
+              return new String[]{FUNCTION, candidate};
+            }
+            if (!isKnown(candidate)) {
+              // another version of the class may define the function at runtime
+              throw new Undecidable();
+            }
+          }
+        }
+        String constructor = resolveClass(name, imports);
+        if (constructor != null) {
+          return new String[]{CONSTRUCTOR, constructor};
+        }
+      } catch (Undecidable e) {
+        return null;
+      }
+      return null;
+    }
+
+    private boolean isKnown(String name) {
+      return classes.containsKey(name) || isRuntime(name);
+    }
+
+    private boolean isRuntime(String name) {
+      return name.startsWith("java.")
+        || name.startsWith("gololang.")
+        || name.startsWith("org.eclipse.golo.");
+    }
+
+    private boolean isAbsentForSure(String name) {
+      String packageName = packageOf(name);
+      return packageName.isEmpty()
+        || packages.contains(packageName)
+        || classes.containsKey(packageName)
+        || isRuntime(name);
+    }
+
+    private String packageOf(String name) {
+      return name.substring(0, Math.max(0, name.lastIndexOf('.')));
+    }
+
+    private boolean isPrimitive(String name) {
+      switch (name) {
+        case "byte":
+        case "char":
+        case "int":
+        case "long":
+        case "double":
+        case "short":
+        case "float":
+        case "boolean":
+          return true;
+        default:
+          return false;
+      }
+    }
+
+    private boolean exists(String name) throws Undecidable {
+      if (classes.containsKey(name)) {
+        return true;
+      }
+      Boolean known = existing.get(name);
+      if (known == null) {
+        try {
+          Class.forName(name, false, classLoader);
+          known = true;
+        } catch (ClassNotFoundException e) {
+          known = false;
+        } catch (LinkageError e) {
+          throw new Undecidable();
+        }
+        existing.put(name, known);
+      }
+      if (!known && !isAbsentForSure(name)) {
+        throw new Undecidable();
+      }
+      return known;
+    }
+
+    private Set<String> staticMembers(String className) throws Undecidable {
+      CompiledClass compiled = classes.get(className);
+      if (compiled != null) {
+        if (compiled.staticMembers == null) {
+          throw new Undecidable();
+        }
+        return compiled.staticMembers;
+      }
+      Set<String> names = members.get(className);
+      if (names == null) {
+        names = new LinkedHashSet<>();
+        try {
+          Class<?> klass = Class.forName(className, false, classLoader);
+          addStatics(names, klass.getDeclaredMethods());
+          addStatics(names, klass.getMethods());
+          addStatics(names, klass.getDeclaredFields());
+          addStatics(names, klass.getFields());
+        } catch (ClassNotFoundException | LinkageError e) {
+          throw new Undecidable();
+        }
+        members.put(className, names);
+      }
+      return names;
+    }
+
+    private void addStatics(Set<String> names, Member[] candidates) {
+      for (Member member : candidates) {
+        if (isStatic(member.getModifiers())) {
+          names.add(member.getName());
+        }
+      }
+    }
+  }
+}
@@ -221,7 +221,17 @@ public class ParseTreeToGoloIrVisitor implements GoloParserVisitor {
   @Override
   public Object visit(ASTMemberDeclaration node, Object data) {
     Context context = (Context) data;
-    context.push(member(node.getName()).ofAST(node));
+    Member member = member(node.getName()).ofAST(node);
+    if (node.getType() != null) {
+      try {
+        member.ofType(node.getType());
+      } catch (IllegalArgumentException e) {
+        context.errorMessage(GoloCompilationException.Problem.Type.PARSING, node,
+            String.format("Unsupported type `%s` for member `%s`, expected one of %s",
+              node.getType(), node.getName(), Member.SUPPORTED_TYPES));
+      }
+    }
+    context.push(member);
     return context;
   }
 
@@ -257,7 +267,12 @@ public class ParseTreeToGoloIrVisitor implements GoloParserVisitor {
     UnionValue value = currentUnion.createValue(node.getName()).ofAST(node);
     for (int i = 0; i < node.jjtGetNumChildren(); i++) {
       node.jjtGetChild(i).jjtAccept(this, context);
-      value.withMember(context.pop());
+      Member member = (Member) context.pop();
+      if (member.isPrimitive()) {
+        context.errorMessage(GoloCompilationException.Problem.Type.PARSING, (GoloASTNode) node.jjtGetChild(i),
+            String.format("Union value members can't be typed: `%s`", member));
+      }
+      value.withMember(member);
     }
 
     if (!currentUnion.addValue(value)) {
@@ -11,6 +11,7 @@ package org.eclipse.golo.compiler;
 
 import org.eclipse.golo.compiler.ir.*;
 import org.eclipse.golo.compiler.parser.GoloParser;
+import org.eclipse.golo.runtime.OperatorType;
 import java.util.List;
 import java.util.Deque;
 import java.util.LinkedList;
@@ -28,6 +29,17 @@ class SugarExpansionVisitor extends AbstractGoloIrVisitor {
   private final SymbolGenerator symbols = new SymbolGenerator("sugar");
   private final List<GoloFunction> functionsToAdd = new LinkedList<>();
   private GoloModule module;
+  private final boolean arrayBackedLists;
+  private final boolean parallelComprehensions;
+
+  SugarExpansionVisitor() {
+    this(false, false);
+  }
+
+  SugarExpansionVisitor(boolean arrayBackedLists, boolean parallelComprehensions) {
+    this.arrayBackedLists = arrayBackedLists;
+    this.parallelComprehensions = parallelComprehensions;
+  }
 
   @Override
   public void visitModule(GoloModule module) {
@@ -118,9 +130,15 @@ class SugarExpansionVisitor extends AbstractGoloIrVisitor {
    * }
    * tmp
    * </pre>
+   * When the match is directly returned, each branch returns its value instead, so that calls in the branches are
+   * in tail position.
    */
   @Override
   public void visitMatchExpression(MatchExpression matchExpression) {
+    if (isReturned(matchExpression)) {
+      expandReturnedMatch(matchExpression);
+      return;
+    }
     LocalReference tempVar = localRef(symbols.next("match"))
       .variable()
       .synthetic();
@@ -140,6 +158,28 @@ class SugarExpansionVisitor extends AbstractGoloIrVisitor {
     block.accept(this);
   }
 
+  private static boolean isReturned(MatchExpression matchExpression) {
+    if (!matchExpression.getParentNode().isPresent()) {
+      return false;
+    }
+    GoloElement parent = matchExpression.getParentNode().get();
+    return parent instanceof ReturnStatement
+      && parent.getParentNode().isPresent()
+      && parent.getParentNode().get() instanceof Block;
+  }
+
+  private void expandReturnedMatch(MatchExpression matchExpression) {
+    ReturnStatement returnStatement = (ReturnStatement) matchExpression.getParentNode().get();
+    CaseStatement caseStatement = cases().ofAST(matchExpression.getASTNode())
+      .otherwise(block(returns(matchExpression.getOtherwise())));
+    for (WhenClause<ExpressionStatement> c : matchExpression.getClauses()) {
+      caseStatement.when(c.condition())
+        .then(block(returns(c.action())));
+    }
+    returnStatement.replaceInParentBy(caseStatement);
+    caseStatement.accept(this);
+  }
+
   /**
    * Literal expansion.
    * <p>
@@ -148,7 +188,7 @@ class SugarExpansionVisitor extends AbstractGoloIrVisitor {
   @Override
   public void visitCollectionLiteral(CollectionLiteral collection) {
     collection.walk(this);
-    AbstractInvocation construct = call("gololang.Predefined." + collection.getType().toString())
+    AbstractInvocation construct = call("gololang.Predefined." + literalType(collection.getType()).toString())
       .withArgs(collection.getExpressions().toArray());
     collection.replaceInParentBy(construct);
     construct.accept(this);
@@ -192,32 +232,81 @@ class SugarExpansionVisitor extends AbstractGoloIrVisitor {
    *   }
    * }
    * </pre>
+   * <p>
+   * Arrays, tuples, vectors, and lists when they are array-backed, are collected into an
+   * {@code java.util.ArrayList}, and arrays and tuples are converted once all the elements are
+   * collected. If the comprehension is made of a single unfiltered {@code foreach} loop, this list is
+   * presized from the loop source when its size is known. Elements are appended to collections with
+   * a direct call instead of a dynamic method invocation.
+   * <p>
+   * When parallel comprehensions are enabled, a comprehension made of a single {@code foreach} loop
+   * over {@code parallelStream()} or {@code parallel()} is explicitly parallel: its {@code when}
+   * clause and its expression are turned into closures applied concurrently to the stream elements,
+   * as in
+   * <pre>
+   * let collection = list[]
+   * ComprehensionHelper.parallelCollect(collection, col: parallelStream(), |x| -> cond(x), |x| -> f(x))
+   * </pre>
    */
   @Override
   public void visitCollectionComprehension(CollectionComprehension collection) {
-    CollectionLiteral.Type tempColType = collection.getMutableType();
+    CollectionLiteral.Type tempColType = collection.getMutableType() == collection.getType()
+      ? literalType(collection.getType())
+      : CollectionLiteral.Type.vector;
     LocalReference tempVar = localRef(symbols.next("comprehension"))
       .variable()
       .synthetic();
-    Block mainBlock = block(define(tempVar).as(collection(tempColType)));
-    Block innerBlock = mainBlock;
-    for (Block loop : collection.getLoopBlocks()) {
-      innerBlock.addStatement(loop);
-      GoloStatement loopStatement = loop.getStatements().get(0);
-      innerBlock = ((BlockContainer) loopStatement).getBlock();
-    }
-    innerBlock.addStatement(
-        invoke("add").withArgs(collection.getExpression()).on(tempVar.lookup()));
-
-    if (collection.getType() == CollectionLiteral.Type.array
-        || collection.getType() == CollectionLiteral.Type.tuple) {
+    Block mainBlock = block();
+    ForEachLoopStatement singleLoop = singleLoop(collection);
+    ExpressionStatement parallelSource = !parallelComprehensions || singleLoop == null || tempColType == CollectionLiteral.Type.map
+      ? null
+      : parallelSource(singleLoop);
+    if (parallelSource != null) {
+      mainBlock.addStatement(define(tempVar).as(collection(tempColType)));
+      String element = singleLoop.getReference().getName();
+      ClosureReference mapper = lambda(element).returns(collection.getExpression());
+      mapper.getTarget().relink(mainBlock.getReferenceTable());
+      ExpressionStatement filter = constant(null);
+      if (singleLoop.hasWhenClause()) {
+        ClosureReference predicate = lambda(element).returns(singleLoop.getWhenClause());
+        predicate.getTarget().relink(mainBlock.getReferenceTable());
+        filter = predicate;
+      }
       mainBlock.addStatement(
-          assign(invoke("toArray").on(tempVar.lookup())).to(tempVar));
+          call("org.eclipse.golo.runtime.ComprehensionHelper.parallelCollect")
+          .withArgs(tempVar.lookup(), parallelSource, filter, mapper));
+    } else {
+      if (tempColType == CollectionLiteral.Type.vector && singleLoop != null && !singleLoop.hasWhenClause()) {
+        LocalReference sourceVar = localRef(symbols.next("comprehensionSource")).synthetic();
+        mainBlock.addStatement(define(sourceVar).as(singleLoop.getIterable()));
+        singleLoop.on(sourceVar.lookup());
+        mainBlock.addStatement(define(tempVar).as(
+              call("org.eclipse.golo.runtime.ComprehensionHelper.presizedList").withArgs(sourceVar.lookup())));
+      } else {
+        mainBlock.addStatement(define(tempVar).as(collection(tempColType)));
+      }
+      Block innerBlock = mainBlock;
+      for (Block loop : collection.getLoopBlocks()) {
+        innerBlock.addStatement(loop);
+        GoloStatement loopStatement = loop.getStatements().get(0);
+        innerBlock = ((BlockContainer) loopStatement).getBlock();
+      }
+      if (tempColType == CollectionLiteral.Type.map) {
+        innerBlock.addStatement(
+            invoke("add").withArgs(collection.getExpression()).on(tempVar.lookup()));
+      } else {
+        innerBlock.addStatement(
+            call("org.eclipse.golo.runtime.ComprehensionHelper.add")
+            .withArgs(tempVar.lookup(), collection.getExpression()));
+      }
     }
 
-    if (collection.getType() == CollectionLiteral.Type.tuple) {
+    if (collection.getType() == CollectionLiteral.Type.array) {
       mainBlock.addStatement(
-          assign(call("Tuple.fromArray").withArgs(tempVar.lookup())).to(tempVar));
+          assign(call("org.eclipse.golo.runtime.ComprehensionHelper.toArray").withArgs(tempVar.lookup())).to(tempVar));
+    } else if (collection.getType() == CollectionLiteral.Type.tuple) {
+      mainBlock.addStatement(
+          assign(call("org.eclipse.golo.runtime.ComprehensionHelper.toTuple").withArgs(tempVar.lookup())).to(tempVar));
     }
 
     mainBlock.addStatement(tempVar.lookup());
@@ -225,6 +314,48 @@ class SugarExpansionVisitor extends AbstractGoloIrVisitor {
     mainBlock.accept(this);
   }
 
+  private CollectionLiteral.Type literalType(CollectionLiteral.Type type) {
+    if (arrayBackedLists && type == CollectionLiteral.Type.list) {
+      return CollectionLiteral.Type.vector;
+    }
+    return type;
+  }
+
+  private static ForEachLoopStatement singleLoop(CollectionComprehension collection) {
+    if (collection.getLoopBlocks().size() != 1) {
+      return null;
+    }
+    List<GoloStatement> statements = collection.getLoopBlocks().get(0).getStatements();
+    if (statements.size() != 1 || !(statements.get(0) instanceof ForEachLoopStatement)) {
+      return null;
+    }
+    return (ForEachLoopStatement) statements.get(0);
+  }
+
+  /**
+   * Gives the source of an explicitly parallel comprehension loop, or {@code null} if not parallel.
+   */
+  private static ExpressionStatement parallelSource(ForEachLoopStatement loop) {
+    if (loop.isDestructuring()) {
+      return null;
+    }
+    ExpressionStatement last = loop.getIterable();
+    if (!(last instanceof BinaryOperation) || ((BinaryOperation) last).getType() != OperatorType.METHOD_CALL) {
+      return null;
+    }
+    while (last instanceof BinaryOperation && ((BinaryOperation) last).getType() == OperatorType.METHOD_CALL) {
+      last = ((BinaryOperation) last).getRightExpression();
+    }
+    if (!(last instanceof MethodInvocation) || ((MethodInvocation) last).getArity() != 0) {
+      return null;
+    }
+    String name = ((MethodInvocation) last).getName();
+    if ("parallelStream".equals(name) || "parallel".equals(name)) {
+      return loop.getIterable();
+    }
+    return null;
+  }
+
   /**
    * ForEach expansion.
    * <p>
@@ -115,6 +115,8 @@ public final class Block extends ExpressionStatement implements Scope {
       hasReturn = true;
     } else if (statement instanceof ConditionalBranching) {
       hasReturn = hasReturn || ((ConditionalBranching) statement).returnsFromBothBranches();
+    } else if (statement instanceof Block) {
+      hasReturn = hasReturn || ((Block) statement).hasReturn();
     }
   }
 
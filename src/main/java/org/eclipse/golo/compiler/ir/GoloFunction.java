@@ -143,6 +143,10 @@ public final class GoloFunction extends ExpressionStatement implements Scope {
     return this;
   }
 
+  public boolean isClosure() {
+    return Scope.CLOSURE.equals(scope);
+  }
+
   // block ----------------------------------------------------------------------------------------
   public GoloFunction block(Object... statements) {
     return this.block(Builders.block(statements));
@@ -289,6 +293,10 @@ public final class GoloFunction extends ExpressionStatement implements Scope {
     return !decorators.isEmpty();
   }
 
+  public boolean hasConstantDecorators() {
+    return hasDecorators() && decorators.stream().allMatch(Decorator::isConstant);
+  }
+
   public GoloFunction createDecorator() {
     ExpressionStatement expr = refLookup("__$$_original");
     for (Decorator decorator : this.getDecorators()) {
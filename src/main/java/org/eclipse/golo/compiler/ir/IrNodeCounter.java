@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler.ir;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts the nodes of an IR tree, by kind of node.
+ */
+public class IrNodeCounter extends AbstractGoloIrVisitor {
+
+  private final Map<String, Integer> counts = new TreeMap<>();
+  private int total = 0;
+
+  /**
+   * @return the number of visited nodes for each kind of node, sorted by kind.
+   */
+  public Map<String, Integer> counts() {
+    return counts;
+  }
+
+  /**
+   * @return the total number of visited nodes.
+   */
+  public int total() {
+    return total;
+  }
+
+  private void count(GoloElement element) {
+    counts.merge(element.getClass().getSimpleName(), 1, Integer::sum);
+    total = total + 1;
+  }
+
+  @Override
+  public void visitModule(GoloModule module) {
+    count(module);
+    super.visitModule(module);
+  }
+
+  @Override
+  public void visitModuleImport(ModuleImport moduleImport) {
+    count(moduleImport);
+    super.visitModuleImport(moduleImport);
+  }
+
+  @Override
+  public void visitStruct(Struct struct) {
+    count(struct);
+    super.visitStruct(struct);
+  }
+
+  @Override
+  public void visitUnion(Union union) {
+    count(union);
+    super.visitUnion(union);
+  }
+
+  @Override
+  public void visitUnionValue(UnionValue value) {
+    count(value);
+    super.visitUnionValue(value);
+  }
+
+  @Override
+  public void visitAugmentation(Augmentation augment) {
+    count(augment);
+    super.visitAugmentation(augment);
+  }
+
+  @Override
+  public void visitNamedAugmentation(NamedAugmentation augment) {
+    count(augment);
+    super.visitNamedAugmentation(augment);
+  }
+
+  @Override
+  public void visitFunction(GoloFunction function) {
+    count(function);
+    super.visitFunction(function);
+  }
+
+  @Override
+  public void visitDecorator(Decorator decorator) {
+    count(decorator);
+    super.visitDecorator(decorator);
+  }
+
+  @Override
+  public void visitBlock(Block block) {
+    count(block);
+    super.visitBlock(block);
+  }
+
+  @Override
+  public void visitConstantStatement(ConstantStatement constantStatement) {
+    count(constantStatement);
+    super.visitConstantStatement(constantStatement);
+  }
+
+  @Override
+  public void visitReturnStatement(ReturnStatement returnStatement) {
+    count(returnStatement);
+    super.visitReturnStatement(returnStatement);
+  }
+
+  @Override
+  public void visitFunctionInvocation(FunctionInvocation functionInvocation) {
+    count(functionInvocation);
+    super.visitFunctionInvocation(functionInvocation);
+  }
+
+  @Override
+  public void visitAssignmentStatement(AssignmentStatement assignmentStatement) {
+    count(assignmentStatement);
+    super.visitAssignmentStatement(assignmentStatement);
+  }
+
+  @Override
+  public void visitDestructuringAssignment(DestructuringAssignment assignmentStatement) {
+    count(assignmentStatement);
+    super.visitDestructuringAssignment(assignmentStatement);
+  }
+
+  @Override
+  public void visitReferenceLookup(ReferenceLookup referenceLookup) {
+    count(referenceLookup);
+    super.visitReferenceLookup(referenceLookup);
+  }
+
+  @Override
+  public void visitConditionalBranching(ConditionalBranching conditionalBranching) {
+    count(conditionalBranching);
+    super.visitConditionalBranching(conditionalBranching);
+  }
+
+  @Override
+  public void visitBinaryOperation(BinaryOperation binaryOperation) {
+    count(binaryOperation);
+    super.visitBinaryOperation(binaryOperation);
+  }
+
+  @Override
+  public void visitUnaryOperation(UnaryOperation unaryOperation) {
+    count(unaryOperation);
+    super.visitUnaryOperation(unaryOperation);
+  }
+
+  @Override
+  public void visitLoopStatement(LoopStatement loopStatement) {
+    count(loopStatement);
+    super.visitLoopStatement(loopStatement);
+  }
+
+  @Override
+  public void visitForEachLoopStatement(ForEachLoopStatement foreachStatement) {
+    count(foreachStatement);
+    super.visitForEachLoopStatement(foreachStatement);
+  }
+
+  @Override
+  public void visitCaseStatement(CaseStatement caseStatement) {
+    count(caseStatement);
+    super.visitCaseStatement(caseStatement);
+  }
+
+  @Override
+  public void visitMatchExpression(MatchExpression matchExpression) {
+    count(matchExpression);
+    super.visitMatchExpression(matchExpression);
+  }
+
+  @Override
+  public void visitWhenClause(WhenClause<?> whenClause) {
+    count(whenClause);
+    super.visitWhenClause(whenClause);
+  }
+
+  @Override
+  public void visitMethodInvocation(MethodInvocation methodInvocation) {
+    count(methodInvocation);
+    super.visitMethodInvocation(methodInvocation);
+  }
+
+  @Override
+  public void visitThrowStatement(ThrowStatement throwStatement) {
+    count(throwStatement);
+    super.visitThrowStatement(throwStatement);
+  }
+
+  @Override
+  public void visitTryCatchFinally(TryCatchFinally tryCatchFinally) {
+    count(tryCatchFinally);
+    super.visitTryCatchFinally(tryCatchFinally);
+  }
+
+  @Override
+  public void visitClosureReference(ClosureReference closureReference) {
+    count(closureReference);
+    super.visitClosureReference(closureReference);
+  }
+
+  @Override
+  public void visitLoopBreakFlowStatement(LoopBreakFlowStatement loopBreakFlowStatement) {
+    count(loopBreakFlowStatement);
+    super.visitLoopBreakFlowStatement(loopBreakFlowStatement);
+  }
+
+  @Override
+  public void visitCollectionLiteral(CollectionLiteral collectionLiteral) {
+    count(collectionLiteral);
+    super.visitCollectionLiteral(collectionLiteral);
+  }
+
+  @Override
+  public void visitCollectionComprehension(CollectionComprehension collectionComprehension) {
+    count(collectionComprehension);
+    super.visitCollectionComprehension(collectionComprehension);
+  }
+
+  @Override
+  public void visitNamedArgument(NamedArgument namedArgument) {
+    count(namedArgument);
+    super.visitNamedArgument(namedArgument);
+  }
+
+  @Override
+  public void visitLocalReference(LocalReference localRef) {
+    count(localRef);
+    super.visitLocalReference(localRef);
+  }
+
+  @Override
+  public void visitMember(Member member) {
+    count(member);
+    super.visitMember(member);
+  }
+}
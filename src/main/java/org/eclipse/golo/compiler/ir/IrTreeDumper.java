@@ -465,7 +465,7 @@ public class IrTreeDumper implements GoloIrVisitor {
   public void visitMember(Member member) {
     space();
     System.out.print(" - ");
-    System.out.print(member.getName());
+    System.out.print(member);
     System.out.println();
   }
 }
@@ -11,10 +11,22 @@ package org.eclipse.golo.compiler.ir;
 
 import org.eclipse.golo.compiler.parser.GoloASTNode;
 
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
 
 public final class Member extends GoloElement {
+
+  /**
+   * The primitive types a member can be declared with.
+   */
+  public static final List<Class<?>> SUPPORTED_TYPES = unmodifiableList(Arrays.asList(
+        int.class, long.class, double.class, boolean.class));
+
   private final String name;
+  private Class<?> type = Object.class;
 
   Member(String name) {
     super();
@@ -29,6 +41,36 @@ public final class Member extends GoloElement {
     return !name.startsWith("_");
   }
 
+  /**
+   * Returns the storage type of this member.
+   *
+   * @return a primitive type if the member was declared with one, {@code Object.class} otherwise.
+   */
+  public Class<?> getType() {
+    return type;
+  }
+
+  public boolean isPrimitive() {
+    return type.isPrimitive();
+  }
+
+  /**
+   * Declares the type of this member.
+   *
+   * @param typeName the name of one of the {@link #SUPPORTED_TYPES}.
+   * @return this member.
+   * @throws IllegalArgumentException if the type is not supported.
+   */
+  public Member ofType(String typeName) {
+    for (Class<?> supported : SUPPORTED_TYPES) {
+      if (supported.getName().equals(typeName)) {
+        this.type = supported;
+        return this;
+      }
+    }
+    throw new IllegalArgumentException("Unsupported member type: " + typeName);
+  }
+
   /**
    * @inheritDoc
    */
@@ -68,6 +110,6 @@ public final class Member extends GoloElement {
    */
   @Override
   public String toString() {
-    return name;
+    return isPrimitive() ? name + ": " + type.getName() : name;
   }
 }
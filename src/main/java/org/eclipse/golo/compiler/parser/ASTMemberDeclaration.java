@@ -12,6 +12,7 @@ package org.eclipse.golo.compiler.parser;
 public class ASTMemberDeclaration extends GoloASTNode implements NamedNode {
 
   private String name;
+  private String type;
 
   public ASTMemberDeclaration(int id) {
     super(id);
@@ -31,9 +32,17 @@ public class ASTMemberDeclaration extends GoloASTNode implements NamedNode {
     this.name = name;
   }
 
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
   @Override
   public String toString() {
-    return String.format("ASTMemberDeclaration{name='%s'}", name);
+    return String.format("ASTMemberDeclaration{name='%s', type='%s'}", name, type);
   }
 
   @Override
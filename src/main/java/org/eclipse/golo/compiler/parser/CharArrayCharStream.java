@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler.parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * A character stream reading from a fully decoded source held in a {@code char} array.
+ * <p>
+ * The generated {@link JavaCharStream} reads through a ring buffer, updates line and column tables for each
+ * character and pre-processes <code>&#92;uXXXX</code> escapes. When the whole source is available up-front and contains
+ * no such escape, none of this is needed: reading and backing up are index moves, token offsets are plain
+ * indexes, and lines and columns are derived on demand from a table of line starts.
+ * <p>
+ * Sources containing unicode escapes must go through {@link JavaOffsetCharStream} instead, see
+ * {@link #hasUnicodeEscape(char[], int)}. This also applies to the sources given to the {@code ReInit} methods.
+ */
+public class CharArrayCharStream extends JavaCharStream {
+
+  private char[] chars;
+  private int length;
+  private int[] lineStarts;
+  private int lineCount;
+  private int firstLine;
+  private int firstColumn;
+
+  private int pos;
+  private int tokenBegin;
+  private int beginOffset;
+  private int lineHint;
+
+  private int adjustedBegin;
+  private int lineAdjustment;
+  private int columnAdjustment;
+
+  public CharArrayCharStream(char[] chars, int length) {
+    this(chars, length, 1, 1);
+  }
+
+  public CharArrayCharStream(char[] chars, int length, int startLine, int startColumn) {
+    super(new StringReader(""), startLine, startColumn, 1);
+    init(chars, length, startLine, startColumn);
+  }
+
+  private void init(char[] source, int sourceLength, int startLine, int startColumn) {
+    this.chars = source;
+    this.length = sourceLength;
+    this.firstLine = startLine;
+    this.firstColumn = startColumn;
+    this.pos = -1;
+    this.tokenBegin = 0;
+    this.beginOffset = 0;
+    this.lineHint = 0;
+    this.adjustedBegin = Integer.MAX_VALUE;
+    int[] starts = new int[16];
+    int count = 1;
+    for (int i = 0; i < length; i++) {
+      char c = chars[i];
+      if (c == '\n' || (c == '\r' && (i + 1 == length || chars[i + 1] != '\n'))) {
+        if (count == starts.length) {
+          starts = Arrays.copyOf(starts, count * 2);
+        }
+        starts[count++] = i + 1;
+      }
+    }
+    this.lineStarts = starts;
+    this.lineCount = count;
+  }
+
+  /**
+   * Reads a source fully.
+   *
+   * @param reader the source to read.
+   * @return the characters of the source.
+   */
+  static char[] readFully(Reader reader) {
+    char[] buffer = new char[8192];
+    int count = 0;
+    try {
+      int read;
+      while ((read = reader.read(buffer, count, buffer.length - count)) != -1) {
+        count += read;
+        if (count == buffer.length) {
+          buffer = Arrays.copyOf(buffer, count * 2);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Arrays.copyOf(buffer, count);
+  }
+
+  /**
+   * Checks whether a source contains a <code>&#92;u</code> sequence that the generated stream would pre-process.
+   */
+  public static boolean hasUnicodeEscape(char[] chars, int length) {
+    for (int i = 0; i < length - 1; i++) {
+      if (chars[i] == '\\') {
+        if (chars[i + 1] == 'u') {
+          return true;
+        }
+        i++;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public char BeginToken() throws IOException {
+    if (pos + 1 >= length) {
+      tokenBegin = pos;
+      beginOffset = length;
+      throw new IOException("end of stream");
+    }
+    tokenBegin = ++pos;
+    beginOffset = tokenBegin;
+    return chars[pos];
+  }
+
+  @Override
+  public char readChar() throws IOException {
+    if (pos + 1 >= length) {
+      throw new IOException("end of stream");
+    }
+    return chars[++pos];
+  }
+
+  @Override
+  public void backup(int amount) {
+    pos -= amount;
+  }
+
+  @Override
+  public String GetImage() {
+    return new String(chars, tokenBegin, pos - tokenBegin + 1);
+  }
+
+  @Override
+  public char[] GetSuffix(int len) {
+    return Arrays.copyOfRange(chars, pos - len + 1, pos + 1);
+  }
+
+  @Override
+  public int getBeginLine() {
+    return lineAt(tokenBegin);
+  }
+
+  @Override
+  public int getBeginColumn() {
+    return columnAt(tokenBegin);
+  }
+
+  @Override
+  public int getEndLine() {
+    return lineAt(pos);
+  }
+
+  @Override
+  public int getEndColumn() {
+    return columnAt(pos);
+  }
+
+  @Override
+  @Deprecated
+  public int getLine() {
+    return getEndLine();
+  }
+
+  @Override
+  @Deprecated
+  public int getColumn() {
+    return getEndColumn();
+  }
+
+  /**
+   * Moves the current token to the given line and column.
+   * <p>
+   * As with the generated stream, the following characters are moved too: the ones on the first line of the token
+   * get shifted columns, and the following lines are numbered from the new line.
+   */
+  @Override
+  public void adjustBeginLineColumn(int newLine, int newCol) {
+    int line = firstLine + lineOf(tokenBegin);
+    int column = columnOf(tokenBegin);
+    adjustedBegin = Math.max(tokenBegin, 0);
+    lineAdjustment = newLine - line;
+    columnAdjustment = newCol - column;
+  }
+
+  /**
+   * Reads a new source fully, and starts over from its beginning.
+   * <p>
+   * The buffer size is ignored, since the whole source is kept.
+   */
+  @Override
+  public void ReInit(Reader dstream, int startline, int startcolumn, int buffersize) {
+    char[] source = readFully(dstream);
+    init(source, source.length, startline, startcolumn);
+  }
+
+  @Override
+  public void Done() {
+  }
+
+  /**
+   * @return the offset of the first character of the current token, or the source length at the end of the stream.
+   */
+  public int getBeginOffset() {
+    return beginOffset;
+  }
+
+  /**
+   * @return the offset just after the last character read.
+   */
+  public int getEndOffset() {
+    return pos + 1;
+  }
+
+  private int lineAt(int index) {
+    int line = lineOf(index);
+    return firstLine + line + (isAdjusted(index) ? lineAdjustment : 0);
+  }
+
+  private int columnAt(int index) {
+    int column = columnOf(index);
+    if (isAdjusted(index) && lineOf(index) == lineOf(adjustedBegin)) {
+      return column + columnAdjustment;
+    }
+    return column;
+  }
+
+  private boolean isAdjusted(int index) {
+    return index >= adjustedBegin;
+  }
+
+  private int lineOf(int index) {
+    if (index < 0) {
+      return 0;
+    }
+    int line = lineHint;
+    while (index < lineStarts[line]) {
+      line--;
+    }
+    while (line + 1 < lineCount && index >= lineStarts[line + 1]) {
+      line++;
+    }
+    lineHint = line;
+    return line;
+  }
+
+  private int columnOf(int index) {
+    if (index < 0) {
+      return 0;
+    }
+    int line = lineOf(index);
+    int start = lineStarts[line];
+    int column = line == 0 ? firstColumn - 1 : 0;
+    if (tabSize == 1) {
+      return column + index - start + 1;
+    }
+    for (int i = start; i <= index; i++) {
+      column++;
+      if (chars[i] == '\t') {
+        column--;
+        column += tabSize - (column % tabSize);
+      }
+    }
+    return column;
+  }
+}
@@ -9,11 +9,17 @@
 
 package org.eclipse.golo.compiler.parser;
 
+import java.io.CharArrayReader;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UnsupportedEncodingException;
 
 /**
  * Golo parser extension allowing to track token offsets.
+ * <p>
+ * Sources given as a {@link Reader} are read fully upfront and parsed from a {@link CharArrayCharStream}, unless
+ * they contain unicode escapes that need the pre-processing done by {@link JavaCharStream}.
  */
 public class GoloOffsetParser extends GoloParser {
 
@@ -33,12 +39,33 @@ public class GoloOffsetParser extends GoloParser {
   }
 
   public GoloOffsetParser(Reader stream) {
-    super(stream);
-    hookInputs();
+    super(new GoloOffsetParserTokenManager(charStream(stream)));
   }
 
   public GoloOffsetParser(GoloParserTokenManager tm) {
     super(tm);
     hookInputs();
   }
+
+  @Override
+  public void ReInit(Reader stream) {
+    ReInit(new GoloOffsetParserTokenManager(charStream(stream)));
+  }
+
+  @Override
+  public void ReInit(InputStream stream, String encoding) {
+    try {
+      ReInit(encoding == null ? new InputStreamReader(stream) : new InputStreamReader(stream, encoding));
+    } catch (UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static JavaCharStream charStream(Reader reader) {
+    char[] chars = CharArrayCharStream.readFully(reader);
+    if (CharArrayCharStream.hasUnicodeEscape(chars, chars.length)) {
+      return new JavaCharStream(new CharArrayReader(chars));
+    }
+    return new CharArrayCharStream(chars, chars.length);
+  }
 }
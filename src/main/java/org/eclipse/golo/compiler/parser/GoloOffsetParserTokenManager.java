@@ -15,17 +15,27 @@ package org.eclipse.golo.compiler.parser;
 public class GoloOffsetParserTokenManager extends GoloParserTokenManager {
 
   public GoloOffsetParserTokenManager(JavaCharStream stream) {
-    super(new JavaOffsetCharStream(stream));
+    super(withOffsets(stream));
   }
 
   public GoloOffsetParserTokenManager(JavaCharStream stream, int lexState) {
-    super(new JavaOffsetCharStream(stream), lexState);
+    super(withOffsets(stream), lexState);
+  }
+
+  private static JavaCharStream withOffsets(JavaCharStream stream) {
+    if (stream instanceof CharArrayCharStream || stream instanceof JavaOffsetCharStream) {
+      return stream;
+    }
+    return new JavaOffsetCharStream(stream);
   }
 
   @Override
   protected Token jjFillToken() {
     Token t = super.jjFillToken();
-    if (input_stream instanceof JavaOffsetCharStream) {
+    if (input_stream instanceof CharArrayCharStream) {
+      t.startOffset = ((CharArrayCharStream) input_stream).getBeginOffset();
+      t.endOffset = ((CharArrayCharStream) input_stream).getEndOffset();
+    } else if (input_stream instanceof JavaOffsetCharStream) {
       t.startOffset = ((JavaOffsetCharStream) input_stream).getBeginOffset() - 1;
       t.endOffset = ((JavaOffsetCharStream) input_stream).getCurrentOffset();
     }
@@ -18,10 +18,17 @@ import gololang.Predefined;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -35,7 +42,25 @@ public abstract class AbstractProcessor {
   private HashMap<String, FunctionReference> templateCache = new HashMap<>();
 
   private Path targetFolder;
-  private Set<ModuleDocumentation> modules = new TreeSet<>();
+  private Set<ModuleDocumentation> modules = Collections.synchronizedSet(new TreeSet<>());
+  private boolean incremental = false;
+
+  /**
+   * Renders a single module.
+   */
+  @FunctionalInterface
+  protected interface ModuleRenderer {
+    void render(String sourceFile, ASTCompilationUnit unit) throws Throwable;
+  }
+
+  /**
+   * Wraps a checked failure raised while rendering modules in parallel.
+   */
+  private static final class RenderingFailure extends RuntimeException {
+    RenderingFailure(Throwable cause) {
+      super(cause);
+    }
+  }
 
   public void setTargetFolder(Path target) {
     this.targetFolder = target.toAbsolutePath();
@@ -49,15 +74,93 @@ public abstract class AbstractProcessor {
     return modules;
   }
 
+  /**
+   * Defines if modules whose source did not change since the last run in the same target folder are skipped.
+   * <p>
+   * Skipped modules are still indexed, and the indexes are always rendered.
+   */
+  public void setIncremental(boolean incremental) {
+    this.incremental = incremental;
+  }
+
+  public boolean isIncremental() {
+    return incremental;
+  }
+
   protected void addModule(ModuleDocumentation module) {
     modules.add(module);
   }
 
+  /**
+   * Adds a module to the indexes without rendering it.
+   */
+  protected void index(ModuleDocumentation module) {
+    addModule(module);
+  }
+
+  /**
+   * Renders the given modules in parallel.
+   * <p>
+   * The hash of each source file is recorded in the target folder. In incremental mode, a module whose source hash
+   * did not change and whose documentation file exists is only indexed.
+   */
+  protected void renderModules(Map<String, ASTCompilationUnit> units, ModuleRenderer renderer) throws Throwable {
+    Path hashFile = getTargetFolder().resolve(".golodoc-" + fileExtension() + ".properties");
+    Properties previous = new Properties();
+    if (incremental && Files.isRegularFile(hashFile)) {
+      try (InputStream in = Files.newInputStream(hashFile)) {
+        previous.load(in);
+      }
+    }
+    Properties current = new Properties();
+    try {
+      units.entrySet().parallelStream().forEach(unit -> {
+        String key = Paths.get(unit.getKey()).toAbsolutePath().normalize().toString();
+        String hash = hash(unit.getKey());
+        if (hash != null) {
+          current.setProperty(key, hash);
+        }
+        try {
+          if (hash != null && hash.equals(previous.getProperty(key)) && Files.exists(outputFile(moduleName(unit.getValue())))) {
+            index(new ModuleDocumentation(unit.getValue()));
+          } else {
+            renderer.render(unit.getKey(), unit.getValue());
+          }
+        } catch (RuntimeException | Error e) {
+          throw e;
+        } catch (Throwable t) {
+          throw new RenderingFailure(t);
+        }
+      });
+    } catch (RenderingFailure failure) {
+      throw failure.getCause();
+    }
+    Files.createDirectories(hashFile.getParent());
+    try (OutputStream out = Files.newOutputStream(hashFile)) {
+      current.store(out, "golodoc source hashes");
+    }
+  }
+
+  private static String hash(String sourceFile) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-1").digest(Files.readAllBytes(Paths.get(sourceFile)));
+      StringBuilder hex = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hex.append(String.format("%02x", b));
+      }
+      return hex.toString();
+    } catch (IOException e) {
+      return null;
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError(e);
+    }
+  }
+
   protected String fileExtension() {
     return "";
   }
 
-  protected FunctionReference template(String name, String format) throws IOException {
+  protected synchronized FunctionReference template(String name, String format) throws IOException {
     String key = name + "-" + format;
     if (templateCache.containsKey(key)) {
       return templateCache.get(key);
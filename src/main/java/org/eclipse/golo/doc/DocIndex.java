@@ -19,7 +19,7 @@ class DocIndex implements Iterable<DocumentationElement> {
 
   private SortedSet<DocumentationElement> elements = new TreeSet<>();
 
-  public void update(ModuleDocumentation moduleDoc) {
+  public synchronized void update(ModuleDocumentation moduleDoc) {
     for (DocumentationElement e : moduleDoc.functions()) {
       elements.add(e);
     }
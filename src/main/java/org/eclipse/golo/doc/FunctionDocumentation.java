@@ -176,15 +176,13 @@ class FunctionDocumentation implements DocumentationElement {
       FunctionDocumentation o = (FunctionDocumentation) other;
       int c = name.compareToIgnoreCase(o.name);
       if (c == 0) {
-        c = arity() < o.arity() ? -1 : 1;
-        if (c == 0) {
-          c = varargs && !o.varargs() ? 1
-              : varargs && o.varargs() ? 0
-              : -1;
-          if (c == 0) {
-            c = parent.compareTo(o.parent);
-          }
-        }
+        c = Integer.compare(arity(), o.arity());
+      }
+      if (c == 0) {
+        c = Boolean.compare(varargs, o.varargs());
+      }
+      if (c == 0) {
+        c = parent.compareTo(o.parent);
       }
       return c;
     }
@@ -25,7 +25,6 @@ import com.github.rjeschke.txtmark.Processor;
 
 public class HtmlProcessor extends AbstractProcessor {
 
-  private Path srcFile;
   private final DocIndex globalIndex = new DocIndex();
 
   @Override
@@ -51,32 +50,39 @@ public class HtmlProcessor extends AbstractProcessor {
 
   @Override
   public String render(ASTCompilationUnit compilationUnit) throws Throwable {
+    return render(compilationUnit, outputFile(moduleName(compilationUnit) + "-src"));
+  }
+
+  private String render(ASTCompilationUnit compilationUnit, Path sourceLink) throws Throwable {
     FunctionReference template = template("template", fileExtension());
     ModuleDocumentation documentation = new ModuleDocumentation(compilationUnit);
-    globalIndex.update(documentation);
-    addModule(documentation);
+    index(documentation);
     Path doc = docFile(documentation);
     if (doc.getParent() != null) {
       doc = doc.getParent();
     }
-    return (String) template.invoke(this, documentation, doc.relativize(srcFile));
+    return (String) template.invoke(this, documentation, doc.relativize(sourceLink));
+  }
+
+  @Override
+  protected void index(ModuleDocumentation documentation) {
+    globalIndex.update(documentation);
+    addModule(documentation);
   }
 
   @Override
   public void process(Map<String, ASTCompilationUnit> units, Path targetFolder) throws Throwable {
     setTargetFolder(targetFolder);
-    for (Map.Entry<String, ASTCompilationUnit> unit : units.entrySet()) {
-      renderModule(unit.getKey(), unit.getValue());
-    }
+    renderModules(units, this::renderModule);
     renderIndex("index");
     renderIndex("index-all");
   }
 
   private void renderModule(String sourceFile, ASTCompilationUnit unit) throws Throwable {
     String moduleName = moduleName(unit);
-    srcFile = outputFile(moduleName + "-src");
-    Predefined.textToFile(renderSource(moduleName, sourceFile), srcFile);
-    Predefined.textToFile(render(unit), outputFile(moduleName));
+    Path sourceLink = outputFile(moduleName + "-src");
+    Predefined.textToFile(renderSource(moduleName, sourceFile), sourceLink);
+    Predefined.textToFile(render(unit, sourceLink), outputFile(moduleName));
   }
 
   private String renderSource(String moduleName, String filename) throws Throwable {
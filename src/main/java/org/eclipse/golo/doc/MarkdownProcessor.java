@@ -34,9 +34,7 @@ public class MarkdownProcessor extends AbstractProcessor {
   @Override
   public void process(Map<String, ASTCompilationUnit> units, Path targetFolder) throws Throwable {
     setTargetFolder(targetFolder);
-    for (ASTCompilationUnit unit : units.values()) {
-      Predefined.textToFile(render(unit), outputFile(moduleName(unit)));
-    }
+    renderModules(units, (sourceFile, unit) -> Predefined.textToFile(render(unit), outputFile(moduleName(unit))));
     renderIndex("index");
   }
 }
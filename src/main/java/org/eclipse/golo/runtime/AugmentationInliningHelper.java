@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.DynamicObject;
+
+import java.lang.invoke.MethodHandles.Lookup;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.genericMethodType;
+
+/**
+ * Runtime support for the standard augmentations inlined by the compiler.
+ * <p>
+ * Calls such as {@code list: each(|e| -> println(e))} are compiled into a loop guarded by a call to
+ * {@link #isStandard(Class, String, Object)}, so that the inlined code only runs when the method invocation would
+ * have been dispatched to the standard augmentation, and the regular invocation is made otherwise.
+ */
+public final class AugmentationInliningHelper {
+
+  private static final Set<String> INLINED_AUGMENTATIONS = new HashSet<>(Arrays.asList(
+      "gololang.StandardAugmentations$java$lang$Iterable",
+      "gololang.StandardAugmentations$java$lang$Number"));
+
+  private static final ClassValue<ConcurrentMap<Class<?>, ConcurrentMap<String, Boolean>>> RESOLUTIONS =
+    new ClassValue<ConcurrentMap<Class<?>, ConcurrentMap<String, Boolean>>>() {
+      @Override
+      protected ConcurrentMap<Class<?>, ConcurrentMap<String, Boolean>> computeValue(Class<?> callerClass) {
+        return new ConcurrentHashMap<>();
+      }
+    };
+
+  private AugmentationInliningHelper() {
+    throw new UnsupportedOperationException("Don't instantiate utility classes");
+  }
+
+  /**
+   * Checks if a method invocation taking only a function resolves to a standard augmentation.
+   *
+   * @param callerClass the class making the invocation.
+   * @param name the invoked method name.
+   * @param receiver the invocation receiver.
+   * @return {@code true} if {@code receiver: name(func)} calls the {@code java.lang.Iterable} or
+   * {@code java.lang.Number} standard augmentation.
+   */
+  public static boolean isStandard(Class<?> callerClass, String name, Object receiver) {
+    return receiver != null && isStandard(callerClass, name, new Object[]{receiver, null});
+  }
+
+  /**
+   * Checks if a method invocation taking a value and a function resolves to a standard augmentation.
+   *
+   * @param callerClass the class making the invocation.
+   * @param name the invoked method name.
+   * @param receiver the invocation receiver.
+   * @param argument the value argument.
+   * @return {@code true} if {@code receiver: name(argument, func)} calls the {@code java.lang.Iterable} or
+   * {@code java.lang.Number} standard augmentation.
+   */
+  public static boolean isStandard(Class<?> callerClass, String name, Object receiver, Object argument) {
+    return receiver != null && isStandard(callerClass, name, new Object[]{receiver, argument, null});
+  }
+
+  private static boolean isStandard(Class<?> callerClass, String name, Object[] args) {
+    return RESOLUTIONS.get(callerClass)
+      .computeIfAbsent(args[0].getClass(), receiverClass -> new ConcurrentHashMap<>())
+      .computeIfAbsent(name + "/" + args.length, key -> resolvesToStandard(callerClass, name, args));
+  }
+
+  private static boolean resolvesToStandard(Class<?> callerClass, String name, Object[] args) {
+    if (args[0].getClass().isArray() || args[0] instanceof DynamicObject) {
+      return false;
+    }
+    Lookup callerLookup = lookup().in(callerClass);
+    MethodInvocation invocation = new MethodInvocation(name, genericMethodType(args.length), args, new String[0]);
+    MethodResolution resolution = MethodResolution.resolve(invocation, callerLookup);
+    return resolution.kind() == MethodResolution.Kind.AUGMENTATION
+      && INLINED_AUGMENTATIONS.contains(resolution.method().getDeclaringClass().getName());
+  }
+}
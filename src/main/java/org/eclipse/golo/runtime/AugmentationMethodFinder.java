@@ -15,6 +15,7 @@ import java.util.stream.Stream;
 import java.util.Comparator;
 import java.util.Objects;
 import java.util.List;
+import java.util.Optional;
 import org.eclipse.golo.runtime.augmentation.DefiningModule;
 
 import static java.lang.invoke.MethodHandles.*;
@@ -87,11 +88,19 @@ class AugmentationMethodFinder extends MethodFinder {
 
   @Override
   public MethodHandle find() {
+    return findMethod()
+        .flatMap(this::toMethodHandle)
+        .orElse(null);
+  }
+
+  /**
+   * Gives the augmentation method the invocation resolves to, without converting it to a method handle.
+   */
+  Optional<Method> findMethod() {
     return getDefiningModules()
         .flatMap(dm -> dm.augmentationsFor(loader, invocation.receiverClass()))
         .flatMap(aug -> aug.methodsMaching(invocation))
         .min(Comparator.naturalOrder())
-        .flatMap(am -> toMethodHandle(am.method()))
-        .orElse(null);
+        .map(am -> am.method());
   }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Opt-in instrumentation of the Golo call sites.
+ * <p>
+ * When the {@code golo.instrumentation} system property is set to {@code true}, the bootstrap
+ * methods of method invocations, function calls, closure calls and operators attach a
+ * {@link CallSiteStatistics} to each call site they create, recording how often the site is
+ * (re)linked, whether it went megamorphic, the time spent resolving its targets, and for
+ * operators the number of relinks caused by a {@code ClassCastException}.
+ * <p>
+ * The statistics are published through an MBean registered as {@value #OBJECT_NAME}, and can be
+ * dumped from a remote JVM with the {@code golo callsites} command. Setting the
+ * {@code golo.instrumentation.dump} system property to {@code true} also prints the report on
+ * the standard error when the JVM exits.
+ * <p>
+ * When disabled, call sites carry no statistics and their fast paths are left untouched.
+ */
+public final class CallSiteInstrumentation implements CallSiteInstrumentationMBean {
+
+  /**
+   * The name under which the MBean is registered.
+   */
+  public static final String OBJECT_NAME = "org.eclipse.golo:type=CallSiteInstrumentation";
+
+  private static final boolean DUMP_ON_EXIT = Boolean.valueOf(System.getProperty("golo.instrumentation.dump", "false"));
+  private static final CallSiteInstrumentation INSTANCE = new CallSiteInstrumentation();
+  private static volatile boolean enabled = Boolean.valueOf(System.getProperty("golo.instrumentation", "false"));
+
+  private final Queue<CallSiteStatistics> callSites = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean published = new AtomicBoolean(false);
+
+  private CallSiteInstrumentation() {
+    // singleton
+  }
+
+  /**
+   * @return the instrumentation instance.
+   */
+  public static CallSiteInstrumentation instance() {
+    return INSTANCE;
+  }
+
+  /**
+   * @return whether newly created call sites are instrumented.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  static void setEnabled(boolean value) {
+    enabled = value;
+  }
+
+  /**
+   * Creates the statistics of a new call site if the instrumentation is enabled.
+   *
+   * @param kind the kind of call site.
+   * @param caller the class containing the call site.
+   * @param name the name of the called element.
+   * @return the statistics to update, or {@code null} if the instrumentation is disabled.
+   */
+  static CallSiteStatistics register(String kind, Class<?> caller, String name) {
+    if (!enabled) {
+      return null;
+    }
+    CallSiteStatistics statistics = new CallSiteStatistics(kind, caller.getName(), lineOf(caller), name);
+    INSTANCE.callSites.add(statistics);
+    INSTANCE.publish();
+    return statistics;
+  }
+
+  private static int lineOf(Class<?> caller) {
+    // bootstraps are run when the call site is first reached, so the caller frame is on the stack
+    for (StackTraceElement element : new Throwable().getStackTrace()) {
+      if (element.getClassName().equals(caller.getName())) {
+        return element.getLineNumber();
+      }
+    }
+    return -1;
+  }
+
+  private void publish() {
+    if (!published.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+    } catch (JMException e) {
+      // the statistics are still available through the instance
+    }
+    if (DUMP_ON_EXIT) {
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(getReport())));
+    }
+  }
+
+  /**
+   * @return a snapshot of the statistics of all the instrumented call sites.
+   */
+  public List<CallSiteStatistics> callSites() {
+    return new ArrayList<>(callSites);
+  }
+
+  @Override
+  public int getCallSiteCount() {
+    return callSites.size();
+  }
+
+  @Override
+  public long getTotalRelinks() {
+    return callSites.stream().mapToLong(CallSiteStatistics::getRelinks).sum();
+  }
+
+  @Override
+  public long getTotalResolutionTime() {
+    return callSites.stream().mapToLong(CallSiteStatistics::getResolutionTime).sum();
+  }
+
+  @Override
+  public String[] getMegamorphicCallSites() {
+    List<String> megamorphic = callSites.stream()
+      .filter(CallSiteStatistics::isMegamorphic)
+      .map(CallSiteStatistics::toString)
+      .collect(toList());
+    return megamorphic.toArray(new String[megamorphic.size()]);
+  }
+
+  @Override
+  public String getReport() {
+    StringBuilder report = new StringBuilder();
+    callSites.stream()
+      .sorted((a, b) -> Long.compare(b.getResolutionTime(), a.getResolutionTime()))
+      .forEach(site -> report.append(site).append('\n'));
+    return report.toString();
+  }
+
+  @Override
+  public void reset() {
+    callSites.forEach(CallSiteStatistics::reset);
+  }
+
+  /**
+   * Forgets all the call sites registered so far.
+   */
+  void clear() {
+    callSites.clear();
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+/**
+ * Management interface of the call site instrumentation.
+ *
+ * @see CallSiteInstrumentation
+ */
+public interface CallSiteInstrumentationMBean {
+
+  /**
+   * @return the number of instrumented call sites.
+   */
+  int getCallSiteCount();
+
+  /**
+   * @return the total number of relinks over all the instrumented call sites.
+   */
+  long getTotalRelinks();
+
+  /**
+   * @return the total time spent resolving call site targets, in nanoseconds.
+   */
+  long getTotalResolutionTime();
+
+  /**
+   * @return the description of the call sites that went megamorphic.
+   */
+  String[] getMegamorphicCallSites();
+
+  /**
+   * @return a textual report of all the instrumented call sites, one per line.
+   */
+  String getReport();
+
+  /**
+   * Zeroes the statistics of all the call sites recorded so far.
+   */
+  void reset();
+}
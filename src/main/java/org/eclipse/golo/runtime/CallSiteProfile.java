@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import java.io.IOException;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in profile of the targets linked by call sites, kept across runs.
+ * <p>
+ * When the {@code golo.profile} system property is set to a file name, the method invocation and operator call
+ * sites record the classes they are linked for, and the method they resolved to. The profile is written to the file
+ * when the JVM exits. On the next run, the bootstrap methods read it and install guarded targets for the recorded
+ * classes before the first call, instead of discovering them one fallback at a time.
+ * <p>
+ * Entries are validated when used: classes that can no longer be loaded, methods that no longer exist or no longer
+ * apply are dropped, and the call site then links as usual. The guards of pre-linked targets are the same as the
+ * ones installed by the fallbacks, so a wrong guess only costs a relink.
+ * <p>
+ * A profile entry is made of tab separated fields: the call site key (kind, caller class, name, type descriptor and
+ * argument names), then the recorded link, whose content depends on the kind of call site.
+ */
+public final class CallSiteProfile {
+
+  private static final String FILE = System.getProperty("golo.profile");
+  private static volatile boolean enabled = FILE != null && !FILE.isEmpty();
+
+  private static final Map<String, Class<?>> PRIMITIVES = new HashMap<>();
+
+  static {
+    for (Class<?> type : new Class<?>[]{
+        boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class,
+        void.class}) {
+      PRIMITIVES.put(type.getName(), type);
+    }
+  }
+
+  private static final Map<String, Set<String>> LOADED = new ConcurrentHashMap<>();
+  private static final Map<String, Set<String>> RECORDED = new ConcurrentHashMap<>();
+  private static final Set<String> DROPPED = ConcurrentHashMap.newKeySet();
+
+  static {
+    if (enabled) {
+      load(Paths.get(FILE));
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> save(Paths.get(FILE))));
+    }
+  }
+
+  private CallSiteProfile() {
+    // utility class
+  }
+
+  /**
+   * @return whether call sites are profiled.
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  static void setEnabled(boolean value) {
+    enabled = value;
+  }
+
+  /**
+   * Forgets the loaded and recorded links.
+   */
+  static void reset() {
+    LOADED.clear();
+    RECORDED.clear();
+    DROPPED.clear();
+  }
+
+  static String key(String kind, Class<?> caller, String name, MethodType type, String[] argumentNames) {
+    return kind + '\t' + caller.getName() + '\t' + name + '\t' + type.toMethodDescriptorString()
+      + '\t' + String.join(",", argumentNames);
+  }
+
+  /**
+   * Gives the links recorded for a call site by a previous run, in the order they were recorded.
+   */
+  static List<String> links(String key) {
+    if (!enabled) {
+      return Collections.emptyList();
+    }
+    Set<String> links = LOADED.get(key);
+    if (links == null) {
+      return Collections.emptyList();
+    }
+    synchronized (links) {
+      return new ArrayList<>(links);
+    }
+  }
+
+  /**
+   * Records a link of a call site.
+   */
+  static void record(String key, String link) {
+    if (!enabled || key == null) {
+      return;
+    }
+    Set<String> links = RECORDED.computeIfAbsent(key, k -> new LinkedHashSet<>());
+    synchronized (links) {
+      links.add(link);
+    }
+  }
+
+  /**
+   * Drops a link from a previous run that could not be validated.
+   */
+  static void drop(String key, String link) {
+    if (enabled) {
+      DROPPED.add(key + '\t' + link);
+    }
+  }
+
+  /**
+   * Loads a class recorded in a profile, without initializing it.
+   *
+   * @return the class, or {@code null} if it cannot be loaded anymore.
+   */
+  static Class<?> classNamed(String name, ClassLoader loader) {
+    Class<?> primitive = PRIMITIVES.get(name);
+    if (primitive != null) {
+      return primitive;
+    }
+    try {
+      return Class.forName(name, false, loader);
+    } catch (ClassNotFoundException | LinkageError e) {
+      return null;
+    }
+  }
+
+  /**
+   * Loads comma separated class names recorded in a profile.
+   *
+   * @return the classes, or {@code null} if one of them cannot be loaded anymore.
+   */
+  static Class<?>[] classesNamed(String names, ClassLoader loader) {
+    if (names.isEmpty()) {
+      return new Class<?>[0];
+    }
+    String[] parts = names.split(",");
+    Class<?>[] classes = new Class<?>[parts.length];
+    for (int i = 0; i < parts.length; i++) {
+      classes[i] = classNamed(parts[i], loader);
+      if (classes[i] == null) {
+        return null;
+      }
+    }
+    return classes;
+  }
+
+  static String namesOf(Class<?>... classes) {
+    StringBuilder names = new StringBuilder();
+    for (Class<?> type : classes) {
+      if (names.length() > 0) {
+        names.append(',');
+      }
+      names.append(type.getName());
+    }
+    return names.toString();
+  }
+
+  static void load(Path file) {
+    if (!Files.isRegularFile(file)) {
+      return;
+    }
+    try {
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        String[] fields = line.split("\t", 6);
+        if (line.startsWith("#") || fields.length < 6) {
+          continue;
+        }
+        String key = String.join("\t", fields[0], fields[1], fields[2], fields[3], fields[4]);
+        LOADED.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(fields[5]);
+      }
+    } catch (IOException e) {
+      LOADED.clear();
+    }
+  }
+
+  static void save(Path file) {
+    Map<String, Set<String>> merged = new HashMap<>();
+    for (Map<String, Set<String>> source : Arrays.asList(LOADED, RECORDED)) {
+      for (Map.Entry<String, Set<String>> entry : source.entrySet()) {
+        synchronized (entry.getValue()) {
+          for (String link : entry.getValue()) {
+            if (!DROPPED.contains(entry.getKey() + '\t' + link)) {
+              merged.computeIfAbsent(entry.getKey(), k -> new LinkedHashSet<>()).add(link);
+            }
+          }
+        }
+      }
+    }
+    List<String> lines = new ArrayList<>();
+    lines.add("# Golo call site profile");
+    merged.entrySet().stream()
+      .sorted(Map.Entry.comparingByKey())
+      .forEach(entry -> entry.getValue().forEach(link -> lines.add(entry.getKey() + '\t' + link)));
+    try {
+      Files.write(file, lines, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      System.err.println("[warning] could not write the call site profile to " + file + ": " + e.getMessage());
+    }
+  }
+}
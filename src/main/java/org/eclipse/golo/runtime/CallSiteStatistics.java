@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timings recorded for an instrumented call site.
+ * <p>
+ * Instances are created by {@link CallSiteInstrumentation} when the instrumentation is enabled,
+ * and updated by the bootstrap classes when a call site falls back to its target resolution.
+ */
+public final class CallSiteStatistics {
+
+  private final String kind;
+  private final String module;
+  private final int line;
+  private final String name;
+
+  private final LongAdder links = new LongAdder();
+  private final LongAdder resolutionTime = new LongAdder();
+  private final LongAdder classCastExceptions = new LongAdder();
+  private volatile boolean megamorphic = false;
+  private volatile int firstLinks = 1;
+
+  CallSiteStatistics(String kind, String module, int line, String name) {
+    this.kind = kind;
+    this.module = module;
+    this.line = line;
+    this.name = name;
+  }
+
+  void linked(long startNanos) {
+    links.increment();
+    resolutionTime.add(System.nanoTime() - startNanos);
+  }
+
+  void megamorphic() {
+    megamorphic = true;
+  }
+
+  void classCastException(ClassCastException e) {
+    classCastExceptions.increment();
+  }
+
+  /**
+   * Zeroes the counters, keeping the state of the call site.
+   */
+  void reset() {
+    if (links.sum() > 0) {
+      // the next links are relinks
+      firstLinks = 0;
+    }
+    links.reset();
+    resolutionTime.reset();
+    classCastExceptions.reset();
+  }
+
+  /**
+   * @return the kind of call site ({@code method}, {@code function}, {@code closure} or {@code operator}).
+   */
+  public String getKind() {
+    return kind;
+  }
+
+  /**
+   * @return the name of the module containing the call site.
+   */
+  public String getModule() {
+    return module;
+  }
+
+  /**
+   * @return the source line of the call site, or {@code -1} if unknown.
+   */
+  public int getLine() {
+    return line;
+  }
+
+  /**
+   * @return the name of the called method, function or operator.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the number of times a target was resolved and linked to the call site.
+   */
+  public long getLinks() {
+    return links.sum();
+  }
+
+  /**
+   * @return the number of times the call site was linked again after its first linkage.
+   */
+  public long getRelinks() {
+    return Math.max(0, links.sum() - firstLinks);
+  }
+
+  /**
+   * @return the total time spent resolving targets, in nanoseconds.
+   */
+  public long getResolutionTime() {
+    return resolutionTime.sum();
+  }
+
+  /**
+   * @return the number of relinks caused by a {@code ClassCastException} in an operator.
+   */
+  public long getClassCastExceptions() {
+    return classCastExceptions.sum();
+  }
+
+  /**
+   * @return whether the call site switched to a megamorphic dispatch.
+   */
+  public boolean isMegamorphic() {
+    return megamorphic;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s %s:%d %s links=%d relinks=%d megamorphic=%s cce=%d resolution=%.3fms",
+        kind, module, line, name, getLinks(), getRelinks(), megamorphic,
+        getClassCastExceptions(), getResolutionTime() / 1_000_000.0);
+  }
+}
@@ -32,6 +32,10 @@ public final class ClassReferenceSupport {
     if (classRef != null) {
       return createCallSite(classRef);
     }
+    classRef = tryLoadingFromLinkIndex(className, callerClass, classLoader);
+    if (classRef != null) {
+      return createCallSite(classRef);
+    }
     classRef = tryLoadingFromName(className, classLoader, callerClass.getName());
     if (classRef != null) {
       return createCallSite(classRef);
@@ -52,6 +56,19 @@ public final class ClassReferenceSupport {
     }
   }
 
+  private static Class<?> tryLoadingFromLinkIndex(String className, Class<?> callerClass, ClassLoader classLoader) {
+    String indexed = LinkIndex.classReference(callerClass, className);
+    if (indexed == null) {
+      return null;
+    }
+    try {
+      return Class.forName(indexed, true, classLoader);
+    } catch (ClassNotFoundException e) {
+      // stale index, the regular resolution applies
+      return null;
+    }
+  }
+
   private static Class<?> tryLoadingFromImports(String className, Class<?> callerClass, ClassLoader classLoader) {
     for (String importedClassName : imports(callerClass)) {
       Class<?> classRef = tryLoadingFromName(importedClassName + "." + className, classLoader, callerClass.getName());
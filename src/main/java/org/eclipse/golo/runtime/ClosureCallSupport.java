@@ -30,6 +30,7 @@ public final class ClosureCallSupport {
     MethodHandle fallback;
     final boolean constant;
     final String[] argumentNames;
+    CallSiteStatistics statistics;
 
     InlineCache(MethodType type, boolean constant, String[] argumentNames) {
       super(type);
@@ -39,6 +40,7 @@ public final class ClosureCallSupport {
   }
 
   private static final MethodHandle GUARD;
+  private static final MethodHandle CLASS_GUARD;
   private static final MethodHandle FALLBACK;
 
   static {
@@ -50,6 +52,11 @@ public final class ClosureCallSupport {
           "guard",
           methodType(boolean.class, FunctionReference.class, FunctionReference.class));
 
+      CLASS_GUARD = lookup.findStatic(
+          ClosureCallSupport.class,
+          "classGuard",
+          methodType(boolean.class, Class.class, FunctionReference.class));
+
       FALLBACK = lookup.findStatic(
           ClosureCallSupport.class,
           "fallback",
@@ -66,6 +73,7 @@ public final class ClosureCallSupport {
       argumentNames[i] = (String) bsmArgs[i + 1];
     }
     InlineCache callSite = new InlineCache(type, constant, argumentNames);
+    callSite.statistics = CallSiteInstrumentation.register("closure", caller.lookupClass(), name);
     MethodHandle fallbackHandle = FALLBACK
         .bindTo(callSite)
         .asCollector(Object[].class, type.parameterCount())
@@ -79,10 +87,24 @@ public final class ClosureCallSupport {
     return expected == actual;
   }
 
+  public static boolean classGuard(Class<?> expected, FunctionReference actual) {
+    return actual.getClass() == expected;
+  }
+
   public static Object fallback(InlineCache callSite, Object[] args) throws Throwable {
+    long start = (callSite.statistics == null) ? 0 : System.nanoTime();
     FunctionReference targetFunctionReference = (FunctionReference) args[0];
-    MethodHandle target = targetFunctionReference.handle();
-    MethodHandle invoker = MethodHandles.dropArguments(target, 0, FunctionReference.class);
+    MethodHandle entryPoint = targetFunctionReference.entryPoint();
+    MethodHandle invoker;
+    boolean varargs;
+    if (entryPoint != null) {
+      invoker = entryPoint;
+      varargs = entryPoint.isVarargsCollector();
+    } else {
+      MethodHandle target = targetFunctionReference.handle();
+      invoker = MethodHandles.dropArguments(target, 0, FunctionReference.class);
+      varargs = target.isVarargsCollector();
+    }
     MethodType type = invoker.type();
     if (callSite.argumentNames.length > 0) {
       invoker = reorderArguments(
@@ -90,18 +112,21 @@ public final class ClosureCallSupport {
           invoker,
           callSite.argumentNames);
     }
-    if (target.isVarargsCollector()) {
+    if (varargs) {
       if (TypeMatching.isLastArgumentAnArray(type.parameterCount(), args)) {
         invoker = invoker.asFixedArity().asType(callSite.type());
       } else {
         invoker = invoker.asCollector(
             Object[].class,
-            callSite.type().parameterCount() - target.type().parameterCount())
+            callSite.type().parameterCount() - type.parameterCount() + 1)
           .asType(callSite.type());
       }
     } else {
       invoker = invoker.asType(callSite.type());
     }
+    if (callSite.statistics != null) {
+      callSite.statistics.linked(start);
+    }
     if (callSite.constant) {
       Object constantValue = invoker.invokeWithArguments(args);
       MethodHandle constant;
@@ -114,7 +139,9 @@ public final class ClosureCallSupport {
       callSite.setTarget(constant.asType(type));
       return constantValue;
     } else {
-      MethodHandle guard = GUARD.bindTo(targetFunctionReference);
+      MethodHandle guard = (entryPoint != null)
+          ? CLASS_GUARD.bindTo(targetFunctionReference.getClass())
+          : GUARD.bindTo(targetFunctionReference);
       MethodHandle root = guardWithTest(guard, invoker, callSite.fallback);
       callSite.setTarget(root);
       return invoker.invokeWithArguments(args);
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.FunctionReference;
+import gololang.Tuple;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Runtime support for the collection comprehensions expanded by the compiler.
+ * <p>
+ * A comprehension such as {@code list[f(x) foreach x in xs]} is compiled into loops appending the elements with
+ * {@link #add(Collection, Object)}, a direct call instead of a dynamic {@code add} method invocation. Array and tuple
+ * comprehensions collect their elements in a list that is converted once at the end with {@link #toArray(List)} or
+ * {@link #toTuple(List)}.
+ * <p>
+ * When the compiler is run with the {@code --array-lists} option (or the {@code golo.compiler.array-lists} system
+ * property), list comprehensions also collect their elements in a {@code java.util.ArrayList} instead of a
+ * {@code java.util.LinkedList}. Such a list is presized with {@link #presizedList(Object)} when the comprehension is
+ * made of a single unfiltered loop over a source of known size.
+ * <p>
+ * With the {@code --parallel-comprehensions} option (or the {@code golo.compiler.parallel-comprehensions} system
+ * property), a comprehension made of a single loop over a parallel stream is built by
+ * {@link #parallelCollect(Collection, Object, FunctionReference, FunctionReference)}.
+ */
+public final class ComprehensionHelper {
+
+  private ComprehensionHelper() {
+    throw new UnsupportedOperationException("Don't instantiate utility classes");
+  }
+
+  /**
+   * Gives the number of elements of a comprehension source, when it is known without iterating.
+   *
+   * @param source the iterated value.
+   * @return the number of elements, or {@code -1} if unknown.
+   */
+  public static int sizeOf(Object source) {
+    if (source instanceof Collection) {
+      return ((Collection<?>) source).size();
+    }
+    if (source instanceof Tuple) {
+      return ((Tuple) source).size();
+    }
+    if (source instanceof Object[]) {
+      return ((Object[]) source).length;
+    }
+    return -1;
+  }
+
+  /**
+   * Creates the list a comprehension collects its elements into, presized when the source size is known.
+   *
+   * @param source the iterated value.
+   * @return a new empty array-backed list.
+   */
+  public static ArrayList<Object> presizedList(Object source) {
+    int size = sizeOf(source);
+    return size < 0 ? new ArrayList<>() : new ArrayList<>(size);
+  }
+
+  /**
+   * Appends an element to the collection built by a comprehension.
+   *
+   * @param collection the collection being built.
+   * @param element the element to append.
+   * @return {@code true} if the collection changed.
+   */
+  public static boolean add(Collection<Object> collection, Object element) {
+    return collection.add(element);
+  }
+
+  /**
+   * Converts the list built by an array comprehension.
+   *
+   * @param list the collected elements.
+   * @return an array of the elements.
+   */
+  public static Object[] toArray(List<Object> list) {
+    return list.toArray();
+  }
+
+  /**
+   * Converts the list built by a tuple comprehension.
+   *
+   * @param list the collected elements.
+   * @return a tuple of the elements.
+   */
+  public static Tuple toTuple(List<Object> list) {
+    return Tuple.fromArray(list.toArray());
+  }
+
+  /**
+   * Builds a comprehension over a parallel stream.
+   * <p>
+   * The filter and the mapping functions are applied to the stream elements concurrently, and the results are
+   * appended to the collection in the stream encounter order.
+   *
+   * @param collection the collection being built.
+   * @param source the iterated stream.
+   * @param filter the {@code when} clause of the comprehension, or {@code null} if none.
+   * @param mapper the comprehension expression.
+   * @return the collection.
+   */
+  public static Collection<Object> parallelCollect(Collection<Object> collection, Object source, FunctionReference filter, FunctionReference mapper) {
+    Stream<Object> stream = stream(source);
+    if (filter != null) {
+      stream = stream.filter(element -> (Boolean) apply(filter, element));
+    }
+    collection.addAll(stream.map(element -> apply(mapper, element)).collect(Collectors.toList()));
+    return collection;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Stream<Object> stream(Object source) {
+    if (source instanceof Stream) {
+      return ((Stream<Object>) source).parallel();
+    }
+    if (source instanceof Collection) {
+      return ((Collection<Object>) source).parallelStream();
+    }
+    if (source instanceof IntStream) {
+      return (Stream) ((IntStream) source).parallel().boxed();
+    }
+    if (source instanceof LongStream) {
+      return (Stream) ((LongStream) source).parallel().boxed();
+    }
+    if (source instanceof DoubleStream) {
+      return (Stream) ((DoubleStream) source).parallel().boxed();
+    }
+    throw new IllegalArgumentException("Can't iterate " + source + " in parallel");
+  }
+
+  private static Object apply(FunctionReference function, Object element) {
+    try {
+      return function.handle().invoke(element);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new RuntimeException(t);
+    }
+  }
+}
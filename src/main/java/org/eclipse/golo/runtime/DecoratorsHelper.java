@@ -43,6 +43,10 @@ public final class DecoratorsHelper {
     return method.isAnnotationPresent(DecoratedBy.class);
   }
 
+  public static boolean isDecoratorConstant(Method decorated) {
+    return decorated.getAnnotation(DecoratedBy.class).constant();
+  }
+
   public static Method getDecoratorMethod(Method decorated) {
     try {
       return decorated.getDeclaringClass().getDeclaredMethod(decorated.getAnnotation(DecoratedBy.class).value(), Object.class);
@@ -62,6 +66,9 @@ public final class DecoratorsHelper {
       decorator = MethodHandles.filterReturnValue(decorator, FUNCTION_REFERENCE_TO_METHODHANDLE);
       MethodHandle original = caller.unreflect(originalMethod);
       decorator = decorator.bindTo(new gololang.FunctionReference(original)).asType(methodType(MethodHandle.class));
+      if (isDecoratorConstant(originalMethod)) {
+        return applyConstantDecorator(decorator, arity);
+      }
       if (arity < 0) {
         MethodHandle combined = MethodHandles.foldArguments(INVOKE_WITH_ARGUMENTS, decorator);
         return combined.asVarargsCollector(Object[].class);
@@ -75,6 +82,21 @@ public final class DecoratorsHelper {
     }
   }
 
+  private static MethodHandle applyConstantDecorator(MethodHandle decorator, int arity) {
+    MethodHandle decorated;
+    try {
+      decorated = (MethodHandle) decorator.invokeExact();
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new IllegalStateException("Unable to apply the decorator of a function marked as decorated", t);
+    }
+    if (arity < 0) {
+      return INVOKE_WITH_ARGUMENTS.bindTo(decorated).asVarargsCollector(Object[].class);
+    }
+    return decorated.asType(MethodType.genericMethodType(arity));
+  }
+
   public static MethodHandle getDecoratedMethodHandle(Method originalMethod, int arity) {
     return getDecoratedMethodHandle(MethodHandles.lookup(), originalMethod, arity);
   }
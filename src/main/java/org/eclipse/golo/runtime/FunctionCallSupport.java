@@ -10,10 +10,12 @@
 package org.eclipse.golo.runtime;
 
 import gololang.FunctionReference;
+import org.eclipse.golo.compiler.GoloClassLoader;
 
 import java.lang.invoke.*;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
@@ -39,6 +41,8 @@ public final class FunctionCallSupport {
     final String name;
     final boolean constant;
     final String[] argumentNames;
+    MethodHandle fallback;
+    CallSiteStatistics statistics;
 
     FunctionCallSite(MethodHandles.Lookup callerLookup, String name, MethodType type, boolean constant, String... argumentNames) {
       super(type);
@@ -117,15 +121,18 @@ public final class FunctionCallSupport {
         type,
         constant,
         argumentNames);
+    callSite.statistics = CallSiteInstrumentation.register("function", caller.lookupClass(), callSite.name);
     MethodHandle fallbackHandle = FALLBACK
         .bindTo(callSite)
         .asCollector(Object[].class, type.parameterCount())
         .asType(type);
+    callSite.fallback = fallbackHandle;
     callSite.setTarget(fallbackHandle);
     return callSite;
   }
 
   public static Object fallback(FunctionCallSite callSite, Object[] args) throws Throwable {
+    long start = (callSite.statistics == null) ? 0 : System.nanoTime();
     String functionName = callSite.name;
     MethodType type = callSite.type();
     Lookup caller = callSite.callerLookup;
@@ -134,6 +141,9 @@ public final class FunctionCallSupport {
 
     MethodHandle handle = null;
     Object result = findStaticMethodOrField(callerClass, functionName, args);
+    if (result == null) {
+      result = findFromLinkIndex(callerClass, functionName, args);
+    }
     if (result == null) {
       result = findClassWithStaticMethodOrField(callerClass, functionName, args);
     }
@@ -150,6 +160,7 @@ public final class FunctionCallSupport {
       throw new NoSuchMethodError(functionName + type.toMethodDescriptorString());
     }
 
+    Class<?> owner = ((Member) result).getDeclaringClass();
     Class<?>[] types = null;
     if (result instanceof Method) {
       Method method = (Method) result;
@@ -179,6 +190,9 @@ public final class FunctionCallSupport {
       handle = caller.unreflectGetter(field).asType(type);
     }
     handle = insertSAMFilter(handle, callSite.callerLookup, types, 0);
+    if (callSite.statistics != null) {
+      callSite.statistics.linked(start);
+    }
 
     if (callSite.constant) {
       Object constantValue = handle.invokeWithArguments(args);
@@ -189,14 +203,28 @@ public final class FunctionCallSupport {
         constant = MethodHandles.constant(constantValue.getClass(), constantValue);
       }
       constant = MethodHandles.dropArguments(constant, 0, type.parameterArray());
-      callSite.setTarget(constant.asType(type));
+      callSite.setTarget(guardModule(callerClass, owner, constant.asType(type), callSite.fallback));
       return constantValue;
     } else {
-      callSite.setTarget(handle);
+      callSite.setTarget(guardModule(callerClass, owner, handle, callSite.fallback));
       return handle.invokeWithArguments(args);
     }
   }
 
+  /**
+   * Guards a target linked from a call site so that the call site links again when the module defining the target
+   * is reloaded.
+   *
+   * @see GoloClassLoader#reload(String, java.io.InputStream)
+   */
+  public static MethodHandle guardModule(Class<?> callerClass, Class<?> owner, MethodHandle target, MethodHandle fallback) {
+    SwitchPoint switchPoint = GoloClassLoader.switchPointFor(callerClass, owner);
+    if (switchPoint == null) {
+      return target;
+    }
+    return switchPoint.guardWithTest(target, fallback);
+  }
+
   private static boolean isVarargsWithNames(Method method, Class<?>[] types, Object[] args, String[] argumentNames) {
     return method.isVarArgs()
       && (
@@ -248,6 +276,24 @@ public final class FunctionCallSupport {
     }
   }
 
+  private static Object findFromLinkIndex(Class<?> callerClass, String functionName, Object[] args) {
+    String owner = LinkIndex.functionOwner(callerClass, functionName);
+    if (owner != null) {
+      try {
+        Class<?> ownerClass = GoloClassLoader.forName(owner, callerClass.getClassLoader());
+        return findStaticMethodOrField(ownerClass, functionName.substring(functionName.lastIndexOf('.') + 1), args);
+      } catch (ClassNotFoundException ignored) {
+        // stale index, ignored to try the next strategy
+        return null;
+      }
+    }
+    owner = LinkIndex.constructorOwner(callerClass, functionName);
+    if (owner != null) {
+      return findClassWithConstructor(callerClass, owner, args);
+    }
+    return null;
+  }
+
   private static Object findClassWithConstructorFromImports(Class<?> callerClass, String classname, Object[] args) {
     String[] imports = Module.imports(callerClass);
     for (String imported : imports) {
@@ -267,7 +313,7 @@ public final class FunctionCallSupport {
 
   private static Object findClassWithConstructor(Class<?> callerClass, String classname, Object[] args) {
     try {
-      Class<?> targetClass = Class.forName(classname, true, callerClass.getClassLoader());
+      Class<?> targetClass = GoloClassLoader.forName(classname, callerClass.getClassLoader());
       for (Constructor<?> constructor : targetClass.getConstructors()) {
         if (TypeMatching.argumentsMatch(constructor, args)) {
           return constructor;
@@ -293,12 +339,12 @@ public final class FunctionCallSupport {
       try {
         Class<?> importedClass;
         try {
-          importedClass = Class.forName(importedClassName, true, callerClass.getClassLoader());
+          importedClass = GoloClassLoader.forName(importedClassName, callerClass.getClassLoader());
         } catch (ClassNotFoundException expected) {
           if (classAndMethod == null) {
             throw expected;
           }
-          importedClass = Class.forName(importedClassName + "." + classAndMethod[0], true, callerClass.getClassLoader());
+          importedClass = GoloClassLoader.forName(importedClassName + "." + classAndMethod[0], callerClass.getClassLoader());
         }
         String lookup = (classAndMethod == null) ? functionName : classAndMethod[1];
         Object result = findStaticMethodOrField(importedClass, lookup, args);
@@ -319,7 +365,7 @@ public final class FunctionCallSupport {
       String className = functionName.substring(0, methodClassSeparatorIndex);
       String methodName = functionName.substring(methodClassSeparatorIndex + 1);
       try {
-        Class<?> targetClass = Class.forName(className, true, callerClass.getClassLoader());
+        Class<?> targetClass = GoloClassLoader.forName(className, callerClass.getClassLoader());
         return findStaticMethodOrField(targetClass, methodName, args);
       } catch (ClassNotFoundException ignored) {
         // ignored to try the next strategy
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+
+/**
+ * Precomputed link information of compiled Golo modules.
+ * <p>
+ * {@code golo compile} writes a link index in the {@value #RESOURCE} resource of the produced jar
+ * or directory. It contains the metadata of each compiled class (imports and augmentations) as well
+ * as the targets of class references and function calls that were resolved through the imports at
+ * compilation time.
+ * <p>
+ * The bootstraps consult this index before falling back to the reflective search. An index only
+ * applies to the classes loaded from the same jar or directory, and the resolved targets are
+ * validated when used, so a stale entry only costs the regular resolution. The index can be ignored
+ * by setting the {@code golo.link-index} system property to {@code false}.
+ * <p>
+ * Each indexed class records the {@linkplain #version(String[]...) version} of its metadata, that the
+ * compiler also stores in the {@code $version} field of the class. The entries of a class are ignored
+ * when the two differ, for instance when the class was compiled again without updating the index.
+ * <p>
+ * The index is a properties file whose keys are made of the class name, the kind of entry and the
+ * name of the element, separated by {@code #}. Lists of names are comma separated.
+ */
+public final class LinkIndex {
+
+  /**
+   * The name of the resource holding the link index.
+   */
+  public static final String RESOURCE = "META-INF/golo/link-index.properties";
+
+  public static final String IMPORTS = "imports";
+  public static final String AUGMENTATIONS = "augmentations";
+  public static final String AUGMENTATION_APPLICATIONS = "augmentationApplications";
+  public static final String APPLICATIONS = "applications";
+  public static final String CLASS = "class";
+  public static final String FUNCTION = "function";
+  public static final String CONSTRUCTOR = "constructor";
+  public static final String VERSION = "version";
+
+  private static final boolean ENABLED = Boolean.valueOf(System.getProperty("golo.link-index", "true"));
+  private static final String[] EMPTY = new String[0];
+  private static final Map<ClassLoader, Map<String, Properties>> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+  private static final ClassValue<Properties> ENTRIES = new ClassValue<Properties>() {
+    @Override
+    protected Properties computeValue(Class<?> klass) {
+      Properties entries = indexOf(klass);
+      if (entries == null || !isCurrent(klass, entries)) {
+        return null;
+      }
+      return entries;
+    }
+  };
+
+  private LinkIndex() {
+    throw new UnsupportedOperationException("Don't instantiate utility classes");
+  }
+
+  /**
+   * Builds the key of an entry.
+   *
+   * @param className the name of the class the entry belongs to.
+   * @param kind the kind of entry.
+   * @param name the name of the indexed element, if any.
+   * @return the entry key.
+   */
+  public static String key(String className, String kind, String name) {
+    return (name == null)
+      ? className + "#" + kind
+      : className + "#" + kind + "#" + name;
+  }
+
+  /**
+   * Joins a list of names into an entry value.
+   *
+   * @param names the names to join.
+   * @return the entry value.
+   */
+  public static String join(String[] names) {
+    return String.join(",", names);
+  }
+
+  /**
+   * Computes the version of the metadata of a class.
+   *
+   * @param data the metadata of the class.
+   * @return the version of the metadata.
+   */
+  public static int version(String[]... data) {
+    return Arrays.deepHashCode(data);
+  }
+
+  private static String[] split(String value) {
+    if (value.isEmpty()) {
+      return EMPTY;
+    }
+    return value.split(",");
+  }
+
+  static String[] metadata(Class<?> module, String name) {
+    String value = lookup(module, name, null);
+    return value == null ? null : split(value);
+  }
+
+  static String[] augmentationApplications(Class<?> module, Class<?> target) {
+    Properties entries = entriesFor(module);
+    if (entries == null || !entries.containsKey(key(module.getName(), AUGMENTATION_APPLICATIONS, null))) {
+      return null;
+    }
+    return split(entries.getProperty(key(module.getName(), APPLICATIONS, target.getName()), ""));
+  }
+
+  static String classReference(Class<?> caller, String name) {
+    return lookup(caller, CLASS, name);
+  }
+
+  static String functionOwner(Class<?> caller, String name) {
+    return lookup(caller, FUNCTION, name);
+  }
+
+  static String constructorOwner(Class<?> caller, String name) {
+    return lookup(caller, CONSTRUCTOR, name);
+  }
+
+  private static String lookup(Class<?> klass, String kind, String name) {
+    Properties entries = entriesFor(klass);
+    if (entries == null) {
+      return null;
+    }
+    return entries.getProperty(key(klass.getName(), kind, name));
+  }
+
+  private static Properties entriesFor(Class<?> klass) {
+    if (!ENABLED) {
+      return null;
+    }
+    return ENTRIES.get(klass);
+  }
+
+  private static boolean isCurrent(Class<?> klass, Properties entries) {
+    String version = entries.getProperty(key(klass.getName(), VERSION, null));
+    if (version == null) {
+      return false;
+    }
+    try {
+      Field field = klass.getDeclaredField("$" + VERSION);
+      return version.equals(String.valueOf(field.getInt(null)));
+    } catch (NoSuchFieldException | IllegalAccessException | IllegalArgumentException | SecurityException e) {
+      return false;
+    }
+  }
+
+  private static Properties indexOf(Class<?> klass) {
+    ClassLoader loader = klass.getClassLoader();
+    String location = locationOf(klass);
+    if (loader == null || location == null) {
+      return null;
+    }
+    Map<String, Properties> indexes = INDEXES.get(loader);
+    if (indexes == null) {
+      indexes = load(loader);
+      INDEXES.put(loader, indexes);
+    }
+    return indexes.get(location);
+  }
+
+  private static String locationOf(Class<?> klass) {
+    try {
+      CodeSource source = klass.getProtectionDomain().getCodeSource();
+      if (source == null || source.getLocation() == null) {
+        return null;
+      }
+      return source.getLocation().toString();
+    } catch (SecurityException e) {
+      return null;
+    }
+  }
+
+  private static Map<String, Properties> load(ClassLoader loader) {
+    Map<String, Properties> indexes = new HashMap<>();
+    try {
+      Enumeration<URL> resources = loader.getResources(RESOURCE);
+      while (resources.hasMoreElements()) {
+        URL resource = resources.nextElement();
+        Properties entries = new Properties();
+        try (InputStream in = resource.openStream()) {
+          entries.load(in);
+        }
+        indexes.put(baseLocation(resource), entries);
+      }
+    } catch (IOException e) {
+      // a broken index is ignored, the regular resolution is used instead
+    }
+    return indexes;
+  }
+
+  private static String baseLocation(URL resource) {
+    String location = resource.toString();
+    location = location.substring(0, location.length() - RESOURCE.length());
+    if (location.startsWith("jar:") && location.endsWith("!/")) {
+      location = location.substring("jar:".length(), location.length() - "!/".length());
+    }
+    return location;
+  }
+}
@@ -23,19 +23,45 @@ public class MethodInvocation {
   private final String name;
   private final Class<?> receiverClass;
   private final Object[] arguments;
+  private final Class<?>[] argumentTypes;
   private final int arity;
   private final String[] argumentNames;
   private final MethodType type;
 
   MethodInvocation(String name, MethodType type, Object[] args, String[] argNames) {
+    this(name, type, args[0].getClass(), args, null, argNames);
+  }
+
+  /**
+   * Creates an invocation on arguments of the given classes, without requiring actual arguments.
+   * <p>
+   * Methods are matched against the argument classes. The arguments are {@code null}, except for a last array
+   * argument, which is an empty array of the same type.
+   */
+  MethodInvocation(String name, MethodType type, Class<?>[] argumentTypes, String[] argNames) {
+    this(name, type, argumentTypes[0], placeholders(argumentTypes), argumentTypes, argNames);
+  }
+
+  private MethodInvocation(String name, MethodType type, Class<?> receiverClass, Object[] args,
+      Class<?>[] argumentTypes, String[] argNames) {
     this.name = name;
-    this.receiverClass = args[0].getClass();
+    this.receiverClass = receiverClass;
     this.arguments = args;
+    this.argumentTypes = argumentTypes;
     this.arity = args.length;
     this.type = type;
     this.argumentNames = argNames;
   }
 
+  private static Object[] placeholders(Class<?>[] argumentTypes) {
+    Object[] args = new Object[argumentTypes.length];
+    Class<?> last = argumentTypes[argumentTypes.length - 1];
+    if (argumentTypes.length > 1 && last.isArray()) {
+      args[args.length - 1] = java.lang.reflect.Array.newInstance(last.getComponentType(), 0);
+    }
+    return args;
+  }
+
   public String name() {
     return name;
   }
@@ -77,14 +103,16 @@ public class MethodInvocation {
     return method.getName().equals(name)
       && isPublic(method.getModifiers())
       && !isAbstract(method.getModifiers())
-      && TypeMatching.argumentsMatch(method, arguments);
+      && (argumentTypes == null
+          ? TypeMatching.argumentsMatch(method, arguments)
+          : TypeMatching.argumentTypesMatch(method, argumentTypes));
   }
 
   /**
    * returns a new invocation having the given name.
    */
   MethodInvocation withName(String newName) {
-    return new MethodInvocation(newName, type, arguments, argumentNames);
+    return new MethodInvocation(newName, type, receiverClass, arguments, argumentTypes, argumentNames);
   }
 
   @Override
@@ -12,12 +12,15 @@ package org.eclipse.golo.runtime;
 import gololang.DynamicObject;
 
 import java.lang.invoke.*;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.WeakHashMap;
 
 import static java.lang.invoke.MethodHandles.*;
 import static java.lang.invoke.MethodType.methodType;
+import static java.lang.reflect.Modifier.isPublic;
+import static java.lang.reflect.Modifier.isStatic;
 
 
 public final class MethodInvocationSupport {
@@ -42,7 +45,12 @@ public final class MethodInvocationSupport {
 
     int depth = 0;
     MethodHandle resetFallback;
+    MethodHandle reloadFallback;
+    MethodHandle chain;
+    MethodHandle nullReceiverGuard;
     WeakHashMap<Class<?>, MethodHandle> vtable;
+    CallSiteStatistics statistics;
+    String profileKey;
 
     InlineCache(Lookup callerLookup, String name, MethodType type, boolean nullSafeGuarded, String... argumentNames) {
       super(type);
@@ -50,12 +58,28 @@ public final class MethodInvocationSupport {
       this.name = name;
       this.nullSafeGuarded = nullSafeGuarded;
       this.argumentNames = argumentNames;
+      this.chain = getTarget();
     }
 
     boolean isMegaMorphic() {
       return depth > MEGAMORPHIC_THRESHOLD;
     }
 
+    /**
+     * Installs a dispatch chain, behind a test of the receiver for {@code null} on null-safe call sites.
+     */
+    void install(MethodHandle target) {
+      chain = target;
+      if (nullSafeGuarded) {
+        setTarget(guardWithTest(
+            nullReceiverGuard,
+            dropArguments(constant(Object.class, null), 0, type().parameterArray()).asType(type()),
+            target));
+      } else {
+        setTarget(target);
+      }
+    }
+
     public MethodInvocation toMethodInvocation(Object[] args) {
       return new MethodInvocation(name, type(), args, argumentNames);
     }
@@ -64,7 +88,9 @@ public final class MethodInvocationSupport {
   private static final MethodHandle CLASS_GUARD;
   private static final MethodHandle FALLBACK;
   private static final MethodHandle RESET_FALLBACK;
+  private static final MethodHandle RELOAD_FALLBACK;
   private static final MethodHandle VTABLE_LOOKUP;
+  private static final MethodHandle IS_NULL;
 
   private static final MethodHandle OVERLOADED_GUARD_GENERIC;
   private static final MethodHandle OVERLOADED_GUARD_1;
@@ -109,11 +135,21 @@ public final class MethodInvocationSupport {
           "resetFallback",
           methodType(Object.class, InlineCache.class, Object[].class));
 
+      RELOAD_FALLBACK = lookup.findStatic(
+          MethodInvocationSupport.class,
+          "reloadFallback",
+          methodType(Object.class, InlineCache.class, Object[].class));
+
       VTABLE_LOOKUP = lookup.findStatic(
           MethodInvocationSupport.class,
           "vtableLookup",
           methodType(MethodHandle.class, InlineCache.class, Object[].class));
 
+      IS_NULL = lookup.findStatic(
+          MethodInvocationSupport.class,
+          "isNull",
+          methodType(boolean.class, Object.class));
+
       OVERLOADED_GUARD_GENERIC = lookup.findStatic(
           MethodInvocationSupport.class,
           "overloadedGuard_generic",
@@ -151,6 +187,7 @@ public final class MethodInvocationSupport {
       argumentNames[i] = (String) bsmArgs[i + 1];
     }
     InlineCache callSite = new InlineCache(caller, name, type, nullSafeGuarded, argumentNames);
+    callSite.statistics = CallSiteInstrumentation.register("method", caller.lookupClass(), name);
     MethodHandle fallbackHandle = FALLBACK
         .bindTo(callSite)
         .asCollector(Object[].class, type.parameterCount())
@@ -159,10 +196,101 @@ public final class MethodInvocationSupport {
         .bindTo(callSite)
         .asCollector(Object[].class, type.parameterCount())
         .asType(type);
-    callSite.setTarget(fallbackHandle);
+    callSite.reloadFallback = RELOAD_FALLBACK
+        .bindTo(callSite)
+        .asCollector(Object[].class, type.parameterCount())
+        .asType(type);
+    if (nullSafeGuarded) {
+      callSite.nullReceiverGuard = IS_NULL.asType(methodType(boolean.class, type.parameterType(0)));
+    }
+    callSite.install(fallbackHandle);
+    if (CallSiteProfile.isEnabled()) {
+      callSite.profileKey = CallSiteProfile.key("method", caller.lookupClass(), name, type, argumentNames);
+      prelink(callSite);
+    }
     return callSite;
   }
 
+  /**
+   * Installs guarded targets for the methods recorded in the profile of a previous run, if any.
+   * <p>
+   * The targets are resolved again from the recorded classes and methods, and guarded like the ones installed by
+   * the fallback. Recorded entries are dropped when they no longer apply, or when the dispatch rules now resolve
+   * the recorded classes to another method.
+   */
+  private static void prelink(InlineCache inlineCache) {
+    for (String link : CallSiteProfile.links(inlineCache.profileKey)) {
+      if (inlineCache.depth >= InlineCache.MEGAMORPHIC_THRESHOLD) {
+        return;
+      }
+      MethodHandle target = null;
+      try {
+        target = profiledTarget(inlineCache, link);
+      } catch (NoSuchMethodException | RuntimeException | LinkageError e) {
+        // stale entry, linked by the fallback instead
+      }
+      if (target == null) {
+        CallSiteProfile.drop(inlineCache.profileKey, link);
+      } else {
+        inlineCache.install(target);
+        inlineCache.depth = inlineCache.depth + 1;
+      }
+    }
+  }
+
+  private static MethodHandle profiledTarget(InlineCache inlineCache, String link) throws NoSuchMethodException {
+    String[] fields = link.split("\t", -1);
+    if (fields.length != 4) {
+      return null;
+    }
+    ClassLoader loader = inlineCache.callerLookup.lookupClass().getClassLoader();
+    Class<?>[] types = CallSiteProfile.classesNamed(fields[1], loader);
+    Class<?> owner = CallSiteProfile.classNamed(fields[2], loader);
+    Class<?>[] parameterTypes = CallSiteProfile.classesNamed(fields[3], loader);
+    if (types == null || owner == null || parameterTypes == null || types.length != inlineCache.type().parameterCount()) {
+      return null;
+    }
+    Class<?> receiverClass = types[0];
+    if (receiverClass.isArray() || DynamicObject.class.isAssignableFrom(receiverClass)) {
+      return null;
+    }
+    Method method = owner.getDeclaredMethod(inlineCache.name, parameterTypes);
+    MethodInvocation invocation = new MethodInvocation(
+        inlineCache.name, inlineCache.type(), types, inlineCache.argumentNames);
+    MethodResolution resolution = MethodResolution.resolve(invocation, inlineCache.callerLookup);
+    if (!method.equals(resolution.method())) {
+      return null;
+    }
+    MethodHandle target;
+    MethodHandle guard;
+    switch (fields[0]) {
+      case "regular":
+        if (resolution.kind() != MethodResolution.Kind.REGULAR || isStatic(method.getModifiers())
+            || !isPublic(method.getModifiers()) || !owner.isAssignableFrom(receiverClass)) {
+          return null;
+        }
+        target = resolution.target();
+        guard = resolution.isOverloaded() ? overloadedGuard(types) : CLASS_GUARD.bindTo(receiverClass);
+        break;
+      case "augmentation":
+        if (resolution.kind() != MethodResolution.Kind.AUGMENTATION || !isStatic(method.getModifiers())
+            || parameterTypes.length == 0 || !parameterTypes[0].isAssignableFrom(receiverClass)) {
+          return null;
+        }
+        target = FunctionCallSupport.guardModule(
+            inlineCache.callerLookup.lookupClass(), owner, resolution.target(), inlineCache.reloadFallback);
+        guard = CLASS_GUARD.bindTo(receiverClass);
+        break;
+      default:
+        return null;
+    }
+    return guardWithTest(guard, target, inlineCache.chain);
+  }
+
+  public static boolean isNull(Object receiver) {
+    return receiver == null;
+  }
+
   public static boolean classGuard(Class<?> expected, Object receiver) {
     return receiver.getClass() == expected;
   }
@@ -209,8 +337,12 @@ public final class MethodInvocationSupport {
     Class<?> receiverClass = args[0].getClass();
     MethodHandle target = inlineCache.vtable.get(receiverClass);
     if (target == null) {
+      long start = (inlineCache.statistics == null) ? 0 : System.nanoTime();
       target = lookupTarget(receiverClass, inlineCache, args);
       inlineCache.vtable.put(receiverClass, target);
+      if (inlineCache.statistics != null) {
+        inlineCache.statistics.linked(start);
+      }
     }
     return target;
   }
@@ -233,8 +365,17 @@ public final class MethodInvocationSupport {
     return fallback(inlineCache, args);
   }
 
+  public static Object reloadFallback(InlineCache inlineCache, Object[] args) throws Throwable {
+    if (inlineCache.vtable != null) {
+      // entries may be guarded by the switch point of a reloaded module
+      inlineCache.vtable = new WeakHashMap<>();
+    }
+    return resetFallback(inlineCache, args);
+  }
+
   public static Object fallback(InlineCache inlineCache, Object[] args) throws Throwable {
 
+    long start = (inlineCache.statistics == null) ? 0 : System.nanoTime();
     if (inlineCache.isMegaMorphic()) {
       return installVTableDispatch(inlineCache, args);
     }
@@ -265,6 +406,9 @@ public final class MethodInvocationSupport {
       };
       target = lookupTarget(receiverClass, fallbackCallSite, fallbackArgs);
       if (target != null) {
+        if (inlineCache.statistics != null) {
+          inlineCache.statistics.linked(start);
+        }
         return fallback(fallbackCallSite, fallbackArgs);
       } else {
         throw new NoSuchMethodError(receiverClass + "::" + inlineCache.name);
@@ -272,22 +416,16 @@ public final class MethodInvocationSupport {
     }
 
     MethodHandle guard = CLASS_GUARD.bindTo(receiverClass);
-    MethodHandle fallback = inlineCache.getTarget();
+    MethodHandle fallback = inlineCache.chain;
     MethodHandle root = guardWithTest(guard, target, fallback);
-    if (inlineCache.nullSafeGuarded) {
-      root = makeNullSafeGuarded(root);
-    }
-    inlineCache.setTarget(root);
+    inlineCache.install(root);
     inlineCache.depth = inlineCache.depth + 1;
+    if (inlineCache.statistics != null) {
+      inlineCache.statistics.linked(start);
+    }
     return target.invokeWithArguments(args);
   }
 
-  private static MethodHandle makeNullSafeGuarded(MethodHandle root) {
-    MethodHandle catchThenNull = dropArguments(constant(Object.class, null), 0, NullPointerException.class);
-    root = catchException(root, NullPointerException.class, catchThenNull);
-    return root;
-  }
-
   private static boolean shouldReturnNull(InlineCache inlineCache, Object arg) {
     return (arg == null) && inlineCache.nullSafeGuarded;
   }
@@ -301,10 +439,10 @@ public final class MethodInvocationSupport {
         .asCollector(Object[].class, args.length);
     MethodHandle exactInvoker = exactInvoker(inlineCache.type());
     MethodHandle vtableTarget = foldArguments(exactInvoker, lookup);
-    if (inlineCache.nullSafeGuarded) {
-      vtableTarget = makeNullSafeGuarded(vtableTarget);
+    inlineCache.install(vtableTarget);
+    if (inlineCache.statistics != null) {
+      inlineCache.statistics.megamorphic();
     }
-    inlineCache.setTarget(vtableTarget);
     if (shouldReturnNull(inlineCache, args[0])) {
       return null;
     }
@@ -318,48 +456,58 @@ public final class MethodInvocationSupport {
   }
 
   private static MethodHandle findTarget(MethodInvocation invocation, Lookup lookup, InlineCache inlineCache) {
-    MethodHandle target;
-
-    target = new PropertyMethodFinder(invocation, lookup).find();
-    if (target != null) {
-      return target;
-    }
-
-    RegularMethodFinder regularMethodFinder = new RegularMethodFinder(invocation, lookup);
-    target = regularMethodFinder.find();
-    if (target != null) {
-      if (regularMethodFinder.isOverloaded()) {
-        Object[] args = invocation.arguments();
-        Class[] types = new Class[args.length];
-        for (int i = 0; i < types.length; i++) {
-          types[i] = (args[i] == null) ? Object.class : args[i].getClass();
+    MethodResolution resolution = MethodResolution.resolve(invocation, lookup);
+    MethodHandle target = resolution.target();
+    Method method = resolution.method();
+    switch (resolution.kind()) {
+      case REGULAR:
+        if (inlineCache.profileKey != null && method != null && isPublic(method.getModifiers())) {
+          record(inlineCache, "regular", invocation, method);
         }
-        MethodHandle guard;
-        switch (args.length) {
-          case 2:
-            guard = insertArguments(OVERLOADED_GUARD_1, 0, types[0], types[1]);
-            break;
-          case 3:
-            guard = insertArguments(OVERLOADED_GUARD_2, 0, types[0], types[1], types[2]);
-            break;
-          case 4:
-            guard = insertArguments(OVERLOADED_GUARD_3, 0, types[0], types[1], types[2], types[3]);
-            break;
-          case 5:
-            guard = insertArguments(OVERLOADED_GUARD_4, 0, types[0], types[1], types[2], types[3], types[4]);
-            break;
-          default:
-            guard = OVERLOADED_GUARD_GENERIC.bindTo(types).asCollector(Object[].class, types.length);
+        if (resolution.isOverloaded()) {
+          MethodHandle guard = overloadedGuard(classesOf(invocation.arguments()));
+          return guardWithTest(guard, target, inlineCache.resetFallback);
         }
-        return guardWithTest(guard, target, inlineCache.resetFallback);
-      }
-      return target;
+        return target;
+      case AUGMENTATION:
+        if (inlineCache.profileKey != null) {
+          record(inlineCache, "augmentation", invocation, method);
+        }
+        return FunctionCallSupport.guardModule(
+            lookup.lookupClass(), method.getDeclaringClass(), target, inlineCache.reloadFallback);
+      default:
+        return target;
     }
+  }
 
-    target = new AugmentationMethodFinder(invocation, lookup).find();
-    if (target != null) {
-      return target;
+  private static MethodHandle overloadedGuard(Class<?>[] types) {
+    switch (types.length) {
+      case 2:
+        return insertArguments(OVERLOADED_GUARD_1, 0, types[0], types[1]);
+      case 3:
+        return insertArguments(OVERLOADED_GUARD_2, 0, types[0], types[1], types[2]);
+      case 4:
+        return insertArguments(OVERLOADED_GUARD_3, 0, types[0], types[1], types[2], types[3]);
+      case 5:
+        return insertArguments(OVERLOADED_GUARD_4, 0, types[0], types[1], types[2], types[3], types[4]);
+      default:
+        return OVERLOADED_GUARD_GENERIC.bindTo(types).asCollector(Object[].class, types.length);
     }
-    return null;
+  }
+
+  private static Class<?>[] classesOf(Object[] args) {
+    Class<?>[] types = new Class<?>[args.length];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = (args[i] == null) ? Object.class : args[i].getClass();
+    }
+    return types;
+  }
+
+  private static void record(InlineCache inlineCache, String kind, MethodInvocation invocation, Method method) {
+    CallSiteProfile.record(inlineCache.profileKey, String.join("\t",
+        kind,
+        CallSiteProfile.namesOf(classesOf(invocation.arguments())),
+        method.getDeclaringClass().getName(),
+        CallSiteProfile.namesOf(method.getParameterTypes())));
   }
 }
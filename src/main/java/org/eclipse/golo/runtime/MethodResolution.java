@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import static java.lang.invoke.MethodHandles.Lookup;
+
+/**
+ * Resolves a method invocation on a plain Java object.
+ * <p>
+ * The invocation is resolved, in order of precedence, to:
+ * <ol>
+ * <li>a method of the receiver with the invoked name,</li>
+ * <li>a property accessor, such as {@code getName} or {@code isName} for {@code name()},</li>
+ * <li>a field of the receiver with the invoked name,</li>
+ * <li>a method of an augmentation applicable to the receiver.</li>
+ * </ol>
+ * A method named as the invocation thus takes precedence over a property accessor, e.g. {@code stream: parallel()}
+ * calls {@code Stream::parallel} and not {@code Stream::isParallel}. The receiver methods are only scanned once, and
+ * properties are only looked for when no method matches.
+ * <p>
+ * This is the single place defining this precedence: method invocation call sites, profiled call sites and the
+ * inlining of standard augmentations all rely on it.
+ */
+final class MethodResolution {
+
+  enum Kind {
+    REGULAR, PROPERTY, AUGMENTATION, NONE
+  }
+
+  private final Kind kind;
+  private final MethodHandle target;
+  private final Method method;
+  private final RegularMethodFinder regularMethodFinder;
+
+  private MethodResolution(Kind kind, MethodHandle target, Method method, RegularMethodFinder regularMethodFinder) {
+    this.kind = kind;
+    this.target = target;
+    this.method = method;
+    this.regularMethodFinder = regularMethodFinder;
+  }
+
+  static MethodResolution resolve(MethodInvocation invocation, Lookup lookup) {
+    RegularMethodFinder regularMethodFinder = new RegularMethodFinder(invocation, lookup);
+    if (!regularMethodFinder.hasMatchingMethod()) {
+      MethodHandle property = new PropertyMethodFinder(invocation, lookup).find();
+      if (property != null) {
+        return new MethodResolution(Kind.PROPERTY, property, null, regularMethodFinder);
+      }
+    }
+    MethodHandle target = regularMethodFinder.find();
+    if (target != null) {
+      return new MethodResolution(Kind.REGULAR, target, regularMethodFinder.findMethod().orElse(null), regularMethodFinder);
+    }
+    AugmentationMethodFinder augmentationFinder = new AugmentationMethodFinder(invocation, lookup);
+    Optional<Method> augmentation = augmentationFinder.findMethod();
+    if (augmentation.isPresent()) {
+      target = augmentationFinder.toMethodHandle(augmentation.get()).orElse(null);
+      if (target != null) {
+        return new MethodResolution(Kind.AUGMENTATION, target, augmentation.get(), regularMethodFinder);
+      }
+    }
+    return new MethodResolution(Kind.NONE, null, null, regularMethodFinder);
+  }
+
+  Kind kind() {
+    return kind;
+  }
+
+  /**
+   * Gives the target method handle, or {@code null} if the invocation is not resolved.
+   */
+  MethodHandle target() {
+    return target;
+  }
+
+  /**
+   * Gives the regular or augmentation method the invocation is resolved to, or {@code null} if it is resolved to a
+   * property or a field, or not resolved.
+   */
+  Method method() {
+    return method;
+  }
+
+  boolean isOverloaded() {
+    return kind == Kind.REGULAR && regularMethodFinder.isOverloaded();
+  }
+}
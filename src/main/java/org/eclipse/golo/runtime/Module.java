@@ -23,6 +23,12 @@ public final class Module {
 
   static String[] metadata(String name, Class<?> callerClass, Class<?>[] types, Object[] args) {
     String[] data;
+    if (types.length == 0) {
+      data = LinkIndex.metadata(callerClass, name);
+      if (data != null) {
+        return data;
+      }
+    }
     try {
       Method dataMethod = callerClass.getMethod("$" + name, types);
       data = (String[]) dataMethod.invoke(null, args);
@@ -47,6 +53,10 @@ public final class Module {
   }
 
   public static String[] augmentationApplications(Class<?> callerClass, Class<?> receiverClass) {
+    String[] data = LinkIndex.augmentationApplications(callerClass, receiverClass);
+    if (data != null) {
+      return data;
+    }
     return metadata("augmentationApplications", callerClass,
         new Class<?>[] {int.class},
         new Object[]{receiverClass.getName().hashCode()}
@@ -11,6 +11,7 @@ package org.eclipse.golo.runtime;
 
 import java.lang.invoke.*;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.Objects;
 import java.math.BigDecimal;
@@ -30,6 +31,8 @@ public final class OperatorSupport {
     final MethodHandles.Lookup callerLookup;
     final String name;
     MethodHandle fallback;
+    CallSiteStatistics statistics;
+    String profileKey;
 
     MonomorphicInlineCache(MethodHandles.Lookup callerLookup, String name, MethodType type) {
       super(type);
@@ -43,6 +46,8 @@ public final class OperatorSupport {
   private static final MethodHandle GUARD_2;
   private static final MethodHandle FALLBACK_2;
 
+  private static final MethodHandle CLASS_CAST_EXCEPTION_COUNTER;
+
   private static final Set<String> NO_GUARD_OPERATORS = new HashSet<String>() {
     {
       add("is");
@@ -69,6 +74,11 @@ public final class OperatorSupport {
           OperatorSupport.class,
           "fallback_2",
           methodType(Object.class, MonomorphicInlineCache.class, Object[].class));
+
+      CLASS_CAST_EXCEPTION_COUNTER = lookup.findVirtual(
+          CallSiteStatistics.class,
+          "classCastException",
+          methodType(void.class, ClassCastException.class));
     } catch (NoSuchMethodException | IllegalAccessException e) {
       throw new Error("Could not bootstrap the required method handles", e);
     }
@@ -80,11 +90,35 @@ public final class OperatorSupport {
     return (t1 == expected1) && (t2 == expected2);
   }
 
+  private static MethodHandle countingClassCastExceptions(MonomorphicInlineCache inlineCache, MethodHandle handler) {
+    if (inlineCache.statistics == null) {
+      return handler;
+    }
+    MethodHandle counter = CLASS_CAST_EXCEPTION_COUNTER
+        .bindTo(inlineCache.statistics)
+        .asType(methodType(void.class, handler.type().parameterType(0)));
+    return foldArguments(handler, counter);
+  }
+
   public static Object fallback_1(MonomorphicInlineCache inlineCache, Object[] args) throws Throwable {
+    long start = (inlineCache.statistics == null) ? 0 : System.nanoTime();
 
     Class<?> argClass = (args[0] == null) ? Object.class : args[0].getClass();
-    MethodHandle target;
+    MethodHandle target = target_1(inlineCache, argClass);
+    if (target == null) {
+      return reject(args[0], inlineCache.name);
+    }
+    inlineCache.setTarget(target);
+    CallSiteProfile.record(inlineCache.profileKey, CallSiteProfile.namesOf(argClass));
+    if (inlineCache.statistics != null) {
+      inlineCache.statistics.linked(start);
+    }
+
+    return target.invokeWithArguments(args);
+  }
 
+  private static MethodHandle target_1(MonomorphicInlineCache inlineCache, Class<?> argClass) {
+    MethodHandle target;
     try {
       target = inlineCache.callerLookup.findStatic(
           OperatorSupport.class, inlineCache.name, methodType(Object.class, argClass));
@@ -93,23 +127,35 @@ public final class OperatorSupport {
         target = inlineCache.callerLookup.findStatic(
             OperatorSupport.class, inlineCache.name + "_fallback", methodType(Object.class, Object.class));
       } catch (Throwable t2) {
-        return reject(args[0], inlineCache.name);
+        return null;
       }
     }
 
     target = target.asType(methodType(Object.class, Object.class));
-    target = catchException(target, ClassCastException.class, inlineCache.fallback);
-    inlineCache.setTarget(target);
-
-    return target.invokeWithArguments(args);
+    return catchException(target, ClassCastException.class,
+        countingClassCastExceptions(inlineCache, inlineCache.fallback));
   }
 
   public static Object fallback_2(MonomorphicInlineCache inlineCache, Object[] args) throws Throwable {
+    long start = (inlineCache.statistics == null) ? 0 : System.nanoTime();
 
     Class<?> arg1Class = (args[0] == null) ? Object.class : args[0].getClass();
     Class<?> arg2Class = (args[1] == null) ? Object.class : args[1].getClass();
-    MethodHandle target;
+    MethodHandle target = target_2(inlineCache, arg1Class, arg2Class);
+    if (target == null) {
+      return reject(args[0], args[1], inlineCache.name);
+    }
+    inlineCache.setTarget(target);
+    CallSiteProfile.record(inlineCache.profileKey, CallSiteProfile.namesOf(arg1Class, arg2Class));
+    if (inlineCache.statistics != null) {
+      inlineCache.statistics.linked(start);
+    }
 
+    return target.invokeWithArguments(args);
+  }
+
+  private static MethodHandle target_2(MonomorphicInlineCache inlineCache, Class<?> arg1Class, Class<?> arg2Class) {
+    MethodHandle target;
     try {
       target = inlineCache.callerLookup.findStatic(
           OperatorSupport.class, inlineCache.name, methodType(Object.class, arg1Class, arg2Class));
@@ -118,20 +164,43 @@ public final class OperatorSupport {
         target = inlineCache.callerLookup.findStatic(
             OperatorSupport.class, inlineCache.name + "_fallback", methodType(Object.class, Object.class, Object.class));
       } catch (Throwable t2) {
-        return reject(args[0], args[1], inlineCache.name);
+        return null;
       }
     }
 
     target = target.asType(methodType(Object.class, Object.class, Object.class));
     if (arg1Class == String.class || arg2Class == String.class) {
       MethodHandle guard = insertArguments(GUARD_2, 0, arg1Class, arg2Class);
-      target = guardWithTest(guard, target, inlineCache.fallback);
+      return guardWithTest(guard, target, inlineCache.fallback);
+    }
+    return catchException(target, ClassCastException.class,
+        countingClassCastExceptions(inlineCache, dropArguments(inlineCache.fallback, 0, ClassCastException.class)));
+  }
+
+  /**
+   * Links a call site to the operands classes recorded in the profile of a previous run, if any.
+   * <p>
+   * The targets check their operands exactly like the ones linked by the fallbacks, so a stale guess only
+   * goes back to the fallback.
+   */
+  private static void prelink(MonomorphicInlineCache inlineCache, int arity) {
+    List<String> links = CallSiteProfile.links(inlineCache.profileKey);
+    if (links.isEmpty()) {
+      return;
+    }
+    String link = links.get(links.size() - 1);
+    Class<?>[] classes = CallSiteProfile.classesNamed(link, inlineCache.callerLookup.lookupClass().getClassLoader());
+    MethodHandle target = null;
+    if (classes != null && classes.length == arity) {
+      target = (arity == 2)
+          ? target_2(inlineCache, classes[0], classes[1])
+          : target_1(inlineCache, classes[0]);
+    }
+    if (target == null) {
+      CallSiteProfile.drop(inlineCache.profileKey, link);
     } else {
-      target = catchException(target, ClassCastException.class, dropArguments(inlineCache.fallback, 0, ClassCastException.class));
+      inlineCache.setTarget(target);
     }
-    inlineCache.setTarget(target);
-
-    return target.invokeWithArguments(args);
   }
 
   public static CallSite bootstrap(MethodHandles.Lookup caller, String name, MethodType type, int arity) throws NoSuchMethodException, IllegalAccessException {
@@ -143,6 +212,7 @@ public final class OperatorSupport {
     }
 
     MonomorphicInlineCache callSite = new MonomorphicInlineCache(caller, name, type);
+    callSite.statistics = CallSiteInstrumentation.register("operator", caller.lookupClass(), name);
     MethodHandle fallback;
     if (arity == 2) {
       fallback = FALLBACK_2;
@@ -155,6 +225,10 @@ public final class OperatorSupport {
         .asType(type);
     callSite.fallback = fallbackHandle;
     callSite.setTarget(fallbackHandle);
+    if (CallSiteProfile.isEnabled()) {
+      callSite.profileKey = CallSiteProfile.key("operator", caller.lookupClass(), name, type, new String[0]);
+      prelink(callSite, arity);
+    }
     return callSite;
   }
 
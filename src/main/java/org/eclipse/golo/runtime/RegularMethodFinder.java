@@ -14,15 +14,18 @@ import gololang.GoloStruct;
 import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import static java.lang.invoke.MethodHandles.*;
 import static java.lang.reflect.Modifier.*;
+import static java.util.stream.Collectors.toList;
 
 class RegularMethodFinder extends MethodFinder {
 
   private final boolean makeAccessible;
+  private List<Method> matchingMethods;
 
   RegularMethodFinder(MethodInvocation invocation, Lookup lookup) {
     super(invocation, lookup);
@@ -32,7 +35,7 @@ class RegularMethodFinder extends MethodFinder {
   @Override
   public MethodHandle find() {
     return Stream.concat(
-        findInMethods().map(this::toMethodHandle),
+        matchingMethods().stream().map(this::toMethodHandle),
         findInFields().map(this::toMethodHandle))
         .filter(Optional::isPresent)
         .map(Optional::get)
@@ -40,6 +43,24 @@ class RegularMethodFinder extends MethodFinder {
         .orElse(null);
   }
 
+  /**
+   * Gives the method the invocation resolves to, if it is not a field access.
+   */
+  Optional<Method> findMethod() {
+    return matchingMethods().stream().findFirst();
+  }
+
+  boolean hasMatchingMethod() {
+    return !matchingMethods().isEmpty();
+  }
+
+  private List<Method> matchingMethods() {
+    if (matchingMethods == null) {
+      matchingMethods = findInMethods().collect(toList());
+    }
+    return matchingMethods;
+  }
+
   public boolean isOverloaded() {
     return Extractors.getMethods(invocation.receiverClass())
         .filter(this::overloadMatch)
@@ -9,6 +9,8 @@
 
 package org.eclipse.golo.runtime;
 
+import gololang.FunctionReference;
+
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -118,6 +120,62 @@ public final class TypeMatching {
           && canAssign(method.getParameterTypes(), args, varargs));
   }
 
+  /**
+   * Checks if a method accepts arguments of the given classes, as {@link #argumentsMatch(Method, Object[])} does
+   * for argument values.
+   * <p>
+   * {@code Object} stands for an argument that may be {@code null}, and thus matches any parameter type.
+   */
+  public static boolean argumentTypesMatch(Method method, Class<?>[] types) {
+    Class<?>[] args = Modifier.isStatic(method.getModifiers())
+      ? types
+      : copyOfRange(types, 1, types.length);
+    return
+      isMethodDecorated(method)
+      || (argumentsNumberMatches(method.getParameterCount(), args.length, method.isVarArgs())
+          && canAssignTypes(method.getParameterTypes(), args, method.isVarArgs()));
+  }
+
+  private static boolean canAssignTypes(Class<?>[] types, Class<?>[] arguments, boolean varArgs) {
+    if (types.length == 0 || arguments.length == 0) {
+      return true;
+    }
+    for (int i = 0; i < types.length - 1; i++) {
+      if (!typesMatch(types[i], arguments[i])) {
+        return false;
+      }
+    }
+    final int last = types.length - 1;
+    if (varArgs && arguments.length == last) {
+      return true;
+    }
+    if (last >= arguments.length) {
+      return false;
+    }
+    if (varArgs && !isObjectArray(arguments[last])) {
+      return typesMatch(types[last].getComponentType(), arguments[last]);
+    }
+    return typesMatch(types[last], arguments[last]);
+  }
+
+  private static boolean isObjectArray(Class<?> type) {
+    return type.isArray() && !type.getComponentType().isPrimitive();
+  }
+
+  private static boolean typesMatch(Class<?> type, Class<?> argument) {
+    if (type == null) {
+      return false;
+    }
+    if (argument == Object.class) {
+      return true;
+    }
+    if (type.isPrimitive()) {
+      return PRIMITIVE_MAP.get(type) == argument;
+    }
+    return type.isAssignableFrom(argument)
+      || (FunctionReference.class.isAssignableFrom(argument) && (isSAM(type) || isFunctionalInterface(type)));
+  }
+
   public static boolean argumentsMatch(Constructor<?> constructor, Object[] arguments) {
     return
       argumentsNumberMatches(constructor.getParameterCount(), arguments.length, constructor.isVarArgs())
@@ -25,6 +25,7 @@ public final class Warnings {
   private static final String GUIDE_BASE = "http://golo-lang.org/documentation/next/";
   private static final boolean NO_PARAMETER_NAMES = Boolean.valueOf(System.getProperty("golo.warnings.no-parameter-names", "true"));
   private static final boolean UNAVAILABLE_CLASS = Boolean.valueOf(System.getProperty("golo.warnings.unavailable-class", "true"));
+  private static final boolean NON_TAIL_RECURSIVE_CALL = Boolean.valueOf(System.getProperty("golo.warnings.tail-calls", "false"));
   private static PrintStream out = System.err;
 
   public static void noParameterNames(String methodName, String[] argumentNames) {
@@ -35,6 +36,13 @@ public final class Warnings {
     }
   }
 
+  public static void nonTailRecursiveCall(String functionName, String module, int line) {
+    if (NON_TAIL_RECURSIVE_CALL) {
+      out.format("[warning] the recursive call to `%s` in `%s` at line %d is not optimized as a tail call.%n  See %s#warning-tail-calls for more information.%n",
+          functionName, module, line, GUIDE_BASE);
+    }
+  }
+
   public static void unavailableClass(String className, String callerModule) {
     if (UNAVAILABLE_CLASS && !className.startsWith("java.lang") && !className.startsWith("gololang")) {
       out.format("[warning] `%s` used in `%s` can't be loaded.%n  See %s#warning-unavailable-class for more information.%n",
@@ -11,8 +11,10 @@ package org.eclipse.golo.runtime.adapters;
 
 import gololang.FunctionReference;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.invoke.MethodType.genericMethodType;
 import static java.lang.reflect.Modifier.*;
@@ -27,6 +29,7 @@ public final class AdapterDefinition {
   private final TreeSet<String> interfaces = new TreeSet<>();
   private final LinkedHashMap<String, FunctionReference> implementations = new LinkedHashMap<>();
   private final LinkedHashMap<String, FunctionReference> overrides = new LinkedHashMap<>();
+  private final Map<String, MethodHandle> targets = new ConcurrentHashMap<>();
 
   public AdapterDefinition(ClassLoader classLoader, String name, String parent) {
     this.classLoader = classLoader;
@@ -77,6 +80,14 @@ public final class AdapterDefinition {
     return this;
   }
 
+  MethodHandle cachedTarget(String key) {
+    return targets.get(key);
+  }
+
+  void cacheTarget(String key, MethodHandle target) {
+    targets.put(key, target);
+  }
+
   public boolean hasStarImplementation() {
     return implementations.containsKey("*");
   }
@@ -24,13 +24,21 @@ public final class AdapterSupport {
 
   public static final String DEFINITION_FIELD = "_$_$adapter_$definition";
 
+  private static final int MEGAMORPHIC_THRESHOLD = 5;
+
   private static final MethodHandle FALLBACK;
+  private static final MethodHandle DISPATCH;
+  private static final MethodHandle SAME_DEFINITION;
 
   static {
     MethodHandles.Lookup lookup = MethodHandles.lookup();
     try {
       FALLBACK = lookup.findStatic(AdapterSupport.class, "fallback",
           MethodType.methodType(Object.class, AdapterCallSite.class, Object[].class));
+      DISPATCH = lookup.findStatic(AdapterSupport.class, "dispatch",
+          MethodType.methodType(Object.class, AdapterCallSite.class, Object[].class));
+      SAME_DEFINITION = lookup.findStatic(AdapterSupport.class, "sameDefinition",
+          MethodType.methodType(boolean.class, AdapterDefinition.class, AdapterDefinition.class));
     } catch (NoSuchMethodException | IllegalAccessException e) {
       throw new Error("Could not bootstrap the required method handles", e);
     }
@@ -40,16 +48,23 @@ public final class AdapterSupport {
 
     final MethodHandles.Lookup callerLookup;
     final String name;
+    final String key;
+    final MethodHandle definitionGetter;
+    int depth = 0;
 
-    AdapterCallSite(MethodType type, MethodHandles.Lookup callerLookup, String name) {
+    AdapterCallSite(MethodType type, MethodHandles.Lookup callerLookup, String name, MethodHandle definitionGetter) {
       super(type);
       this.callerLookup = callerLookup;
       this.name = name;
+      this.key = name + type.toMethodDescriptorString();
+      this.definitionGetter = definitionGetter;
     }
   }
 
-  public static CallSite bootstrap(MethodHandles.Lookup caller, String name, MethodType type) {
-    AdapterCallSite callSite = new AdapterCallSite(type, caller, name);
+  public static CallSite bootstrap(MethodHandles.Lookup caller, String name, MethodType type) throws NoSuchFieldException, IllegalAccessException {
+    MethodHandle definitionGetter = caller.findGetter(caller.lookupClass(), DEFINITION_FIELD, AdapterDefinition.class)
+        .asType(MethodType.methodType(AdapterDefinition.class, type.parameterType(0)));
+    AdapterCallSite callSite = new AdapterCallSite(type, caller, name, definitionGetter);
     MethodHandle fallbackHandle = FALLBACK
         .bindTo(callSite)
         .asCollector(Object[].class, type.parameterCount())
@@ -58,10 +73,44 @@ public final class AdapterSupport {
     return callSite;
   }
 
+  public static boolean sameDefinition(AdapterDefinition expected, AdapterDefinition actual) {
+    return expected == actual;
+  }
+
   public static Object fallback(AdapterCallSite callSite, Object[] args) throws Throwable {
-    Class<?> receiverClass = args[0].getClass();
+    AdapterDefinition definition = (AdapterDefinition) callSite.definitionGetter.invoke(args[0]);
+    MethodHandle target = target(callSite, definition, args[0].getClass());
+    if (callSite.depth >= MEGAMORPHIC_THRESHOLD) {
+      callSite.setTarget(DISPATCH
+          .bindTo(callSite)
+          .asCollector(Object[].class, callSite.type().parameterCount())
+          .asType(callSite.type()));
+    } else {
+      callSite.depth = callSite.depth + 1;
+      MethodHandle test = MethodHandles.filterArguments(
+          SAME_DEFINITION.bindTo(definition), 0, callSite.definitionGetter);
+      callSite.setTarget(MethodHandles.guardWithTest(test, target, callSite.getTarget()));
+    }
+    return target.invokeWithArguments(args);
+  }
+
+  public static Object dispatch(AdapterCallSite callSite, Object[] args) throws Throwable {
+    AdapterDefinition definition = (AdapterDefinition) callSite.definitionGetter.invoke(args[0]);
+    return target(callSite, definition, args[0].getClass()).invokeWithArguments(args);
+  }
+
+  private static MethodHandle target(AdapterCallSite callSite, AdapterDefinition definition, Class<?> receiverClass) throws Throwable {
+    MethodHandle target = definition.cachedTarget(callSite.key);
+    if (target == null) {
+      target = resolveTarget(callSite, definition, receiverClass).asType(callSite.type());
+      definition.cacheTarget(callSite.key, target);
+    }
+    return target;
+  }
+
+  private static MethodHandle resolveTarget(AdapterCallSite callSite, AdapterDefinition definition, Class<?> receiverClass) throws Throwable {
+    int arity = callSite.type().parameterCount();
     Class<?> receiverParentClass = receiverClass.getSuperclass();
-    AdapterDefinition definition = (AdapterDefinition) receiverClass.getField(DEFINITION_FIELD).get(args[0]);
     Map<String, FunctionReference> implementations = definition.getImplementations();
     MethodHandle target = null;
     if (implementations.containsKey(callSite.name)) {
@@ -70,7 +119,7 @@ public final class AdapterSupport {
     if (target == null) {
       if (implementations.containsKey("*")) {
         target = implementations.get("*").handle();
-        target = target.bindTo(callSite.name).asCollector(Object[].class, args.length);
+        target = target.bindTo(callSite.name).asCollector(Object[].class, arity);
       }
     }
     if (target == null) {
@@ -99,11 +148,10 @@ public final class AdapterSupport {
         target = target.bindTo(new FunctionReference(superTarget));
         if (star) {
           target = target.bindTo(callSite.name);
-          target = target.asCollector(Object[].class, args.length);
+          target = target.asCollector(Object[].class, arity);
         }
       }
     }
-    callSite.setTarget(target.asType(callSite.type()));
-    return target.invokeWithArguments(args);
+    return target;
   }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static java.lang.invoke.MethodHandles.constant;
+import static java.lang.invoke.MethodHandles.dropArguments;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AdapterFabricTest {
+
+  static Object starOverride(Object superTarget, Object name, Object args) {
+    return "*" + name;
+  }
+
+  private static FunctionReference returning(Object value) {
+    return new FunctionReference(dropArguments(constant(Object.class, value), 0, Object.class));
+  }
+
+  private static Map<String, Object> callable(Object value) {
+    Map<String, Object> implementations = new HashMap<>();
+    implementations.put("call", returning(value));
+    Map<String, Object> configuration = new HashMap<>();
+    configuration.put("interfaces", asList("java.util.concurrent.Callable"));
+    configuration.put("implements", implementations);
+    return configuration;
+  }
+
+  @Test
+  public void same_shape_shares_class() throws Throwable {
+    AdapterFabric fabric = new AdapterFabric();
+    Callable<?> first = (Callable<?>) fabric.maker(callable("first")).newInstance();
+    Callable<?> second = (Callable<?>) fabric.maker(callable("second")).newInstance();
+    assertThat(first.getClass(), sameInstance((Object) second.getClass()));
+    assertThat(first.call(), is((Object) "first"));
+    assertThat(second.call(), is((Object) "second"));
+    assertThat(first.call(), is((Object) "first"));
+  }
+
+  @Test
+  public void different_shapes() throws Throwable {
+    AdapterFabric fabric = new AdapterFabric();
+    Map<String, Object> configuration = callable("list");
+    configuration.put("extends", "java.util.ArrayList");
+    Object list = fabric.maker(configuration).newInstance();
+    Object callable = fabric.maker(callable("callable")).newInstance();
+    assertThat(list.getClass(), not(sameInstance((Object) callable.getClass())));
+    assertThat(list, instanceOf(ArrayList.class));
+  }
+
+  @Test
+  public void megamorphic_call_sites() throws Throwable {
+    AdapterFabric fabric = new AdapterFabric();
+    List<Callable<?>> callables = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      callables.add((Callable<?>) fabric.maker(callable(i)).newInstance());
+    }
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 20; i++) {
+        assertThat(callables.get(i).call(), is((Object) i));
+      }
+    }
+  }
+
+  @Test
+  public void constructor_arguments() throws Throwable {
+    AdapterFabric fabric = new AdapterFabric();
+    Map<String, Object> overrides = new HashMap<>();
+    overrides.put("*", new FunctionReference(MethodHandles.lookup().findStatic(
+        AdapterFabricTest.class, "starOverride", genericMethodType(3))));
+    Map<String, Object> configuration = new HashMap<>();
+    configuration.put("extends", "java.util.ArrayList");
+    configuration.put("overrides", overrides);
+    AdapterFabric.Maker maker = fabric.maker(configuration);
+    ArrayList<?> list = (ArrayList<?>) maker.newInstance(asList(1, 2, 3));
+    assertThat(list.toString(), is("*toString"));
+    try {
+      maker.newInstance("plop", "daplop");
+      throw new AssertionError("An IllegalArgumentException should have been raised");
+    } catch (IllegalArgumentException expected) {
+      assertThat(expected.getMessage(), startsWith("Could not create an instance"));
+    }
+  }
+}
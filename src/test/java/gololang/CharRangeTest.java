@@ -209,5 +209,29 @@ public class CharRangeTest {
     assertThat(r1.incrementBy(2), is(r2.incrementBy(2)));
   }
 
+  @Test
+  public void size_rounds_up_to_the_iterated_values() {
+    for (char from = 'a'; from <= 'h'; from++) {
+      for (char to = 'a'; to <= 'h'; to++) {
+        for (int increment = 1; increment <= 5; increment++) {
+          Range<Character> up = new CharRange(from, to).incrementBy(increment);
+          Range<Character> down = new CharRange(from, to).incrementBy(-increment);
+          assertThat(up.toString(), up.size(), is(iterated(up)));
+          assertThat(down.toString(), down.size(), is(iterated(down)));
+        }
+      }
+    }
+    assertThat(new CharRange('a', 'f').incrementBy(2).size(), is(3));
+    assertThat(new CharRange('f', 'a').incrementBy(-2).size(), is(3));
+  }
 
+  private static int iterated(Range<Character> range) {
+    int count = 0;
+    Iterator<Character> iterator = range.iterator();
+    while (iterator.hasNext()) {
+      iterator.next();
+      count++;
+    }
+    return count;
+  }
 }
@@ -14,6 +14,8 @@ import org.testng.annotations.Test;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -66,6 +68,8 @@ public class IntRangeTest {
     assertThat((new IntRange(1, 5)).incrementBy(2).size(), is(2));
     assertThat((new IntRange(1, 3)).incrementBy(5).size(), is(1));
     assertThat((new IntRange(2, 2)).size(), is(0));
+    assertThat((new IntRange(0, 5)).incrementBy(2).size(), is(3));
+    assertThat((new IntRange(5, 1)).size(), is(0));
   }
 
   @Test
@@ -213,4 +217,57 @@ public class IntRangeTest {
     assertThat(r1, is(r2));
     assertThat(r1.incrementBy(2), is(r2.incrementBy(2)));
   }
+
+  @Test
+  public void spliterator() {
+    Range<Integer> range = new IntRange(0, 10).incrementBy(3);
+    Spliterator<Integer> spliterator = range.spliterator();
+    assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED), is(true));
+    assertThat(spliterator.estimateSize(), is(4L));
+    Spliterator<Integer> prefix = spliterator.trySplit();
+    assertThat(prefix.estimateSize(), is(2L));
+    assertThat(spliterator.estimateSize(), is(2L));
+    assertThat(range.parallelStream().collect(Collectors.toList()), is(asList(0, 3, 6, 9)));
+    assertThat(new IntRange(3, 0).decrementBy(2).stream().collect(Collectors.toList()), is(asList(3, 1)));
+  }
+
+  @Test
+  public void intStream() {
+    assertThat(new IntRange(0, 1000).intStream().parallel().sum(), is(499500));
+    IntRange reversed = new IntRange(5, 0);
+    reversed.decrementBy(2);
+    assertThat(reversed.intStream().boxed().collect(Collectors.toList()), is(asList(5, 3, 1)));
+    assertThat(new IntRange(2, 2).intStream().count(), is(0L));
+  }
+
+  private static int iteratedSize(Range<?> range) {
+    int count = 0;
+    for (Object value : range) {
+      count++;
+    }
+    return count;
+  }
+
+  @Test
+  public void size_rounds_up_to_the_iterated_values() {
+    for (int from = -6; from <= 6; from++) {
+      for (int to = -6; to <= 6; to++) {
+        for (int increment = 1; increment <= 7; increment++) {
+          Range<Integer> up = new IntRange(from, to).incrementBy(increment);
+          assertThat(up.toString(), up.size(), is(iteratedSize(up)));
+          Range<Integer> down = new IntRange(from, to).decrementBy(increment);
+          assertThat(down.toString(), down.size(), is(iteratedSize(down)));
+        }
+      }
+    }
+    assertThat(new IntRange(0, 10).incrementBy(3).size(), is(4));
+    assertThat(new IntRange(10, 0).decrementBy(3).size(), is(4));
+    assertThat(new IntRange(0, 9).incrementBy(3).size(), is(3));
+  }
+
+  @Test
+  public void size_of_large_ranges() {
+    assertThat(new IntRange(Integer.MIN_VALUE, Integer.MAX_VALUE).size(), is(Integer.MAX_VALUE));
+    assertThat(new IntRange(Integer.MIN_VALUE, Integer.MAX_VALUE).incrementBy(Integer.MAX_VALUE).size(), is(3));
+  }
 }
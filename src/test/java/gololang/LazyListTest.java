@@ -183,6 +183,11 @@ public class LazyListTest {
     evalTest("test_foldlEmpty");
   }
 
+  @Test
+  public void stream() throws Throwable {
+    evalTest("test_stream");
+  }
+
   @Test
   public void take() throws Throwable {
     evalTest("test_take");
@@ -65,6 +65,7 @@ public class LongRangeTest {
     assertThat((new LongRange(1L, 5L)).incrementBy(2).size(), is(2));
     assertThat((new LongRange(1L, 3L)).incrementBy(5).size(), is(1));
     assertThat((new LongRange(2L, 2L)).size(), is(0));
+    assertThat((new LongRange(0L, 5L)).incrementBy(2).size(), is(3));
   }
 
   @Test
@@ -213,4 +214,34 @@ public class LongRangeTest {
     assertThat(r1, is(r2));
     assertThat(r1.incrementBy(2), is(r2.incrementBy(2)));
   }
+
+  @Test
+  public void longStream() {
+    assertThat(new LongRange(0L, 1000L).longStream().parallel().sum(), is(499500L));
+    assertThat(new LongRange(0L, 1000L).parallelStream().mapToLong(Long::longValue).sum(), is(499500L));
+  }
+
+  @Test
+  public void size_rounds_up_to_the_iterated_values() {
+    for (long from = -6; from <= 6; from++) {
+      for (long to = -6; to <= 6; to++) {
+        for (int increment = 1; increment <= 7; increment++) {
+          Range<Long> up = new LongRange(from, to).incrementBy(increment);
+          int count = 0;
+          for (Long value : up) {
+            count++;
+          }
+          assertThat(up.toString(), up.size(), is(count));
+        }
+      }
+    }
+    assertThat(new LongRange(0L, 10L).incrementBy(3).size(), is(4));
+    assertThat(new LongRange(10L, 0L).decrementBy(3).size(), is(4));
+  }
+
+  @Test
+  public void size_of_large_ranges() {
+    assertThat(new LongRange(0L, 1L << 40).size(), is(Integer.MAX_VALUE));
+    assertThat(new LongRange(0L, 1L << 40).incrementBy(1 << 20).size(), is(1 << 20));
+  }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class PersistentMapTest {
+
+  private static final class Colliding {
+    private final int id;
+
+    Colliding(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      return id % 3;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Colliding && ((Colliding) other).id == id;
+    }
+  }
+
+  @Test
+  public void empty() {
+    PersistentMap map = PersistentMap.empty();
+    assertThat(map.size(), is(0));
+    assertThat(map.isEmpty(), is(true));
+    assertThat(map.get("a"), is(nullValue()));
+    assertThat(map.dissoc("a"), is(sameInstance(map)));
+    assertThat(map.entrySet().iterator().hasNext(), is(false));
+  }
+
+  @Test
+  public void assoc_and_dissoc() {
+    Map<Object, Object> reference = new HashMap<>();
+    PersistentMap map = PersistentMap.empty();
+    for (int i = 0; i < 50_000; i++) {
+      reference.put(i, "v" + i);
+      map = map.assoc(i, "v" + i);
+    }
+    PersistentMap full = map;
+    assertThat(map, is(reference));
+    assertThat(map.get(42), is((Object) "v42"));
+    assertThat(map.containsKey(50_000), is(false));
+    for (int i = 0; i < 50_000; i += 2) {
+      reference.remove(i);
+      map = map.dissoc(i);
+    }
+    assertThat(map, is(reference));
+    assertThat(full.size(), is(50_000));
+    assertThat(full.get(0), is((Object) "v0"));
+    assertThat(map.assoc(1, map.get(1)), is(sameInstance(map)));
+    assertThat(map.assoc(1, "other").get(1), is((Object) "other"));
+    assertThat(map.assoc(1, "other").size(), is(map.size()));
+  }
+
+  @Test
+  public void null_keys_and_values() {
+    PersistentMap map = PersistentMap.empty().assoc(null, 1).assoc("a", null);
+    assertThat(map.size(), is(2));
+    assertThat(map.containsKey(null), is(true));
+    assertThat(map.get(null), is((Object) 1));
+    assertThat(map.containsKey("a"), is(true));
+    assertThat(map.get("a"), is(nullValue()));
+    Map<Object, Object> reference = new HashMap<>();
+    reference.put(null, 1);
+    reference.put("a", null);
+    assertThat(map, is(reference));
+    assertThat(map.dissoc(null).containsKey(null), is(false));
+    assertThat(map.dissoc(null).size(), is(1));
+  }
+
+  @Test
+  public void hash_collisions() {
+    PersistentMap map = PersistentMap.empty();
+    for (int i = 0; i < 30; i++) {
+      map = map.assoc(new Colliding(i), i);
+    }
+    assertThat(map.size(), is(30));
+    for (int i = 0; i < 30; i++) {
+      assertThat(map.get(new Colliding(i)), is((Object) i));
+    }
+    int seen = 0;
+    for (Map.Entry<Object, Object> entry : map.entrySet()) {
+      assertThat(entry.getValue(), is((Object) ((Colliding) entry.getKey()).id));
+      seen++;
+    }
+    assertThat(seen, is(30));
+    for (int i = 0; i < 30; i++) {
+      map = map.dissoc(new Colliding(i));
+      assertThat(map.containsKey(new Colliding(i)), is(false));
+      assertThat(map.size(), is(29 - i));
+    }
+  }
+
+  @Test
+  public void from_map() {
+    Map<Object, Object> reference = new HashMap<>();
+    reference.put("a", 1);
+    reference.put("b", 2);
+    PersistentMap map = PersistentMap.fromMap(reference);
+    assertThat(map, is(reference));
+    assertThat(PersistentMap.fromMap(map), is(sameInstance(map)));
+    assertThat(map.hashCode(), is(reference.hashCode()));
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void immutable() {
+    PersistentMap.empty().put("a", 1);
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class PersistentSetTest {
+
+  @Test
+  public void conj_and_disj() {
+    Set<Object> reference = new HashSet<>();
+    PersistentSet set = PersistentSet.empty();
+    for (int i = 0; i < 10_000; i++) {
+      reference.add(i);
+      set = set.conj(i);
+    }
+    PersistentSet full = set;
+    assertThat(set, is(reference));
+    assertThat(set.conj(42), is(sameInstance(set)));
+    for (int i = 0; i < 10_000; i += 3) {
+      reference.remove(i);
+      set = set.disj(i);
+    }
+    assertThat(set, is(reference));
+    assertThat(set.contains(3), is(false));
+    assertThat(set.contains(4), is(true));
+    assertThat(set.disj(3), is(sameInstance(set)));
+    assertThat(full.size(), is(10_000));
+  }
+
+  @Test
+  public void from_iterable() {
+    PersistentSet set = PersistentSet.fromIterable(Arrays.asList(1, 2, 2, null));
+    assertThat(set.size(), is(3));
+    assertThat(set.contains(null), is(true));
+    assertThat(set, is(new HashSet<Object>(Arrays.asList(1, 2, null))));
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void immutable() {
+    PersistentSet.empty().add(1);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class PersistentVectorTest {
+
+  @Test
+  public void empty() {
+    PersistentVector vector = PersistentVector.empty();
+    assertThat(vector.size(), is(0));
+    assertThat(vector.isEmpty(), is(true));
+    assertThat(vector.iterator().hasNext(), is(false));
+    assertThat(PersistentVector.fromArray(new Object[0]), is(sameInstance(vector)));
+  }
+
+  @Test
+  public void append_across_trie_levels() {
+    PersistentVector vector = PersistentVector.empty();
+    List<PersistentVector> history = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      history.add(vector);
+      vector = vector.append(i);
+    }
+    assertThat(vector.size(), is(100_000));
+    for (int i = 0; i < 100_000; i++) {
+      assertThat(vector.get(i), is((Object) i));
+    }
+    assertThat(history.get(1057).size(), is(1057));
+    assertThat(history.get(1057).get(1056), is((Object) 1056));
+    int expected = 0;
+    for (Object value : vector) {
+      assertThat(value, is((Object) expected++));
+    }
+    assertThat(expected, is(100_000));
+  }
+
+  @Test
+  public void pop_across_trie_levels() {
+    Object[] values = new Object[40_000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i;
+    }
+    PersistentVector vector = PersistentVector.fromArray(values);
+    for (int size = values.length; size > 0; size--) {
+      assertThat(vector.size(), is(size));
+      assertThat(vector.peek(), is((Object) (size - 1)));
+      if (size % 997 == 0) {
+        assertThat(vector, is(Arrays.asList(values).subList(0, size)));
+      }
+      vector = vector.pop();
+    }
+    assertThat(vector, is(sameInstance(PersistentVector.empty())));
+  }
+
+  @Test
+  public void from_array_matches_appends() {
+    for (int size : new int[]{1, 31, 32, 33, 64, 1024, 1056, 1057, 33 * 1024 + 1}) {
+      Object[] values = new Object[size];
+      PersistentVector appended = PersistentVector.empty();
+      for (int i = 0; i < size; i++) {
+        values[i] = i;
+        appended = appended.append(i);
+      }
+      PersistentVector built = PersistentVector.fromArray(values);
+      assertThat(built, is(appended));
+      assertThat(built.append(-1), is(appended.append(-1)));
+      assertThat(built.toArray(), is(values));
+    }
+  }
+
+  @Test
+  public void update_shares_structure() {
+    Object[] values = new Object[2000];
+    Arrays.fill(values, "a");
+    PersistentVector original = PersistentVector.fromArray(values);
+    PersistentVector updated = original.update(10, "b").update(1999, "c");
+    assertThat(original.get(10), is((Object) "a"));
+    assertThat(original.get(1999), is((Object) "a"));
+    assertThat(updated.get(10), is((Object) "b"));
+    assertThat(updated.get(1999), is((Object) "c"));
+    assertThat(updated.get(11), is((Object) "a"));
+    assertThat(original.update(2000, "d").size(), is(2001));
+  }
+
+  @Test
+  public void from_covariant_array() {
+    PersistentVector vector = PersistentVector.fromArray(new String[]{"a", "b"});
+    assertThat(vector.update(0, 1), is(Arrays.<Object>asList(1, "b")));
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void get_out_of_bounds() {
+    PersistentVector.fromArray(new Object[]{1, 2}).get(2);
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void update_out_of_bounds() {
+    PersistentVector.fromArray(new Object[]{1, 2}).update(3, 0);
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public void pop_empty() {
+    PersistentVector.empty().pop();
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void immutable() {
+    PersistentVector.fromArray(new Object[]{1, 2}).add(3);
+  }
+}
@@ -14,9 +14,12 @@ import org.testng.annotations.Test;
 import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.WrongMethodTypeException;
+import java.nio.file.Files;
+import java.util.Iterator;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
 import java.util.List;
@@ -26,6 +29,7 @@ import static java.util.Arrays.asList;
 import static java.lang.invoke.MethodType.genericMethodType;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.testng.Assert.fail;
 
 import org.eclipse.golo.runtime.AmbiguousFunctionReferenceException;
 
@@ -209,6 +213,110 @@ public class PredefinedTest {
     assertThat(Predefined.fileExists(tempFile), is(true));
   }
 
+  @Test
+  public void test_lines() throws Throwable {
+    File tempFile = File.createTempFile("lines", "test");
+    Predefined.textToFile("first\nsecond\n\nlast", tempFile, "UTF-8");
+    FileLines lines = Predefined.lines(tempFile, "UTF-8");
+    List<String> read = new ArrayList<>();
+    for (String line : lines) {
+      read.add(line);
+    }
+    assertThat(read, contains("first", "second", "", "last"));
+    Iterator<String> again = lines.iterator();
+    assertThat(again.next(), is("first"));
+    lines.close();
+    try {
+      again.next();
+      fail("the file should have been closed");
+    } catch (UncheckedIOException expected) {
+      // ok
+    }
+  }
+
+  @Test
+  public void test_lines_are_read_lazily() throws Throwable {
+    File missing = new File(File.createTempFile("lines", "test").getParentFile(), "golo-missing-" + System.nanoTime());
+    FileLines lines = Predefined.lines(missing, "UTF-8");
+    try {
+      lines.iterator().hasNext();
+      fail("the file should be missing");
+    } catch (UncheckedIOException expected) {
+      // ok
+    }
+  }
+
+  @Test
+  public void test_lines_replace_malformed_input() throws Throwable {
+    File tempFile = File.createTempFile("lines", "test");
+    Files.write(tempFile.toPath(), new byte[]{'a', (byte) 0xff, '\n', 'b'});
+    List<String> read = new ArrayList<>();
+    for (String line : Predefined.lines(tempFile, "UTF-8")) {
+      read.add(line);
+    }
+    assertThat(read, contains(Predefined.fileToText(tempFile, "UTF-8").toString().split("\n")));
+  }
+
+  @Test
+  public void test_chunks() throws Throwable {
+    File tempFile = File.createTempFile("chunks", "test");
+    Predefined.textToFile("0123456789", tempFile, "UTF-8");
+    List<String> read = new ArrayList<>();
+    for (java.nio.ByteBuffer chunk : Predefined.chunks(tempFile, 4)) {
+      byte[] bytes = new byte[chunk.remaining()];
+      chunk.get(bytes);
+      read.add(new String(bytes, "UTF-8"));
+    }
+    assertThat(read, contains("0123", "4567", "89"));
+    assertThat(Predefined.chunks(File.createTempFile("empty", "test"), 4).iterator().hasNext(), is(false));
+
+    FileChunks chunks = Predefined.chunks(tempFile, 4);
+    Iterator<java.nio.ByteBuffer> iterator = chunks.iterator();
+    assertThat(iterator.next().remaining(), is(4));
+    chunks.close();
+    try {
+      iterator.next();
+      fail("the file should have been closed");
+    } catch (UncheckedIOException expected) {
+      // ok
+    }
+  }
+
+  @Test
+  public void test_mapFile() throws Throwable {
+    File tempFile = File.createTempFile("mapped", "test");
+    Predefined.textToFile("hello\nworld", tempFile, "UTF-8");
+    try (MappedFile mapped = Predefined.mapFile(tempFile)) {
+      assertThat(mapped.size(), is(11L));
+      assertThat(mapped.get(0), is((byte) 'h'));
+      assertThat(mapped.get(10L), is((byte) 'd'));
+      assertThat(mapped.indexOf('\n', 0), is(5L));
+      assertThat(mapped.indexOf('\n', 6), is(-1L));
+      assertThat(mapped.text(6, 5, java.nio.charset.StandardCharsets.UTF_8), is("world"));
+      assertThat(mapped.bytes(1, 2), is("el".getBytes("UTF-8")));
+      try {
+        mapped.bytes(8, 4);
+        fail("out of the file range");
+      } catch (IndexOutOfBoundsException expected) {
+        // ok
+      }
+    }
+  }
+
+  @Test
+  public void test_appendLines() throws Throwable {
+    File source = File.createTempFile("source", "test");
+    Predefined.textToFile("c\nd", source, "UTF-8");
+    File tempFile = new File(File.createTempFile("append", "test").getParentFile(), "golo-append-" + System.nanoTime() + "/lines.txt");
+    Predefined.appendLines(asList("a", 2), tempFile, "UTF-8");
+    Predefined.appendLines(Predefined.lines(source, "UTF-8"), tempFile, "UTF-8");
+    List<String> read = new ArrayList<>();
+    for (String line : Predefined.lines(tempFile, "UTF-8")) {
+      read.add(line);
+    }
+    assertThat(read, contains("a", "2", "c", "d"));
+  }
+
   @Test
   public void test_isArray() {
     assertThat(Predefined.isArray(null), is(false));
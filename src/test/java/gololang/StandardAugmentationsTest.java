@@ -551,6 +551,33 @@ public class StandardAugmentationsTest {
     assertThat((String) result, is("a-3-false-[foo]"));
   }
 
+  @Test
+  public void persistent_vector() throws Throwable {
+    Object result = moduleClass.getMethod("persistent_vector").invoke(null);
+    assertThat(result, instanceOf(PersistentVector.class));
+    assertThat((List<?>) result, contains((Object) 20, 40));
+    assertThat((Integer) moduleClass.getMethod("persistent_vector_reduce").invoke(null), is(15));
+    assertThat((Integer) moduleClass.getMethod("persistent_vector_destruct").invoke(null), is(6));
+  }
+
+  @Test
+  public void persistent_set() throws Throwable {
+    Object result = moduleClass.getMethod("persistent_set").invoke(null);
+    assertThat(result, instanceOf(PersistentSet.class));
+    assertThat((Set<?>) result, containsInAnyOrder((Object) 20, 40));
+  }
+
+  @Test
+  public void persistent_map() throws Throwable {
+    Object result = moduleClass.getMethod("persistent_map").invoke(null);
+    assertThat(result, instanceOf(PersistentMap.class));
+    Map<?, ?> map = (Map<?, ?>) result;
+    assertThat(map.size(), is(2));
+    assertThat(map.get("B"), is((Object) 20));
+    assertThat(map.get("C"), is((Object) 30));
+    assertThat((Integer) moduleClass.getMethod("persistent_map_reduce").invoke(null), is(6));
+  }
+
 
   @Test
   public void vector_count() throws Throwable {
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package gololang;
+
+import org.testng.SkipException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+import static org.eclipse.golo.internal.testing.TestUtils.compileAndLoadGoloModule;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class StructArrayTest {
+
+  private static final String SRC = "src/test/resources/for-test/";
+  private Class<?> moduleClass;
+
+  @BeforeMethod
+  public void load_module() throws Throwable {
+    if (System.getenv("golo.bootstrapped") == null) {
+      throw new SkipException("Golo is in a bootstrap build execution");
+    }
+    moduleClass = compileAndLoadGoloModule(SRC, "struct-array.golo");
+  }
+
+  private Object resultFor(String methodName, Object... args) throws Throwable {
+    Class<?>[] types = new Class<?>[args.length];
+    java.util.Arrays.fill(types, Object.class);
+    return moduleClass.getMethod(methodName, types).invoke(null, args);
+  }
+
+  private StructArray events() throws Throwable {
+    return (StructArray) resultFor("events");
+  }
+
+  @Test
+  public void factories() throws Throwable {
+    StructArray events = events();
+    assertThat(events.size(), is(100));
+    assertThat(events.members(), is(new Tuple("ts", "user", "value")));
+    assertThat(events.type().getName(), is("golo.test.StructArray.types.Event"));
+    StructArray empty = (StructArray) resultFor("empty");
+    assertThat(empty.isEmpty(), is(true));
+  }
+
+  @Test
+  public void columns_are_specialized() throws Throwable {
+    StructArray events = events();
+    assertThat(events.columnType("ts"), is((Object) int.class));
+    assertThat(events.columnType("user"), is((Object) Object.class));
+    assertThat(events.columnType("value"), is((Object) double.class));
+    assertThat(events.get(42, "ts"), is((Object) 42));
+    assertThat(events.get(42, "value"), is((Object) 21.0));
+
+    events.set(3, "ts", 3L);
+    assertThat(events.columnType("ts"), is((Object) Object.class));
+    assertThat(events.get(3, "ts"), is((Object) 3L));
+    assertThat(events.get(42, "ts"), is((Object) 42));
+
+    events.append(100, null, null);
+    assertThat(events.columnType("value"), is((Object) Object.class));
+    assertThat(events.get(100, "value"), is(nullValue()));
+    assertThat(events.get(99, "value"), is((Object) 49.5));
+  }
+
+  @Test
+  public void declared_member_types() throws Throwable {
+    StructArray measures = (StructArray) resultFor("measures");
+    assertThat(measures.columnType("at"), is((Object) long.class));
+    assertThat(measures.columnType("value"), is((Object) double.class));
+    assertThat(measures.columnType("tag"), is((Object) Object.class));
+    assertThat(measures.get(0).values(), is(new Tuple(1L, 2.0, "a")));
+    assertThat(measures.get(1).values(), is(new Tuple(3L, 4.5, "b")));
+  }
+
+  private Throwable failureOf(String methodName) throws Throwable {
+    try {
+      resultFor(methodName);
+    } catch (InvocationTargetException e) {
+      return e.getCause();
+    }
+    throw new AssertionError(methodName + " should have failed");
+  }
+
+  @Test
+  public void declared_member_types_reject_values_like_setters() throws Throwable {
+    assertThat(failureOf("measure_with_null").getClass(), is((Object) failureOf("measure_setter_with_null").getClass()));
+    assertThat(failureOf("measure_with_string").getClass(), is((Object) failureOf("measure_setter_with_string").getClass()));
+    StructArray measures = (StructArray) resultFor("measures");
+    try {
+      measures.append(5L, null, "c");
+    } catch (NullPointerException expected) {
+      assertThat(measures.size(), is(2));
+      assertThat(measures.columnType("value"), is((Object) double.class));
+      return;
+    }
+    throw new AssertionError("null should have been rejected");
+  }
+
+  @Test
+  public void no_generated_factory_functions() throws Throwable {
+    assertThat(resultFor("user_defined_array_function"), is((Object) "mine"));
+  }
+
+  @Test
+  public void materialize() throws Throwable {
+    StructArray events = events();
+    GoloStruct struct = events.get(7);
+    assertThat(struct.values(), is(((GoloStruct) resultFor("event", 7, "u1", 3.5)).values()));
+    assertThat(struct.getClass(), is((Object) events.type()));
+    assertThat(events.cursor(7).struct().values(), is(struct.values()));
+    assertThat(events.cursor(7).values(), is(struct.values()));
+    assertThat(events.toList().size(), is(100));
+    assertThat(events.column("user").get(5), is((Object) "u2"));
+  }
+
+  @Test
+  public void bulk_operations() throws Throwable {
+    assertThat(resultFor("sum_values"), is((Object) 2475.0));
+    StructArray filtered = (StructArray) resultFor("filter_user");
+    assertThat(filtered.size(), is(33));
+    assertThat(filtered.get(1, "ts"), is((Object) 4));
+    assertThat(filtered.columnType("ts"), is((Object) int.class));
+    List<?> mapped = (List<?>) resultFor("map_ts");
+    assertThat(mapped.size(), is(100));
+    assertThat(mapped.get(50), is((Object) 100));
+    assertThat(resultFor("foreach_count"), is((Object) 10));
+    assertThat(resultFor("destruct_cursor"), is((Object) new Tuple(4, "u1", 2.0)));
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void wrong_arity() throws Throwable {
+    events().append(1, 2);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void unknown_member() throws Throwable {
+    events().get(0, "_secret");
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void out_of_bounds() throws Throwable {
+    events().get(100, "ts");
+  }
+}
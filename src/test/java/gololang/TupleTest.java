@@ -11,7 +11,12 @@ package gololang;
 
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -133,5 +138,100 @@ public class TupleTest {
   public void not_comparable_comparison() {
     new Tuple(new Object()).compareTo(new Tuple(new Object()));
   }
-}
 
+  @Test
+  public void tuples_from_arrays() {
+    for (int size = 0; size < 8; size++) {
+      Object[] values = new Object[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = i * 10;
+      }
+      Tuple fromArray = Tuple.fromArray(values);
+      Tuple tuple = new Tuple(values);
+      assertThat(fromArray.size(), is(size));
+      assertThat(fromArray, is(tuple));
+      assertThat(tuple, is(fromArray));
+      assertThat(fromArray.hashCode(), is(Arrays.hashCode(values)));
+      assertThat(tuple.hashCode(), is(Arrays.hashCode(values)));
+      assertThat(fromArray.toArray(), is(values));
+      assertThat(fromArray.toString(), is(tuple.toString()));
+      for (int i = 0; i < size; i++) {
+        assertThat(fromArray.get(i), is(values[i]));
+      }
+    }
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void from_array_above_size_index() {
+    Tuple.fromArray(new Object[]{1, 2}).get(2);
+  }
+
+  @Test
+  public void sub_tuples() {
+    Tuple tuple = Tuple.fromArray(new Object[]{1, 2, 3, 4, 5, 6, 7, 8});
+    assertThat(tuple.subTuple(0), is(tuple));
+    assertThat(tuple.tail(), is(new Tuple(2, 3, 4, 5, 6, 7, 8)));
+    assertThat(tuple.tail().tail(), is(new Tuple(3, 4, 5, 6, 7, 8)));
+    assertThat(tuple.subTuple(2, 7).subTuple(1, 4), is(new Tuple(4, 5, 6)));
+    assertThat(tuple.subTuple(1, 7).toArray(), is(new Object[]{2, 3, 4, 5, 6, 7}));
+    assertThat(tuple.subTuple(1, 7).hashCode(), is(new Tuple(2, 3, 4, 5, 6, 7).hashCode()));
+    assertThat(tuple.subTuple(3, 3).isEmpty(), is(true));
+    assertThat(tuple.subTuple(8).isEmpty(), is(true));
+    Tuple view = tuple.subTuple(1, 7);
+    int sum = 0;
+    for (Object o : view) {
+      sum = sum + (int) o;
+    }
+    assertThat(sum, is(27));
+  }
+
+  @Test
+  public void equality_with_mutated_elements() {
+    List<Object> list = new ArrayList<>(Arrays.asList(1));
+    Tuple a = Tuple.fromArray(new Object[]{list});
+    Tuple b = Tuple.fromArray(new Object[]{new ArrayList<>(Arrays.asList(1, 2))});
+    assertThat(a.hashCode() == b.hashCode(), is(false));
+    list.add(2);
+    assertThat(a, is(b));
+    assertThat(a.hashCode(), is(b.hashCode()));
+  }
+
+  @Test
+  public void sub_tuple_above_size() {
+    assertThat(new Tuple(1, 2, 3).subTuple(1, 5), is(new Tuple(2, 3, null, null)));
+    assertThat(new Tuple(1, 2, 3).subTuple(3, 4), is(new Tuple((Object) null)));
+    assertThat(new Tuple().subTuple(1, 4), is(new Tuple()));
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void sub_tuple_negative_start() {
+    new Tuple(1, 2, 3).subTuple(-1, 2);
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void sub_tuple_start_above_size() {
+    new Tuple(1, 2, 3).subTuple(4);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void sub_tuple_start_above_end() {
+    new Tuple(1, 2, 3).subTuple(2, 1);
+  }
+
+  @Test(expectedExceptions = IndexOutOfBoundsException.class)
+  public void view_above_size_index() {
+    Tuple.fromArray(new Object[]{1, 2, 3, 4, 5, 6, 7, 8}).subTuple(1, 7).get(6);
+  }
+
+  @Test
+  public void spliterator() {
+    Tuple tuple = new Tuple(1, 2, 3, 4, 5, 6);
+    Spliterator<Object> spliterator = tuple.spliterator();
+    assertThat(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED), is(true));
+    assertThat(spliterator.estimateSize(), is(6L));
+    assertThat(spliterator.trySplit().estimateSize(), is(3L));
+    assertThat(tuple.parallelStream().collect(Collectors.toList()), is(Arrays.<Object>asList(1, 2, 3, 4, 5, 6)));
+    assertThat(tuple.subTuple(1, 4).stream().collect(Collectors.toList()), is(Arrays.<Object>asList(2, 3, 4)));
+    assertThat(Tuple.fromArray(new Object[]{1, 2}).stream().count(), is(2L));
+  }
+}
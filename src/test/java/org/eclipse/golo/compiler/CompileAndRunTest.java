@@ -310,6 +310,178 @@ public class CompileAndRunTest {
     assertThat((String) what_match.invoke(null, "foo"), is("String"));
     assertThat((String) what_match.invoke(null, 666), is("Integer"));
     assertThat((String) what_match.invoke(null, true), is("alien"));
+
+    Method command_code = moduleClass.getMethod("command_code", Object.class);
+    assertThat(command_code.invoke(null, "start"), is((Object) 1));
+    assertThat(command_code.invoke(null, "stop"), is((Object) 2));
+    assertThat(command_code.invoke(null, "Aa"), is((Object) 3));
+    assertThat(command_code.invoke(null, "BB"), is((Object) 4));
+    assertThat(command_code.invoke(null, "pause"), is((Object) 5));
+    assertThat(command_code.invoke(null, "resume"), is((Object) 0));
+    assertThat(command_code.invoke(null, 1), is((Object) 0));
+    assertThat(command_code.invoke(null, (Object) null), is((Object) 0));
+
+    Method dense_code = moduleClass.getMethod("dense_code", Object.class);
+    assertThat(dense_code.invoke(null, 1), is((Object) "one"));
+    assertThat(dense_code.invoke(null, 2), is((Object) "two"));
+    assertThat(dense_code.invoke(null, 3), is((Object) "other"));
+    assertThat(dense_code.invoke(null, 4), is((Object) "four"));
+    assertThat(dense_code.invoke(null, 2L), is((Object) "two"));
+    assertThat(dense_code.invoke(null, 'a'), is((Object) "other"));
+    assertThat(dense_code.invoke(null, "1"), is((Object) "other"));
+
+    Method sparse_code = moduleClass.getMethod("sparse_code", Object.class);
+    assertThat(sparse_code.invoke(null, -1000), is((Object) "low"));
+    assertThat(sparse_code.invoke(null, 0), is((Object) "zero"));
+    assertThat(sparse_code.invoke(null, 404), is((Object) "not found"));
+    assertThat(sparse_code.invoke(null, 100000), is((Object) "high"));
+    assertThat(sparse_code.invoke(null, 404L), is((Object) "not found"));
+    assertThat(sparse_code.invoke(null, 405L), is((Object) "long"));
+    assertThat(sparse_code.invoke(null, 405), is((Object) "other"));
+
+    Method char_code = moduleClass.getMethod("char_code", Object.class);
+    assertThat(char_code.invoke(null, 'a'), is((Object) "a"));
+    assertThat(char_code.invoke(null, 'z'), is((Object) "z"));
+    assertThat(char_code.invoke(null, 'c'), is((Object) "?"));
+  }
+
+  @Test
+  public void tail_calls() throws Throwable {
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "tail-calls.golo");
+
+    Method count = moduleClass.getMethod("count", Object.class, Object.class);
+    assertThat(count.invoke(null, 1_000_000, 0), is((Object) 1_000_000));
+
+    Method count_match = moduleClass.getMethod("count_match", Object.class, Object.class);
+    assertThat(count_match.invoke(null, 1_000_000, 0), is((Object) 1_000_000));
+
+    Method swap = moduleClass.getMethod("swap", Object.class, Object.class, Object.class);
+    assertThat(swap.invoke(null, 3, "a", "b"), is((Object) new Tuple("b", "a")));
+
+    Method closures = moduleClass.getMethod("closures", Object.class, Object.class);
+    List<?> functions = (List<?>) closures.invoke(null, 3, new java.util.ArrayList<>());
+    assertThat(((FunctionReference) functions.get(0)).invoke(), is((Object) 3));
+    assertThat(((FunctionReference) functions.get(2)).invoke(), is((Object) 1));
+
+    Method in_try = moduleClass.getMethod("in_try", Object.class);
+    assertThat(in_try.invoke(null, 10), is((Object) "done"));
+
+    Method fib = moduleClass.getMethod("fib", Object.class);
+    assertThat(fib.invoke(null, 10), is((Object) 55));
+  }
+
+  @Test
+  public void expression_statements() throws Throwable {
+    for (boolean optimizing : new boolean[]{false, true}) {
+      GoloClassLoader loader = new GoloClassLoader(CompileAndRunTest.class.getClassLoader());
+      loader.getCompiler().setOptimizing(optimizing);
+      Class<?> moduleClass = compileAndLoadGoloModule(SRC, "expression-statements.golo", loader);
+      List<Integer> data = asList(1, 2);
+
+      assertThat(moduleClass.getMethod("values_in_loops").invoke(null), is((Object) 6));
+      assertThat(moduleClass.getMethod("blocks_as_statements", Object.class).invoke(null, data), is((Object) 3));
+      assertThat(moduleClass.getMethod("blocks_as_values", Object.class).invoke(null, data), is((Object) new Tuple(
+          asList(2, 4), new Tuple(3, 5), new Tuple(new Tuple(0), new Tuple(0, 1)))));
+      assertThat(moduleClass.getMethod("values_in_branches", Object.class).invoke(null, true), is((Object) 10));
+      assertThat(moduleClass.getMethod("values_in_branches", Object.class).invoke(null, false), is((Object) 21));
+    }
+  }
+
+  @Test
+  public void inlining() throws Throwable {
+    GoloClassLoader loader = new GoloClassLoader(CompileAndRunTest.class.getClassLoader());
+    loader.getCompiler().setInliningFunctions(true);
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "inlining.golo", loader);
+
+    assertThat(moduleClass.getMethod("with_constants").invoke(null), is((Object) 42));
+    assertThat(moduleClass.getMethod("with_method_call", Object.class).invoke(null, asList("a", "b")), is((Object) "a"));
+
+    java.util.concurrent.atomic.AtomicInteger counter = new java.util.concurrent.atomic.AtomicInteger();
+    assertThat(moduleClass.getMethod("evaluated_once", Object.class).invoke(null, counter), is((Object) 2));
+    assertThat(counter.get(), is(1));
+
+    List<Object> list = new java.util.LinkedList<>(asList("a", "b"));
+    assertThat(moduleClass.getMethod("in_order", Object.class).invoke(null, list), is((Object) "ab"));
+
+    assertThat(moduleClass.getMethod("logic").invoke(null), is((Object) new Tuple(true, false)));
+    assertThat(moduleClass.getMethod("budget", Object.class).invoke(null, 1), is((Object) 11));
+    assertThat(moduleClass.getMethod("shadowed").invoke(null), is((Object) 0));
+    assertThat(moduleClass.getMethod("shadowed_in_closure").invoke(null), is((Object) 0));
+
+    try {
+      moduleClass.getMethod("failing", Object.class).invoke(null, 1);
+      fail("An exception should have been thrown");
+    } catch (InvocationTargetException e) {
+      StackTraceElement top = null;
+      for (StackTraceElement element : e.getCause().getStackTrace()) {
+        if (element.getClassName().equals(moduleClass.getName())) {
+          top = element;
+          break;
+        }
+      }
+      assertThat(top, notNullValue());
+      assertThat(top.getMethodName(), is("failing"));
+      assertThat(top.getLineNumber(), is(40));
+    }
+
+    assertThat(moduleClass.getMethod("statements_in_loops").invoke(null), is((Object) 6));
+    assertThat(moduleClass.getMethod("module_state_in_order").invoke(null), is((Object) 1));
+
+    Method failingStatement = moduleClass.getMethod("failing_statement", Object.class);
+    assertThat(failureLine(moduleClass, () -> failingStatement.invoke(null, 1)), is(65));
+    Method failingNested = moduleClass.getMethod("failing_nested", Object.class);
+    assertThat(failureLine(moduleClass, () -> failingNested.invoke(null, 1)), is(72));
+  }
+
+  @Test
+  public void no_function_inlining_by_default() throws Throwable {
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "inlining.golo");
+    assertThat(moduleClass.getMethod("with_constants").invoke(null), is((Object) 42));
+    try {
+      moduleClass.getMethod("failing", Object.class).invoke(null, 1);
+      fail("An exception should have been thrown");
+    } catch (InvocationTargetException e) {
+      for (StackTraceElement element : e.getCause().getStackTrace()) {
+        if (element.getClassName().equals(moduleClass.getName())) {
+          assertThat(element.getMethodName(), is("fst"));
+          return;
+        }
+      }
+      fail("The module should be in the stack trace");
+    }
+  }
+
+  private static int failureLine(Class<?> moduleClass, Callable<Object> call) throws Exception {
+    try {
+      call.call();
+      fail("An exception should have been thrown");
+    } catch (InvocationTargetException e) {
+      for (StackTraceElement element : e.getCause().getStackTrace()) {
+        if (element.getClassName().equals(moduleClass.getName())) {
+          return element.getLineNumber();
+        }
+      }
+    }
+    return -1;
+  }
+
+  @Test
+  public void augmentation_inlining() throws Throwable {
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "augmentation-inlining.golo");
+    List<Integer> data = asList(1, 2, 3, 4);
+
+    assertThat(moduleClass.getMethod("sum", Object.class, Object.class).invoke(null, data, 2), is((Object) 20));
+    assertThat(moduleClass.getMethod("collect", Object.class).invoke(null, data), is((Object) data));
+    assertThat(moduleClass.getMethod("evens", Object.class).invoke(null, data), is((Object) 2));
+    assertThat(moduleClass.getMethod("evens", Object.class).invoke(null, new java.util.LinkedList<>(data)), is((Object) (-1)));
+    assertThat(moduleClass.getMethod("has_more_than", Object.class, Object.class).invoke(null, data, 3), is((Object) true));
+    assertThat(moduleClass.getMethod("has_more_than", Object.class, Object.class).invoke(null, data, 4), is((Object) false));
+    assertThat(moduleClass.getMethod("indexes").invoke(null), is((Object) asList(0, 1, 2, "x", "x", 1, 2, 3, 4, 3, 2)));
+    assertThat(moduleClass.getMethod("chained", Object.class).invoke(null, data), is((Object) 2));
+    assertThat(moduleClass.getMethod("returns_receiver", Object.class).invoke(null, data), sameInstance((Object) data));
+    assertThat(moduleClass.getMethod("on_struct").invoke(null), is((Object) asList(10, 20)));
+    assertThat(moduleClass.getMethod("on_map").invoke(null), is((Object) 1));
+    assertThat(moduleClass.getMethod("in_loop", Object.class).invoke(null, data), is((Object) 30));
   }
 
   @Test
@@ -440,6 +612,15 @@ public class CompileAndRunTest {
 
     Method special_concat = moduleClass.getMethod("special_concat", Object.class, Object.class, Object.class, Object.class);
     assertThat((String) special_concat.invoke(null, 1, "a", 2, "b"), is("[1:a:2:b]"));
+    assertThat((String) special_concat.invoke(null, null, asList(1), 'c', 1.5), is("[null:[1]:c:1.5]"));
+
+    Method numbers_then_concat = moduleClass.getMethod("numbers_then_concat", Object.class, Object.class, Object.class);
+    assertThat((String) numbers_then_concat.invoke(null, 1, 2, 3), is("3:3//3"));
+    assertThat((String) numbers_then_concat.invoke(null, "1", 2, 3), is("12:3//12"));
+    assertThat((String) numbers_then_concat.invoke(null, 'a', 'b', null), is("195:null//195"));
+
+    Method large_concat = moduleClass.getMethod("large_concat", Object.class);
+    assertThat(((String) large_concat.invoke(null, "-")).length(), is(120001));
 
     Method oftype_string = moduleClass.getMethod("oftype_string", Object.class);
     assertThat((Boolean) oftype_string.invoke(null, "Hello"), is(true));
@@ -757,6 +938,17 @@ public class CompileAndRunTest {
     Method elvis_indirect = moduleClass.getMethod("elvis_indirect");
     assertThat((String) elvis_indirect.invoke(null), is("-null"));
 
+    Method elvis_callee_npe = moduleClass.getMethod("elvis_callee_npe");
+    assertThat(elvis_callee_npe.invoke(null), nullValue());
+
+    Method elvis_propagates_npe = moduleClass.getMethod("elvis_propagates_npe");
+    try {
+      elvis_propagates_npe.invoke(null);
+      fail("A NullPointerException raised by the callee should propagate");
+    } catch (InvocationTargetException e) {
+      assertThat(e.getCause(), instanceOf(NullPointerException.class));
+    }
+
     Method funky = moduleClass.getMethod("funky");
     assertThat((Integer) funky.invoke(null), is(6));
 
@@ -1041,6 +1233,17 @@ public class CompileAndRunTest {
 
     Method closure_with_named_args = moduleClass.getMethod("closure_with_named_args");
     assertThat(closure_with_named_args.invoke(null), is("It Rocks"));
+
+    Method closures_in_a_loop = moduleClass.getMethod("closures_in_a_loop");
+    Tuple closuresAndTotal = (Tuple) closures_in_a_loop.invoke(null);
+    assertThat(closuresAndTotal.get(1), is((Object) 60));
+    List<?> adders = (List<?>) closuresAndTotal.get(0);
+    assertThat(adders.get(0).getClass(), is((Object) adders.get(4).getClass()));
+    assertThat(adders.get(0), is(not(adders.get(4))));
+    funRef = (FunctionReference) adders.get(3);
+    assertThat(funRef.arity(), is(1));
+    assertThat((Integer) funRef.handle().invoke(1), is(4));
+    assertThat(funRef.entryPoint(), notNullValue());
   }
 
   @Test
@@ -1238,6 +1441,21 @@ public class CompileAndRunTest {
     }
   }
 
+  @Test
+  public void array_backed_lists() throws Throwable {
+    GoloClassLoader loader = new GoloClassLoader(CompileAndRunTest.class.getClassLoader());
+    loader.getCompiler().setArrayBackedLists(true);
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "collection-literals.golo", loader);
+
+    Object result = moduleClass.getMethod("some_list").invoke(null);
+    assertThat(result, instanceOf(ArrayList.class));
+    assertThat(result, is((Object) asList(1, 2, 3)));
+
+    result = moduleClass.getMethod("some_list_comprehension").invoke(null);
+    assertThat(result, instanceOf(ArrayList.class));
+    assertThat(result, is((Object) asList(2, 4, 6)));
+  }
+
   @Test
   public void collection_literals() throws Throwable {
     Class<?> moduleClass = compileAndLoadGoloModule(SRC, "collection-literals.golo");
@@ -1280,6 +1498,10 @@ public class CompileAndRunTest {
     assertThat((Integer) list.getFirst(), is(1));
     assertThat((Integer) list.getLast(), is(3));
 
+    result = moduleClass.getMethod("some_list_comprehension").invoke(null);
+    assertThat(result, instanceOf(LinkedList.class));
+    assertThat(result, is((Object) asList(2, 4, 6)));
+
     Method some_vector = moduleClass.getMethod("some_vector");
     result = some_vector.invoke(null);
     assertThat(result, instanceOf(ArrayList.class));
@@ -1724,6 +1946,9 @@ public class CompileAndRunTest {
     assertThat(result, equalTo(banged.invoke(null)));
     assertThat(result, not((Object) 42));
 
+    banged = moduleClass.getMethod("test_counted_decorated");
+    result = banged.invoke(null);
+    assertThat(result, is((Object) new Tuple(156, 1)));
   }
 
   @Test
@@ -1814,6 +2039,22 @@ public class CompileAndRunTest {
     }
   }
 
+  @Test
+  public void parallel_comprehension() throws Throwable {
+    if (bootstraping()) {
+      return;
+    }
+    Class<?> moduleClass = compileAndLoadGoloModule(SRC, "parallel-comprehension.golo");
+    moduleClass.getMethod("test_parallel").invoke(null);
+    assertThat(moduleClass.getMethod("collected_concurrently").invoke(null), is((Object) asList(false, false)));
+
+    GoloClassLoader loader = new GoloClassLoader(CompileAndRunTest.class.getClassLoader());
+    loader.getCompiler().setParallelComprehensions(true);
+    moduleClass = compileAndLoadGoloModule(SRC, "parallel-comprehension.golo", loader);
+    moduleClass.getMethod("test_parallel").invoke(null);
+    assertThat(moduleClass.getMethod("collected_concurrently").invoke(null), is((Object) asList(true, true)));
+  }
+
   @Test(expectedExceptions = GoloCompilationException.class)
   public void test_error_shadowing_function() throws Throwable {
     try {
@@ -12,14 +12,19 @@ package org.eclipse.golo.compiler;
 import org.eclipse.golo.compiler.parser.ParseException;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.file.Files;
+import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.testng.Assert.fail;
 
 public class CompilerTest {
 
@@ -48,6 +53,33 @@ public class CompilerTest {
     compiler.compile("simple-returns.golo", new FileInputStream(okSourceFile));
   }
 
+  @Test
+  public void verify_compile_statistics() throws IOException, ParseException {
+    String okSourceFile = "src/test/resources/for-parsing-and-compilation/simple-returns.golo";
+    GoloCompiler compiler = new GoloCompiler();
+    CompilationStatistics statistics = new CompilationStatistics();
+    compiler.setStatistics(statistics);
+    compiler.compile("simple-returns.golo", new FileInputStream(okSourceFile));
+    compiler.setStatistics(null);
+    compiler.compile("simple-returns.golo", new FileInputStream(okSourceFile));
+
+    assertThat(statistics.modules().size(), is(1));
+    CompilationStatistics.Module module = statistics.modules().get(0);
+    assertThat(module.source(), is("simple-returns.golo"));
+    assertThat(module.phases().stream().map(CompilationStatistics.Phase::name).collect(Collectors.toList()),
+        is(asList("read", "parse", "transform", "sugar-expansion", "augmentation-inlining", "closure-capture",
+            "local-references", "constant-folding", "generate")));
+    assertThat(module.irNodes().get("GoloModule"), is(1));
+    assertThat(module.irNodeCount() > module.irNodes().get("GoloFunction"), is(true));
+    assertThat(module.bytecodeSizes().get("golotest.SimpleReturns::nop ()Ljava/lang/Object;") > 0, is(true));
+    assertThat(module.bytecodeSizes().values().stream().mapToInt(Integer::intValue).sum() < module.bytecodeSize(), is(true));
+
+    ByteArrayOutputStream report = new ByteArrayOutputStream();
+    statistics.report(new PrintStream(report, true));
+    assertThat(report.toString(), containsString(">>> simple-returns.golo: "));
+    assertThat(report.toString(), containsString("phase constant-folding"));
+  }
+
   @Test
   public void verify_compile_error_undeclared() throws IOException, ParseException {
     String errSourceFileDir = "src/test/resources/for-test/";
@@ -145,4 +177,22 @@ public class CompilerTest {
       }
     }
   }
+
+  @Test
+  public void verify_compile_error_unsupported_member_types() throws Throwable {
+    String errSourceFileDir = "src/test/resources/for-test/";
+    GoloCompiler compiler = new GoloCompiler();
+    String errSourceFile = "unsupported-member-type.golo";
+    try {
+      compiler.compile(errSourceFile, new FileInputStream(errSourceFileDir + errSourceFile));
+      fail("A GoloCompilationException was expected");
+    } catch (GoloCompilationException e) {
+      assertThat(e.getProblems().size(), is(2));
+      assertThat(e.getProblems().get(0).getType(), is(GoloCompilationException.Problem.Type.PARSING));
+      assertThat(e.getProblems().get(0).getSource().getLineInSourceCode(), is(3));
+      assertThat(e.getProblems().get(0).getDescription(), containsString("`String`"));
+      assertThat(e.getProblems().get(1).getType(), is(GoloCompilationException.Problem.Type.PARSING));
+      assertThat(e.getProblems().get(1).getSource().getLineInSourceCode(), is(6));
+    }
+  }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler;
+
+import org.eclipse.golo.compiler.ir.*;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.eclipse.golo.compiler.ir.Builders.*;
+import static org.eclipse.golo.runtime.OperatorType.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ConstantFoldingVisitorTest {
+
+  private static Object fold(ExpressionStatement expression) {
+    ReturnStatement ret = returns(expression);
+    block(ret).accept(new ConstantFoldingVisitor());
+    GoloStatement result = ret.getExpressionStatement();
+    if (result instanceof ConstantStatement) {
+      return ((ConstantStatement) result).getValue();
+    }
+    return result;
+  }
+
+  @Test
+  public void arithmetic() {
+    assertThat(fold(binaryOperation(PLUS, constant(1), constant(2))), is((Object) 3));
+    assertThat(fold(binaryOperation(TIMES, constant(2), binaryOperation(PLUS, constant(1), constant(2L)))), is((Object) 6L));
+    assertThat(fold(binaryOperation(MINUS, constant(1.5), constant(1))), is((Object) 0.5));
+    assertThat(fold(binaryOperation(PLUS, constant(new BigDecimal("1.1")), constant(1))), is((Object) new BigDecimal("2.1")));
+    assertThat(fold(binaryOperation(MODULO, constant(7), constant(4))), is((Object) 3));
+  }
+
+  @Test
+  public void runtime_errors_are_not_folded() {
+    assertThat(fold(binaryOperation(DIVIDE, constant(1), constant(0))), instanceOf(BinaryOperation.class));
+    assertThat(fold(binaryOperation(MINUS, constant("a"), constant(1))), instanceOf(BinaryOperation.class));
+  }
+
+  @Test
+  public void strings() {
+    assertThat(fold(binaryOperation(PLUS, constant("a"), constant("b"))), is((Object) "ab"));
+    assertThat(fold(binaryOperation(PLUS, constant("a"), constant(1))), is((Object) "a1"));
+    assertThat(fold(binaryOperation(TIMES, constant("ab"), constant(2))), is((Object) "abab"));
+  }
+
+  @Test
+  public void large_strings_are_not_folded() throws Throwable {
+    assertThat(fold(binaryOperation(TIMES, constant("abc"), constant(30000))), instanceOf(BinaryOperation.class));
+    assertThat(fold(binaryOperation(TIMES, constant("\u00e9"), constant(40000))), instanceOf(BinaryOperation.class));
+    assertThat(fold(binaryOperation(TIMES, constant("abc"), constant(20000))), instanceOf(String.class));
+
+    GoloClassLoader loader = new GoloClassLoader();
+    Class<?> module = loader.load("large.golo", new ByteArrayInputStream((
+          "module golotest.LargeString\n"
+        + "function large = -> \"abc\" * 30000\n").getBytes(StandardCharsets.UTF_8)));
+    assertThat(((String) module.getMethod("large").invoke(null)).length(), is(90000));
+  }
+
+  @Test
+  public void comparisons() {
+    assertThat(fold(binaryOperation(EQUALS, constant(1), constant(1L))), is((Object) true));
+    assertThat(fold(binaryOperation(LESS, constant('a'), constant('b'))), is((Object) true));
+    assertThat(fold(binaryOperation(NOTEQUALS, constant("a"), constant("a"))), is((Object) false));
+  }
+
+  @Test
+  public void logic() {
+    ReferenceLookup x = refLookup("x");
+    assertThat(fold(not(constant(true))), is((Object) false));
+    assertThat(fold(binaryOperation(AND, constant(false), x)), is((Object) false));
+    assertThat(fold(binaryOperation(OR, constant(true), x)), is((Object) true));
+    assertThat(fold(binaryOperation(AND, constant(true), constant(false))), is((Object) false));
+    assertThat(fold(binaryOperation(AND, constant(true), x)), instanceOf(BinaryOperation.class));
+    assertThat(fold(binaryOperation(ORIFNULL, constant(null), x)), is((Object) x));
+    assertThat(fold(binaryOperation(AND, constant(1), constant(true))), instanceOf(BinaryOperation.class));
+  }
+
+  @Test
+  public void constant_branches() {
+    Block trueBlock = block(returns(constant(1)));
+    Block falseBlock = block(returns(constant(2)));
+    Block body = block(branch()
+        .condition(binaryOperation(LESS, constant(2), constant(1)))
+        .whenTrue(trueBlock)
+        .whenFalse(falseBlock));
+    body.accept(new ConstantFoldingVisitor());
+    assertThat(body.getStatements().get(0), is((Object) falseBlock));
+    assertThat(body.hasReturn(), is(true));
+
+    body = block(branch().condition(constant(false)).whenTrue(trueBlock));
+    body.accept(new ConstantFoldingVisitor());
+    assertThat(body.getStatements().get(0), instanceOf(Block.class));
+    assertThat(((Block) body.getStatements().get(0)).isEmpty(), is(true));
+  }
+
+  @Test
+  public void constant_else_branches() {
+    Block first = block(returns(constant(1)));
+    Block second = block(returns(constant(2)));
+    Block third = block(returns(constant(3)));
+    ConditionalBranching branching = branch()
+        .condition(refLookup("x"))
+        .whenTrue(first)
+        .elseBranch(branch()
+            .condition(not(constant(true)))
+            .whenTrue(second)
+            .elseBranch(branch().condition(constant(true)).whenTrue(third)));
+    Block body = block(branching);
+    body.accept(new ConstantFoldingVisitor());
+    assertThat(body.getStatements().get(0), is((Object) branching));
+    assertThat(branching.hasElseConditionalBranching(), is(false));
+    assertThat(branching.getFalseBlock(), is(third));
+  }
+}
@@ -11,11 +11,17 @@ package org.eclipse.golo.compiler;
 
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
+import java.io.InputStream;
+import java.lang.invoke.SwitchPoint;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 public class GoloClassLoaderTest {
 
@@ -35,4 +41,81 @@ public class GoloClassLoaderTest {
     classLoader.load("returns.golo", new FileInputStream(SRC + "returns.golo"));
     classLoader.load("returns.golo", new FileInputStream(SRC + "returns.golo"));
   }
+
+  private static InputStream source(String code) {
+    return new ByteArrayInputStream(code.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static Object call(Class<?> module, String name, Object... args) throws Throwable {
+    for (Method method : module.getMethods()) {
+      if (method.getName().equals(name) && method.getParameterCount() == args.length) {
+        return method.invoke(null, args);
+      }
+    }
+    throw new NoSuchMethodException(name);
+  }
+
+  private static String library(String value, String suffix) {
+    return "module golotest.reload.Library\n"
+      + "function value = -> " + value + "\n"
+      + "struct Point = { x }\n"
+      + "augment java.lang.String {\n"
+      + "  function shout = |this| -> this + \"" + suffix + "\"\n"
+      + "}\n";
+  }
+
+  @Test
+  public void reload_relinks_dependent_call_sites() throws Throwable {
+    GoloClassLoader classLoader = new GoloClassLoader();
+    Class<?> library = classLoader.load("library.golo", source(library("1", "!")));
+    Class<?> client = classLoader.load("client.golo", source(
+        "module golotest.reload.Client\n"
+        + "import golotest.reload.Library\n"
+        + "function get = -> value()\n"
+        + "function shout = |s| -> s: shout()\n"
+        + "function point = -> Point(42)\n"
+        + "function own = -> 666\n"
+        + "function callOwn = -> own()\n"));
+
+    assertThat(call(client, "get"), is((Object) 1));
+    assertThat(call(client, "shout", "a"), is((Object) "a!"));
+    Object point = call(client, "point");
+    assertThat(point.getClass().getClassLoader(), is((Object) classLoader));
+    assertThat(call(client, "callOwn"), is((Object) 666));
+
+    Class<?> reloaded = classLoader.reload("library.golo", source(library("2", "?")));
+    assertThat(reloaded == library, is(false));
+    assertThat(classLoader.loadClass("golotest.reload.Library") == reloaded, is(true));
+
+    assertThat(call(client, "get"), is((Object) 2));
+    assertThat(call(client, "shout", "a"), is((Object) "a?"));
+    Object newPoint = call(client, "point");
+    assertThat(newPoint.getClass() == point.getClass(), is(false));
+    assertThat(newPoint.getClass().getClassLoader() == reloaded.getClassLoader(), is(true));
+    assertThat(call(client, "callOwn"), is((Object) 666));
+    assertThat(call(library, "value"), is((Object) 1));
+
+    classLoader.reload("library.golo", source(library("3", "?!")));
+    assertThat(call(client, "get"), is((Object) 3));
+    assertThat(call(client, "shout", "a"), is((Object) "a?!"));
+  }
+
+  @Test
+  public void previous_versions_stay_guarded_after_reload() throws Throwable {
+    GoloClassLoader classLoader = new GoloClassLoader();
+    Class<?> library = classLoader.load("library.golo", source(library("1", "!")));
+    Class<?> point = classLoader.loadClass("golotest.reload.Library.types.Point");
+    Class<?> client = classLoader.load("client.golo", source("module golotest.reload.Client\n"));
+
+    SwitchPoint switchPoint = GoloClassLoader.switchPointFor(client, library);
+    assertThat(switchPoint, notNullValue());
+    assertThat(switchPoint.hasBeenInvalidated(), is(false));
+    assertThat(GoloClassLoader.switchPointFor(library, point), nullValue());
+
+    Class<?> reloaded = classLoader.reload("library.golo", source("module golotest.reload.Library\n"));
+    assertThat(switchPoint.hasBeenInvalidated(), is(true));
+    assertThat(GoloClassLoader.switchPointFor(client, library).hasBeenInvalidated(), is(true));
+    assertThat(GoloClassLoader.switchPointFor(client, point).hasBeenInvalidated(), is(true));
+    assertThat(GoloClassLoader.switchPointFor(client, reloaded).hasBeenInvalidated(), is(false));
+  }
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler.parser;
+
+import org.eclipse.golo.internal.testing.TestUtils;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CharArrayCharStreamTest {
+
+  @DataProvider(name = "golo-files")
+  public static Iterator<Object[]> data() {
+    return TestUtils.goloFilesIn("src/test/resources/for-parsing-and-compilation");
+  }
+
+  private static List<String> tokens(GoloParserTokenManager tokenManager) {
+    List<String> tokens = new ArrayList<>();
+    Token token;
+    do {
+      token = tokenManager.getNextToken();
+      for (Token special = token.specialToken; special != null; special = special.specialToken) {
+        tokens.add("special " + describe(special));
+      }
+      tokens.add(token.kind == GoloParserConstants.EOF ? "EOF" : describe(token));
+    } while (token.kind != GoloParserConstants.EOF);
+    return tokens;
+  }
+
+  private static String describe(Token token) {
+    return String.format("%d '%s' %d:%d-%d:%d",
+        token.kind, token.image,
+        token.beginLine, token.beginColumn, token.endLine, token.endColumn);
+  }
+
+  private static void assertSameTokens(String source) {
+    char[] chars = source.toCharArray();
+    List<String> expected = tokens(new GoloOffsetParserTokenManager(new JavaCharStream(new StringReader(source))));
+    GoloParserTokenManager tokenManager = new GoloOffsetParserTokenManager(new CharArrayCharStream(chars, chars.length));
+    assertThat(tokens(tokenManager), is(expected));
+    tokenManager = new GoloOffsetParserTokenManager(new CharArrayCharStream(chars, chars.length));
+    for (Token token = tokenManager.getNextToken(); token.kind != GoloParserConstants.EOF; token = tokenManager.getNextToken()) {
+      assertThat(source.substring(token.startOffset, token.endOffset), is(token.image));
+    }
+    Token eof = tokenManager.getNextToken();
+    assertThat(eof.startOffset, is(chars.length));
+    assertThat(eof.endOffset, is(chars.length));
+  }
+
+  @Test(dataProvider = "golo-files")
+  public void same_tokens_as_java_char_stream(File goloFile) throws Throwable {
+    String source = new String(Files.readAllBytes(goloFile.toPath()), StandardCharsets.UTF_8);
+    assertSameTokens(source);
+    assertSameTokens(source.replace("\n", "\r\n"));
+    assertSameTokens(source.replace("\n", "\r"));
+  }
+
+  @Test
+  public void edge_cases() {
+    assertSameTokens("");
+    assertSameTokens("\n");
+    assertSameTokens("module Foo");
+    assertSameTokens("module Foo\n\n# comment");
+    assertSameTokens("module Foo\r\nfunction f = -> \"a\\b\"\r");
+  }
+
+  @Test
+  public void unicode_escapes() {
+    char[] escaped = "let s = \"\\u0041\"".toCharArray();
+    assertThat(CharArrayCharStream.hasUnicodeEscape(escaped, escaped.length), is(true));
+    char[] plain = "let s = \"\\\\u0041\"".toCharArray();
+    assertThat(CharArrayCharStream.hasUnicodeEscape(plain, plain.length), is(false));
+  }
+
+  @Test
+  public void reused_parser_tracks_offsets() throws Throwable {
+    GoloOffsetParser parser = new GoloOffsetParser(new StringReader("module Foo\n"));
+    parser.CompilationUnit();
+    parser.ReInit(new StringReader("module Bar\n"));
+    ASTCompilationUnit unit = parser.CompilationUnit();
+    Token first = unit.jjtGetFirstToken();
+    assertThat(first.startOffset, is(0));
+    assertThat(first.endOffset, is(6));
+  }
+
+  @Test
+  public void reinit_with_start_position() throws Throwable {
+    String source = "module Foo\n\tfunction f = -> 1\n";
+    JavaCharStream expected = new JavaCharStream(new StringReader("module Bar"));
+    expected.ReInit(new StringReader(source), 3, 5);
+    CharArrayCharStream stream = new CharArrayCharStream("module Bar".toCharArray(), 10);
+    stream.ReInit(new StringReader(source), 3, 5);
+    for (int i = 0; i < source.length(); i++) {
+      assertThat(stream.BeginToken(), is(expected.BeginToken()));
+      assertThat(position(stream), is(position(expected)));
+    }
+  }
+
+  @Test
+  public void adjusted_begin_line_column() throws Throwable {
+    String source = "abc def\nghi";
+    JavaCharStream expected = new JavaCharStream(new StringReader(source));
+    CharArrayCharStream stream = new CharArrayCharStream(source.toCharArray(), source.length());
+    for (JavaCharStream s : new JavaCharStream[]{expected, stream}) {
+      s.BeginToken();
+      s.readChar();
+      s.readChar();
+      s.adjustBeginLineColumn(10, 20);
+    }
+    assertThat(position(stream), is(position(expected)));
+    assertThat(position(stream), is("10:20-10:22"));
+    stream.BeginToken();
+    assertThat(position(stream), is("10:23-10:23"));
+    for (int i = 4; i < source.length(); i++) {
+      stream.BeginToken();
+    }
+    assertThat(position(stream), is("11:3-11:3"));
+  }
+
+  private static String position(JavaCharStream stream) {
+    return String.format("%d:%d-%d:%d",
+        stream.getBeginLine(), stream.getBeginColumn(), stream.getEndLine(), stream.getEndColumn());
+  }
+}
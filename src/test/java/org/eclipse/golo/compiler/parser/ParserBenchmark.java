@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.compiler.parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tokenizes and parses a set of Golo files repeatedly, comparing the generated {@link JavaCharStream} with
+ * {@link CharArrayCharStream}.
+ * <p>
+ * This is not run as part of the tests. Run it from the test classpath with the folders to scan as arguments
+ * (defaults to {@code src/test/resources} and {@code samples}), and optionally {@code -Dbench.iterations=N}.
+ */
+public final class ParserBenchmark {
+
+  private ParserBenchmark() {
+    // utility class
+  }
+
+  private interface ParserFactory {
+    GoloParser create(String source);
+  }
+
+  private interface TokenManagerFactory {
+    GoloParserTokenManager create(String source);
+  }
+
+  public static void main(String[] args) throws Throwable {
+    String[] folders = args.length > 0 ? args : new String[]{"src/test/resources", "samples"};
+    int iterations = Integer.getInteger("bench.iterations", 20);
+    List<String> sources = load(folders);
+    long size = sources.stream().mapToLong(String::length).sum();
+    System.out.printf("%d files, %d chars, %d iterations%n", sources.size(), size, iterations);
+
+    ParserFactory legacy = source -> new GoloParser(
+        new GoloOffsetParserTokenManager(new JavaCharStream(new StringReader(source))));
+    ParserFactory array = source -> new GoloOffsetParser(new StringReader(source));
+    TokenManagerFactory legacyLexer = source -> new GoloOffsetParserTokenManager(
+        new JavaCharStream(new StringReader(source)));
+    TokenManagerFactory arrayLexer = source -> new GoloOffsetParserTokenManager(
+        new CharArrayCharStream(source.toCharArray(), source.length()));
+    for (int round = 0; round < 3; round++) {
+      report("tokens/JavaCharStream", tokenize(sources, legacyLexer, iterations), size, iterations);
+      report("tokens/CharArrayCharStream", tokenize(sources, arrayLexer, iterations), size, iterations);
+    }
+    for (int round = 0; round < 3; round++) {
+      report("parse/JavaCharStream", run(sources, legacy, iterations), size, iterations);
+      report("parse/CharArrayCharStream", run(sources, array, iterations), size, iterations);
+    }
+  }
+
+  private static List<String> load(String[] folders) throws IOException {
+    try (Stream<Path> paths = Stream.of(folders).map(Paths::get).filter(Files::isDirectory).flatMap(ParserBenchmark::walk)) {
+      return paths
+          .filter(path -> path.toString().endsWith(".golo"))
+          .map(ParserBenchmark::read)
+          .filter(source -> source != null)
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static Stream<Path> walk(Path folder) {
+    try {
+      return Files.walk(folder);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static String read(Path path) {
+    try {
+      String source = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+      new GoloParser(new StringReader(source)).CompilationUnit();
+      return source;
+    } catch (IOException | ParseException | TokenMgrError e) {
+      return null;
+    }
+  }
+
+  private static long run(List<String> sources, ParserFactory factory, int iterations) throws ParseException {
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      for (String source : sources) {
+        factory.create(source).CompilationUnit();
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static long tokenize(List<String> sources, TokenManagerFactory factory, int iterations) {
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      for (String source : sources) {
+        GoloParserTokenManager tokenManager = factory.create(source);
+        while (tokenManager.getNextToken().kind != GoloParserConstants.EOF) {
+          // only tokenizing
+        }
+      }
+    }
+    return System.nanoTime() - start;
+  }
+
+  private static void report(String name, long nanos, long size, int iterations) {
+    double millis = nanos / 1e6;
+    System.out.printf("%-27s %8.1f ms  %6.1f MB/s%n", name, millis, (size * iterations / 1e6) / (millis / 1e3));
+  }
+}
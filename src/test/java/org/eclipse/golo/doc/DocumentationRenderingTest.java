@@ -157,6 +157,29 @@ public class DocumentationRenderingTest {
     check_html_index(tempDir.resolve("index-all.html"));
   }
 
+  @Test
+  public void incremental_html_processor() throws Throwable {
+    Path tempDir = Files.createTempDirectory("foo");
+    HashMap<String, ASTCompilationUnit> units = new HashMap<>();
+    units.put(SRC + "doc.golo", new GoloOffsetParser(new FileInputStream(SRC + "doc.golo")).CompilationUnit());
+    new HtmlProcessor().process(units, tempDir);
+
+    Path moduleFile = tempDir.resolve("my/package/Documented.html");
+    Predefined.textToFile("unchanged", moduleFile);
+    Files.delete(tempDir.resolve("index-all.html"));
+
+    HtmlProcessor processor = new HtmlProcessor();
+    processor.setIncremental(true);
+    processor.process(units, tempDir);
+    assertThat(Predefined.fileToText(moduleFile, "UTF-8"), is((Object) "unchanged"));
+    check_html_home(tempDir.resolve("index.html"));
+    check_html_index(tempDir.resolve("index-all.html"));
+
+    processor = new HtmlProcessor();
+    processor.process(units, tempDir);
+    check_html_module(moduleFile);
+  }
+
   @Test
   public void ctags_processor() throws Throwable {
     GoloParser parser = new GoloOffsetParser(new FileInputStream(SRC + "doc.golo"));
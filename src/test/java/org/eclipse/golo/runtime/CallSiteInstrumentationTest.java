@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import javax.management.ObjectName;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Test(singleThreaded = true)
+public class CallSiteInstrumentationTest {
+
+  private static final MethodType BINOP_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+  private static final MethodType UNARY_METHOD_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  @BeforeMethod
+  public void enable() {
+    CallSiteInstrumentation.setEnabled(true);
+    CallSiteInstrumentation.instance().clear();
+  }
+
+  @AfterMethod
+  public void disable() {
+    CallSiteInstrumentation.setEnabled(false);
+    CallSiteInstrumentation.instance().clear();
+  }
+
+  private static CallSiteStatistics lastSite() {
+    CallSiteInstrumentation instrumentation = CallSiteInstrumentation.instance();
+    assertThat(instrumentation.getCallSiteCount(), is(1));
+    return instrumentation.callSites().get(0);
+  }
+
+  @Test
+  public void operator_relinks() throws Throwable {
+    MethodHandle handle = OperatorSupport.bootstrap(lookup(), "plus", BINOP_TYPE, 2).dynamicInvoker();
+    assertThat(handle.invokeWithArguments(1, 2), is((Object) 3));
+    assertThat(handle.invokeWithArguments(1, 2), is((Object) 3));
+    assertThat(handle.invokeWithArguments(1L, 2L), is((Object) 3L));
+
+    CallSiteStatistics site = lastSite();
+    assertThat(site.getKind(), is("operator"));
+    assertThat(site.getName(), is("plus"));
+    assertThat(site.getModule(), is(CallSiteInstrumentationTest.class.getName()));
+    assertThat(site.getLine(), greaterThan(0));
+    assertThat(site.getLinks(), is(2L));
+    assertThat(site.getRelinks(), is(1L));
+    assertThat(site.getClassCastExceptions(), is(1L));
+    assertThat(site.getResolutionTime(), greaterThan(0L));
+  }
+
+  @Test
+  public void megamorphic_method_invocation() throws Throwable {
+    MethodHandle handle = MethodInvocationSupport.bootstrap(lookup(), "toString", UNARY_METHOD_TYPE, 0).dynamicInvoker();
+    Object[] receivers = {1, 2L, "3", 4.0, 5.0f, '6', (byte) 7, (short) 8};
+    for (Object receiver : receivers) {
+      handle.invokeWithArguments(receiver);
+    }
+
+    CallSiteStatistics site = lastSite();
+    assertThat(site.getKind(), is("method"));
+    assertThat(site.isMegamorphic(), is(true));
+    assertThat(site.getLinks(), greaterThan(5L));
+    assertThat(CallSiteInstrumentation.instance().getMegamorphicCallSites().length, is(1));
+    assertThat(CallSiteInstrumentation.instance().getReport(), containsString("toString"));
+  }
+
+  @Test
+  public void function_call() throws Throwable {
+    MethodHandle handle = FunctionCallSupport.bootstrap(lookup(), "java.lang.String.valueOf", UNARY_METHOD_TYPE, 0).dynamicInvoker();
+    assertThat(handle.invokeWithArguments(42), is((Object) "42"));
+    assertThat(handle.invokeWithArguments(42), is((Object) "42"));
+
+    CallSiteStatistics site = lastSite();
+    assertThat(site.getKind(), is("function"));
+    assertThat(site.getLinks(), is(1L));
+    assertThat(site.getRelinks(), is(0L));
+  }
+
+  @Test
+  public void reset_keeps_call_sites() throws Throwable {
+    MethodHandle handle = OperatorSupport.bootstrap(lookup(), "plus", BINOP_TYPE, 2).dynamicInvoker();
+    handle.invokeWithArguments(1, 2);
+    CallSiteInstrumentation.instance().reset();
+
+    CallSiteStatistics site = lastSite();
+    assertThat(site.getLinks(), is(0L));
+    assertThat(site.getResolutionTime(), is(0L));
+
+    handle.invokeWithArguments(1L, 2L);
+    assertThat(lastSite().getLinks(), is(1L));
+    assertThat(lastSite().getRelinks(), is(1L));
+    assertThat(lastSite().getClassCastExceptions(), is(1L));
+  }
+
+  @Test
+  public void mbean_is_registered() throws Throwable {
+    OperatorSupport.bootstrap(lookup(), "minus", BINOP_TYPE, 2);
+    assertThat(ManagementFactory.getPlatformMBeanServer().isRegistered(
+          new ObjectName(CallSiteInstrumentation.OBJECT_NAME)), is(true));
+  }
+
+  @Test
+  public void nothing_recorded_when_disabled() throws Throwable {
+    CallSiteInstrumentation.setEnabled(false);
+    MethodHandle handle = OperatorSupport.bootstrap(lookup(), "plus", BINOP_TYPE, 2).dynamicInvoker();
+    handle.invokeWithArguments(1, 2);
+    assertThat(CallSiteInstrumentation.instance().getCallSiteCount(), is(0));
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@Test(singleThreaded = true)
+public class CallSiteProfileTest {
+
+  private static final MethodType BINOP_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+  private static final MethodType UNARY_METHOD_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private Path profile;
+
+  @BeforeMethod
+  public void enable() throws Exception {
+    profile = Files.createTempFile("golo-profile", ".txt");
+    CallSiteProfile.setEnabled(true);
+    CallSiteProfile.reset();
+    CallSiteInstrumentation.setEnabled(true);
+    CallSiteInstrumentation.instance().clear();
+  }
+
+  @AfterMethod
+  public void disable() throws Exception {
+    CallSiteProfile.setEnabled(false);
+    CallSiteProfile.reset();
+    CallSiteInstrumentation.setEnabled(false);
+    CallSiteInstrumentation.instance().clear();
+    Files.deleteIfExists(profile);
+  }
+
+  private void nextRun() {
+    CallSiteProfile.save(profile);
+    CallSiteProfile.reset();
+    CallSiteProfile.load(profile);
+    CallSiteInstrumentation.instance().clear();
+  }
+
+  private static CallSiteStatistics lastSite() {
+    List<CallSiteStatistics> sites = CallSiteInstrumentation.instance().callSites();
+    return sites.get(sites.size() - 1);
+  }
+
+  @Test
+  public void operator_is_prelinked() throws Throwable {
+    MethodHandle handle = OperatorSupport.bootstrap(lookup(), "plus", BINOP_TYPE, 2).dynamicInvoker();
+    assertThat(handle.invokeWithArguments(1, 2), is((Object) 3));
+    assertThat(lastSite().getLinks(), is(1L));
+
+    nextRun();
+    handle = OperatorSupport.bootstrap(lookup(), "plus", BINOP_TYPE, 2).dynamicInvoker();
+    assertThat(handle.invokeWithArguments(1, 2), is((Object) 3));
+    assertThat(lastSite().getLinks(), is(0L));
+    assertThat(handle.invokeWithArguments("a", "b"), is((Object) "ab"));
+    assertThat(lastSite().getLinks(), is(1L));
+  }
+
+  @Test
+  public void polymorphic_method_is_prelinked() throws Throwable {
+    MethodHandle handle = MethodInvocationSupport.bootstrap(lookup(), "toString", UNARY_METHOD_TYPE, 0).dynamicInvoker();
+    handle.invokeWithArguments(1);
+    handle.invokeWithArguments("2");
+    assertThat(lastSite().getLinks(), is(2L));
+
+    nextRun();
+    handle = MethodInvocationSupport.bootstrap(lookup(), "toString", UNARY_METHOD_TYPE, 0).dynamicInvoker();
+    assertThat(handle.invokeWithArguments(1), is((Object) "1"));
+    assertThat(handle.invokeWithArguments("2"), is((Object) "2"));
+    assertThat(lastSite().getLinks(), is(0L));
+    assertThat(handle.invokeWithArguments(3L), is((Object) "3"));
+    assertThat(lastSite().getLinks(), is(1L));
+  }
+
+  @Test
+  public void stale_entries_are_dropped() throws Throwable {
+    String key = CallSiteProfile.key("method", CallSiteProfileTest.class, "toString", UNARY_METHOD_TYPE, new String[0]);
+    Files.write(profile, Arrays.asList(
+        key + "\tregular\tcom.example.Missing\tcom.example.Missing\t",
+        key + "\tregular\tjava.lang.Integer\tjava.lang.Integer\tint",
+        key + "\tregular\tjava.lang.Integer\tjava.lang.Integer\t"), StandardCharsets.UTF_8);
+    CallSiteProfile.load(profile);
+
+    MethodHandle handle = MethodInvocationSupport.bootstrap(lookup(), "toString", UNARY_METHOD_TYPE, 0).dynamicInvoker();
+    assertThat(handle.invokeWithArguments(42), is((Object) "42"));
+    assertThat(lastSite().getLinks(), is(0L));
+
+    CallSiteProfile.save(profile);
+    List<String> lines = Files.readAllLines(profile, StandardCharsets.UTF_8);
+    assertThat(lines, hasItem(key + "\tregular\tjava.lang.Integer\tjava.lang.Integer\t"));
+    assertThat(lines, not(hasItem(containsString("com.example.Missing"))));
+    assertThat(lines, not(hasItem(endsWith("\tint"))));
+  }
+
+  @Test
+  public void entries_resolved_to_another_method_are_dropped() throws Throwable {
+    String key = CallSiteProfile.key("method", CallSiteProfileTest.class, "toString", UNARY_METHOD_TYPE, new String[0]);
+    Files.write(profile, Arrays.asList(
+        key + "\tregular\tjava.lang.Integer\tjava.lang.Object\t",
+        key + "\taugmentation\tjava.lang.Integer\tjava.util.Objects\tjava.lang.Object"), StandardCharsets.UTF_8);
+    CallSiteProfile.load(profile);
+
+    MethodHandle handle = MethodInvocationSupport.bootstrap(lookup(), "toString", UNARY_METHOD_TYPE, 0).dynamicInvoker();
+    assertThat(handle.invokeWithArguments(42), is((Object) "42"));
+    assertThat(lastSite().getLinks(), is(1L));
+
+    CallSiteProfile.save(profile);
+    List<String> lines = Files.readAllLines(profile, StandardCharsets.UTF_8);
+    assertThat(lines, hasItem(key + "\tregular\tjava.lang.Integer\tjava.lang.Integer\t"));
+    assertThat(lines, not(hasItem(containsString("java.lang.Object"))));
+  }
+}
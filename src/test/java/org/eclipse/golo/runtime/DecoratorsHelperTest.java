@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.annotations.DecoratedBy;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class DecoratorsHelperTest {
+
+  static int decorations = 0;
+
+  static Object decorator(Object function) {
+    decorations++;
+    return function;
+  }
+
+  @DecoratedBy("decorator")
+  static Object plain(Object value) {
+    return value + "!";
+  }
+
+  @DecoratedBy(value = "decorator", constant = true)
+  static Object constant(Object value) {
+    return value + "!";
+  }
+
+  @DecoratedBy(value = "decorator", constant = true)
+  static Object constantVarargs(Object... values) {
+    return values.length;
+  }
+
+  @BeforeMethod
+  public void reset() {
+    decorations = 0;
+  }
+
+  private static Method method(String name, Class<?>... types) throws NoSuchMethodException {
+    return DecoratorsHelperTest.class.getDeclaredMethod(name, types);
+  }
+
+  @Test
+  public void decorator_applied_on_each_call() throws Throwable {
+    MethodHandle handle = DecoratorsHelper.getDecoratedMethodHandle(lookup(), method("plain", Object.class), 1);
+    assertThat(decorations, is(0));
+    assertThat(handle.invoke((Object) "a"), is((Object) "a!"));
+    assertThat(handle.invoke((Object) "b"), is((Object) "b!"));
+    assertThat(decorations, is(2));
+  }
+
+  @Test
+  public void constant_decorator_applied_once() throws Throwable {
+    MethodHandle handle = DecoratorsHelper.getDecoratedMethodHandle(lookup(), method("constant", Object.class), 1);
+    assertThat(decorations, is(1));
+    assertThat(handle.invoke((Object) "a"), is((Object) "a!"));
+    assertThat(handle.invoke((Object) "b"), is((Object) "b!"));
+    assertThat(decorations, is(1));
+  }
+
+  @Test
+  public void constant_decorator_varargs() throws Throwable {
+    Method method = method("constantVarargs", Object[].class);
+    MethodHandle handle = DecoratorsHelper.getDecoratedMethodHandle(lookup(), method, -1);
+    assertThat(handle.invoke((Object) 1, (Object) 2), is((Object) 2));
+    handle = DecoratorsHelper.getDecoratedMethodHandle(lookup(), method, 3);
+    assertThat(handle.invoke((Object) 1, (Object) 2, (Object) 3), is((Object) 3));
+    assertThat(decorations, is(2));
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import gololang.GoloStruct;
+import org.eclipse.golo.compiler.GoloCompiler;
+import org.eclipse.golo.compiler.LinkIndexBuilder;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.Properties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LinkIndexTest {
+
+  private static final String SRC = "src/test/resources/for-execution/";
+  private static final String MODULE = "golotest.execution.LinkIndex";
+
+  private static File compile() throws Throwable {
+    File folder = Files.createTempDirectory("golo-link-index").toFile();
+    GoloCompiler compiler = new GoloCompiler();
+    LinkIndexBuilder builder = new LinkIndexBuilder();
+    compiler.setLinkIndexBuilder(builder);
+    try (InputStream in = new FileInputStream(SRC + "link-index.golo")) {
+      compiler.compileTo("link-index.golo", in, folder);
+    }
+    builder.writeTo(folder, LinkIndexTest.class.getClassLoader());
+    return folder;
+  }
+
+  private static Class<?> load(File folder) throws Throwable {
+    URLClassLoader loader = new URLClassLoader(new URL[]{folder.toURI().toURL()}, LinkIndexTest.class.getClassLoader());
+    return loader.loadClass(MODULE);
+  }
+
+  private static Object call(Class<?> module, String name, Object... args) throws Throwable {
+    Class<?>[] types = new Class<?>[args.length];
+    Arrays.fill(types, Object.class);
+    return module.getMethod(name, types).invoke(null, args);
+  }
+
+  @Test
+  public void index_entries() throws Throwable {
+    Class<?> module = load(compile());
+
+    assertThat(LinkIndex.metadata(module, "imports"), is((String[]) module.getMethod("$imports").invoke(null)));
+    assertThat(LinkIndex.metadata(module, "augmentations"), is(arrayContaining("java.lang.String")));
+    assertThat(LinkIndex.augmentationApplications(module, String.class), is(arrayContaining("Doubling")));
+    assertThat(LinkIndex.augmentationApplications(module, Integer.class), is(emptyArray()));
+
+    assertThat(LinkIndex.classReference(module, "LinkedList"), is("java.util.LinkedList"));
+    assertThat(LinkIndex.functionOwner(module, "emptyList"), is("java.util.Collections"));
+    assertThat(LinkIndex.functionOwner(module, "Math.abs"), is("java.lang.Math"));
+    assertThat(LinkIndex.constructorOwner(module, "StringBuilder"), is("java.lang.StringBuilder"));
+    assertThat(LinkIndex.functionOwner(module, "Point"), nullValue());
+    assertThat(LinkIndex.constructorOwner(module, "Point"), nullValue());
+  }
+
+  @Test
+  public void linking_with_index() throws Throwable {
+    Class<?> module = load(compile());
+
+    assertThat(call(module, "list_class"), is((Object) LinkedList.class));
+    assertThat(call(module, "empty"), is((Object) Collections.emptyList()));
+    assertThat(call(module, "absolute", -2), is((Object) 2));
+    assertThat(call(module, "point"), instanceOf(GoloStruct.class));
+    assertThat(call(module, "string_builder"), instanceOf(StringBuilder.class));
+    assertThat(call(module, "twice"), is((Object) "abab"));
+  }
+
+  @Test
+  public void stale_entries_fall_back() throws Throwable {
+    File folder = compile();
+    File indexFile = new File(folder, LinkIndex.RESOURCE);
+    Properties index = new Properties();
+    try (InputStream in = new FileInputStream(indexFile)) {
+      index.load(in);
+    }
+    index.setProperty(LinkIndex.key(MODULE, LinkIndex.CLASS, "LinkedList"), "java.util.Missing");
+    index.setProperty(LinkIndex.key(MODULE, LinkIndex.FUNCTION, "emptyList"), "java.lang.Object");
+    try (OutputStream out = new FileOutputStream(indexFile)) {
+      index.store(out, null);
+    }
+    Class<?> module = load(folder);
+
+    assertThat(call(module, "list_class"), is((Object) LinkedList.class));
+    assertThat(call(module, "empty"), is((Object) Collections.emptyList()));
+  }
+
+  @Test
+  public void recompiled_classes_ignore_their_entries() throws Throwable {
+    File folder = compile();
+    new GoloCompiler().compileTo("link-index.golo", new ByteArrayInputStream((
+          "module " + MODULE + "\n"
+        + "import java.lang.reflect\n"
+        + "function list_class = -> Array.class\n").getBytes(StandardCharsets.UTF_8)), folder);
+    Class<?> module = load(folder);
+
+    assertThat(LinkIndex.metadata(module, "imports"), nullValue());
+    assertThat(LinkIndex.metadata(module, "augmentations"), nullValue());
+    assertThat(LinkIndex.augmentationApplications(module, String.class), nullValue());
+    assertThat(LinkIndex.classReference(module, "LinkedList"), nullValue());
+    assertThat(Module.imports(module), hasItemInArray("java.lang.reflect"));
+    assertThat(call(module, "list_class"), is((Object) java.lang.reflect.Array.class));
+  }
+
+  @Test
+  public void classes_missing_at_compilation_time_are_not_indexed() throws Throwable {
+    File folder = Files.createTempDirectory("golo-link-index").toFile();
+    GoloCompiler compiler = new GoloCompiler();
+    LinkIndexBuilder builder = new LinkIndexBuilder();
+    compiler.setLinkIndexBuilder(builder);
+    compiler.compileTo("shadowed.golo", new ByteArrayInputStream((
+          "module golotest.execution.Shadowed\n"
+        + "import golotest.shadowing\n"
+        + "import java.util\n"
+        + "function list_class = -> LinkedList.class\n"
+        + "function set_class = -> HashSet.class\n").getBytes(StandardCharsets.UTF_8)), folder);
+    builder.writeTo(folder, LinkIndexTest.class.getClassLoader());
+
+    File dependency = Files.createTempDirectory("golo-link-index").toFile();
+    new GoloCompiler().compileTo("shadowing.golo", new ByteArrayInputStream(
+          "module golotest.shadowing.LinkedList\n".getBytes(StandardCharsets.UTF_8)), dependency);
+
+    URLClassLoader loader = new URLClassLoader(new URL[]{folder.toURI().toURL(), dependency.toURI().toURL()},
+        LinkIndexTest.class.getClassLoader());
+    Class<?> module = loader.loadClass("golotest.execution.Shadowed");
+    assertThat(LinkIndex.metadata(module, "imports"), is(notNullValue()));
+    assertThat(LinkIndex.classReference(module, "LinkedList"), nullValue());
+    assertThat(LinkIndex.classReference(module, "HashSet"), nullValue());
+    assertThat(((Class<?>) call(module, "list_class")).getName(), is("golotest.shadowing.LinkedList"));
+    assertThat(call(module, "set_class"), is((Object) java.util.HashSet.class));
+  }
+
+  @Test
+  public void not_applied_to_other_locations() throws Throwable {
+    assertThat(LinkIndex.functionOwner(LinkIndexTest.class, "emptyList"), nullValue());
+    assertThat(LinkIndex.metadata(LinkIndexTest.class, "imports"), nullValue());
+  }
+}
@@ -111,6 +111,17 @@ public class MethodInvocationSupportTest {
     }
   }
 
+  public static class Overloaded {
+
+    public String pick(String obj) {
+      return "string";
+    }
+
+    public String pick(Integer obj) {
+      return "integer";
+    }
+  }
+
   public Person julien() {
     return new Person("Julien", "julien.ponge@insa-lyon.fr", true);
   }
@@ -166,6 +177,14 @@ public class MethodInvocationSupportTest {
     assertThat(rockstar, is(true));
   }
 
+  @Test
+  public void check_method_takes_precedence_over_property_getter() throws Throwable {
+    CallSite parallel = MethodInvocationSupport.bootstrap(lookup(), "parallel", methodType(Object.class, Object.class), 0);
+    Object stream = parallel.dynamicInvoker().invokeWithArguments(java.util.Arrays.asList(1, 2).stream());
+    assertThat(stream, instanceOf(java.util.stream.Stream.class));
+    assertThat(((java.util.stream.Stream<?>) stream).isParallel(), is(true));
+  }
+
   @Test
   public void check_property_style_setter() throws Throwable {
     CallSite setName = MethodInvocationSupport.bootstrap(lookup(), "name", methodType(Object.class, Object.class, Object.class), 0);
@@ -373,6 +392,21 @@ public class MethodInvocationSupportTest {
     assertThat(invoker.invoke(null), nullValue());
   }
 
+  @Test
+  public void overloaded_guard_miss_keeps_megamorphic_vtable() throws Throwable {
+    CallSite pick = MethodInvocationSupport.bootstrap(lookup(), "pick", methodType(Object.class, Object.class, Object.class), 0);
+    MethodInvocationSupport.InlineCache pic = (MethodInvocationSupport.InlineCache) pick;
+    pic.depth = MethodInvocationSupport.InlineCache.MEGAMORPHIC_THRESHOLD + 10;
+
+    MethodHandle invoker = pick.dynamicInvoker();
+    Overloaded overloaded = new Overloaded();
+    assertThat((String) invoker.invoke(overloaded, "a"), is("string"));
+    Object vtable = pic.vtable;
+    assertThat(vtable, notNullValue());
+    assertThat((String) invoker.invoke(overloaded, 1), is("integer"));
+    assertThat(pic.vtable, sameInstance(vtable));
+  }
+
   @Test
   public void dynamic_object_smoke_tests() throws Throwable {
     DynamicObject a = new DynamicObject();
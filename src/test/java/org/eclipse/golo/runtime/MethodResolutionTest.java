@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2012-2016 Institut National des Sciences Appliquées de Lyon (INSA-Lyon)
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.eclipse.golo.runtime;
+
+import org.testng.annotations.Test;
+
+import java.lang.invoke.MethodHandles.Lookup;
+
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodType.genericMethodType;
+import static org.eclipse.golo.internal.testing.TestUtils.compileAndLoadGoloModule;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MethodResolutionTest {
+
+  public static class Sample {
+    public String label = "field";
+
+    public String getName() {
+      return "property";
+    }
+
+    public boolean isParallel() {
+      return false;
+    }
+
+    public String parallel() {
+      return "method";
+    }
+
+    public String parallel(Integer level) {
+      return "method " + level;
+    }
+
+    public String parallel(String level) {
+      return "method " + level;
+    }
+  }
+
+  private static MethodResolution resolve(Lookup lookup, String name, Object... args) {
+    return MethodResolution.resolve(new MethodInvocation(name, genericMethodType(args.length), args, new String[0]), lookup);
+  }
+
+  private static Object invoke(MethodResolution resolution, Object... args) throws Throwable {
+    return resolution.target().invokeWithArguments(args);
+  }
+
+  @Test
+  public void method_takes_precedence_over_property() throws Throwable {
+    Sample sample = new Sample();
+    MethodResolution resolution = resolve(lookup(), "parallel", sample);
+    assertThat(resolution.kind(), is(MethodResolution.Kind.REGULAR));
+    assertThat(resolution.method(), is(Sample.class.getMethod("parallel")));
+    assertThat(resolution.isOverloaded(), is(false));
+    assertThat(invoke(resolution, sample), is((Object) "method"));
+  }
+
+  @Test
+  public void property_without_method() throws Throwable {
+    Sample sample = new Sample();
+    MethodResolution resolution = resolve(lookup(), "name", sample);
+    assertThat(resolution.kind(), is(MethodResolution.Kind.PROPERTY));
+    assertThat(resolution.method(), is(nullValue()));
+    assertThat(invoke(resolution, sample), is((Object) "property"));
+  }
+
+  @Test
+  public void field_without_method_nor_property() throws Throwable {
+    Sample sample = new Sample();
+    MethodResolution resolution = resolve(lookup(), "label", sample);
+    assertThat(resolution.kind(), is(MethodResolution.Kind.REGULAR));
+    assertThat(resolution.method(), is(nullValue()));
+    assertThat(invoke(resolution, sample), is((Object) "field"));
+  }
+
+  @Test
+  public void overloaded_method() throws Throwable {
+    Sample sample = new Sample();
+    MethodResolution resolution = resolve(lookup(), "parallel", sample, 2);
+    assertThat(resolution.kind(), is(MethodResolution.Kind.REGULAR));
+    assertThat(resolution.isOverloaded(), is(true));
+    assertThat(invoke(resolution, sample, 2), is((Object) "method 2"));
+  }
+
+  @Test
+  public void unresolved() throws Throwable {
+    MethodResolution resolution = resolve(lookup(), "missing", new Sample());
+    assertThat(resolution.kind(), is(MethodResolution.Kind.NONE));
+    assertThat(resolution.target(), is(nullValue()));
+    assertThat(resolution.method(), is(nullValue()));
+  }
+
+  @Test
+  public void augmentations_come_last() throws Throwable {
+    Lookup module = lookup().in(compileAndLoadGoloModule("src/test/resources/for-test/", "method-resolution.golo"));
+
+    MethodResolution resolution = resolve(module, "length", "abc");
+    assertThat(resolution.kind(), is(MethodResolution.Kind.REGULAR));
+    assertThat(invoke(resolution, "abc"), is((Object) 3));
+
+    resolution = resolve(module, "empty", "abc");
+    assertThat(resolution.kind(), is(MethodResolution.Kind.PROPERTY));
+    assertThat(invoke(resolution, "abc"), is((Object) false));
+
+    resolution = resolve(module, "shout", "abc");
+    assertThat(resolution.kind(), is(MethodResolution.Kind.AUGMENTATION));
+    assertThat(resolution.method().getName(), is("shout"));
+    assertThat(invoke(resolution, "abc"), is((Object) "ABC!"));
+  }
+}